@@ -95,6 +95,21 @@ public final class EventSubscriptionRequest<E extends EventMessage>
         return self();
     }
 
+    /**
+     * Makes the subscription start with the stored events, which happened after
+     * the passed event.
+     *
+     * <p>A client reconnecting to the server passes the last event it received, so that
+     * the events posted while it was offline are delivered before the new ones.
+     *
+     * @see TopicBuilder#replayAfter(Event)
+     */
+    @CanIgnoreReturnValue
+    public EventSubscriptionRequest<E> replayAfter(Event lastSeen) {
+        builder().replayAfter(lastSeen);
+        return self();
+    }
+
     @Override
     EventConsumers.Builder<E> consumers() {
         return consumers;
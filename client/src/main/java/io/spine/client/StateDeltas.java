@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.client;
+
+import com.google.protobuf.Message;
+import com.google.protobuf.util.FieldMaskUtil;
+import io.spine.annotation.Internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.protobuf.AnyPacker.pack;
+import static io.spine.protobuf.AnyPacker.unpack;
+
+/**
+ * Utilities for working with the {@link StateDelta}s of entity states.
+ */
+@Internal
+public final class StateDeltas {
+
+    /** Prevents instantiation of this utility class. */
+    private StateDeltas() {
+    }
+
+    /**
+     * Applies the delta to the passed state.
+     *
+     * <p>The fields under the changed paths are replaced with the values from the partial
+     * state of the delta. If a field is not set in the partial state, it is cleared.
+     *
+     * @param state
+     *         the previous state of the entity
+     * @param delta
+     *         the changes of the state
+     * @param <S>
+     *         the type of the state
+     * @return the new state of the entity
+     * @throws IllegalArgumentException
+     *         if the delta describes a state of another type
+     */
+    @SuppressWarnings("unchecked") // Ensured by the type check.
+    public static <S extends Message> S apply(S state, StateDelta delta) {
+        checkNotNull(state);
+        checkNotNull(delta);
+        var partial = unpack(delta.getPartialState());
+        checkSameType(state, partial);
+        var builder = state.toBuilder();
+        FieldMaskUtil.merge(delta.getChanged(), partial, builder, replacingOptions());
+        return (S) builder.build();
+    }
+
+    /**
+     * Combines two consecutive deltas of the same entity into one.
+     *
+     * <p>Applying the result is equivalent to applying the {@code earlier} delta and then
+     * the {@code later} one.
+     */
+    public static StateDelta merge(StateDelta earlier, StateDelta later) {
+        checkNotNull(earlier);
+        checkNotNull(later);
+        var earlierState = unpack(earlier.getPartialState());
+        var laterState = unpack(later.getPartialState());
+        checkSameType(earlierState, laterState);
+        var builder = earlierState.toBuilder();
+        FieldMaskUtil.merge(later.getChanged(), laterState, builder, replacingOptions());
+        var changed = FieldMaskUtil.union(earlier.getChanged(), later.getChanged());
+        return StateDelta.newBuilder()
+                .setChanged(changed)
+                .setPartialState(pack(builder.buildPartial()))
+                .build();
+    }
+
+    private static void checkSameType(Message expected, Message actual) {
+        checkArgument(expected.getDescriptorForType()
+                              .equals(actual.getDescriptorForType()),
+                      "The delta of `%s` cannot be applied to `%s`.",
+                      actual.getDescriptorForType().getFullName(),
+                      expected.getDescriptorForType().getFullName());
+    }
+
+    private static FieldMaskUtil.MergeOptions replacingOptions() {
+        var options = new FieldMaskUtil.MergeOptions();
+        options.setReplaceMessageFields(true);
+        options.setReplaceRepeatedFields(true);
+        options.setReplacePrimitiveFields(true);
+        return options;
+    }
+}
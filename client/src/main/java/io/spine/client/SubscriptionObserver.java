@@ -26,8 +26,13 @@
 
 package io.spine.client;
 
+import com.google.protobuf.Any;
 import com.google.protobuf.Message;
 import io.grpc.stub.StreamObserver;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
 
 import static io.spine.protobuf.AnyPacker.unpack;
 import static io.spine.util.Exceptions.unsupported;
@@ -41,6 +46,9 @@ import static io.spine.util.Exceptions.unsupported;
  * <p>The {@linkplain SubscriptionUpdate#getEntityUpdates() messages} are unpacked
  * and sent to the delegate observer one by one.
  *
+ * <p>If the subscription receives the deltas of the entity states, the observer keeps
+ * the latest state of each entity and sends the state with the delta applied.
+ *
  * @param <M>
  *         the type of the delegate observer messages, which could be unpacked entity state
  *         or {@code Event}
@@ -50,8 +58,28 @@ final class SubscriptionObserver<M extends Message>
 
     private final StreamObserver<M> delegate;
 
+    /**
+     * The latest states of the entities by their packed IDs, or {@code null} if
+     * the subscription does not receive deltas.
+     */
+    private final @Nullable Map<Any, M> states;
+
     SubscriptionObserver(StreamObserver<M> targetObserver) {
+        this(targetObserver, false);
+    }
+
+    /**
+     * Creates a new observer.
+     *
+     * @param targetObserver
+     *         the observer of the unpacked messages
+     * @param deltas
+     *         whether the subscription receives the {@linkplain StateDelta deltas} of
+     *         the entity states, which should be applied to the previously received states
+     */
+    SubscriptionObserver(StreamObserver<M> targetObserver, boolean deltas) {
         this.delegate = targetObserver;
+        this.states = deltas ? new HashMap<>() : null;
     }
 
     @SuppressWarnings("unchecked") // Logically correct.
@@ -62,11 +90,7 @@ final class SubscriptionObserver<M extends Message>
             case ENTITY_UPDATES:
                 value.getEntityUpdates()
                      .getUpdateList()
-                     .stream()
-                     .filter(u -> u.getKindCase() == EntityStateUpdate.KindCase.STATE)
-                     .map(EntityStateUpdate::getState)
-                     .map(any -> (M) unpack(any))
-                     .forEach(delegate::onNext);
+                     .forEach(this::onEntityUpdate);
                 break;
             case EVENT_UPDATES:
                 value.getEventUpdates()
@@ -81,6 +105,40 @@ final class SubscriptionObserver<M extends Message>
         }
     }
 
+    @SuppressWarnings("unchecked") // Logically correct.
+    private void onEntityUpdate(EntityStateUpdate update) {
+        switch (update.getKindCase()) {
+            case STATE:
+                var state = (M) unpack(update.getState());
+                if (states != null) {
+                    states.put(update.getId(), state);
+                }
+                delegate.onNext(state);
+                break;
+            case DELTA:
+                if (states == null) {
+                    return;
+                }
+                var previous = states.get(update.getId());
+                if (previous == null) {
+                    // The state is unknown. Wait for the next full state of the entity.
+                    return;
+                }
+                var updated = StateDeltas.apply(previous, update.getDelta());
+                states.put(update.getId(), updated);
+                delegate.onNext(updated);
+                break;
+            case NO_LONGER_MATCHING:
+                if (states != null) {
+                    states.remove(update.getId());
+                }
+                break;
+            case KIND_NOT_SET:
+            default:
+                break;
+        }
+    }
+
     @Override
     public void onError(Throwable t) {
         delegate.onError(t);
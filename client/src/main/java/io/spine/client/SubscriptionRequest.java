@@ -69,6 +69,20 @@ public final class SubscriptionRequest<S extends EntityState<?>>
         return self();
     }
 
+    /**
+     * Makes the subscription receive only the changed fields of the entity states.
+     *
+     * <p>The consumers still receive the complete states. The client keeps the latest
+     * state of each entity and applies the received changes to it.
+     *
+     * @see TopicBuilder#withDeltas()
+     */
+    @CanIgnoreReturnValue
+    public SubscriptionRequest<S> withDeltas() {
+        builder().withDeltas();
+        return self();
+    }
+
     @Override
     StateConsumers.Builder<S> consumers() {
         return consumers;
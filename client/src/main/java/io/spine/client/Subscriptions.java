@@ -146,7 +146,8 @@ public final class Subscriptions implements Logging {
      */
     <M extends Message> Subscription subscribeTo(Topic topic, StreamObserver<M> observer) {
         var subscription = blockingServiceStub.subscribe(topic);
-        service.activate(subscription, new SubscriptionObserver<>(observer));
+        var updateObserver = new SubscriptionObserver<>(observer, topic.getDeltaUpdates());
+        service.activate(subscription, updateObserver);
         add(subscription);
         return subscription;
     }
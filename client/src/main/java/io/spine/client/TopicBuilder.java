@@ -26,8 +26,15 @@
 
 package io.spine.client;
 
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.protobuf.Duration;
 import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Durations;
+import io.spine.core.Event;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -57,12 +64,119 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public final class TopicBuilder extends TargetBuilder<Topic, TopicBuilder> {
 
     private final TopicFactory topicFactory;
+    private @Nullable Duration coalescingWindow;
+    private int fullStateInterval = -1;
+    private @Nullable EventPosition replayFrom;
 
     TopicBuilder(Class<? extends Message> targetType, TopicFactory topicFactory) {
         super(targetType);
         this.topicFactory = checkNotNull(topicFactory);
     }
 
+    /**
+     * Makes the subscription coalesce the entity state updates within the given time window.
+     *
+     * <p>During the window, only the latest state of each entity is kept. When the window
+     * closes, the accumulated states are delivered in a single update. Suits the clients,
+     * which need only the latest state of frequently updated entities.
+     *
+     * <p>Has no effect on the subscriptions to events.
+     *
+     * @param window
+     *         the positive duration of the window
+     * @return self for method chaining
+     */
+    @CanIgnoreReturnValue
+    public TopicBuilder coalesceWithin(java.time.Duration window) {
+        checkNotNull(window);
+        checkArgument(!window.isNegative() && !window.isZero(),
+                      "The coalescing window must be positive.");
+        this.coalescingWindow = Durations.fromMillis(window.toMillis());
+        return self();
+    }
+
+    /**
+     * Makes the subscription receive only the changed fields of the entity states.
+     *
+     * <p>The full state of an entity is sent with its first update, and then with every
+     * 100th update.
+     *
+     * @return self for method chaining
+     * @see #withDeltas(int)
+     */
+    @CanIgnoreReturnValue
+    public TopicBuilder withDeltas() {
+        this.fullStateInterval = 0;
+        return self();
+    }
+
+    /**
+     * Makes the subscription receive only the changed fields of the entity states.
+     *
+     * <p>The full state of an entity is sent with its first update, and then after
+     * the given number of updates carrying deltas.
+     *
+     * <p>Has no effect on the subscriptions to events.
+     *
+     * @param fullStateInterval
+     *         the positive max number of delta updates between two full states of an entity
+     * @return self for method chaining
+     */
+    @CanIgnoreReturnValue
+    public TopicBuilder withDeltas(int fullStateInterval) {
+        checkArgument(fullStateInterval > 0, "The full state interval must be positive.");
+        this.fullStateInterval = fullStateInterval;
+        return self();
+    }
+
+    /**
+     * Makes the event subscription start with the stored events, which happened after
+     * the given time.
+     *
+     * <p>After the stored events are delivered, the subscription receives the new events.
+     *
+     * <p>Has no effect on the subscriptions to entities.
+     *
+     * @param time
+     *         the time of the last event known to the subscriber
+     * @return self for method chaining
+     */
+    @CanIgnoreReturnValue
+    public TopicBuilder replayAfter(Timestamp time) {
+        checkNotNull(time);
+        this.replayFrom = EventPosition.newBuilder()
+                .setAfter(time)
+                .build();
+        return self();
+    }
+
+    /**
+     * Makes the event subscription start with the stored events, which happened after
+     * the given event.
+     *
+     * <p>Suits the clients reconnecting to the server, which pass the last event received
+     * before the disconnection.
+     *
+     * <p>The other events, which happened at the same time as the given one, are replayed
+     * too, as their order relative to the given event is not known. So, the subscriber may
+     * receive again some of the events it has already seen, and should tolerate that.
+     *
+     * <p>Has no effect on the subscriptions to entities.
+     *
+     * @param lastSeen
+     *         the last event known to the subscriber
+     * @return self for method chaining
+     */
+    @CanIgnoreReturnValue
+    public TopicBuilder replayAfter(Event lastSeen) {
+        checkNotNull(lastSeen);
+        this.replayFrom = EventPosition.newBuilder()
+                .setAfter(lastSeen.timestamp())
+                .setLastSeen(lastSeen.getId())
+                .build();
+        return self();
+    }
+
     /**
      * Generates a new {@link io.spine.client.Topic Topic} instance with current builder 
      * configuration.
@@ -78,6 +192,20 @@ public final class TopicBuilder extends TargetBuilder<Topic, TopicBuilder> {
         target.checkValid();
         var mask = composeMask();
         var topic = topicFactory.composeTopic(target, mask);
+        if (coalescingWindow != null || fullStateInterval >= 0 || replayFrom != null) {
+            var builder = topic.toBuilder();
+            if (replayFrom != null) {
+                builder.setReplayFrom(replayFrom);
+            }
+            if (coalescingWindow != null) {
+                builder.setCoalescingWindow(coalescingWindow);
+            }
+            if (fullStateInterval >= 0) {
+                builder.setDeltaUpdates(true)
+                       .setFullStateInterval(fullStateInterval);
+            }
+            topic = builder.build();
+        }
         return topic;
     }
 
@@ -151,6 +151,7 @@ public abstract class BoundedContext implements Comparable<BoundedContext>, Clos
      */
     protected final void init() {
         eventBus.registerWith(this);
+        stand.injectEventStore(eventBus.eventStore());
         broker.registerWith(this);
         commandBus.initObservers(eventBus);
     }
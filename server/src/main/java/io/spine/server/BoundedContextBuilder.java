@@ -47,6 +47,8 @@ import io.spine.server.event.EventBus;
 import io.spine.server.event.EventDispatcher;
 import io.spine.server.event.EventEnricher;
 import io.spine.server.stand.Stand;
+import io.spine.server.stand.SubscriptionFanOut;
+import io.spine.server.stand.SubscriptionLimits;
 import io.spine.server.tenant.TenantIndex;
 import io.spine.server.type.CommandEnvelope;
 import io.spine.server.type.EventEnvelope;
@@ -64,6 +66,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.spine.core.BoundedContextNames.assumingTestsValue;
 import static io.spine.server.ContextSpec.multitenant;
@@ -101,6 +104,15 @@ public final class BoundedContextBuilder implements Logging {
     private Supplier<AggregateRootDirectory> rootDirectory;
     private TenantIndex tenantIndex;
 
+    /** The settings of the asynchronous delivery of subscription updates, if configured. */
+    private @Nullable SubscriptionFanOut subscriptionFanOut;
+
+    /** The max number of entity states in the cached query results, or zero if not cached. */
+    private long queryCacheCapacity;
+
+    /** The limits on the subscriptions, if configured. */
+    private @Nullable SubscriptionLimits subscriptionLimits;
+
     /** Repositories to be registered with the Bounded Context being built after its creation. */
     private final Collection<Repository<?, ?>> repositories = new ArrayList<>();
 
@@ -229,6 +241,68 @@ public final class BoundedContextBuilder implements Logging {
         return eventBus.enricher();
     }
 
+    /**
+     * Makes the context deliver the subscription updates asynchronously, using bounded
+     * per-subscription queues drained by the executor of the passed settings.
+     *
+     * <p>If not set, the updates are delivered in the thread which posts the events.
+     *
+     * @param fanOut
+     *         the settings of the asynchronous delivery
+     */
+    @CanIgnoreReturnValue
+    public BoundedContextBuilder fanOutUpdatesUsing(SubscriptionFanOut fanOut) {
+        this.subscriptionFanOut = checkNotNull(fanOut);
+        return this;
+    }
+
+    /**
+     * Obtains the settings of the asynchronous delivery of subscription updates, or
+     * empty {@code Optional} if the updates are delivered synchronously.
+     */
+    public Optional<SubscriptionFanOut> subscriptionFanOut() {
+        return Optional.ofNullable(subscriptionFanOut);
+    }
+
+    /**
+     * Makes the context cache the results of the queries.
+     *
+     * <p>A cached result is served to the identical queries until the repository of
+     * the queried type writes an entity to its storage.
+     *
+     * @param capacity
+     *         the max total number of the entity states in the cached results
+     */
+    @CanIgnoreReturnValue
+    public BoundedContextBuilder cacheQueryResults(long capacity) {
+        checkArgument(capacity > 0, "The query cache capacity must be positive.");
+        this.queryCacheCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * Limits the lifetime of the idle subscriptions and the number of active subscriptions
+     * per tenant.
+     *
+     * <p>If not set, the subscriptions live until cancelled and their number is not limited.
+     *
+     * @param limits
+     *         the limits on the subscriptions
+     */
+    @CanIgnoreReturnValue
+    public BoundedContextBuilder limitSubscriptions(SubscriptionLimits limits) {
+        this.subscriptionLimits = checkNotNull(limits);
+        return this;
+    }
+
+    /**
+     * Obtains the limits on the subscriptions, or empty {@code Optional} if
+     * the subscriptions are not limited.
+     */
+    public Optional<SubscriptionLimits> subscriptionLimits() {
+        return Optional.ofNullable(subscriptionLimits);
+    }
+
     @CanIgnoreReturnValue
     public BoundedContextBuilder setTenantIndex(TenantIndex tenantIndex) {
         if (isMultitenant()) {
@@ -610,6 +684,7 @@ public final class BoundedContextBuilder implements Logging {
         var system = new BoundedContextBuilder(systemSpec(), systemSettings);
         var tenantIndex = tenantIndex();
         tenantIndex.ifPresent(system::setTenantIndex);
+        subscriptionLimits().ifPresent(system::limitSubscriptions);
         var result = system.buildPartial(SystemContext::newInstance, NoOpSystemClient.INSTANCE);
         return result;
     }
@@ -658,6 +733,15 @@ public final class BoundedContextBuilder implements Logging {
         if (systemStand != null) {
             result.withSubscriptionRegistryFrom(systemStand);
         }
+        if (subscriptionFanOut != null) {
+            result.setFanOut(subscriptionFanOut);
+        }
+        if (queryCacheCapacity > 0) {
+            result.setQueryCacheCapacity(queryCacheCapacity);
+        }
+        if (subscriptionLimits != null) {
+            result.setSubscriptionLimits(subscriptionLimits);
+        }
         return result.build();
     }
 
@@ -675,6 +759,11 @@ public final class BoundedContextBuilder implements Logging {
                 ? BoundedContext.multitenant(name)
                 : BoundedContext.singleTenant(name);
         copy.enrichEventsUsing(enricher);
+        subscriptionFanOut().ifPresent(copy::fanOutUpdatesUsing);
+        if (queryCacheCapacity > 0) {
+            copy.cacheQueryResults(queryCacheCapacity);
+        }
+        subscriptionLimits().ifPresent(copy::limitSubscriptions);
         repositories().forEach(copy::add);
         commandDispatchers().forEach(copy::addCommandDispatcher);
         commandBus.filters().forEach(copy::addCommandFilter);
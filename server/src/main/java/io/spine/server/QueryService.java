@@ -25,18 +25,34 @@
  */
 package io.spine.server;
 
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.grpc.BindableService;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import io.spine.base.Errors;
+import io.spine.client.BatchQueryResponse;
 import io.spine.client.Query;
+import io.spine.client.QueryBatch;
 import io.spine.client.QueryResponse;
+import io.spine.client.ThreadSafeObserver;
 import io.spine.client.grpc.QueryServiceGrpc;
+import io.spine.core.Response;
+import io.spine.core.Responses;
+import io.spine.grpc.MetadataConverter;
+import io.spine.grpc.StreamObservers;
 import io.spine.logging.Logging;
 import io.spine.server.model.UnknownEntityStateTypeException;
 import io.spine.server.stand.InvalidRequestException;
 import io.spine.type.TypeUrl;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static com.google.common.flogger.LazyArgs.lazy;
 import static com.google.protobuf.TextFormat.shortDebugString;
 import static io.spine.server.transport.Statuses.invalidArgumentWithCause;
@@ -51,10 +67,14 @@ public final class QueryService
         implements Logging {
 
     private final QueryServiceImpl impl;
+    private final QueryServiceImpl streamingImpl;
+    private final Executor batchExecutor;
 
-    private QueryService(TypeDictionary types) {
+    private QueryService(TypeDictionary types, Executor batchExecutor) {
         super();
-        this.impl = new QueryServiceImpl(this, types);
+        this.impl = new QueryServiceImpl(this, types, false);
+        this.streamingImpl = new QueryServiceImpl(this, types, true);
+        this.batchExecutor = batchExecutor;
     }
 
     /**
@@ -82,10 +102,117 @@ public final class QueryService
         impl.serve(query, observer, null);
     }
 
+    /**
+     * Executes the passed query streaming the results to the passed observer
+     * in bounded-size chunks.
+     */
+    @Override
+    public void readStream(Query query, StreamObserver<QueryResponse> observer) {
+        _debug().log("Incoming streamed query: `%s`.", lazy(() -> shortDebugString(query)));
+        streamingImpl.serve(query, observer, null);
+    }
+
+    /**
+     * Executes the queries of the passed batch streaming the response to each of them
+     * to the passed observer.
+     *
+     * <p>The queries are executed by the {@linkplain Builder#setBatchExecutor(Executor) batch
+     * executor}. A failure of a query does not affect the other queries of the batch.
+     * The error is reported in the status of the response to the failed query instead.
+     *
+     * <p>If the executor rejects a query, the error responses are sent to it and to all
+     * the queries not yet submitted to the executor.
+     */
+    @Override
+    public void readBatch(QueryBatch batch, StreamObserver<BatchQueryResponse> observer) {
+        var queries = batch.getQueryList();
+        _debug().log("Incoming batch of %d queries.", queries.size());
+        if (queries.isEmpty()) {
+            observer.onCompleted();
+            return;
+        }
+        var safeObserver = new ThreadSafeObserver<>(observer);
+        var remaining = new AtomicInteger(queries.size());
+        for (var i = 0; i < queries.size(); i++) {
+            var index = i;
+            var query = queries.get(i);
+            try {
+                batchExecutor.execute(() -> {
+                    try {
+                        safeObserver.onNext(batchResponse(index, query, readOne(query)));
+                    } finally {
+                        completeIfLast(remaining, safeObserver);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                _error().withCause(e)
+                        .log("The batch executor rejected %d queries of the batch.",
+                             queries.size() - index);
+                var rejected = errorResponse(e);
+                for (var j = index; j < queries.size(); j++) {
+                    safeObserver.onNext(batchResponse(j, queries.get(j), rejected));
+                    completeIfLast(remaining, safeObserver);
+                }
+                return;
+            }
+        }
+    }
+
+    private static BatchQueryResponse
+    batchResponse(int index, Query query, QueryResponse response) {
+        return BatchQueryResponse.newBuilder()
+                .setIndex(index)
+                .setQueryId(query.getId())
+                .setResponse(response)
+                .build();
+    }
+
+    private static void completeIfLast(AtomicInteger remaining,
+                                       StreamObserver<BatchQueryResponse> observer) {
+        if (remaining.decrementAndGet() == 0) {
+            observer.onCompleted();
+        }
+    }
+
+    /**
+     * Executes a single query of a batch.
+     *
+     * @return the response to the query, or a response with the error status if
+     *         the query failed
+     */
+    private QueryResponse readOne(Query query) {
+        var observer = StreamObservers.<QueryResponse>memoizingObserver();
+        try {
+            impl.serve(query, observer, null);
+        } catch (@SuppressWarnings("OverlyBroadCatchBlock") Exception e) {
+            observer.onError(e);
+        }
+        var error = observer.getError();
+        if (error != null) {
+            return errorResponse(error);
+        }
+        return observer.firstResponse();
+    }
+
+    private static QueryResponse errorResponse(Throwable throwable) {
+        var error = Optional.ofNullable(Status.trailersFromThrowable(throwable))
+                            .flatMap(MetadataConverter::toError)
+                            .orElseGet(() -> Errors.fromThrowable(throwable));
+        var response = Response.newBuilder()
+                .setStatus(Responses.errorWith(error))
+                .build();
+        return QueryResponse.newBuilder()
+                .setResponse(response)
+                .build();
+    }
+
     private static final class QueryServiceImpl extends ServiceDelegate<Query, QueryResponse> {
 
-        QueryServiceImpl(BindableService service, TypeDictionary types) {
+        private final boolean streaming;
+
+        QueryServiceImpl(BindableService service, TypeDictionary types, boolean streaming) {
             super(service, types);
+            this.streaming = streaming;
         }
 
         @Override
@@ -100,7 +227,11 @@ public final class QueryService
                              @Nullable Object params) {
             try {
                 var stand = context.stand();
-                stand.execute(query, observer);
+                if (streaming) {
+                    stand.executeStreaming(query, observer);
+                } else {
+                    stand.execute(query, observer);
+                }
             } catch (InvalidRequestException e) {
                 _error().log("Invalid request. `%s`", e.asError());
                 var exception = invalidArgumentWithCause(e);
@@ -128,6 +259,22 @@ public final class QueryService
      */
     public static class Builder extends AbstractServiceBuilder<QueryService, Builder> {
 
+        private Executor batchExecutor = directExecutor();
+
+        /**
+         * Sets the executor which runs the queries of a batch.
+         *
+         * <p>If not set, the queries of a batch are executed one by one in the thread
+         * handling the batch request.
+         *
+         * <p>The executor is not shut down by the service.
+         */
+        @CanIgnoreReturnValue
+        public Builder setBatchExecutor(Executor executor) {
+            this.batchExecutor = checkNotNull(executor);
+            return this;
+        }
+
         /**
          * Builds the {@link QueryService}.
          *
@@ -140,7 +287,7 @@ public final class QueryService
                     context -> dictionary.putAll(context, (c) -> c.stand().exposedTypes())
             );
 
-            var service = new QueryService(dictionary.build());
+            var service = new QueryService(dictionary.build(), batchExecutor);
             warnIfEmpty(service);
             return service;
         }
@@ -27,9 +27,11 @@ package io.spine.server;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Ordering;
 import com.google.errorprone.annotations.CompileTimeConstant;
 import io.grpc.BindableService;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.spine.client.Subscription;
 import io.spine.client.SubscriptionUpdate;
@@ -132,6 +134,7 @@ public final class SubscriptionService
     @Override
     public void activate(Subscription subscription, StreamObserver<SubscriptionUpdate> observer) {
         _debug().log("Activating the subscription: `%s`.", subscription);
+        cancelOnClose(subscription, observer);
         runThreadSafe(
                 (safeObserver) -> {
                     var callback = forwardingTo(safeObserver);
@@ -142,6 +145,29 @@ public final class SubscriptionService
         );
     }
 
+    /**
+     * Makes the subscription cancelled once the client closes the stream of its updates.
+     *
+     * <p>Otherwise, the subscription of a client which disconnected without cancelling it
+     * would be evaluated against the events until the server stops.
+     */
+    private void cancelOnClose(Subscription subscription, StreamObserver<?> observer) {
+        if (observer instanceof ServerCallStreamObserver) {
+            var callObserver = (ServerCallStreamObserver<?>) observer;
+            callObserver.setOnCancelHandler(() -> cancelInAllContexts(subscription));
+        }
+    }
+
+    private void cancelInAllContexts(Subscription subscription) {
+        _debug().log("The stream of the subscription `%s` is closed by the client.",
+                     lazy(subscription::toShortString));
+        var subscriptions = ImmutableSet.of(subscription);
+        for (var context : activation.contexts()) {
+            context.stand()
+                   .cancelAll(subscriptions);
+        }
+    }
+
     @Override
     public void cancel(Subscription subscription, StreamObserver<Response> observer) {
         _debug().log("Incoming cancel request for the subscription topic: `%s`.", subscription);
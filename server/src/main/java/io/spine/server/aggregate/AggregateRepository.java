@@ -306,6 +306,7 @@ public abstract class AggregateRepository<I, A extends Aggregate<I, S, ?>, S ext
         var history = aggregate.uncommittedHistory();
         aggregateStorage().writeAll(aggregate, history.get());
         aggregate.commitEvents();
+        onStored();
     }
 
     /**
@@ -379,10 +379,23 @@ public class AggregateStorage<I, S extends EntityState<I>>
         stateStorage.write(result);
     }
 
+    /**
+     * Writes the passed segments of the aggregate history along with the aggregate state.
+     *
+     * <p>The segments are written via {@link #write(Object, AggregateHistory) write(..)}.
+     * The state is written only after all the segments are written. So, if writing
+     * the history fails, the stored state does not get ahead of it.
+     *
+     * @param aggregate
+     *         the aggregate which state to write
+     * @param historySegments
+     *         non-empty pieces of {@code AggregateHistory} to store
+     */
     protected void writeAll(Aggregate<I, ?, ?> aggregate,
                             ImmutableList<AggregateHistory> historySegments) {
+        var id = aggregate.id();
         for (var history : historySegments) {
-            write(aggregate.id(), history);
+            write(id, history);
         }
         writeState(aggregate);
     }
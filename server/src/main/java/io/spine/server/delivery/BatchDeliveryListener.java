@@ -55,4 +55,28 @@ public interface BatchDeliveryListener<I> {
      *         the ID of the delivery target
      */
     void onEnd(I id);
+
+    /**
+     * Invoked before the delivery of a page of messages, which may contain several
+     * batches and single messages targeting different entities, is started.
+     *
+     * <p>The page is delivered in the current thread. The implementing classes may use
+     * this callback to postpone the storage operations till the end of the page.
+     *
+     * <p>Does nothing by default.
+     */
+    default void onPageStart() {
+        // Do nothing by default.
+    }
+
+    /**
+     * Invoked after the delivery of a page of messages is ended.
+     *
+     * <p>This method is called even if the delivery of some message in the page has failed.
+     *
+     * <p>Does nothing by default.
+     */
+    default void onPageEnd() {
+        // Do nothing by default.
+    }
 }
@@ -27,7 +27,6 @@
 package io.spine.server.delivery;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ImmutableList;
 import io.spine.annotation.SPI;
 import io.spine.server.storage.MessageRecordSpec;
 import io.spine.server.storage.MessageStorage;
@@ -96,8 +95,6 @@ public class CatchUpStorage extends MessageStorage<CatchUpId, CatchUp> {
      */
     @VisibleForTesting
     void clear() {
-        var iterator = index();
-        var allIds = ImmutableList.copyOf(iterator);
-        deleteAll(allIds);
+        deleteAll(queryForAll());
     }
 }
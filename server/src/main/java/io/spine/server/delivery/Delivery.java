@@ -305,6 +305,11 @@ public final class Delivery implements Logging {
      */
     private final int pageSize;
 
+    /**
+     * The maximum number of entities written behind during the delivery of a page.
+     */
+    private final int maxPendingWrites;
+
     /**
      * The listener of the dispatching operations inside the {@link io.spine.server.bus.MulticastBus
      * MulticastBus}es.
@@ -323,6 +328,7 @@ public final class Delivery implements Logging {
         this.catchUpPageSize = builder.getCatchUpPageSize();
         this.monitor = builder.getMonitor();
         this.pageSize = builder.getPageSize();
+        this.maxPendingWrites = builder.getMaxPendingWrites();
         this.deliveries = new InboxDeliveries();
         this.shardObservers = synchronizedList(new ArrayList<>());
         this.deliveredMessages = new DeliveredMessages();
@@ -673,6 +679,15 @@ public final class Delivery implements Logging {
         return dispatchListener;
     }
 
+    /**
+     * Returns the maximum number of entities, which the repositories may write behind
+     * while delivering a page of messages.
+     */
+    @Internal
+    public int maxPendingWrites() {
+        return maxPendingWrites;
+    }
+
     /**
      * Subscribes to the updates of shard contents.
      *
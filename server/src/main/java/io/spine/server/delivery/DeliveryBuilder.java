@@ -55,6 +55,11 @@ public final class DeliveryBuilder {
      */
     private static final int DEFAULT_CATCH_UP_PAGE_SIZE = 500;
 
+    /**
+     * The default maximum number of entities written behind during the delivery of a page.
+     */
+    private static final int DEFAULT_MAX_PENDING_WRITES = 1000;
+
     private @MonotonicNonNull InboxStorage inboxStorage;
     private @MonotonicNonNull CatchUpStorage catchUpStorage;
     private @MonotonicNonNull DeliveryStrategy strategy;
@@ -63,6 +68,7 @@ public final class DeliveryBuilder {
     private @MonotonicNonNull DeliveryMonitor deliveryMonitor;
     private @MonotonicNonNull Integer pageSize;
     private @MonotonicNonNull Integer catchUpPageSize;
+    private @MonotonicNonNull Integer maxPendingWrites;
 
     /**
      * Prevents a direct instantiation of this class.
@@ -181,6 +187,18 @@ public final class DeliveryBuilder {
         return checkNotNull(catchUpPageSize);
     }
 
+    /**
+     * Returns the value of the configured maximum number of pending writes
+     * or {@code Optional.empty()} if no such value was configured.
+     */
+    public Optional<Integer> maxPendingWrites() {
+        return Optional.ofNullable(maxPendingWrites);
+    }
+
+    Integer getMaxPendingWrites() {
+        return checkNotNull(maxPendingWrites);
+    }
+
     @CanIgnoreReturnValue
     public DeliveryBuilder setWorkRegistry(ShardedWorkRegistry workRegistry) {
         this.workRegistry = checkNotNull(workRegistry);
@@ -277,6 +295,22 @@ public final class DeliveryBuilder {
         return this;
     }
 
+    /**
+     * Sets the maximum number of entities, which projection and process manager repositories
+     * keep in memory while delivering a page of messages.
+     *
+     * <p>Once the number is reached, the pending entities are written to the storage
+     * before the page is over.
+     *
+     * <p>If none set, {@linkplain #DEFAULT_MAX_PENDING_WRITES} is used.
+     */
+    @CanIgnoreReturnValue
+    public DeliveryBuilder setMaxPendingWrites(int maxPendingWrites) {
+        checkArgument(maxPendingWrites > 0);
+        this.maxPendingWrites = maxPendingWrites;
+        return this;
+    }
+
     @SuppressWarnings("PMD.NPathComplexity")    // The readability of this method is fine.
     public Delivery build() {
         if (strategy == null) {
@@ -312,6 +346,10 @@ public final class DeliveryBuilder {
             catchUpPageSize = DEFAULT_CATCH_UP_PAGE_SIZE;
         }
 
+        if (maxPendingWrites == null) {
+            maxPendingWrites = DEFAULT_MAX_PENDING_WRITES;
+        }
+
         var delivery = new Delivery(this);
         return delivery;
     }
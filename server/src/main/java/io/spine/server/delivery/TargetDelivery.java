@@ -104,11 +104,32 @@ final class TargetDelivery<I> implements ShardedMessageDelivery<InboxMessage> {
                                 BatchDeliveryListener<I> batchDispatcher) {
         List<Batch<I>> batches = Batch.byInboxId(incoming, this::asEnvelope);
 
-        for (var batch : batches) {
-            var tenant = batch.inboxId.tenant();
-            TenantAwareRunner.with(tenant).run(
-                    () -> batch.deliverVia(batchDispatcher, inboxOfCmds, inboxOfEvents)
-            );
+        batchDispatcher.onPageStart();
+        try {
+            for (var batch : batches) {
+                var tenant = batch.inboxId.tenant();
+                TenantAwareRunner.with(tenant).run(
+                        () -> batch.deliverVia(batchDispatcher, inboxOfCmds, inboxOfEvents)
+                );
+            }
+        } catch (RuntimeException | Error e) {
+            endPageAfterFailure(batchDispatcher, e);
+            throw e;
+        }
+        batchDispatcher.onPageEnd();
+    }
+
+    /**
+     * Notifies the listener of the end of the page, the delivery of which has failed.
+     *
+     * <p>If the listener fails as well, its exception is added to the suppressed exceptions
+     * of the original failure, so that the latter is not masked.
+     */
+    private static void endPageAfterFailure(BatchDeliveryListener<?> listener, Throwable failure) {
+        try {
+            listener.onPageEnd();
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
         }
     }
 
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.entity;
+
+import com.google.common.collect.ImmutableSet;
+import io.spine.base.EntityState;
+import io.spine.base.Identifier;
+import io.spine.logging.Logging;
+import io.spine.server.tenant.TenantAwareRunner;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Applies a {@link Migration} to all the entities of a repository.
+ *
+ * <p>The identifiers of the entities are read from the repository
+ * {@linkplain Repository#index() index}, sorted by their string representation and split
+ * into chunks. The sorting makes the order of the chunks independent of the storage, so that
+ * the migration can be {@linkplain BulkMigrationMonitor#checkpoint() resumed}. As the index
+ * is not ordered, all the identifiers after the checkpoint are held in memory for the time
+ * of the migration.
+ *
+ * <p>The chunks are migrated concurrently. Each chunk is migrated by a separate
+ * {@code Migration} instance and stored with a single bulk write. The entities of at most
+ * two chunks per thread are loaded at a time.
+ *
+ * @param <I>
+ *         the type of entity identifiers
+ * @param <T>
+ *         the type of migrated entities
+ * @param <S>
+ *         the type of entity state
+ * @see RecordBasedRepository#applyMigration(java.util.function.Supplier, BulkMigrationMonitor)
+ */
+final class BulkMigration<I, T extends TransactionalEntity<I, S, ?>, S extends EntityState<I>>
+        implements Logging {
+
+    private static final long AWAIT_TERMINATION_MS = 100;
+
+    private final RecordBasedRepository<I, ?, S> repository;
+    private final Supplier<? extends Migration<I, T, S, ?>> migrations;
+    private final BulkMigrationMonitor<I> monitor;
+    private final AtomicReference<@Nullable Throwable> failure = new AtomicReference<>();
+
+    /**
+     * The chunks which are migrated, but not yet reported to the monitor,
+     * because some of the preceding chunks are still in progress.
+     */
+    private final Map<Long, Chunk> completed = new HashMap<>();
+    private long nextToReport = 0;
+    private long migrated = 0;
+
+    BulkMigration(RecordBasedRepository<I, ?, S> repository,
+                  Supplier<? extends Migration<I, T, S, ?>> migrations,
+                  BulkMigrationMonitor<I> monitor) {
+        this.repository = checkNotNull(repository);
+        this.migrations = checkNotNull(migrations);
+        this.monitor = checkNotNull(monitor);
+    }
+
+    /**
+     * Runs the migration.
+     *
+     * <p>Returns when all the entities are migrated or any of the chunks fails.
+     *
+     * @throws IllegalStateException
+     *         if the migration of any chunk fails
+     */
+    void run() {
+        monitor.onMigrationStarted();
+        var runner = TenantAwareRunner.withCurrentTenant(repository.context()
+                                                                   .isMultitenant());
+        var parallelism = monitor.parallelism();
+        var executor = Executors.newFixedThreadPool(parallelism);
+        var inFlight = new Semaphore(parallelism * 2);
+        try {
+            var index = sortedIdsAfterCheckpoint(runner.evaluate(repository::index));
+            long sequence = 0;
+            while (index.hasNext() && failure.get() == null) {
+                var chunk = new Chunk(sequence++, nextChunk(index));
+                inFlight.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        runner.run(() -> migrate(chunk));
+                        onCompleted(chunk);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            awaitTermination(executor);
+        }
+        var error = failure.get();
+        if (error != null) {
+            throw newIllegalStateException(
+                    error, "The bulk migration of `%s` failed after %d migrated entities.",
+                    repository, migrated());
+        }
+        monitor.onMigrationCompleted(migrated());
+    }
+
+    /**
+     * Reads the identifiers from the given index, which go after the checkpoint,
+     * and sorts them by their string representation.
+     *
+     * <p>The identifiers are compared with the checkpoint by their string representation too,
+     * so the entity with the checkpoint ID does not have to exist.
+     */
+    private Iterator<I> sortedIdsAfterCheckpoint(Iterator<I> index) {
+        var checkpoint = monitor.checkpoint()
+                                .map(id -> Identifier.toString(id))
+                                .orElse(null);
+        List<I> ids = new ArrayList<>();
+        while (index.hasNext()) {
+            var id = index.next();
+            if (checkpoint == null || Identifier.toString(id).compareTo(checkpoint) > 0) {
+                ids.add(id);
+            }
+        }
+        ids.sort(Comparator.comparing(id -> Identifier.toString(id)));
+        return ids.iterator();
+    }
+
+    private List<I> nextChunk(Iterator<I> index) {
+        var chunkSize = monitor.chunkSize();
+        List<I> ids = new ArrayList<>(chunkSize);
+        while (index.hasNext() && ids.size() < chunkSize) {
+            ids.add(index.next());
+        }
+        return ids;
+    }
+
+    private void migrate(Chunk chunk) {
+        var migration = migrations.get();
+        repository.applyMigration(ImmutableSet.copyOf(chunk.ids), migration);
+    }
+
+    /**
+     * Reports the completed chunks to the monitor in the order of their sequence numbers.
+     */
+    private synchronized void onCompleted(Chunk chunk) {
+        completed.put(chunk.sequence, chunk);
+        var next = completed.remove(nextToReport);
+        while (next != null) {
+            migrated += next.ids.size();
+            monitor.onChunkCompleted(next.lastId(), migrated);
+            nextToReport++;
+            next = completed.remove(nextToReport);
+        }
+    }
+
+    private synchronized long migrated() {
+        return migrated;
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        executor.shutdown();
+        var interrupted = false;
+        while (!executor.isTerminated()) {
+            try {
+                executor.awaitTermination(AWAIT_TERMINATION_MS, MILLISECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    /**
+     * A portion of entity identifiers migrated at once.
+     */
+    private final class Chunk {
+
+        private final long sequence;
+        private final List<I> ids;
+
+        private Chunk(long sequence, List<I> ids) {
+            this.sequence = sequence;
+            this.ids = ids;
+        }
+
+        private I lastId() {
+            return ids.get(ids.size() - 1);
+        }
+    }
+}
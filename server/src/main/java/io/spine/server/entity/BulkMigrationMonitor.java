@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.entity;
+
+import io.spine.annotation.Experimental;
+import io.spine.annotation.SPI;
+
+import java.util.Optional;
+
+import static io.spine.util.Preconditions2.checkPositive;
+
+/**
+ * Directs and oversees a bulk {@link Migration} of all the entities in a repository.
+ *
+ * <p>The monitor dictates the {@linkplain #chunkSize() size of a chunk}, which is the number of
+ * entities migrated and stored at once, and the {@linkplain #parallelism() number of threads}
+ * migrating the chunks concurrently.
+ *
+ * <p>Upon the completion of each chunk, the monitor {@linkplain #onChunkCompleted(Object, long)
+ * receives a checkpoint}. The checkpoint is the identifier of the last entity, up to which all
+ * the entities of the repository {@linkplain Repository#index() index} are migrated.
+ * If the migration is interrupted, it can be resumed from the
+ * {@linkplain #checkpoint() saved checkpoint} instead of starting over.
+ *
+ * <p>The entities are migrated in the order of the string representation of their
+ * identifiers, regardless of the order, in which the storage returns them.
+ *
+ * @param <I>
+ *         the type of entity identifiers
+ * @see RecordBasedRepository#applyMigration(java.util.function.Supplier, BulkMigrationMonitor)
+ */
+@SPI
+@Experimental
+public class BulkMigrationMonitor<I> {
+
+    private final int chunkSize;
+    private final int parallelism;
+
+    /**
+     * Creates a monitor with the given chunk size and the number of threads.
+     *
+     * @param chunkSize
+     *         the number of entities migrated and stored at once
+     * @param parallelism
+     *         the number of threads migrating the chunks
+     */
+    public BulkMigrationMonitor(int chunkSize, int parallelism) {
+        checkPositive(chunkSize);
+        checkPositive(parallelism);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates a monitor with the given chunk size, which uses all the available processors.
+     */
+    public BulkMigrationMonitor(int chunkSize) {
+        this(chunkSize, Runtime.getRuntime()
+                               .availableProcessors());
+    }
+
+    /**
+     * The number of entities migrated and stored at once.
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * The number of threads migrating the chunks concurrently.
+     */
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Obtains the checkpoint to resume the migration from.
+     *
+     * <p>If present, the migration skips the entities, which identifiers are not greater than
+     * the returned ID, comparing them by their string representation. The entity with
+     * the returned ID does not have to exist.
+     *
+     * <p>By default, returns {@code Optional.empty()}, which means that all the entities
+     * are migrated.
+     */
+    public Optional<I> checkpoint() {
+        return Optional.empty();
+    }
+
+    /**
+     * Called when the migration is started.
+     */
+    public void onMigrationStarted() {
+        // do nothing.
+    }
+
+    /**
+     * Called when a chunk of entities is migrated and all the preceding chunks
+     * are migrated too.
+     *
+     * <p>The calls are performed in the order of the chunks, one at a time.
+     *
+     * @param checkpoint
+     *         the ID of the last entity in the chunk
+     * @param migrated
+     *         the total number of entities migrated so far during this run
+     */
+    public void onChunkCompleted(I checkpoint, long migrated) {
+        // do nothing.
+    }
+
+    /**
+     * Called when all the entities are migrated.
+     *
+     * <p>This method is not called if the migration fails.
+     *
+     * @param migrated
+     *         the total number of entities migrated during this run
+     */
+    public void onMigrationCompleted(long migrated) {
+        // do nothing.
+    }
+}
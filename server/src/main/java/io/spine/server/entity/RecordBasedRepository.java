@@ -50,19 +50,20 @@ import io.spine.type.TypeUrl;
 import io.spine.validate.Validate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterators.transform;
-import static com.google.common.collect.Lists.newLinkedList;
 import static io.spine.protobuf.AnyPacker.unpack;
 import static io.spine.util.Exceptions.newIllegalArgumentException;
 import static io.spine.util.Exceptions.newIllegalStateException;
@@ -127,6 +128,7 @@ public abstract class RecordBasedRepository<I, E extends Entity<I, S>, S extends
         var record = toRecord(entity);
         var storage = recordStorage();
         storage.write(record);
+        onStored();
     }
 
     @Override
@@ -205,7 +207,7 @@ public abstract class RecordBasedRepository<I, E extends Entity<I, S>, S extends
                              .getFilters();
         var entities = find(filters, ResponseFormat.getDefaultInstance());
 
-        Deque<E> migratedEntities = newLinkedList();
+        List<E> migratedEntities = new ArrayList<>(ids.size());
         while (entities.hasNext()) {
             var entity = entities.next();
             migration.applyTo((T) entity, (RecordBasedRepository<I, T, S>) this);
@@ -220,6 +222,44 @@ public abstract class RecordBasedRepository<I, E extends Entity<I, S>, S extends
         store(migratedEntities);
     }
 
+    /**
+     * Applies a {@link Migration} to all the entities of this repository.
+     *
+     * <p>The identifiers of the entities are read from the repository {@linkplain #index() index},
+     * sorted and split into chunks of the {@linkplain BulkMigrationMonitor#chunkSize() configured
+     * size}. The chunks
+     * are {@linkplain #applyMigration(Set, Migration) migrated} concurrently by
+     * the {@linkplain BulkMigrationMonitor#parallelism() configured number} of threads.
+     * Since a {@code Migration} instance holds the state of the current operation, each chunk
+     * is migrated by a new instance obtained from the passed supplier.
+     *
+     * <p>The passed monitor is notified about the progress of the migration and may provide
+     * a {@linkplain BulkMigrationMonitor#checkpoint() checkpoint} to resume
+     * an interrupted migration.
+     *
+     * <p>This operation is only supported for entities that are
+     * {@linkplain TransactionalEntity transactional}.
+     *
+     * @param migrations
+     *         the supplier of the migration instances
+     * @param monitor
+     *         the monitor of the migration
+     * @throws IllegalStateException
+     *         if the repository manages a non-transactional entity type,
+     *         or if the migration of any chunk fails
+     * @see #applyMigration(Set, Migration)
+     */
+    @Experimental
+    public final <T extends TransactionalEntity<I, S, ?>>
+    void applyMigration(Supplier<? extends Migration<I, T, S, ?>> migrations,
+                        BulkMigrationMonitor<I> monitor) {
+        checkNotNull(migrations);
+        checkNotNull(monitor);
+        checkEntityIsTransactional();
+
+        new BulkMigration<>(this, migrations, monitor).run();
+    }
+
     @Override
     protected EntityRecordStorage<I, S> createStorage() {
         var sf = defaultStorageFactory();
@@ -240,6 +280,7 @@ public abstract class RecordBasedRepository<I, E extends Entity<I, S>, S extends
                 .map(this::toRecord)
                 .collect(toImmutableList());
         recordStorage().writeAll(records);
+        onStored();
     }
 
     /**
@@ -464,6 +505,9 @@ public abstract class RecordBasedRepository<I, E extends Entity<I, S>, S extends
      */
     private boolean delete(I id) {
         var deleted = recordStorage().delete(id);
+        if (deleted) {
+            onStored();
+        }
         return deleted;
     }
 
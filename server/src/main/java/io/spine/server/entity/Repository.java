@@ -275,6 +275,20 @@ public abstract class Repository<I, E extends Entity<I, ?>>
         return context;
     }
 
+    /**
+     * Notifies the {@code Stand} of the context that the entities of this repository
+     * are written to the storage.
+     *
+     * <p>Must be called after the write completes, so that the queries run afterwards
+     * are not served with the results read before it.
+     */
+    protected final void onStored() {
+        if (hasContext()) {
+            context().stand()
+                     .onStored(entityStateType());
+        }
+    }
+
     /**
      * The callback is invoked by a {@link BoundedContext} when adding the repository.
      */
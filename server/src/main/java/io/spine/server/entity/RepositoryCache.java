@@ -27,16 +27,25 @@
 package io.spine.server.entity;
 
 import io.spine.annotation.Internal;
+import io.spine.core.TenantId;
 import io.spine.logging.Logging;
 import io.spine.server.tenant.IdInTenant;
+import io.spine.server.tenant.TenantAwareRunner;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * The cache of {@code Entity} objects for a certain {@code Repository} and
  * {@linkplain #startCaching(Object) selected} identifiers.
@@ -64,6 +73,10 @@ import java.util.function.Function;
  *     to the underlying storage by executing the write operation.
  * </ol>
  *
+ * <p>The operations on different entities do not block each other. The operations on
+ * the same entity are serialized, including the write operation performed when
+ * the caching is stopped.
+ *
  * <p>The users of this class should keep the number of the simultaneously cached entities
  * reasonable due to a potentially huge significant memory footprint.
  *
@@ -75,21 +88,64 @@ import java.util.function.Function;
 @Internal
 public final class RepositoryCache<I, E extends Entity<I, ?>> implements Logging {
 
-    private final Map<IdInTenant<I>, E> cache = new HashMap<>();
-    private final Set<IdInTenant<I>> idsToCache = new HashSet<>();
+    private final ConcurrentMap<IdInTenant<I>, Slot> slots = new ConcurrentHashMap<>();
+
+    /**
+     * The entities which are written behind in the current thread.
+     *
+     * <p>Contains {@code null} if the write-behind is not {@linkplain #startWriteBehind() started}
+     * in the current thread.
+     */
+    private final ThreadLocal<@Nullable PendingWrites> pendingWrites = new ThreadLocal<>();
 
     private final boolean multitenant;
     private final Load<I, E> loadFn;
     private final Store<E> storeFn;
+    private final @Nullable StoreAll<E> storeAllFn;
+    private final int maxPendingWrites;
 
     /**
      * Creates the instance of the cache considering the multi-tenancy setting,
      * the function to load entities and the function to store the entity .
+     *
+     * <p>The created cache does not support the {@linkplain #startWriteBehind() write-behind}.
      */
     public RepositoryCache(boolean multitenant, Load<I, E> loadFn, Store<E> storeFn) {
         this.multitenant = multitenant;
         this.loadFn = loadFn;
         this.storeFn = storeFn;
+        this.storeAllFn = null;
+        this.maxPendingWrites = 0;
+    }
+
+    /**
+     * Creates the instance of the cache which supports the
+     * {@linkplain #startWriteBehind() write-behind} of entities.
+     *
+     * @param multitenant
+     *         whether the repository is multitenant
+     * @param loadFn
+     *         the function to load an entity
+     * @param storeFn
+     *         the function to store an entity
+     * @param storeAllFn
+     *         the function to store entities in bulk
+     * @param maxPendingWrites
+     *         the maximum number of entities which may be written behind; when reached,
+     *         the pending entities are stored right away
+     */
+    public RepositoryCache(boolean multitenant,
+                           Load<I, E> loadFn,
+                           Store<E> storeFn,
+                           StoreAll<E> storeAllFn,
+                           int maxPendingWrites) {
+        checkArgument(maxPendingWrites > 0,
+                      "The maximum number of pending writes must be positive.");
+        this.multitenant = multitenant;
+        this.loadFn = loadFn;
+        this.storeFn = storeFn;
+        this.storeAllFn = checkNotNull(storeAllFn);
+        this.maxPendingWrites = maxPendingWrites;
     }
 
     /**
@@ -102,18 +158,13 @@ public final class RepositoryCache<I, E extends Entity<I, ?>> implements Logging
      *         the identifier of the entity to load
      * @return loaded entity
      */
-    public synchronized E load(I id) {
+    public E load(I id) {
         var idInTenant = idInTenant(id);
-        if (!idsToCache.contains(idInTenant)) {
-            return loadFn.apply(idInTenant.value());
-        }
-
-        if (!cache.containsKey(idInTenant)) {
-            var entity = loadFn.apply(idInTenant.value());
-            cache.put(idInTenant, entity);
-            return entity;
+        var slot = slots.get(idInTenant);
+        if (slot == null) {
+            return loadDirectly(idInTenant);
         }
-        return cache.get(idInTenant);
+        return slot.load();
     }
 
     /**
@@ -126,8 +177,9 @@ public final class RepositoryCache<I, E extends Entity<I, ?>> implements Logging
      * @param id
      *         an identifier of the entity to cache
      */
-    public synchronized void startCaching(I id) {
-        idsToCache.add(idInTenant(id));
+    public void startCaching(I id) {
+        slots.compute(idInTenant(id),
+                      (key, slot) -> slot == null || slot.isFlushed() ? new Slot(key) : slot);
     }
 
     /**
@@ -138,23 +190,29 @@ public final class RepositoryCache<I, E extends Entity<I, ?>> implements Logging
      * {@linkplain RepositoryCache#RepositoryCache(boolean, Load, Store) pre-configured}
      * {@code Store} function.
      *
+     * <p>The write operation holds only the lock of the entity with the passed ID.
+     * The operations on other entities proceed concurrently.
+     *
+     * <p>If the {@linkplain #startWriteBehind() write-behind} is started in the current thread,
+     * the entity is written later along with other pending entities.
+     *
      * @param id
      *         an identifier of the entity to cache
      */
-    public synchronized void stopCaching(I id) {
+    public void stopCaching(I id) {
         var idInTenant = idInTenant(id);
-        var entity = cache.get(idInTenant);
-        if (entity == null) {
+        var slot = slots.get(idInTenant);
+        var flushed = slot != null && slot.flush();
+        if (slot != null) {
+            slots.remove(idInTenant, slot);
+        }
+        if (!flushed) {
             _warn().log("Cannot find the cached entity in the cache for ID `%s`. " +
-                                "Cache keys: %s. IDs to cache: %s." +
+                                "Cache keys: %s. " +
                                 "Most likely, the entity was dispatched with messages " +
                                 "but was never loaded by its repository.",
-                        idInTenant, cache.keySet(), idsToCache);
-            return;
+                        idInTenant, slots.keySet());
         }
-        storeFn.accept(entity);
-        cache.remove(idInTenant);
-        idsToCache.remove(idInTenant);
     }
 
     private IdInTenant<I> idInTenant(I id) {
@@ -175,13 +233,194 @@ public final class RepositoryCache<I, E extends Entity<I, ?>> implements Logging
      * @param entity
      *         the entity to store
      */
-    public synchronized void store(E entity) {
-        var id = entity.id();
-        var idInTenant = idInTenant(id);
-        if (idsToCache.contains(idInTenant)) {
-            cache.put(idInTenant, entity);
+    public void store(E entity) {
+        var idInTenant = idInTenant(entity.id());
+        var slot = slots.get(idInTenant);
+        if (slot == null) {
+            storeDirectly(idInTenant, entity);
         } else {
+            slot.store(entity);
+        }
+    }
+
+    /**
+     * Starts the write-behind of entities in the current thread.
+     *
+     * <p>Until the write-behind is {@linkplain #stopWriteBehind() stopped}, the entities stored
+     * in the current thread, including the ones flushed upon
+     * {@linkplain #stopCaching(Object) stopCaching(entityId)}, are kept in memory. Then they are
+     * stored in bulk via the pre-configured {@code StoreAll} function, one call per tenant.
+     * The entities written behind are still served to the {@code load} operations performed
+     * in the current thread.
+     *
+     * <p>Until written, the entities are not visible to the readers of the storage in other
+     * threads, such as the queries served by the {@code Stand}. Note that the
+     * {@code EntityStateChanged} events are posted as the entities are modified, i.e. before
+     * their new states are written.
+     *
+     * <p>The write-behind may be started several times in the same thread, e.g. if a delivery
+     * of a page causes a nested delivery. In this case, the pending entities are stored once
+     * the outermost write-behind is stopped.
+     *
+     * <p>If the cache was created without the {@code StoreAll} function,
+     * this method does nothing.
+     */
+    public void startWriteBehind() {
+        if (storeAllFn == null) {
+            return;
+        }
+        var pending = pendingWrites.get();
+        if (pending == null) {
+            pendingWrites.set(new PendingWrites());
+        } else {
+            pending.depth++;
+        }
+    }
+
+    /**
+     * Stops the write-behind of entities in the current thread and stores all
+     * the pending entities.
+     *
+     * <p>If the write-behind was started several times in the current thread, only the call
+     * matching the outermost {@linkplain #startWriteBehind() start} stores the entities.
+     *
+     * <p>If the write-behind is not started in the current thread, this method does nothing.
+     *
+     * @throws RuntimeException
+     *         if the {@code StoreAll} function fails
+     */
+    public void stopWriteBehind() {
+        var pending = pendingWrites.get();
+        if (pending == null) {
+            return;
+        }
+        if (pending.depth > 0) {
+            pending.depth--;
+            return;
+        }
+        pendingWrites.remove();
+        writePending(pending.entities);
+    }
+
+    private E loadDirectly(IdInTenant<I> idInTenant) {
+        var pending = pendingWrites.get();
+        if (pending != null) {
+            var entity = pending.entities.get(idInTenant);
+            if (entity != null) {
+                return entity;
+            }
+        }
+        return loadFn.apply(idInTenant.value());
+    }
+
+    private void storeDirectly(IdInTenant<I> idInTenant, E entity) {
+        var pending = pendingWrites.get();
+        if (pending == null) {
             storeFn.accept(entity);
+            return;
+        }
+        var entities = pending.entities;
+        entities.put(idInTenant, entity);
+        if (entities.size() >= maxPendingWrites) {
+            writePending(entities);
+        }
+    }
+
+    /**
+     * Stores the pending entities in bulk, grouping them by tenant.
+     *
+     * <p>The passed map is cleared before the entities are stored, so that a failure of
+     * the storage does not cause writing the same entities once again.
+     */
+    private void writePending(Map<IdInTenant<I>, E> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<TenantId, List<E>> byTenant = new LinkedHashMap<>();
+        pending.forEach((id, entity) -> byTenant.computeIfAbsent(id.tenant(),
+                                                                 t -> new ArrayList<>())
+                                                .add(entity));
+        pending.clear();
+        var storeAll = checkNotNull(storeAllFn);
+        byTenant.forEach((tenant, entities) -> {
+            if (multitenant) {
+                TenantAwareRunner.with(tenant)
+                                 .run(() -> storeAll.accept(entities));
+            } else {
+                storeAll.accept(entities);
+            }
+        });
+    }
+
+    /**
+     * The entities written behind in a thread along with the number of nested
+     * {@linkplain #startWriteBehind() starts} of the write-behind.
+     */
+    private final class PendingWrites {
+
+        private final Map<IdInTenant<I>, E> entities = new LinkedHashMap<>();
+        private int depth;
+    }
+
+    /**
+     * A cached entity along with the lock guarding the operations on it.
+     *
+     * <p>Once {@linkplain #flush() flushed}, the slot passes all the operations directly
+     * to the load and store functions. This way, an operation, which obtained the slot
+     * just before it was removed from the cache, is not lost.
+     */
+    private final class Slot {
+
+        private final IdInTenant<I> id;
+        private @Nullable E entity;
+        private boolean flushed;
+
+        private Slot(IdInTenant<I> id) {
+            this.id = id;
+        }
+
+        private synchronized E load() {
+            if (flushed) {
+                return loadDirectly(id);
+            }
+            if (entity == null) {
+                entity = loadDirectly(id);
+            }
+            return entity;
+        }
+
+        private synchronized void store(E entity) {
+            if (flushed) {
+                storeDirectly(id, entity);
+            } else {
+                this.entity = entity;
+            }
+        }
+
+        /**
+         * Writes the cached entity to the storage.
+         *
+         * <p>The slot is marked flushed even if there is no entity cached, so that
+         * it can be evicted from the cache.
+         *
+         * @return {@code true} if the entity was written,
+         *         {@code false} if there was no entity cached
+         */
+        private synchronized boolean flush() {
+            if (flushed) {
+                return false;
+            }
+            var cached = entity;
+            if (cached != null) {
+                storeDirectly(id, cached);
+            }
+            entity = null;
+            flushed = true;
+            return cached != null;
+        }
+
+        private synchronized boolean isFlushed() {
+            return flushed;
         }
     }
 
@@ -204,4 +443,13 @@ public final class RepositoryCache<I, E extends Entity<I, ?>> implements Logging
      */
     @FunctionalInterface
     public interface Store<E extends Entity<?, ?>> extends Consumer<E> {}
+
+    /**
+     * A function which stores several {@code Entities} to their real repository at once.
+     *
+     * @param <E>
+     *         the type of entity
+     */
+    @FunctionalInterface
+    public interface StoreAll<E extends Entity<?, ?>> extends Consumer<Collection<E>> {}
 }
@@ -30,11 +30,15 @@ import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.Immutable;
 import io.spine.query.Column;
 import io.spine.server.entity.Entity;
+import io.spine.server.storage.ColumnLayout;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Iterator;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
 /**
  * A container for the columns which values are calculated on top of an {@code Entity} instance.
  *
@@ -46,12 +50,39 @@ import java.util.stream.Stream;
 final class EntityColumns<E extends Entity<?, ?>> implements Iterable<Column<E, ?>> {
 
     private final ImmutableSet<Column<E, ?>> columns;
+    private final ColumnLayout layout;
 
     /**
      * Creates a new instance from the passed columns.
      */
     EntityColumns(Set<Column<E, ?>> columns) {
         this.columns = ImmutableSet.copyOf(columns);
+        this.layout = ColumnLayout.of(this.columns.stream()
+                                                  .map(Column::name)
+                                                  .collect(toImmutableList()));
+    }
+
+    /**
+     * Returns the layout of the column values, in which the columns are placed
+     * in their iteration order.
+     */
+    ColumnLayout layout() {
+        return layout;
+    }
+
+    /**
+     * Evaluates the columns against the passed entity.
+     *
+     * @return the column values indexed by the slots of the {@linkplain #layout() layout}
+     */
+    @Nullable Object[] valuesIn(E entity) {
+        var result = new Object[columns.size()];
+        var slot = 0;
+        for (var column : columns) {
+            result[slot] = column.valueIn(entity);
+            slot++;
+        }
+        return result;
     }
 
     @Override
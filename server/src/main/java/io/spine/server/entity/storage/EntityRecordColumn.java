@@ -38,6 +38,8 @@ import io.spine.query.ColumnName;
 import io.spine.query.RecordColumn;
 import io.spine.query.RecordColumns;
 import io.spine.server.entity.EntityRecord;
+import io.spine.server.storage.ColumnLayout;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
@@ -93,6 +95,11 @@ final class EntityRecordColumn {
     private static final ImmutableSet<RecordColumn<EntityRecord, ?>> all =
             ImmutableSet.of(archived, deleted, version);
 
+    /**
+     * The layout of the values of all columns declared for {@code EntityRecord}.
+     */
+    private static final ColumnLayout layout = ColumnLayout.of(names());
+
     /**
      * Prevents instantiation of this column holder type.
      */
@@ -121,6 +128,28 @@ final class EntityRecordColumn {
         return values;
     }
 
+    /**
+     * Returns the layout of the values of all columns declared for {@code EntityRecord}.
+     */
+    static ColumnLayout layout() {
+        return layout;
+    }
+
+    /**
+     * Evaluates the columns against the passed record and puts the value of each column
+     * into the passed array, starting from the passed slot.
+     *
+     * <p>The values are placed in the order of the column {@linkplain #names() names}.
+     */
+    static void copyValues(EntityRecord record, @Nullable Object[] target, int fromSlot) {
+        checkNotNull(record);
+        var slot = fromSlot;
+        for (var column : all) {
+            target[slot] = column.valueIn(record);
+            slot++;
+        }
+    }
+
     /**
      * Tells whether the passed column is either {@linkplain ArchivedColumn archived}
      * or {@linkplain DeletedColumn deleted}.
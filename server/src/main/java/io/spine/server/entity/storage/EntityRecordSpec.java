@@ -28,22 +28,26 @@ package io.spine.server.entity.storage;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.errorprone.annotations.Immutable;
 import com.google.protobuf.Message;
 import io.spine.annotation.Internal;
 import io.spine.base.EntityState;
 import io.spine.base.Identifier;
+import io.spine.protobuf.AnyPacker;
 import io.spine.query.Column;
 import io.spine.query.ColumnName;
 import io.spine.server.entity.Entity;
 import io.spine.server.entity.EntityRecord;
 import io.spine.server.entity.model.EntityClass;
+import io.spine.server.storage.ColumnLayout;
 import io.spine.server.storage.RecordSpec;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.spine.server.entity.model.EntityClass.asParameterizedEntityClass;
@@ -71,6 +75,15 @@ import static java.util.Collections.unmodifiableMap;
 public final class EntityRecordSpec<I, S extends EntityState<I>, E extends Entity<I, S>>
         extends RecordSpec<I, EntityRecord, E> {
 
+    /**
+     * The specifications created so far, per class of entity.
+     *
+     * <p>As the columns are obtained reflectively, the specifications are created
+     * once per entity class.
+     */
+    private static final Map<Class<?>, EntityRecordSpec<?, ?, ?>> specs =
+            new ConcurrentHashMap<>();
+
     /**
      * The class of {@code Entity} which storage is configured.
      */
@@ -78,10 +91,26 @@ public final class EntityRecordSpec<I, S extends EntityState<I>, E extends Entit
 
     private final EntityColumns<E> columns;
 
-    private EntityRecordSpec(EntityClass<E> entityClass, EntityColumns<E> columns) {
+    /**
+     * The columns declared in the Protobuf message of the entity state.
+     */
+    private final StateColumns<S> stateColumns;
+
+    /**
+     * The layout of the column values extracted from an {@code EntityRecord}.
+     *
+     * <p>The state-based columns go first, followed by the lifecycle columns.
+     */
+    private final ColumnLayout recordLayout;
+
+    private EntityRecordSpec(EntityClass<E> entityClass, Scanner<S, E> scanner) {
         super(idClass(entityClass), EntityRecord.class);
         this.entityClass = entityClass;
-        this.columns = columns;
+        this.columns = scanner.columns();
+        this.stateColumns = scanner.stateColumns();
+        this.recordLayout = ColumnLayout.of(
+                Iterables.concat(stateColumns.names(), EntityRecordColumn.layout().names())
+        );
     }
 
     /**
@@ -99,8 +128,12 @@ public final class EntityRecordSpec<I, S extends EntityState<I>, E extends Entit
     public static <I, S extends EntityState<I>, E extends Entity<I, S>>
     EntityRecordSpec<I, S, E> of(EntityClass<E> entityClass) {
         checkNotNull(entityClass);
-        var scanner = new Scanner<>(entityClass);
-        return new EntityRecordSpec<>(entityClass, scanner.columns());
+        @SuppressWarnings("unchecked")  // Specifications are stored per entity class.
+        var result = (EntityRecordSpec<I, S, E>) specs.computeIfAbsent(
+                entityClass.value(),
+                cls -> new EntityRecordSpec<>(entityClass, new Scanner<S, E>(entityClass))
+        );
+        return result;
     }
 
     /**
@@ -120,8 +153,7 @@ public final class EntityRecordSpec<I, S extends EntityState<I>, E extends Entit
         checkNotNull(entity);
         @SuppressWarnings("unchecked")  // Ensured by the entity type declaration.
         var modelClass = (EntityClass<E>) entity.modelClass();
-        var scanner = new Scanner<>(modelClass);
-        return new EntityRecordSpec<>(modelClass, scanner.columns());
+        return of(modelClass);
     }
 
     /**
@@ -146,13 +178,45 @@ public final class EntityRecordSpec<I, S extends EntityState<I>, E extends Entit
     @Override
     public Map<ColumnName, @Nullable Object> valuesIn(E entity) {
         checkNotNull(entity);
-        Map<ColumnName, @Nullable Object> result = new HashMap<>();
-        columns.forEach(
-                column -> result.put(column.name(), column.valueIn(entity))
-        );
+        var layout = columns.layout();
+        var values = columns.valuesIn(entity);
+        Map<ColumnName, @Nullable Object> result = new HashMap<>(values.length);
+        for (var slot = 0; slot < values.length; slot++) {
+            result.put(layout.nameAt(slot), values[slot]);
+        }
         return unmodifiableMap(result);
     }
 
+    /**
+     * Creates a new record of the passed entity, evaluating the values of all the columns
+     * for the entity.
+     *
+     * <p>The column values are stored in an array shared by all the records of this
+     * specification, so no {@code Map} is created.
+     */
+    EntityRecordWithColumns<I> toRecord(E entity, EntityRecord record) {
+        var values = columns.valuesIn(entity);
+        return new EntityRecordWithColumns<>(entity.id(), record, columns.layout(), values);
+    }
+
+    /**
+     * Creates a new record evaluating the values of the state-based columns against
+     * the state packed into the passed record, and the values of lifecycle columns
+     * against the record itself.
+     *
+     * <p>It is a responsibility of the caller to provide a record with the matching
+     * identifier and state types.
+     */
+    @SuppressWarnings("unchecked")  /* See the docs. */
+    EntityRecordWithColumns<I> toRecord(EntityRecord record) {
+        var values = new Object[recordLayout.size()];
+        var state = (S) AnyPacker.unpack(record.getState());
+        stateColumns.copyValues(state, values, 0);
+        EntityRecordColumn.copyValues(record, values, stateColumns.names().size());
+        var id = idFromRecord(record);
+        return new EntityRecordWithColumns<>(id, record, recordLayout, values);
+    }
+
     @Override
     public I idValueIn(E source) {
         return source.id();
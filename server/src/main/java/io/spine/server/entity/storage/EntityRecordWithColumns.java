@@ -30,17 +30,15 @@ import com.google.common.annotations.VisibleForTesting;
 import io.spine.annotation.SPI;
 import io.spine.base.EntityState;
 import io.spine.base.Identifier;
-import io.spine.protobuf.AnyPacker;
 import io.spine.query.ColumnName;
 import io.spine.server.entity.Entity;
 import io.spine.server.entity.EntityRecord;
 import io.spine.server.entity.LifecycleFlags;
 import io.spine.server.entity.WithLifecycle;
-import io.spine.server.entity.model.EntityClass;
+import io.spine.server.storage.ColumnLayout;
 import io.spine.server.storage.RecordWithColumns;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -62,6 +60,14 @@ public final class EntityRecordWithColumns<I>
         super(id, record, columns);
     }
 
+    /**
+     * Creates a new instance with the column values placed according to the passed layout.
+     */
+    EntityRecordWithColumns(I id, EntityRecord record,
+                            ColumnLayout layout, @Nullable Object[] values) {
+        super(id, record, layout, values);
+    }
+
     /**
      * Creates the new instance of {@code EntityRecordWithColumns} by evaluating the values
      * of the passed columns for the passed entity.
@@ -80,9 +86,8 @@ public final class EntityRecordWithColumns<I>
     EntityRecordWithColumns<I> create(E entity, EntityRecord record) {
         checkNotNull(entity);
         checkNotNull(record);
-        var recordSpec = EntityRecordSpec.of(entity);
-        var storageFields = recordSpec.valuesIn(entity);
-        return new EntityRecordWithColumns<>(entity.id(), record, storageFields);
+        var recordSpec = EntityRecordSpec.<I, S, E>of(entity);
+        return recordSpec.toRecord(entity, record);
     }
 
     /**
@@ -103,8 +108,10 @@ public final class EntityRecordWithColumns<I>
     public static <I> EntityRecordWithColumns<I> create(I id, EntityRecord record) {
         checkNotNull(id);
         checkNotNull(record);
-        var lifecycleValues = EntityRecordColumn.valuesIn(record);
-        return new EntityRecordWithColumns<>(id, record, lifecycleValues);
+        var layout = EntityRecordColumn.layout();
+        var values = new Object[layout.size()];
+        EntityRecordColumn.copyValues(record, values, 0);
+        return new EntityRecordWithColumns<>(id, record, layout, values);
     }
 
     /**
@@ -127,36 +134,12 @@ public final class EntityRecordWithColumns<I>
      * @param <E>
      *         the type of the entity
      */
-    @SuppressWarnings("unchecked") // see the docs.
     public static <I, S extends EntityState<I>, E extends Entity<I, S>> EntityRecordWithColumns<I>
     create(EntityRecord record, Class<E> entityClass) {
         checkNotNull(record);
         checkNotNull(entityClass);
-
-        var stateValues = stateColumnsFrom(record, entityClass);
-        var lifecycleValues = EntityRecordColumn.valuesIn(record);
-        var allColumnValues = merge(stateValues, lifecycleValues);
-        var result = (EntityRecordWithColumns<I>) of(record, allColumnValues);
-        return result;
-    }
-
-    @SuppressWarnings("unchecked") /* See the docs for `create(record, entityClass)`. */
-    private static <I, S extends EntityState<I>, E extends Entity<I, S>>
-    Map<ColumnName, @Nullable Object> stateColumnsFrom(EntityRecord record, Class<E> entityClass) {
-        var entityClazz = EntityClass.asParameterizedEntityClass(entityClass);
-        var columnsScanner = new Scanner<>(entityClazz);
-        var entityState = (S) AnyPacker.unpack(record.getState());
-
-        var stateValues = columnsScanner.stateColumns().valuesIn(entityState);
-        return stateValues;
-    }
-
-    private static Map<ColumnName, Object> merge(Map<ColumnName, @Nullable Object> stateValues,
-                                                 Map<ColumnName, Object> lifecycleValues) {
-        Map<ColumnName, Object> allColumnValues = new HashMap<>();
-        allColumnValues.putAll(stateValues);
-        allColumnValues.putAll(lifecycleValues);
-        return allColumnValues;
+        var recordSpec = EntityRecordSpec.<I, S, E>of(entityClass);
+        return recordSpec.toRecord(record);
     }
 
     /**
@@ -229,11 +212,11 @@ public final class EntityRecordWithColumns<I>
 
         return Objects.equals(id(), other.id()) &&
                 Objects.equals(record(), other.record()) &&
-                Objects.equals(storageFields(), other.storageFields());
+                sameColumnsAs(other);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id(), record(), storageFields());
+        return Objects.hash(id(), record(), columnsHashCode());
     }
 }
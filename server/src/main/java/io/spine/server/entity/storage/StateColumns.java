@@ -26,6 +26,7 @@
 
 package io.spine.server.entity.storage;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.Immutable;
 import io.spine.base.EntityState;
@@ -35,9 +36,9 @@ import io.spine.query.RecordColumn;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
 
 /**
  * Describes the columns of a particular entity defined in its Protobuf {@code Message}
@@ -50,12 +51,16 @@ import java.util.stream.Collectors;
 final class StateColumns<S extends EntityState<?>> implements Iterable<EntityColumn<S, ?>> {
 
     private final ImmutableSet<EntityColumn<S, ?>> columns;
+    private final ImmutableList<ColumnName> names;
 
     /**
      * Creates a new instance from the passed columns.
      */
     StateColumns(Set<EntityColumn<S, ?>> columns) {
         this.columns = ImmutableSet.copyOf(columns);
+        this.names = this.columns.stream()
+                                 .map(RecordColumn::name)
+                                 .collect(toImmutableList());
     }
 
     /**
@@ -69,17 +74,24 @@ final class StateColumns<S extends EntityState<?>> implements Iterable<EntityCol
     }
 
     /**
-     * Evaluates the columns against the passed entity's state and returns the value of each column
-     * along with its name.
+     * Returns the names of the columns in the order of their evaluation.
+     */
+    ImmutableList<ColumnName> names() {
+        return names;
+    }
+
+    /**
+     * Evaluates the columns against the passed entity's state and puts the value of each column
+     * into the passed array, starting from the passed slot.
+     *
+     * <p>The values are placed in the order of the column {@linkplain #names() names}.
      */
-    @SuppressWarnings("ConstantConditions") /* `@Nullable` value mapper for the map's collector. */
-    Map<ColumnName, @Nullable Object> valuesIn(S entityState) {
-        var values = columns.stream()
-                .collect(Collectors.toMap(
-                        RecordColumn::name,
-                        column -> (Object) column.valueIn(entityState)
-                ));
-        return values;
+    void copyValues(S entityState, @Nullable Object[] target, int fromSlot) {
+        var slot = fromSlot;
+        for (var column : columns) {
+            target[slot] = column.valueIn(entityState);
+            slot++;
+        }
     }
 
     @Override
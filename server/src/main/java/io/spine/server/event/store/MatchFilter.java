@@ -26,6 +26,8 @@
 
 package io.spine.server.event.store;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.Any;
 import com.google.protobuf.Message;
 import io.spine.base.EventMessage;
@@ -38,13 +40,13 @@ import io.spine.type.TypeName;
 import io.spine.type.TypeUrl;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.spine.protobuf.AnyPacker.unpackFunc;
 import static io.spine.util.Exceptions.newIllegalArgumentException;
-import static java.util.stream.Collectors.toList;
 
 /**
  * The predicate for filtering events by {@link EventFilter}.
@@ -65,14 +67,20 @@ final class MatchFilter implements Predicate<Event> {
      */
     private final @Nullable List<Any> aggregateIds;
 
-    private final Collection<FieldFilter> eventFieldFilters;
-    private final Collection<FieldFilter> contextFieldFilters;
+    private final ImmutableList<FieldMatch> eventFieldFilters;
+    private final ImmutableList<FieldMatch> contextFieldFilters;
 
     MatchFilter(EventFilter filter) {
         this.eventTypeUrl = getEventTypeUrl(filter);
         this.aggregateIds = getAggregateIdentifiers(filter);
-        this.eventFieldFilters = filter.getEventFieldFilterList();
-        this.contextFieldFilters = filter.getContextFieldFilterList();
+        this.eventFieldFilters = compile(filter.getEventFieldFilterList());
+        this.contextFieldFilters = compile(filter.getContextFieldFilterList());
+    }
+
+    private static ImmutableList<FieldMatch> compile(List<FieldFilter> filters) {
+        return filters.stream()
+                      .map(FieldMatch::new)
+                      .collect(toImmutableList());
     }
 
     private static @Nullable TypeUrl getEventTypeUrl(EventFilter filter) {
@@ -134,34 +142,15 @@ final class MatchFilter implements Predicate<Event> {
     /**
      * Tells if the passed message matches the filters.
      */
-    private static boolean check(Message message, Collection<FieldFilter> filters) {
+    private static boolean check(Message message, ImmutableList<FieldMatch> filters) {
         for (var filter : filters) {
-            var matchesFilter = checkFields(message, filter);
-            if (!matchesFilter) {
+            if (!filter.test(message)) {
                 return false;
             }
         }
         return true;
     }
 
-    private static boolean checkFields(Message object, FieldFilter filter) {
-        var field = fieldFrom(filter);
-        var value = field.findValue(object);
-        if (value.isEmpty()) {
-            /* If there is no value in the field, return `true`
-               when the list of required values is also empty. */
-            var nothingIsExpected = filter.getValueList().isEmpty();
-            return nothingIsExpected;
-        }
-        var expectedValues = filter.getValueList()
-                .stream()
-                .map(unpackFunc())
-                .collect(toList());
-        var msg = (Message) value.get();
-        var result = expectedValues.contains(msg);
-        return result;
-    }
-
     /**
      * Obtains the last component from a potentially fully-qualified field path
      * from the passed filter.
@@ -175,4 +164,36 @@ final class MatchFilter implements Predicate<Event> {
         }
         return Field.named(fieldName);
     }
+
+    /**
+     * A {@link FieldFilter} with the field and the expected values resolved once,
+     * when the filter is created, rather than for each tested event.
+     */
+    private static final class FieldMatch implements Predicate<Message> {
+
+        private final Field field;
+        private final ImmutableSet<Message> expectedValues;
+
+        private FieldMatch(FieldFilter filter) {
+            this.field = fieldFrom(filter);
+            this.expectedValues = filter.getValueList()
+                                        .stream()
+                                        .map(unpackFunc())
+                                        .collect(toImmutableSet());
+        }
+
+        @Override
+        public boolean test(Message object) {
+            var value = field.findValue(object);
+            if (value.isEmpty()) {
+                /* If there is no value in the field, return `true`
+                   when the list of required values is also empty. */
+                var nothingIsExpected = expectedValues.isEmpty();
+                return nothingIsExpected;
+            }
+            var msg = (Message) value.get();
+            var result = expectedValues.contains(msg);
+            return result;
+        }
+    }
 }
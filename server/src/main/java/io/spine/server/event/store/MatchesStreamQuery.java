@@ -26,15 +26,15 @@
 
 package io.spine.server.event.store;
 
+import com.google.common.collect.ImmutableList;
 import io.spine.core.Event;
-import io.spine.server.event.EventFilter;
 import io.spine.server.event.EventStreamQuery;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.List;
 import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -46,11 +46,14 @@ import static java.util.Objects.requireNonNull;
  */
 final class MatchesStreamQuery implements Predicate<Event> {
 
-    private final List<EventFilter> filterList;
+    private final ImmutableList<MatchFilter> filterList;
 
     MatchesStreamQuery(EventStreamQuery query) {
         checkNotNull(query);
-        this.filterList = query.getFilterList();
+        this.filterList = query.getFilterList()
+                               .stream()
+                               .map(MatchFilter::new)
+                               .collect(toImmutableList());
     }
 
     @Override
@@ -61,8 +64,7 @@ final class MatchesStreamQuery implements Predicate<Event> {
         }
         // Check if one of the filters matches. If so, the event matches.
         for (var filter : filterList) {
-            Predicate<Event> filterPredicate = new MatchFilter(filter);
-            if (filterPredicate.test(input)) {
+            if (filter.test(input)) {
                 return true;
             }
         }
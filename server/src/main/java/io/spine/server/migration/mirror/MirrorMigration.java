@@ -34,12 +34,22 @@ import io.spine.server.aggregate.model.AggregateClass;
 import io.spine.server.entity.storage.EntityRecordStorage;
 import io.spine.server.entity.storage.EntityRecordWithColumns;
 import io.spine.server.storage.StorageFactory;
+import io.spine.server.tenant.TenantAwareRunner;
 import io.spine.system.server.Mirror;
 
 import javax.annotation.concurrent.Immutable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 /**
  * Migrates {@link Mirror} projections into {@link EntityRecordWithColumns}.
@@ -65,6 +75,10 @@ import java.util.Iterator;
  *
  * <p>Mirrors, which are marked as archived or deleted – will be migrated as well.
  *
+ * <p>When the {@linkplain MirrorMigrationMonitor#parallelism() parallelism} is configured,
+ * the mirrors are queried once and read through the resulting cursor. Fetching of the next batch
+ * then overlaps with the transformation and writing of the previous ones.
+ *
  * <p><b>An example usage</b>
  *
  * <pre>
@@ -101,6 +115,7 @@ public final class MirrorMigration<I, S extends EntityState<I>, A extends Aggreg
     private final EntityRecordStorage<I, S> entityRecordStorage;
     private final MirrorToEntityRecord<I, S, A> transformation;
     private final String aggregateType;
+    private final boolean multitenant;
 
     /**
      * Creates a new instance of {@code MirrorMigration}.
@@ -125,21 +140,129 @@ public final class MirrorMigration<I, S extends EntityState<I>, A extends Aggreg
         this.aggregateType = AggregateClass.asAggregateClass(aggClass)
                                           .stateTypeUrl()
                                           .value();
+        this.multitenant = context.isMultitenant();
     }
 
     /**
      * Migrates {@link Mirror} projections to the aggregate's {@link EntityRecordStorage}.
+     *
+     * <p>If the monitor allows {@linkplain MirrorMigrationMonitor#parallelism() parallelism},
+     * the migration is {@linkplain #runPipelined(MirrorMigrationMonitor) pipelined}.
      */
     public void run(MirrorMigrationMonitor monitor) {
         monitor.onMigrationStarted();
 
+        if (monitor.parallelism() > 1) {
+            runPipelined(monitor);
+        } else {
+            runSequentially(monitor);
+        }
+
+        monitor.onMigrationCompleted();
+    }
+
+    private void runSequentially(MirrorMigrationMonitor monitor) {
         var batchSize = monitor.batchSize();
         var migrated = proceed(monitor);
         while (migrated.getValue() == batchSize && monitor.shouldContinueAfter(migrated)) {
             migrated = proceed(monitor);
         }
+    }
 
-        monitor.onMigrationCompleted();
+    /**
+     * Migrates the mirrors, overlapping the fetching, transformation and writing of batches.
+     *
+     * <p>The non-migrated mirrors are queried only once. The resulting iterator serves as
+     * a cursor, from which the batches are taken one after another. Each batch is transformed
+     * and written by one of the worker threads, while the current thread fetches the next
+     * batch. At most {@linkplain MirrorMigrationMonitor#parallelism() parallelism} batches are
+     * in progress at a time.
+     *
+     * <p>The completed batches are reported to the monitor in the order they were fetched.
+     * Since migrated mirrors are marked as such, an interrupted migration continues from
+     * where it stopped when run again.
+     *
+     * <p>If a batch fails, no further batches are fetched. The batches which are still
+     * in progress are awaited, and the successful ones are reported to the monitor. Then,
+     * the failure of the batch is rethrown as is, with the failures of other batches,
+     * if any, added as {@linkplain Throwable#getSuppressed() suppressed}.
+     */
+    private void runPipelined(MirrorMigrationMonitor monitor) {
+        var batchSize = monitor.batchSize();
+        var parallelism = monitor.parallelism();
+        var executor = Executors.newFixedThreadPool(parallelism);
+        var runner = TenantAwareRunner.withCurrentTenant(multitenant);
+        Deque<CompletableFuture<MirrorsMigrated>> inProgress = new ArrayDeque<>(parallelism);
+        try {
+            var cursor = fetchMirrors();
+            var proceed = true;
+            while (proceed) {
+                monitor.onBatchStarted();
+                var mirrors = nextBatch(cursor, batchSize);
+                var batch = supplyAsync(() -> runner.evaluate(() -> migrate(mirrors)), executor);
+                inProgress.add(batch);
+                proceed = mirrors.size() == batchSize;
+                if (inProgress.size() == parallelism) {
+                    var migrated = complete(inProgress.remove(), monitor);
+                    proceed = proceed && monitor.shouldContinueAfter(migrated);
+                }
+            }
+            while (!inProgress.isEmpty()) {
+                complete(inProgress.remove(), monitor);
+            }
+        } catch (RuntimeException | Error e) {
+            completeRemaining(inProgress, monitor, e);
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Waits for the passed batch and reports it to the monitor.
+     *
+     * <p>If the batch fails, its failure is rethrown unwrapped from
+     * the {@code CompletionException}.
+     */
+    private static MirrorsMigrated complete(CompletableFuture<MirrorsMigrated> batch,
+                                            MirrorMigrationMonitor monitor) {
+        MirrorsMigrated migrated;
+        try {
+            migrated = batch.join();
+        } catch (CompletionException e) {
+            var cause = e.getCause();
+            throwIfUnchecked(cause);
+            throw new IllegalStateException(cause);
+        }
+        monitor.onBatchCompleted(migrated);
+        return migrated;
+    }
+
+    /**
+     * Completes the batches which are still in progress after the passed failure.
+     *
+     * <p>Other failures are added to the passed one as suppressed.
+     */
+    private static void completeRemaining(Deque<CompletableFuture<MirrorsMigrated>> inProgress,
+                                          MirrorMigrationMonitor monitor,
+                                          Throwable failure) {
+        while (!inProgress.isEmpty()) {
+            try {
+                complete(inProgress.remove(), monitor);
+            } catch (RuntimeException | Error e) {
+                if (e != failure) {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+    }
+
+    private static List<Mirror> nextBatch(Iterator<Mirror> cursor, int batchSize) {
+        List<Mirror> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && cursor.hasNext()) {
+            batch.add(cursor.next());
+        }
+        return batch;
     }
 
     /**
@@ -150,7 +273,21 @@ public final class MirrorMigration<I, S extends EntityState<I>, A extends Aggreg
 
         var batchSize = monitor.batchSize();
         var mirrors = fetchMirrors(batchSize);
-        var batch = new MigrationBatch(batchSize);
+        var migrated = migrate(mirrors, batchSize);
+
+        monitor.onBatchCompleted(migrated);
+        return migrated;
+    }
+
+    private MirrorsMigrated migrate(List<Mirror> mirrors) {
+        return migrate(mirrors.iterator(), mirrors.size());
+    }
+
+    /**
+     * Transforms the passed mirrors and writes the results.
+     */
+    private MirrorsMigrated migrate(Iterator<Mirror> mirrors, int expectedSize) {
+        var batch = new MigrationBatch(expectedSize);
 
         batch.transform(mirrors);
 
@@ -160,8 +297,6 @@ public final class MirrorMigration<I, S extends EntityState<I>, A extends Aggreg
         var migrated = MirrorsMigrated.newBuilder()
                 .setValue(batch.migratedMirrors().size())
                 .build();
-
-        monitor.onBatchCompleted(migrated);
         return migrated;
     }
 
@@ -176,6 +311,20 @@ public final class MirrorMigration<I, S extends EntityState<I>, A extends Aggreg
         return iterator;
     }
 
+    /**
+     * Queries all the non-migrated mirrors of the aggregate type.
+     *
+     * <p>Unlike {@link #fetchMirrors(int)}, the query is neither limited nor sorted.
+     */
+    private Iterator<Mirror> fetchMirrors() {
+        var query = mirrorStorage.queryBuilder()
+                                 .where(Mirror.Column.aggregateType()).is(aggregateType)
+                                 .where(Mirror.Column.wasMigrated()).is(false)
+                                 .build();
+        var iterator = mirrorStorage.readAll(query);
+        return iterator;
+    }
+
     /**
      * Returns a source {@link MirrorStorage}, from which mirrors are to be read and migrated.
      */
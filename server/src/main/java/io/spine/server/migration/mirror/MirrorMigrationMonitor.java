@@ -29,6 +29,8 @@ package io.spine.server.migration.mirror;
 import io.spine.annotation.SPI;
 import io.spine.system.server.Mirror;
 
+import static io.spine.util.Preconditions2.checkPositive;
+
 /**
  * Directs and oversees the process of {@link MirrorMigration}.
  *
@@ -59,13 +61,37 @@ import io.spine.system.server.Mirror;
 public class MirrorMigrationMonitor {
 
     private final int batchSize;
+    private final int parallelism;
 
     /**
      * Creates a monitor with the number of records, which should be processed
      * in a single request during the migration.
+     *
+     * <p>The batches are processed one after another.
      */
     public MirrorMigrationMonitor(int batchSize) {
+        this(batchSize, 1);
+    }
+
+    /**
+     * Creates a monitor with the number of records, which should be processed
+     * in a single request during the migration, and the number of batches,
+     * which may be processed concurrently.
+     *
+     * <p>If {@code parallelism} is greater than one, the migration is pipelined. While
+     * the previously fetched batches are transformed and written by the worker threads,
+     * the next batch is fetched.
+     *
+     * @param batchSize
+     *         the number of records processed in a single request
+     * @param parallelism
+     *         the number of batches processed concurrently
+     */
+    public MirrorMigrationMonitor(int batchSize, int parallelism) {
+        checkPositive(batchSize);
+        checkPositive(parallelism);
         this.batchSize = batchSize;
+        this.parallelism = parallelism;
     }
 
     /**
@@ -75,6 +101,13 @@ public class MirrorMigrationMonitor {
         return batchSize;
     }
 
+    /**
+     * Number of batches, which may be transformed and written concurrently.
+     */
+    public int parallelism() {
+        return parallelism;
+    }
+
     /**
      * Determines if the ongoing migration should be continued
      * after the given batch of mirrors was processed.
@@ -94,6 +127,10 @@ public class MirrorMigrationMonitor {
      * <p>This method is not called when during the last request zero mirrors were migrated.
      * In this case the migration is considered completed anyway.
      *
+     * <p>In the pipelined mode, the batches which are already fetched when this method
+     * returns {@code false} are still migrated and reported to
+     * {@link #onBatchCompleted(MirrorsMigrated)}.
+     *
      * @param migrated
      *         the last completed step
      */
@@ -126,6 +163,9 @@ public class MirrorMigrationMonitor {
 
     /**
      * Called when the next batch is started.
+     *
+     * <p>In the pipelined mode, this method is called when the next batch is fetched,
+     * while the previous batches may still be in progress.
      */
     public void onBatchStarted() {
         // do nothing.
@@ -134,6 +174,10 @@ public class MirrorMigrationMonitor {
     /**
      * Called when the current batch is completed.
      *
+     * <p>In the pipelined mode, the batches are reported in the order they were fetched,
+     * from the thread which has {@linkplain MirrorMigration#run(MirrorMigrationMonitor) run}
+     * the migration.
+     *
      * @param migrated
      *         number of mirrors, migrated within the last batch
      */
@@ -39,6 +39,7 @@ import io.spine.server.commandbus.CommandBus;
 import io.spine.server.commandbus.CommandDispatcherDelegate;
 import io.spine.server.commandbus.DelegatingCommandDispatcher;
 import io.spine.server.delivery.BatchDeliveryListener;
+import io.spine.server.delivery.Delivery;
 import io.spine.server.delivery.Inbox;
 import io.spine.server.delivery.InboxLabel;
 import io.spine.server.entity.EntityLifecycleMonitor;
@@ -152,8 +153,10 @@ public abstract class ProcessManagerRepository<I,
         super.registerWith(context);
         setupCommandRouting(commandRouting());
         checkNotDeaf();
-        initCache(context.isMultitenant());
-        initInbox();
+        var delivery = ServerEnvironment.instance()
+                                        .delivery();
+        initCache(context.isMultitenant(), delivery);
+        initInbox(delivery);
     }
 
     @Override
@@ -161,16 +164,21 @@ public abstract class ProcessManagerRepository<I,
         return context().eventBus();
     }
 
-    private void initCache(boolean multitenant) {
-        cache = new RepositoryCache<>(multitenant, this::doFindOrCreate, this::doStore);
+    private void initCache(boolean multitenant, Delivery delivery) {
+        cache = new RepositoryCache<>(multitenant,
+                                      this::doFindOrCreate,
+                                      this::doStore,
+                                      this::doStoreAll,
+                                      delivery.maxPendingWrites());
     }
 
     /**
      * Initializes the {@code Inbox}.
+     *
+     * @param delivery
+     *         the delivery of the current server environment
      */
-    private void initInbox() {
-        var delivery = ServerEnvironment.instance()
-                                        .delivery();
+    private void initInbox(Delivery delivery) {
         inbox = delivery
                 .<I>newInbox(entityStateType())
                 .withBatchListener(new BatchDeliveryListener<>() {
@@ -183,6 +191,16 @@ public abstract class ProcessManagerRepository<I,
                     public void onEnd(I id) {
                         cache.stopCaching(id);
                     }
+
+                    @Override
+                    public void onPageStart() {
+                        cache.startWriteBehind();
+                    }
+
+                    @Override
+                    public void onPageEnd() {
+                        cache.stopWriteBehind();
+                    }
                 })
                 .addEventEndpoint(InboxLabel.REACT_UPON_EVENT,
                                   e -> PmEventEndpoint.of(this, e))
@@ -422,6 +440,10 @@ public abstract class ProcessManagerRepository<I,
         super.store(entity);
     }
 
+    private void doStoreAll(Collection<P> entities) {
+        super.store(entities);
+    }
+
     @OverridingMethodsMustInvokeSuper
     @Override
     public void close() {
@@ -60,6 +60,7 @@ import io.spine.time.TimestampTemporal;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Collection;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -149,9 +150,9 @@ public abstract class ProjectionRepository<I,
     public void registerWith(BoundedContext context) throws IllegalStateException {
         super.registerWith(context);
         ensureDispatchesEvents();
-        initCache(context.isMultitenant());
         var delivery = ServerEnvironment.instance()
                                         .delivery();
+        initCache(context.isMultitenant(), delivery);
         initInbox(delivery);
         initCatchUp(context, delivery);
     }
@@ -168,8 +169,12 @@ public abstract class ProjectionRepository<I,
                .registerEventDispatcher(catchUpProcess);
     }
 
-    private void initCache(boolean multitenant) {
-        cache = new RepositoryCache<>(multitenant, this::doFindOrCreate, this::doStore);
+    private void initCache(boolean multitenant, Delivery delivery) {
+        cache = new RepositoryCache<>(multitenant,
+                                      this::doFindOrCreate,
+                                      this::doStore,
+                                      this::doStoreAll,
+                                      delivery.maxPendingWrites());
     }
 
     /**
@@ -191,6 +196,16 @@ public abstract class ProjectionRepository<I,
                     public void onEnd(I id) {
                         cache.stopCaching(id);
                     }
+
+                    @Override
+                    public void onPageStart() {
+                        cache.startWriteBehind();
+                    }
+
+                    @Override
+                    public void onPageEnd() {
+                        cache.stopWriteBehind();
+                    }
                 })
                 .addEventEndpoint(InboxLabel.UPDATE_SUBSCRIBER,
                                   e -> ProjectionEndpoint.of(this, e))
@@ -340,6 +355,10 @@ public abstract class ProjectionRepository<I,
         super.store(entity);
     }
 
+    private void doStoreAll(Collection<P> entities) {
+        super.store(entities);
+    }
+
     @Override
     public final ImmutableSet<EventClass> messageClasses() {
         return projectionClass().events();
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.Any;
+import io.spine.client.EntityStateUpdate;
+import io.spine.client.EntityUpdates;
+import io.spine.client.StateDeltas;
+import io.spine.client.SubscriptionUpdate;
+import io.spine.logging.Logging;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.protobuf.AnyPacker.pack;
+import static io.spine.protobuf.AnyPacker.unpack;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A callback of an entity subscription, which accumulates the entity state updates within
+ * a time window and delivers only the latest state of each entity.
+ *
+ * <p>The window opens with the first update accepted after the previous delivery. When it
+ * closes, all the accumulated states are delivered as a single {@code SubscriptionUpdate},
+ * in the order the entities were first updated within the window.
+ *
+ * @see io.spine.client.Topic#getCoalescingWindow()
+ */
+final class CoalescingCallback implements SubscriptionCallback, Logging {
+
+    private final SubscriptionCallback subscriber;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<Any, EntityStateUpdate> pending = new LinkedHashMap<>();
+    private @Nullable SubscriptionUpdate template;
+    private @Nullable ScheduledFuture<?> flush;
+    private boolean released;
+
+    /**
+     * Creates a new callback.
+     *
+     * @param subscriber
+     *         the callback notifying the subscriber
+     * @param windowMillis
+     *         the duration of the window in milliseconds
+     * @param scheduler
+     *         the scheduler which closes the windows
+     */
+    CoalescingCallback(SubscriptionCallback subscriber,
+                       long windowMillis,
+                       ScheduledExecutorService scheduler) {
+        checkArgument(windowMillis > 0, "The coalescing window must be positive.");
+        this.subscriber = checkNotNull(subscriber);
+        this.windowMillis = windowMillis;
+        this.scheduler = checkNotNull(scheduler);
+    }
+
+    /**
+     * Remembers the entity states from the update, replacing the previously accepted states
+     * of the same entities, and opens the window, if it is not open yet.
+     *
+     * <p>The updates which do not carry entity states are passed to the subscriber as-is.
+     */
+    @Override
+    public void accept(SubscriptionUpdate update) {
+        checkNotNull(update);
+        if (!update.hasEntityUpdates()) {
+            subscriber.accept(update);
+            return;
+        }
+        synchronized (this) {
+            if (released) {
+                return;
+            }
+            for (var stateUpdate : update.getEntityUpdates().getUpdateList()) {
+                pending.merge(stateUpdate.getId(), stateUpdate, CoalescingCallback::combine);
+            }
+            template = update;
+            if (flush == null) {
+                flush = scheduler.schedule(this::flush, windowMillis, MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Combines a pending update of an entity with a newer one.
+     *
+     * <p>A newer delta is folded into the pending update so that no changed field is lost.
+     * Any other newer update replaces the pending one.
+     */
+    static EntityStateUpdate combine(EntityStateUpdate earlier, EntityStateUpdate later) {
+        if (!later.hasDelta()) {
+            return later;
+        }
+        var delta = later.getDelta();
+        if (earlier.hasState()) {
+            var state = unpack(earlier.getState());
+            var updated = StateDeltas.apply(state, delta);
+            return earlier.toBuilder()
+                          .setState(pack(updated))
+                          .build();
+        }
+        if (earlier.hasDelta()) {
+            return later.toBuilder()
+                        .setDelta(StateDeltas.merge(earlier.getDelta(), delta))
+                        .build();
+        }
+        return later;
+    }
+
+    /**
+     * Closes the current window delivering the accumulated states, if any.
+     */
+    @VisibleForTesting
+    void flush() {
+        SubscriptionUpdate update;
+        synchronized (this) {
+            flush = null;
+            if (pending.isEmpty() || template == null) {
+                return;
+            }
+            var updates = EntityUpdates.newBuilder()
+                    .addAllUpdate(pending.values());
+            update = template.toBuilder()
+                             .setEntityUpdates(updates)
+                             .build();
+            pending.clear();
+            template = null;
+        }
+        try {
+            subscriber.accept(update);
+        } catch (Throwable t) {
+            _error().withCause(t).log();
+        }
+    }
+
+    /**
+     * Drops the accumulated states and stops accepting the updates.
+     */
+    synchronized void release() {
+        released = true;
+        pending.clear();
+        template = null;
+        if (flush != null) {
+            flush.cancel(false);
+            flush = null;
+        }
+    }
+}
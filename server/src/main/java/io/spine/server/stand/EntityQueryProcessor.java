@@ -25,7 +25,7 @@
  */
 package io.spine.server.stand;
 
-import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.Iterators;
 import io.spine.client.EntityStateWithVersion;
 import io.spine.client.Query;
 import io.spine.client.ResponseFormat;
@@ -34,8 +34,6 @@ import io.spine.server.entity.QueryableRepository;
 
 import java.util.Iterator;
 
-import static com.google.common.collect.ImmutableList.toImmutableList;
-import static com.google.common.collect.Streams.stream;
 import static io.spine.validate.Validate.check;
 
 /**
@@ -50,7 +48,7 @@ class EntityQueryProcessor implements QueryProcessor {
     }
 
     @Override
-    public ImmutableCollection<EntityStateWithVersion> process(Query query) {
+    public Iterator<EntityStateWithVersion> read(Query query) {
         check(query);
         // Specifically check the target until Validation generates code
         // for `(validate)` field option.
@@ -59,9 +57,7 @@ class EntityQueryProcessor implements QueryProcessor {
         var entities = query.all()
                        ? loadAll(query.responseFormat())
                        : loadByQuery(query);
-        var result = stream(entities)
-                .map(EntityQueryProcessor::toEntityState)
-                .collect(toImmutableList());
+        var result = Iterators.transform(entities, EntityQueryProcessor::toEntityState);
         return result;
     }
 
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.protobuf.Any;
+import io.spine.base.EntityState;
+import io.spine.protobuf.AnyPacker;
+import io.spine.server.type.EventEnvelope;
+import io.spine.system.server.event.EntityStateChanged;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+
+/**
+ * An {@link EntityStateChanged} event being delivered to the entity subscriptions.
+ *
+ * <p>Unpacks the new and the old states of the entity at most once, no matter how many
+ * subscriptions evaluate them.
+ *
+ * <p>Instances are not thread-safe. Each is meant to be used by a single thread,
+ * which delivers the event.
+ */
+final class EntityStateChange {
+
+    private final EventEnvelope event;
+    private final EntityStateChanged message;
+    private @MonotonicNonNull EntityState<?> newState;
+    private @MonotonicNonNull EntityState<?> oldState;
+
+    private EntityStateChange(EventEnvelope event) {
+        this.event = event;
+        this.message = (EntityStateChanged) event.message();
+    }
+
+    /**
+     * Creates a new instance for the passed {@code EntityStateChanged} event.
+     */
+    static EntityStateChange of(EventEnvelope event) {
+        return new EntityStateChange(event);
+    }
+
+    /**
+     * Returns the event envelope.
+     */
+    EventEnvelope event() {
+        return event;
+    }
+
+    /**
+     * Returns the event message.
+     */
+    EntityStateChanged message() {
+        return message;
+    }
+
+    /**
+     * Returns the type URL of the changed entity state.
+     */
+    String entityType() {
+        return message.getEntity()
+                      .getTypeUrl();
+    }
+
+    /**
+     * Returns the packed identifier of the changed entity.
+     */
+    Any entityId() {
+        return message.getEntity()
+                      .getId();
+    }
+
+    /**
+     * Returns the state of the entity after the change.
+     */
+    EntityState<?> newState() {
+        if (newState == null) {
+            newState = (EntityState<?>) AnyPacker.unpack(message.getNewState());
+        }
+        return newState;
+    }
+
+    /**
+     * Returns the state of the entity before the change.
+     */
+    EntityState<?> oldState() {
+        if (oldState == null) {
+            oldState = (EntityState<?>) AnyPacker.unpack(message.getOldState());
+        }
+        return oldState;
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.Any;
+import io.spine.client.CompositeFilter;
+import io.spine.client.IdFilter;
+import io.spine.client.Target;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An index of the entity subscriptions, which allows delivering an entity state change
+ * only to the subscriptions it may concern.
+ *
+ * <p>The subscriptions are indexed by the type of the entity state. Within a type,
+ * the subscriptions with the same filters are grouped together, so that the filters are
+ * evaluated once per entity change for the whole group. Inside a group, the subscriptions
+ * with an ID filter are stored in a hash index by the entity ID.
+ *
+ * <p>The modifications of the index are atomic per entity type. The
+ * {@linkplain #update(EntityStateChange) updates} do not block and may run concurrently with
+ * the modifications and with each other.
+ */
+final class EntitySubscriptionIndex {
+
+    private final Map<String, Map<Target, FilterGroup>> byEntityType = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the record of an entity subscription to the index.
+     */
+    void add(SubscriptionRecord record) {
+        checkArgument(record.ofEntity(), "Expected an entity subscription record.");
+        var target = record.target();
+        byEntityType.compute(target.getType(), (type, groups) -> {
+            var result = groups == null
+                         ? new ConcurrentHashMap<Target, FilterGroup>()
+                         : groups;
+            result.computeIfAbsent(groupKey(target), FilterGroup::new)
+                  .add(record);
+            return result;
+        });
+    }
+
+    /**
+     * Removes the record of an entity subscription from the index.
+     *
+     * <p>If there is no such record in the index, invocation has no effect.
+     */
+    void remove(SubscriptionRecord record) {
+        var target = record.target();
+        byEntityType.computeIfPresent(target.getType(), (type, groups) -> {
+            var key = groupKey(target);
+            var group = groups.get(key);
+            if (group != null) {
+                group.remove(record);
+                if (group.isEmpty()) {
+                    groups.remove(key);
+                }
+            }
+            return groups.isEmpty() ? null : groups;
+        });
+    }
+
+    /**
+     * Tells if the index has no records.
+     */
+    boolean isEmpty() {
+        return byEntityType.isEmpty();
+    }
+
+    /**
+     * Obtains all the records in the index.
+     */
+    ImmutableSet<SubscriptionRecord> records() {
+        var result = ImmutableSet.<SubscriptionRecord>builder();
+        for (var groups : byEntityType.values()) {
+            for (var group : groups.values()) {
+                group.addAllTo(result);
+            }
+        }
+        return result.build();
+    }
+
+    /**
+     * Delivers the passed change to the active subscriptions, which it matches.
+     */
+    void update(EntityStateChange change) {
+        var groups = byEntityType.get(change.entityType());
+        if (groups == null) {
+            return;
+        }
+        for (var group : groups.values()) {
+            group.update(change);
+        }
+    }
+
+    /**
+     * Obtains the key of the group for the subscription with the passed target.
+     *
+     * <p>The key is the target without the ID filter, so that the subscriptions, which differ
+     * only in the IDs of interest, share the group.
+     */
+    private static Target groupKey(Target target) {
+        if (target.getIncludeAll() || !target.getFilters().hasIdFilter()) {
+            return target;
+        }
+        var filters = target.getFilters()
+                            .toBuilder()
+                            .clearIdFilter();
+        return target.toBuilder()
+                     .setFilters(filters)
+                     .build();
+    }
+
+    /**
+     * Subscriptions to an entity type sharing the same filters.
+     */
+    private static final class FilterGroup {
+
+        private final boolean includeAll;
+        private final List<CompositeFilter> filters;
+
+        /**
+         * The subscriptions which are interested in entities with any ID.
+         */
+        private final Set<SubscriptionRecord> anyId = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The subscriptions with an ID filter by each of the IDs of interest.
+         */
+        private final Map<Any, Set<SubscriptionRecord>> byId = new ConcurrentHashMap<>();
+
+        private FilterGroup(Target key) {
+            this.includeAll = key.getIncludeAll();
+            this.filters = key.getFilters()
+                              .getFilterList();
+        }
+
+        private void add(SubscriptionRecord record) {
+            var ids = idsOf(record);
+            if (ids.isEmpty()) {
+                anyId.add(record);
+                return;
+            }
+            for (var id : ids) {
+                byId.computeIfAbsent(id, i -> ConcurrentHashMap.newKeySet())
+                    .add(record);
+            }
+        }
+
+        private void remove(SubscriptionRecord record) {
+            var ids = idsOf(record);
+            if (ids.isEmpty()) {
+                anyId.remove(record);
+                return;
+            }
+            for (var id : ids) {
+                var records = byId.get(id);
+                if (records != null) {
+                    records.remove(record);
+                    if (records.isEmpty()) {
+                        byId.remove(id);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Obtains the IDs of interest of the subscription.
+         *
+         * <p>Returns an empty list if the subscription is interested in any entity.
+         */
+        private List<Any> idsOf(SubscriptionRecord record) {
+            if (includeAll) {
+                return List.of();
+            }
+            var idFilter = record.target()
+                                 .getFilters()
+                                 .getIdFilter();
+            if (IdFilter.getDefaultInstance().equals(idFilter)) {
+                return List.of();
+            }
+            return idFilter.getIdList();
+        }
+
+        private boolean isEmpty() {
+            return anyId.isEmpty() && byId.isEmpty();
+        }
+
+        private void addAllTo(ImmutableSet.Builder<SubscriptionRecord> builder) {
+            builder.addAll(anyId);
+            byId.values()
+                .forEach(builder::addAll);
+        }
+
+        private void update(EntityStateChange change) {
+            var candidates = candidatesFor(change);
+            if (candidates.isEmpty()) {
+                return;
+            }
+            var match = StateMatch.evaluate(includeAll, filters, change);
+            if (match == StateMatch.NONE) {
+                return;
+            }
+            for (var record : candidates) {
+                record.update(change, match);
+            }
+        }
+
+        /**
+         * Selects the active subscriptions of this group interested in the changed entity.
+         */
+        private List<SubscriptionRecord> candidatesFor(EntityStateChange change) {
+            var result = new ArrayList<SubscriptionRecord>();
+            addActive(anyId, result);
+            var byThisId = byId.get(change.entityId());
+            if (byThisId != null) {
+                addActive(byThisId, result);
+            }
+            return result;
+        }
+
+        private static void addActive(Set<SubscriptionRecord> records,
+                                      List<SubscriptionRecord> target) {
+            for (var record : records) {
+                if (record.isActive()) {
+                    target.add(record);
+                }
+            }
+        }
+    }
+}
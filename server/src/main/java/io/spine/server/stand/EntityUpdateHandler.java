@@ -26,19 +26,21 @@
 
 package io.spine.server.stand;
 
+import com.google.common.cache.CacheBuilder;
 import com.google.protobuf.Any;
-import io.spine.base.EntityState;
 import io.spine.base.Identifier;
 import io.spine.client.EntityId;
 import io.spine.client.EntityStateUpdate;
 import io.spine.client.EntityUpdates;
+import io.spine.client.StateDelta;
 import io.spine.client.Subscription;
 import io.spine.client.SubscriptionUpdate;
 import io.spine.core.Responses;
-import io.spine.protobuf.AnyPacker;
 import io.spine.server.type.EventEnvelope;
 import io.spine.system.server.event.EntityStateChanged;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -46,8 +48,40 @@ import java.util.Optional;
  */
 final class EntityUpdateHandler extends UpdateHandler {
 
+    /**
+     * The number of delta updates between two full states of an entity, unless
+     * the subscription topic defines it.
+     */
+    private static final int DEFAULT_FULL_STATE_INTERVAL = 100;
+
+    /**
+     * The max number of entities which delta updates are counted by a subscription.
+     *
+     * <p>The entity evicted from the count receives the full state with its next update.
+     */
+    private static final long MAX_COUNTED_ENTITIES = 10_000;
+
+    /**
+     * The number of delta updates sent since the last full state by the packed entity ID,
+     * or {@code null} if the subscription does not request deltas.
+     *
+     * <p>Holds at most {@link #MAX_COUNTED_ENTITIES} least recently updated entities.
+     */
+    private final @Nullable Map<Any, Integer> deltasSinceFullState;
+    private final int fullStateInterval;
+
     EntityUpdateHandler(Subscription subscription) {
         super(subscription);
+        var topic = subscription.getTopic();
+        this.deltasSinceFullState = topic.getDeltaUpdates()
+                                    ? CacheBuilder.newBuilder()
+                                                  .maximumSize(MAX_COUNTED_ENTITIES)
+                                                  .<Any, Integer>build()
+                                                  .asMap()
+                                    : null;
+        this.fullStateInterval = topic.getFullStateInterval() > 0
+                                 ? topic.getFullStateInterval()
+                                 : DEFAULT_FULL_STATE_INTERVAL;
     }
 
     /**
@@ -66,22 +100,44 @@ final class EntityUpdateHandler extends UpdateHandler {
      */
     @Override
     Optional<SubscriptionUpdate> detectUpdate(EventEnvelope event) {
-        SubscriptionUpdate result = null;
-
-        if (typeMatches(event)) {
-            if (includeAll()) {
-                result = newStateUpdate(event);
-            } else {
-                if (idMatches(event)) {
-                    if (stateMatches(newStateFrom(event))) {
-                        result = newStateUpdate(event);
-                    } else if (stateMatches(oldStateFrom(event))) {
-                        result = noLongerMatching(event);
-                    }
-                }
-            }
+        if (!typeMatches(event)) {
+            return Optional.empty();
+        }
+        if (!includeAll() && !idMatches(event)) {
+            return Optional.empty();
+        }
+        var change = EntityStateChange.of(event);
+        var filters = target().getFilters()
+                              .getFilterList();
+        var match = StateMatch.evaluate(includeAll(), filters, change);
+        return updateFor(change, match);
+    }
+
+    /**
+     * Notifies the read-side about the entity change, which was already matched against
+     * the criteria of the handled subscription.
+     *
+     * <p>The subscription must be {@linkplain #isActive() active}.
+     *
+     * @param change
+     *         the change of an entity of the subscribed type
+     * @param match
+     *         the outcome of matching the change against the subscription filters
+     */
+    void handle(EntityStateChange change, StateMatch match) {
+        updateFor(change, match).ifPresent(update -> deliver(change.event(), update));
+    }
+
+    private Optional<SubscriptionUpdate> updateFor(EntityStateChange change, StateMatch match) {
+        switch (match) {
+            case MATCHES:
+                return Optional.of(newStateUpdate(change));
+            case NO_LONGER_MATCHES:
+                return Optional.of(noLongerMatching(change.message()));
+            case NONE:
+            default:
+                return Optional.empty();
         }
-        return Optional.ofNullable(result);
     }
 
     @Override
@@ -103,31 +159,6 @@ final class EntityUpdateHandler extends UpdateHandler {
         return (EntityStateChanged) event.message();
     }
 
-    /**
-     * Checks if the entity state matches the subscription filters.
-     */
-    private boolean stateMatches(EntityState<?> state) {
-        var filters = target().getFilters();
-        var result = filters.getFilterList()
-                .stream()
-                .allMatch(f -> f.test(state));
-        return result;
-    }
-
-    private static EntityState<?> newStateFrom(EventEnvelope event) {
-        var eventMessage = asEntityEvent(event);
-        var newState = eventMessage.getNewState();
-        var result = (EntityState<?>) AnyPacker.unpack(newState);
-        return result;
-    }
-
-    private static EntityState<?> oldStateFrom(EventEnvelope event) {
-        var eventMessage = asEntityEvent(event);
-        var newState = eventMessage.getOldState();
-        var result = (EntityState<?>) AnyPacker.unpack(newState);
-        return result;
-    }
-
     private static Any packId(EntityStateChanged event) {
         var entityId = EntityId.newBuilder()
                 .setId(event.getEntity().getId())
@@ -135,20 +166,56 @@ final class EntityUpdateHandler extends UpdateHandler {
         return Identifier.pack(entityId);
     }
 
-    private SubscriptionUpdate newStateUpdate(EventEnvelope event) {
-        var theEvent = asEntityEvent(event);
+    private SubscriptionUpdate newStateUpdate(EntityStateChange change) {
+        var theEvent = change.message();
         var packedId = packId(theEvent);
-        var packedState = theEvent.getNewState();
         var stateUpdate = EntityStateUpdate.newBuilder()
-                .setId(packedId)
-                .setState(packedState)
-                .build();
-        return toSubscriptionUpdate(stateUpdate);
+                .setId(packedId);
+        var delta = deltaFor(packedId, change);
+        if (delta.isPresent()) {
+            stateUpdate.setDelta(delta.get());
+        } else {
+            stateUpdate.setState(theEvent.getNewState());
+        }
+        return toSubscriptionUpdate(stateUpdate.build());
     }
 
-    private SubscriptionUpdate noLongerMatching(EventEnvelope event) {
-        var theEvent = asEntityEvent(event);
+    /**
+     * Calculates the delta of the entity state if the subscription requests deltas.
+     *
+     * <p>Returns {@code Optional.empty()} if the full state should be sent. This is the case
+     * for the first update of an entity, for every {@code fullStateInterval + 1}-th update,
+     * and when the delta is not smaller than the state.
+     */
+    private Optional<StateDelta> deltaFor(Any packedId, EntityStateChange change) {
+        if (deltasSinceFullState == null) {
+            return Optional.empty();
+        }
+        var sent = deltasSinceFullState.compute(
+                packedId, (id, count) -> count == null || count >= fullStateInterval
+                                         ? 0
+                                         : count + 1
+        );
+        if (sent == 0 || isEmpty(change.message().getOldState())) {
+            deltasSinceFullState.put(packedId, 0);
+            return Optional.empty();
+        }
+        var delta = StateDiff.between(change.oldState(), change.newState());
+        if (delta.isEmpty()) {
+            deltasSinceFullState.put(packedId, 0);
+        }
+        return delta;
+    }
+
+    private static boolean isEmpty(Any state) {
+        return state.getTypeUrl().isEmpty();
+    }
+
+    private SubscriptionUpdate noLongerMatching(EntityStateChanged theEvent) {
         var packedId = packId(theEvent);
+        if (deltasSinceFullState != null) {
+            deltasSinceFullState.remove(packedId);
+        }
         var stateUpdate = EntityStateUpdate.newBuilder()
                 .setId(packedId)
                 .setNoLongerMatching(true)
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.protobuf.Duration;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.Subscription;
+import io.spine.core.Event;
+import io.spine.logging.Logging;
+import io.spine.server.event.EventFilter;
+import io.spine.server.event.EventStore;
+import io.spine.server.event.EventStreamQuery;
+import io.spine.server.type.EventEnvelope;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.protobuf.util.Durations.fromMillis;
+import static com.google.protobuf.util.Durations.fromNanos;
+import static com.google.protobuf.util.Durations.toMillis;
+import static com.google.protobuf.util.Timestamps.subtract;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Replays the stored events to the event subscriptions which requested it.
+ *
+ * <p>The replay starts once the {@link ReplayingCallback} is activated, and the new events are
+ * buffered by it. The bus passes an event to the subscriptions before storing it. So, an event
+ * passed to the subscriptions just before the activation may be not yet stored when the replay
+ * starts reading the store. To deliver such events, the replay waits for
+ * the {@linkplain #DEFAULT_STORE_LAG store lag} before reading. The events stored later than
+ * that after being posted may be missed by the subscription.
+ *
+ * <p>The events both replayed and buffered as the new ones are delivered once.
+ *
+ * @see io.spine.client.Topic#getReplayFrom()
+ */
+final class EventReplay implements Logging {
+
+    /**
+     * The default max time between passing an event to the subscriptions and storing it.
+     */
+    static final Duration DEFAULT_STORE_LAG = fromMillis(200);
+
+    private final EventStore eventStore;
+    private final Duration storeLag;
+
+    EventReplay(EventStore eventStore) {
+        this(eventStore, DEFAULT_STORE_LAG);
+    }
+
+    /**
+     * Creates a new replay over the passed store.
+     *
+     * @param eventStore
+     *         the store of the events to replay
+     * @param storeLag
+     *         the max time between passing an event to the subscriptions and storing it
+     */
+    EventReplay(EventStore eventStore, Duration storeLag) {
+        this.eventStore = checkNotNull(eventStore);
+        this.storeLag = checkNotNull(storeLag);
+    }
+
+    /**
+     * Tells if the passed subscription requests the replay of the stored events.
+     */
+    static boolean requestedBy(Subscription subscription) {
+        return subscription.ofEvent()
+                && subscription.getTopic()
+                               .hasReplayFrom();
+    }
+
+    /**
+     * Delivers the stored events matching the subscription to the passed callback,
+     * and then switches the callback to the new events.
+     *
+     * <p>Must be called within the operation of the subscription tenant, after the callback
+     * is activated. Blocks for the store lag before reading the stored events.
+     */
+    void replay(Subscription subscription, ReplayingCallback callback) {
+        awaitStoreLag();
+        var handler = new EventUpdateHandler(subscription);
+        var lastSeen = subscription.getTopic()
+                                   .getReplayFrom()
+                                   .getLastSeen();
+        eventStore.read(queryFor(subscription), new StreamObserver<>() {
+            @Override
+            public void onNext(Event event) {
+                if (!event.getId().equals(lastSeen)) {
+                    handler.detectUpdate(EventEnvelope.of(event))
+                           .ifPresent(callback::replay);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                _error().withCause(t)
+                        .log("Unable to replay the events to the subscription `%s`.",
+                             subscription.getId().getValue());
+                callback.goLive();
+            }
+
+            @Override
+            public void onCompleted() {
+                callback.goLive();
+            }
+        });
+    }
+
+    /**
+     * Waits until the events passed to the subscriptions before the activation are stored.
+     */
+    private void awaitStoreLag() {
+        try {
+            MILLISECONDS.sleep(toMillis(storeLag));
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    /**
+     * Composes the query of the stored events of the subscribed type which happened after
+     * the requested position.
+     *
+     * <p>If the position names the last seen event, the events which happened at the same
+     * time are included, and the last seen event is skipped when replaying. The store does
+     * not tell the order of the events which happened at the same time. So, the events
+     * which the subscriber has already seen along with the last one are delivered again.
+     */
+    private static EventStreamQuery queryFor(Subscription subscription) {
+        var position = subscription.getTopic()
+                                   .getReplayFrom();
+        var after = position.hasLastSeen()
+                    ? subtract(position.getAfter(), fromNanos(1))
+                    : position.getAfter();
+        var eventType = subscription.targetType()
+                                    .toTypeName()
+                                    .value();
+        var filter = EventFilter.newBuilder()
+                .setEventType(eventType);
+        return EventStreamQuery.newBuilder()
+                .setAfter(after)
+                .addFilter(filter)
+                .build();
+    }
+}
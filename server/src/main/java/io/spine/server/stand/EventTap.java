@@ -50,10 +50,7 @@ final class EventTap implements Listener<EventEnvelope> {
     public void accept(EventEnvelope event) {
         var typeUrl = event.typeUrl();
         if (!event.isExternal() && subscriptionRegistry.hasType(typeUrl)) {
-            subscriptionRegistry.byType(typeUrl)
-                                .stream()
-                                .filter(SubscriptionRecord::isActive)
-                                .forEach(record -> record.update(event));
+            subscriptionRegistry.update(event);
         }
     }
 }
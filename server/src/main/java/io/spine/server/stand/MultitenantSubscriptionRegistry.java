@@ -25,12 +25,15 @@
  */
 package io.spine.server.stand;
 
+import com.google.common.collect.ImmutableSet;
 import io.spine.client.Subscription;
 import io.spine.client.SubscriptionId;
 import io.spine.client.Topic;
 import io.spine.core.TenantId;
 import io.spine.server.tenant.TenantFunction;
+import io.spine.server.type.EventEnvelope;
 import io.spine.type.TypeUrl;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Map;
 import java.util.Set;
@@ -48,13 +51,21 @@ final class MultitenantSubscriptionRegistry implements SubscriptionRegistry {
     private final Map<TenantId, SubscriptionRegistry> tenantSlices = new ConcurrentHashMap<>();
 
     private final boolean multitenant;
+    private final SubscriptionLimits limits;
+    private final @Nullable SubscriptionExpiry expiry;
 
-    private MultitenantSubscriptionRegistry(boolean multitenant) {
+    private MultitenantSubscriptionRegistry(boolean multitenant, SubscriptionLimits limits) {
         this.multitenant = multitenant;
+        this.limits = limits;
+        this.expiry = limits.idleTimeout()
+                            .map(SubscriptionExpiry::new)
+                            .orElse(null);
     }
 
-    static MultitenantSubscriptionRegistry newInstance(boolean multitenant) {
-        return new MultitenantSubscriptionRegistry(multitenant);
+    static MultitenantSubscriptionRegistry
+    newInstance(boolean multitenant, SubscriptionLimits limits) {
+        checkNotNull(limits);
+        return new MultitenantSubscriptionRegistry(multitenant, limits);
     }
 
     @Override
@@ -77,11 +88,21 @@ final class MultitenantSubscriptionRegistry implements SubscriptionRegistry {
         registrySlice().remove(subscription);
     }
 
+    @Override
+    public ImmutableSet<Subscription> removeAll(Iterable<SubscriptionId> ids) {
+        return registrySlice().removeAll(ids);
+    }
+
     @Override
     public Set<SubscriptionRecord> byType(TypeUrl type) {
         return registrySlice().byType(type);
     }
 
+    @Override
+    public void update(EventEnvelope event) {
+        registrySlice().update(event);
+    }
+
     @Override
     public boolean containsId(SubscriptionId subscriptionId) {
         return registrySlice().containsId(subscriptionId);
@@ -92,6 +113,18 @@ final class MultitenantSubscriptionRegistry implements SubscriptionRegistry {
         return registrySlice().hasType(type);
     }
 
+    @Override
+    public SubscriptionStats stats() {
+        return registrySlice().stats();
+    }
+
+    @Override
+    public void close() {
+        if (expiry != null) {
+            expiry.close();
+        }
+    }
+
     private boolean isMultitenant() {
         return multitenant;
     }
@@ -103,7 +136,7 @@ final class MultitenantSubscriptionRegistry implements SubscriptionRegistry {
                 checkNotNull(tenantId);
                 var slice = tenantSlices.computeIfAbsent(
                         tenantId,
-                        id -> new TenantSubscriptionRegistry()
+                        id -> new TenantSubscriptionRegistry(limits.maxActivePerTenant(), expiry)
                 );
                 return slice;
             }
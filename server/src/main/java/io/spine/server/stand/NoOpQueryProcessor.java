@@ -25,11 +25,13 @@
  */
 package io.spine.server.stand;
 
-import com.google.common.collect.ImmutableCollection;
-import com.google.common.collect.ImmutableList;
 import io.spine.client.EntityStateWithVersion;
 import io.spine.client.Query;
 
+import java.util.Iterator;
+
+import static java.util.Collections.emptyIterator;
+
 /**
  * An {@link QueryProcessor} implementation that always returns empty result.
  *
@@ -39,7 +41,7 @@ import io.spine.client.Query;
 class NoOpQueryProcessor implements QueryProcessor {
 
     @Override
-    public ImmutableCollection<EntityStateWithVersion> process(Query query) {
-        return ImmutableList.of();
+    public Iterator<EntityStateWithVersion> read(Query query) {
+        return emptyIterator();
     }
 }
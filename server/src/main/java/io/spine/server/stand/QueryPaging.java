@@ -0,0 +1,330 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.EntityStateWithVersion;
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.core.Responses;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Splits the query results into pages and bounded-size response chunks.
+ *
+ * <p>The position of a page is passed to the client as an opaque cursor. The cursor holds
+ * the number of the results read so far and the fingerprint of the query, so that it
+ * cannot be used with another query. The results preceding the position are skipped
+ * without being collected, so the memory used for reading a page does not depend on
+ * the position.
+ *
+ * <p>As the position is a number of results, the pages are consistent only if the results
+ * come in the same order for each page. Therefore, the paged queries must be
+ * {@linkplain QueryValidator ordered}, and the cursors are given only for the ordered
+ * queries.
+ */
+final class QueryPaging {
+
+    /**
+     * The max number of entities in a chunk of a streamed response, unless
+     * the {@code page_size} of the query is set.
+     */
+    @VisibleForTesting
+    static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /**
+     * The approximate max serialized size of the entities in a single response.
+     *
+     * <p>Kept well below the default 4 MiB message limit of gRPC.
+     */
+    @VisibleForTesting
+    static final int MAX_CHUNK_BYTES = 1024 * 1024;
+
+    /** Prevents instantiation of this utility class. */
+    private QueryPaging() {
+    }
+
+    /**
+     * Tells if the query should be read page by page.
+     */
+    static boolean isPaged(Query query) {
+        var format = query.getFormat();
+        return format.getPageSize() > 0 || !format.getCursor().isEmpty();
+    }
+
+    /**
+     * Checks that the cursor of the query, if set, was obtained for this query.
+     *
+     * @return the error message or {@code Optional.empty()} if the cursor is valid
+     */
+    static Optional<String> checkCursor(Query query) {
+        var cursor = query.getFormat()
+                          .getCursor();
+        if (cursor.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            var parsed = QueryCursor.parseFrom(cursor);
+            if (parsed.getFingerprint() != fingerprint(query)) {
+                return Optional.of("The query cursor was obtained for another query.");
+            }
+            return Optional.empty();
+        } catch (InvalidProtocolBufferException e) {
+            return Optional.of("The query cursor is malformed.");
+        }
+    }
+
+    /**
+     * Creates the response with the page of the results requested by the query.
+     *
+     * @param query
+     *         the paged query
+     * @param results
+     *         the lazily read results of the query from the very first one
+     */
+    static QueryResponse page(Query query, Iterator<EntityStateWithVersion> results) {
+        var offset = offsetOf(query);
+        var remaining = skip(results, offset);
+        var pageSize = query.getFormat().getPageSize();
+        var maxCount = pageSize > 0 ? pageSize : DEFAULT_CHUNK_SIZE;
+        return nextChunk(query, remaining, offset, maxCount);
+    }
+
+    /**
+     * Feeds the results of the query to the passed observer in bounded-size chunks.
+     *
+     * <p>If the query is ordered, each chunk, except the last one, carries the cursor of
+     * the following chunk. If the streaming breaks, the client may continue reading from
+     * the last received position using a paged query.
+     *
+     * <p>If the observer is a {@link ServerCallStreamObserver}, the chunks are sent only
+     * while the transport {@linkplain ServerCallStreamObserver#isReady() is ready} to accept
+     * them. Once it is not, the streaming is suspended and then resumed by
+     * the {@linkplain ServerCallStreamObserver#setOnReadyHandler(Runnable) on-ready handler}
+     * in the thread of the transport. So, a slow client does not make the server buffer
+     * the whole result.
+     *
+     * @param query
+     *         the streamed query
+     * @param results
+     *         the lazily read results of the query from the very first one
+     * @param observer
+     *         the observer to feed the chunks to
+     * @param runner
+     *         runs the resumed streaming in the context of the query, e.g. for its tenant
+     */
+    static void stream(Query query,
+                       Iterator<EntityStateWithVersion> results,
+                       StreamObserver<QueryResponse> observer,
+                       Consumer<Runnable> runner) {
+        var pageSize = query.getFormat().getPageSize();
+        var maxCount = pageSize > 0 ? pageSize : DEFAULT_CHUNK_SIZE;
+        var offset = offsetOf(query);
+        var remaining = skip(results, offset);
+        var stream = new ChunkStream(query, remaining, observer, offset, maxCount);
+        if (observer instanceof ServerCallStreamObserver) {
+            var call = (ServerCallStreamObserver<QueryResponse>) observer;
+            stream.controlledBy(call);
+            call.setOnReadyHandler(() -> runner.accept(stream::resume));
+        }
+        stream.send();
+    }
+
+    private static PeekingIterator<EntityStateWithVersion>
+    skip(Iterator<EntityStateWithVersion> results, long offset) {
+        var remaining = Iterators.peekingIterator(results);
+        var toSkip = offset;
+        while (toSkip > 0 && remaining.hasNext()) {
+            remaining.next();
+            toSkip--;
+        }
+        return remaining;
+    }
+
+    /**
+     * Collects the next chunk of results limited by the count and by the serialized size.
+     *
+     * <p>A chunk always contains at least one result, if there are any.
+     */
+    private static QueryResponse nextChunk(Query query,
+                                           PeekingIterator<EntityStateWithVersion> results,
+                                           long offset,
+                                           int maxCount) {
+        var chunk = ImmutableList.<EntityStateWithVersion>builder();
+        var count = 0;
+        var bytes = 0L;
+        while (count < maxCount && results.hasNext()) {
+            var size = results.peek().getSerializedSize();
+            if (count > 0 && bytes + size > MAX_CHUNK_BYTES) {
+                break;
+            }
+            chunk.add(results.next());
+            count++;
+            bytes += size;
+        }
+        var response = QueryResponse.newBuilder()
+                .addAllMessage(chunk.build())
+                .setResponse(Responses.ok());
+        if (results.hasNext() && isOrdered(query)) {
+            response.setNextCursor(cursor(query, offset + count));
+        }
+        return response.build();
+    }
+
+    private static boolean isOrdered(Query query) {
+        return query.getFormat()
+                    .getOrderByCount() > 0;
+    }
+
+    private static long offsetOf(Query query) {
+        var cursor = query.getFormat()
+                          .getCursor();
+        if (cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            return QueryCursor.parseFrom(cursor)
+                              .getOffset();
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException("The query cursor is malformed.", e);
+        }
+    }
+
+    private static ByteString cursor(Query query, long offset) {
+        return QueryCursor.newBuilder()
+                .setFingerprint(fingerprint(query))
+                .setOffset(offset)
+                .build()
+                .toByteString();
+    }
+
+    /**
+     * Calculates the fingerprint of the target and of the response format of the query,
+     * ignoring the pagination settings.
+     */
+    private static long fingerprint(Query query) {
+        var format = query.getFormat()
+                          .toBuilder()
+                          .clearPageSize()
+                          .clearCursor()
+                          .build();
+        return Hashing.farmHashFingerprint64()
+                      .newHasher()
+                      .putBytes(query.getTarget().toByteArray())
+                      .putBytes(format.toByteArray())
+                      .hash()
+                      .asLong();
+    }
+
+    /**
+     * Sends the chunks of the query results to the observer.
+     *
+     * <p>If {@linkplain #controlledBy(ServerCallStreamObserver) controlled} by a call,
+     * sends the chunks only while the call is ready for them.
+     */
+    private static final class ChunkStream {
+
+        private final Query query;
+        private final PeekingIterator<EntityStateWithVersion> results;
+        private final StreamObserver<QueryResponse> observer;
+        private final int maxCount;
+        private long offset;
+        private @Nullable ServerCallStreamObserver<QueryResponse> call;
+        private boolean done;
+
+        private ChunkStream(Query query,
+                            PeekingIterator<EntityStateWithVersion> results,
+                            StreamObserver<QueryResponse> observer,
+                            long offset,
+                            int maxCount) {
+            this.query = query;
+            this.results = results;
+            this.observer = observer;
+            this.offset = offset;
+            this.maxCount = maxCount;
+        }
+
+        private synchronized void controlledBy(ServerCallStreamObserver<QueryResponse> call) {
+            this.call = call;
+        }
+
+        /**
+         * Sends the chunks until all of them are sent or the call is not ready.
+         */
+        private synchronized void send() {
+            while (!done) {
+                if (call != null) {
+                    if (call.isCancelled()) {
+                        done = true;
+                        return;
+                    }
+                    if (!call.isReady()) {
+                        return;
+                    }
+                }
+                sendChunk();
+            }
+        }
+
+        /**
+         * Continues sending the chunks once the call is ready again.
+         *
+         * <p>Reports a failure to read the results to the observer, as there is no caller
+         * to rethrow it to.
+         */
+        private synchronized void resume() {
+            try {
+                send();
+            } catch (RuntimeException e) {
+                done = true;
+                observer.onError(e);
+            }
+        }
+
+        private void sendChunk() {
+            var chunk = nextChunk(query, results, offset, maxCount);
+            offset += chunk.getMessageCount();
+            observer.onNext(chunk);
+            if (!results.hasNext()) {
+                done = true;
+                observer.onCompleted();
+            }
+        }
+    }
+}
@@ -26,10 +26,13 @@
 package io.spine.server.stand;
 
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import io.grpc.stub.StreamObserver;
 import io.spine.client.EntityStateWithVersion;
 import io.spine.client.Query;
 
+import java.util.Iterator;
+
 /**
  * Processes a {@linkplain Query query} and returns the result.
  */
@@ -41,5 +44,18 @@ interface QueryProcessor {
      * @param query an instance of {@code Query} to process
      * @return the query result
      */
-    ImmutableCollection<EntityStateWithVersion> process(Query query);
+    default ImmutableCollection<EntityStateWithVersion> process(Query query) {
+        return ImmutableList.copyOf(read(query));
+    }
+
+    /**
+     * Lazily reads the query result.
+     *
+     * <p>The query is validated eagerly. The entities are loaded as the returned iterator
+     * is traversed, so the result does not have to fit the memory at once.
+     *
+     * @param query an instance of {@code Query} to process
+     * @return the iterator over the query result
+     */
+    Iterator<EntityStateWithVersion> read(Query query);
 }
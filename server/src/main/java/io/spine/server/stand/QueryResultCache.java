@@ -0,0 +1,228 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import io.spine.client.EntityStateWithVersion;
+import io.spine.client.Query;
+import io.spine.core.TenantId;
+import io.spine.type.TypeUrl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A size-bounded cache of the query results.
+ *
+ * <p>The results are cached per tenant and per query target and response format.
+ * The ID and the actor context of the query are not a part of the key, so the identical
+ * queries of different actors share the result.
+ *
+ * <p>Each entity type has a generation, which is a part of the key of the cached result.
+ * The generation is {@linkplain #invalidate advanced} once the entities of the type are
+ * written to their storage, so the results read before the write are no longer found.
+ * The stale results are evicted as the cache fills up.
+ *
+ * <p>The generation is taken before the query is run, and is advanced only after the write
+ * completes. So, a result read concurrently with a write is cached under the previous
+ * generation, and is not served once the write completes. Until then, the cache may serve
+ * the result read before the write, just as the storage itself would.
+ *
+ * <p>The generation is shared by all the tenants. A write on behalf of one tenant
+ * invalidates the results of the type cached for the other tenants too.
+ */
+final class QueryResultCache {
+
+    private final boolean multitenant;
+    private final Cache<Key, ImmutableList<EntityStateWithVersion>> results;
+    private final Map<TypeUrl, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param capacity
+     *         the max total number of the entity states in the cached results
+     * @param multitenant
+     *         whether the cache serves a multi-tenant {@code Stand}
+     */
+    QueryResultCache(long capacity, boolean multitenant) {
+        checkArgument(capacity > 0, "The query cache capacity must be positive.");
+        this.multitenant = multitenant;
+        this.results = CacheBuilder.newBuilder()
+                .maximumWeight(capacity)
+                .<Key, ImmutableList<EntityStateWithVersion>>weigher(
+                        (key, value) -> value.size() + 1
+                )
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtains the cached result of the query or reads and caches it.
+     *
+     * @param query
+     *         the query to obtain the result for
+     * @param reader
+     *         reads the result of the query if it is not cached
+     */
+    ImmutableList<EntityStateWithVersion>
+    get(Query query, Supplier<ImmutableList<EntityStateWithVersion>> reader) {
+        checkNotNull(query);
+        checkNotNull(reader);
+        var tenant = tenantOf(query.getContext().getTenantId());
+        var typeKey = new TypeKey(tenant, query.targetType());
+        var generation = generationOf(typeKey.type).get();
+        var key = new Key(typeKey, generation, normalize(query));
+        var cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        var result = reader.get();
+        results.put(key, result);
+        return result;
+    }
+
+    /**
+     * Invalidates the results for the entity type.
+     *
+     * <p>Must be called after the changed entities are written to the storage.
+     *
+     * @param type
+     *         the type of the state of the written entities
+     */
+    void invalidate(TypeUrl type) {
+        checkNotNull(type);
+        generationOf(type).incrementAndGet();
+    }
+
+    /**
+     * Obtains the hit and miss statistics of the cache.
+     */
+    CacheStats stats() {
+        return results.stats();
+    }
+
+    /**
+     * Drops all the cached results.
+     */
+    void clear() {
+        results.invalidateAll();
+    }
+
+    private AtomicLong generationOf(TypeUrl type) {
+        return generations.computeIfAbsent(type, t -> new AtomicLong());
+    }
+
+    private TenantId tenantOf(TenantId tenant) {
+        return multitenant ? tenant : TenantId.getDefaultInstance();
+    }
+
+    /**
+     * Leaves only the parts of the query which define its result.
+     */
+    private static Query normalize(Query query) {
+        return Query.newBuilder()
+                .setTarget(query.getTarget())
+                .setFormat(query.getFormat())
+                .buildPartial();
+    }
+
+    /**
+     * An entity type of a tenant.
+     */
+    private static final class TypeKey {
+
+        private final TenantId tenant;
+        private final TypeUrl type;
+
+        private TypeKey(TenantId tenant, TypeUrl type) {
+            this.tenant = tenant;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TypeKey)) {
+                return false;
+            }
+            var other = (TypeKey) o;
+            return tenant.equals(other.tenant) && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(tenant, type);
+        }
+    }
+
+    /**
+     * The key of a cached query result.
+     */
+    private static final class Key {
+
+        private final TypeKey type;
+        private final long generation;
+        private final Query query;
+
+        private Key(TypeKey type, long generation, Query query) {
+            this.type = type;
+            this.generation = generation;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            var other = (Key) o;
+            return generation == other.generation
+                    && type.equals(other.type)
+                    && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(type, generation, query);
+        }
+    }
+}
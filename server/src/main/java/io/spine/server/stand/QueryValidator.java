@@ -66,6 +66,24 @@ final class QueryValidator extends AbstractTargetValidator<Query> {
                 return error;
             }
         }
+        var pagedWithoutOrder = QueryPaging.isPaged(request) && format.getOrderByCount() == 0;
+        if (pagedWithoutOrder) {
+            var error = Error.newBuilder()
+                    .setType(QueryValidationError.class.getSimpleName())
+                    .setCode(INVALID_QUERY.getNumber())
+                    .setMessage("Query pages cannot be read without ordering.")
+                    .build();
+            return error;
+        }
+        var cursorError = QueryPaging.checkCursor(request);
+        if (cursorError.isPresent()) {
+            var error = Error.newBuilder()
+                    .setType(QueryValidationError.class.getSimpleName())
+                    .setCode(INVALID_QUERY.getNumber())
+                    .setMessage(cursorError.get())
+                    .build();
+            return error;
+        }
         return null;
     }
 
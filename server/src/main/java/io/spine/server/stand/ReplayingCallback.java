@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.collect.ImmutableSet;
+import io.spine.client.SubscriptionUpdate;
+import io.spine.core.EventId;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A callback of an event subscription which delivers the stored events before the new ones.
+ *
+ * <p>The callback is activated before the stored events are read. Until the replay
+ * {@linkplain #goLive() completes}, the updates with the new events are buffered.
+ *
+ * <p>An event may be both replayed and received as a new one, in any order. A
+ * {@linkplain #replay(SubscriptionUpdate) replayed} event drops the buffered update with
+ * the same event, and the updates with the events already replayed are not buffered.
+ * So, no event is delivered twice.
+ */
+final class ReplayingCallback implements SubscriptionCallback {
+
+    private final SubscriptionCallback delegate;
+
+    /**
+     * The updates with the new events by the ID of the event, or {@code null} once
+     * the replay is completed.
+     */
+    private @Nullable Map<EventId, SubscriptionUpdate> buffer = new LinkedHashMap<>();
+
+    /**
+     * The IDs of the replayed events.
+     *
+     * <p>Dropped once the replay is completed.
+     */
+    private Set<EventId> replayed = new HashSet<>();
+
+    ReplayingCallback(SubscriptionCallback delegate) {
+        this.delegate = checkNotNull(delegate);
+    }
+
+    @Override
+    public void accept(SubscriptionUpdate update) {
+        synchronized (this) {
+            if (buffer != null) {
+                var id = eventIdOf(update);
+                if (!replayed.contains(id)) {
+                    buffer.put(id, update);
+                }
+                return;
+            }
+        }
+        delegate.accept(update);
+    }
+
+    /**
+     * Delivers the update with a stored event, unless the event is already replayed.
+     */
+    void replay(SubscriptionUpdate update) {
+        synchronized (this) {
+            checkState(buffer != null, "The replay is already completed.");
+            var id = eventIdOf(update);
+            if (!replayed.add(id)) {
+                return;
+            }
+            buffer.remove(id);
+        }
+        delegate.accept(update);
+    }
+
+    /**
+     * Delivers the buffered updates and makes the new updates delivered directly.
+     */
+    void goLive() {
+        while (true) {
+            ArrayList<SubscriptionUpdate> pending;
+            synchronized (this) {
+                checkState(buffer != null, "The replay is already completed.");
+                if (buffer.isEmpty()) {
+                    buffer = null;
+                    replayed = ImmutableSet.of();
+                    return;
+                }
+                pending = new ArrayList<>(buffer.values());
+                buffer.clear();
+            }
+            pending.forEach(delegate::accept);
+        }
+    }
+
+    private static EventId eventIdOf(SubscriptionUpdate update) {
+        return update.getEventUpdates()
+                     .getEvent(0)
+                     .getId();
+    }
+}
@@ -26,7 +26,9 @@
 package io.spine.server.stand;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimaps;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.grpc.stub.StreamObserver;
 import io.spine.annotation.Internal;
@@ -35,10 +37,12 @@ import io.spine.client.EntityStateWithVersion;
 import io.spine.client.Query;
 import io.spine.client.QueryResponse;
 import io.spine.client.Subscription;
+import io.spine.client.SubscriptionId;
 import io.spine.client.Topic;
 import io.spine.core.Origin;
 import io.spine.core.Response;
 import io.spine.core.Responses;
+import io.spine.core.TenantId;
 import io.spine.protobuf.AnyPacker;
 import io.spine.server.EventProducer;
 import io.spine.server.Identity;
@@ -48,17 +52,24 @@ import io.spine.server.entity.EntityLifecycle;
 import io.spine.server.entity.EntityRecord;
 import io.spine.server.entity.EntityRecordChange;
 import io.spine.server.entity.Repository;
+import io.spine.server.event.EventStore;
 import io.spine.server.tenant.QueryOperation;
 import io.spine.server.tenant.SubscriptionOperation;
+import io.spine.server.tenant.TenantAwareFunction0;
 import io.spine.server.tenant.TenantAwareOperation;
+import io.spine.server.tenant.TenantAwareRunner;
 import io.spine.server.type.EventEnvelope;
 import io.spine.system.server.event.EntityStateChanged;
 import io.spine.type.TypeUrl;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Collection;
+import java.util.Optional;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.spine.grpc.StreamObservers.ack;
 
 /**
@@ -97,6 +108,12 @@ public class Stand implements AutoCloseable {
      */
     private final SubscriptionRegistry subscriptionRegistry;
 
+    /**
+     * Tells if this {@code Stand} created the subscription registry, and is thus
+     * responsible for closing it.
+     */
+    private final boolean ownsRegistry;
+
     /**
      * Manages the entity {@linkplain TypeUrl types} exposed via this instance of {@code Stand}.
      */
@@ -115,16 +132,58 @@ public class Stand implements AutoCloseable {
 
     private final EventTap eventTap;
 
+    /**
+     * The queues of the subscription updates, or {@code null} if the updates are delivered
+     * in the thread which posts the events.
+     */
+    private final @Nullable UpdateQueues updateQueues;
+
+    /**
+     * The cache of the query results, or {@code null} if the results are not cached.
+     */
+    private final @Nullable QueryResultCache queryCache;
+
+    /**
+     * Coalesces the updates of the subscriptions requesting it.
+     */
+    private final UpdateCoalescing coalescing = new UpdateCoalescing();
+
+    /**
+     * Replays the stored events to the event subscriptions requesting it, or {@code null}
+     * if the event store is not yet {@linkplain #injectEventStore(EventStore) injected}.
+     */
+    private volatile @MonotonicNonNull EventReplay eventReplay;
+
     private Stand(Builder builder) {
         super();
         this.multitenant = builder.isMultitenant();
         this.subscriptionRegistry = builder.subscriptionRegistry();
+        this.ownsRegistry = builder.registryOwner() == null;
         this.typeRegistry = builder.typeRegistry();
         this.eventRegistry = builder.eventRegistry();
         this.topicValidator = builder.topicValidator();
         this.queryValidator = builder.queryValidator();
         this.subscriptionValidator = builder.subscriptionValidator();
         this.eventTap = new EventTap(subscriptionRegistry);
+        var fanOut = builder.fanOut();
+        this.updateQueues = fanOut == null
+                            ? null
+                            : new UpdateQueues(fanOut, this::cancelOverflown);
+        this.queryCache = createQueryCache(builder);
+    }
+
+    /**
+     * Creates the query cache if configured by the builder.
+     *
+     * <p>The cache is invalidated by the repositories once they
+     * {@linkplain #onStored write} the entities.
+     */
+    private @Nullable QueryResultCache createQueryCache(Builder builder) {
+        var capacity = builder.queryCacheCapacity();
+        if (capacity == 0) {
+            return null;
+        }
+        return new QueryResultCache(capacity, multitenant);
     }
 
     public static Builder newBuilder() {
@@ -221,6 +280,17 @@ public class Stand implements AutoCloseable {
      * <p>After the activation, the clients will start receiving the updates via the passed
      * {@code SubscriptionCallback}.
      *
+     * <p>If this {@code Stand} is configured with a {@link SubscriptionFanOut}, the callback
+     * is invoked by the fan-out executor rather than by the thread posting the events.
+     *
+     * <p>If the topic of the entity subscription has
+     * a {@linkplain Topic#getCoalescingWindow() coalescing window}, the callback receives
+     * the latest states of the updated entities once per window.
+     *
+     * <p>If the topic of the event subscription has
+     * a {@linkplain Topic#getReplayFrom() replay position}, the callback first receives
+     * the matching events stored after the position, and then the new events.
+     *
      * @param subscription
      *         the subscription to activate
      * @param callback
@@ -241,7 +311,18 @@ public class Stand implements AutoCloseable {
         var op = new SubscriptionOperation(subscription) {
             @Override
             public void run() {
-                subscriptionRegistry.activate(subscription, callback);
+                var queued = updateQueues == null
+                             ? callback
+                             : updateQueues.queueFor(subscription, callback);
+                var delivery = coalescing.wrap(subscription, queued);
+                var replay = eventReplay;
+                if (replay != null && EventReplay.requestedBy(subscription)) {
+                    var replaying = new ReplayingCallback(delivery);
+                    activateOrRelease(subscription, replaying);
+                    replay.replay(subscription, replaying);
+                } else {
+                    activateOrRelease(subscription, delivery);
+                }
                 ack(responseObserver);
             }
         };
@@ -249,6 +330,24 @@ public class Stand implements AutoCloseable {
         op.execute();
     }
 
+    /**
+     * Activates the subscription in the registry.
+     *
+     * <p>If the registry rejects the activation, e.g. as the tenant has too many active
+     * subscriptions, releases the queue and the coalescing window created for
+     * the subscription. So, an inactive subscription holds no delivery resources, and there
+     * is nothing to release once the registry {@linkplain SubscriptionLimits#idleTimeout()
+     * expires} it.
+     */
+    private void activateOrRelease(Subscription subscription, SubscriptionCallback callback) {
+        try {
+            subscriptionRegistry.activate(subscription, callback);
+        } catch (RuntimeException e) {
+            release(subscription);
+            throw e;
+        }
+    }
+
     /**
      * Cancels the {@link Subscription}.
      *
@@ -272,12 +371,126 @@ public class Stand implements AutoCloseable {
             @Override
             public void run() {
                 subscriptionRegistry.remove(subscription);
+                release(subscription);
                 ack(responseObserver);
             }
         };
         op.execute();
     }
 
+    /**
+     * Cancels the passed subscriptions at once.
+     *
+     * <p>Typically invoked when a client disconnects, to stop delivering the updates to all of
+     * its subscriptions. The subscriptions unknown to this {@code Stand} are ignored.
+     *
+     * @param subscriptions
+     *         the subscriptions to cancel, possibly belonging to different tenants
+     */
+    public void cancelAll(Iterable<Subscription> subscriptions) {
+        checkNotNull(subscriptions);
+        var byTenant = Multimaps.index(subscriptions, s -> s.getTopic()
+                                                            .getContext()
+                                                            .getTenantId());
+        for (var tenantId : byTenant.keySet()) {
+            var ids = byTenant.get(tenantId)
+                              .stream()
+                              .map(Subscription::getId)
+                              .collect(toImmutableList());
+            var op = new TenantAwareOperation(tenantId) {
+                @Override
+                public void run() {
+                    var removed = subscriptionRegistry.removeAll(ids);
+                    removed.forEach(Stand.this::release);
+                }
+            };
+            op.execute();
+        }
+    }
+
+    /**
+     * Releases the resources used to deliver the updates of the cancelled subscription.
+     */
+    private void release(Subscription subscription) {
+        coalescing.release(subscription);
+        if (updateQueues != null) {
+            updateQueues.release(subscription);
+        }
+    }
+
+    /**
+     * Cancels the subscription which queue of pending updates overflowed under
+     * the {@link OverflowPolicy#CANCEL CANCEL} policy.
+     */
+    private void cancelOverflown(Subscription subscription) {
+        var op = new SubscriptionOperation(subscription) {
+            @Override
+            public void run() {
+                subscriptionRegistry.remove(subscription);
+                coalescing.release(subscription);
+            }
+        };
+        op.execute();
+    }
+
+    /**
+     * Obtains the metrics of the subscriptions of the passed tenant.
+     *
+     * @param tenantId
+     *         the ID of the tenant, or the default instance in a single-tenant context
+     * @return the metrics of the tenant subscriptions
+     * @see SubscriptionLimits
+     */
+    public SubscriptionStats subscriptionStats(TenantId tenantId) {
+        checkNotNull(tenantId);
+        var op = new TenantAwareFunction0<SubscriptionStats>(tenantId) {
+            @Override
+            public SubscriptionStats apply() {
+                return subscriptionRegistry.stats();
+            }
+        };
+        return op.execute();
+    }
+
+    /**
+     * Obtains the hit and miss statistics of the query result cache.
+     *
+     * @return the statistics, or {@code Optional.empty()} if the query results are not cached
+     */
+    public Optional<CacheStats> queryCacheStats() {
+        return Optional.ofNullable(queryCache)
+                       .map(QueryResultCache::stats);
+    }
+
+    /**
+     * Obtains the metrics of the queue of pending updates of the subscription.
+     *
+     * @param subscriptionId
+     *         the ID of the activated subscription
+     * @return the metrics, or {@code Optional.empty()} if this {@code Stand} is not configured
+     *         with a {@link SubscriptionFanOut}, or the subscription is not active
+     */
+    public Optional<UpdateQueueStats> queueStats(SubscriptionId subscriptionId) {
+        checkNotNull(subscriptionId);
+        if (updateQueues == null) {
+            return Optional.empty();
+        }
+        return updateQueues.stats(subscriptionId);
+    }
+
+    /**
+     * Makes this {@code Stand} replay the events from the passed store to the event
+     * subscriptions which request it.
+     *
+     * @param eventStore
+     *         the store of the events of the Bounded Context
+     */
+    @Internal
+    public void injectEventStore(EventStore eventStore) {
+        checkNotNull(eventStore);
+        this.eventReplay = new EventReplay(eventStore);
+    }
+
     /**
      * Obtains the bus listener which propagates all events and state updates to subscriptions.
      */
@@ -328,6 +541,15 @@ public class Stand implements AutoCloseable {
      * <p>The query results are fed to an instance
      * of {@link StreamObserver}&lt;{@link QueryResponse}&gt;.
      *
+     * <p>If the {@code page_size} or the {@code cursor} of the query format is set,
+     * the response contains a single page of the results and the cursor of the next page.
+     * Such a query must be ordered, so that the pages follow one another. Otherwise,
+     * all the results are sent in one response.
+     *
+     * <p>If this {@code Stand} is configured to cache the query results, the complete
+     * results are served from the cache until an entity of the queried type
+     * is {@linkplain #onStored written}.
+     *
      * @param query
      *         the instance of query
      * @param responseObserver
@@ -343,11 +565,19 @@ public class Stand implements AutoCloseable {
         var op = new QueryOperation(query) {
             @Override
             public void run() {
-                Collection<EntityStateWithVersion> readResult = queryProcessor.process(query());
-                var response = QueryResponse.newBuilder()
-                        .addAllMessage(readResult)
-                        .setResponse(Responses.ok())
-                        .build();
+                QueryResponse response;
+                if (QueryPaging.isPaged(query())) {
+                    response = QueryPaging.page(query(), queryProcessor.read(query()));
+                } else {
+                    Collection<EntityStateWithVersion> readResult = queryCache == null
+                            ? queryProcessor.process(query())
+                            : queryCache.get(query(), () -> queryProcessor.process(query())
+                                                                          .asList());
+                    response = QueryResponse.newBuilder()
+                            .addAllMessage(readResult)
+                            .setResponse(Responses.ok())
+                            .build();
+                }
                 responseObserver.onNext(response);
                 responseObserver.onCompleted();
             }
@@ -355,6 +585,64 @@ public class Stand implements AutoCloseable {
         op.execute();
     }
 
+    /**
+     * Reads the items requested by the query and feeds them to the observer in
+     * bounded-size chunks.
+     *
+     * <p>The entities are loaded lazily as the chunks are sent, so the memory used for
+     * the read does not depend on the size of the result.
+     *
+     * <p>The number of entities in a chunk is limited by the {@code page_size} of
+     * the query format, if set. If the query is ordered, each chunk, except the last one,
+     * carries the cursor, which allows to continue reading from the next chunk with
+     * a paged query.
+     *
+     * <p>If the observer is a gRPC server call observer, the chunks are sent as fast as
+     * the client reads them.
+     *
+     * @param query
+     *         the instance of query
+     * @param responseObserver
+     *         the observer to feed the chunks of the query results to
+     */
+    public void executeStreaming(Query query, StreamObserver<QueryResponse> responseObserver)
+            throws InvalidRequestException {
+        queryValidator.validate(query);
+
+        var type = query.targetType();
+        var queryProcessor = processorFor(type);
+
+        var op = new QueryOperation(query) {
+            @Override
+            public void run() {
+                var runner = TenantAwareRunner.withCurrentTenant(multitenant);
+                QueryPaging.stream(query(), queryProcessor.read(query()), responseObserver,
+                                   runner::run);
+            }
+        };
+        op.execute();
+    }
+
+    /**
+     * Notifies this {@code Stand} that the entities of the passed type are written
+     * to their storage.
+     *
+     * <p>The cached results of the queries for the type, if any, are not served after
+     * this call. The entity lifecycle events are not used for that, as they are posted
+     * before the entity is written, and the query run in between would read
+     * the previous state.
+     *
+     * @param entityType
+     *         the type of the state of the written entities
+     */
+    @Internal
+    public void onStored(TypeUrl entityType) {
+        checkNotNull(entityType);
+        if (queryCache != null) {
+            queryCache.invalidate(entityType);
+        }
+    }
+
     /**
      * Registers the passed {@code Repository} as an entity/event type supplier.
      */
@@ -375,6 +663,16 @@ public class Stand implements AutoCloseable {
      */
     @Override
     public void close() throws Exception {
+        if (ownsRegistry) {
+            subscriptionRegistry.close();
+        }
+        coalescing.close();
+        if (updateQueues != null) {
+            updateQueues.releaseAll();
+        }
+        if (queryCache != null) {
+            queryCache.clear();
+        }
         typeRegistry.close();
         eventRegistry.close();
     }
@@ -422,6 +720,10 @@ public class Stand implements AutoCloseable {
         private TopicValidator topicValidator;
         private QueryValidator queryValidator;
         private SubscriptionValidator subscriptionValidator;
+        private @Nullable SubscriptionFanOut fanOut;
+        private @Nullable Stand registryOwner;
+        private long queryCacheCapacity;
+        private SubscriptionLimits limits = SubscriptionLimits.none();
 
         @CanIgnoreReturnValue
         @Internal
@@ -435,9 +737,61 @@ public class Stand implements AutoCloseable {
         public Builder withSubscriptionRegistryFrom(Stand other) {
             checkNotNull(other);
             this.subscriptionRegistry = checkNotNull(other.subscriptionRegistry);
+            this.registryOwner = other;
+            return this;
+        }
+
+        /**
+         * Makes the {@code Stand} cache the query results.
+         *
+         * @param capacity
+         *         the max total number of the entity states in the cached results
+         */
+        @CanIgnoreReturnValue
+        @Internal
+        public Builder setQueryCacheCapacity(long capacity) {
+            checkArgument(capacity > 0, "The query cache capacity must be positive.");
+            this.queryCacheCapacity = capacity;
             return this;
         }
 
+        private long queryCacheCapacity() {
+            return queryCacheCapacity;
+        }
+
+        private @Nullable Stand registryOwner() {
+            return registryOwner;
+        }
+
+        /**
+         * Sets the limits on the subscriptions.
+         *
+         * <p>The limits are ignored if the subscription registry is
+         * {@linkplain #withSubscriptionRegistryFrom(Stand) shared} with another {@code Stand}.
+         * The limits of that {@code Stand} apply instead.
+         */
+        @CanIgnoreReturnValue
+        @Internal
+        public Builder setSubscriptionLimits(SubscriptionLimits limits) {
+            this.limits = checkNotNull(limits);
+            return this;
+        }
+
+        /**
+         * Makes the {@code Stand} deliver the subscription updates asynchronously
+         * according to the passed settings.
+         */
+        @CanIgnoreReturnValue
+        @Internal
+        public Builder setFanOut(SubscriptionFanOut fanOut) {
+            this.fanOut = checkNotNull(fanOut);
+            return this;
+        }
+
+        private @Nullable SubscriptionFanOut fanOut() {
+            return fanOut;
+        }
+
         private boolean isMultitenant() {
             return this.multitenant != null && this.multitenant;
         }
@@ -477,7 +831,8 @@ public class Stand implements AutoCloseable {
         @Internal
         public Stand build() {
             if (subscriptionRegistry == null) {
-                subscriptionRegistry = MultitenantSubscriptionRegistry.newInstance(isMultitenant());
+                subscriptionRegistry =
+                        MultitenantSubscriptionRegistry.newInstance(isMultitenant(), limits);
             }
             topicValidator = new TopicValidator(typeRegistry);
             queryValidator = new QueryValidator(typeRegistry);
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.FieldMaskUtil;
+import io.spine.client.StateDelta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.protobuf.Descriptors.FieldDescriptor.JavaType.MESSAGE;
+import static io.spine.protobuf.AnyPacker.pack;
+
+/**
+ * Calculates the {@link StateDelta} between two states of an entity.
+ *
+ * <p>The singular message fields set in both states are compared field by field, so that
+ * a change deep in a large state results in a single nested path. The repeated and map
+ * fields are compared as a whole.
+ */
+final class StateDiff {
+
+    /** Prevents instantiation of this utility class. */
+    private StateDiff() {
+    }
+
+    /**
+     * Calculates the delta turning the {@code before} state into the {@code after} one.
+     *
+     * @return the delta, or {@code Optional.empty()} if the states are of different types, or
+     *         the delta is not smaller than the {@code after} state
+     */
+    static Optional<StateDelta> between(Message before, Message after) {
+        if (!before.getDescriptorForType().equals(after.getDescriptorForType())) {
+            return Optional.empty();
+        }
+        var paths = new ArrayList<String>();
+        collectChanges("", before, after, paths);
+        var changed = FieldMask.newBuilder()
+                .addAllPaths(paths)
+                .build();
+        var partial = after.newBuilderForType();
+        FieldMaskUtil.merge(changed, after, partial);
+        var delta = StateDelta.newBuilder()
+                .setChanged(changed)
+                .setPartialState(pack(partial.buildPartial()))
+                .build();
+        if (delta.getSerializedSize() >= after.getSerializedSize()) {
+            return Optional.empty();
+        }
+        return Optional.of(delta);
+    }
+
+    private static void
+    collectChanges(String prefix, Message before, Message after, List<String> paths) {
+        for (var field : after.getDescriptorForType().getFields()) {
+            var path = prefix + field.getName();
+            if (!field.isRepeated() && field.getJavaType() == MESSAGE
+                    && before.hasField(field) && after.hasField(field)) {
+                var nestedBefore = (Message) before.getField(field);
+                var nestedAfter = (Message) after.getField(field);
+                if (!nestedBefore.equals(nestedAfter)) {
+                    collectChanges(path + '.', nestedBefore, nestedAfter, paths);
+                }
+                continue;
+            }
+            var presenceChanged = !field.isRepeated()
+                    && before.hasField(field) != after.hasField(field);
+            var changed = presenceChanged
+                    || !Objects.equals(before.getField(field), after.getField(field));
+            if (changed) {
+                paths.add(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import io.spine.base.EntityState;
+import io.spine.client.CompositeFilter;
+
+import java.util.List;
+
+/**
+ * The outcome of matching a changed entity state against the filters of a subscription.
+ */
+enum StateMatch {
+
+    /**
+     * The new state of the entity matches the filters.
+     */
+    MATCHES,
+
+    /**
+     * The new state does not match the filters, while the old one did.
+     */
+    NO_LONGER_MATCHES,
+
+    /**
+     * Neither of the states matches the filters.
+     */
+    NONE;
+
+    /**
+     * Evaluates the passed filters against the states of the changed entity.
+     *
+     * <p>The identifier of the entity is not checked.
+     *
+     * @param includeAll
+     *         whether the subscription accepts all the entities regardless of the filters
+     * @param filters
+     *         the filters of the subscription
+     * @param change
+     *         the change of the entity
+     */
+    static StateMatch evaluate(boolean includeAll,
+                               List<CompositeFilter> filters,
+                               EntityStateChange change) {
+        if (includeAll || matches(filters, change.newState())) {
+            return MATCHES;
+        }
+        if (matches(filters, change.oldState())) {
+            return NO_LONGER_MATCHES;
+        }
+        return NONE;
+    }
+
+    private static boolean matches(List<CompositeFilter> filters, EntityState<?> state) {
+        for (var filter : filters) {
+            if (!filter.test(state)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -44,11 +44,36 @@ public interface SubscriptionCallback extends Consumer<SubscriptionUpdate> {
 
     /**
      * Creates the callback which forwards to the passed observer.
+     *
+     * <p>If the subscription is {@linkplain #onCancelled(Throwable) cancelled} by the server,
+     * the observer receives the cause as an error.
      */
     static SubscriptionCallback forwardingTo(StreamObserver<SubscriptionUpdate> observer) {
-        return update -> {
-            checkNotNull(update);
-            observer.onNext(update);
+        checkNotNull(observer);
+        return new SubscriptionCallback() {
+            @Override
+            public void accept(SubscriptionUpdate update) {
+                checkNotNull(update);
+                observer.onNext(update);
+            }
+
+            @Override
+            public void onCancelled(Throwable cause) {
+                observer.onError(cause);
+            }
         };
     }
+
+    /**
+     * Notifies the read-side that the subscription is cancelled by the server,
+     * and no more updates are going to be delivered.
+     *
+     * <p>Does nothing by default.
+     *
+     * @param cause
+     *         the reason of the cancellation
+     */
+    default void onCancelled(Throwable cause) {
+        // Do nothing by default.
+    }
 }
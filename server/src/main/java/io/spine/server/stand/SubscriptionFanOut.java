@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Settings of the asynchronous delivery of subscription updates.
+ *
+ * <p>By default, {@code Stand} notifies the subscribers in the thread which posts the event
+ * causing the update. A slow subscriber thus slows down the event posting in the whole
+ * Bounded Context.
+ *
+ * <p>With the fan-out configured, the updates of each subscription are put into a bounded
+ * queue, which is drained by the given {@code Executor}. The updates of a single
+ * subscription are delivered in the order they were put into the queue. When the queue
+ * is full, the {@link OverflowPolicy} defines what to do with the new update.
+ *
+ * @see Stand#queueStats(io.spine.client.SubscriptionId)
+ */
+public final class SubscriptionFanOut {
+
+    /**
+     * The default capacity of the queue of pending updates of a subscription.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final Executor executor;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+
+    private SubscriptionFanOut(Builder builder) {
+        this.executor = builder.executor;
+        this.queueCapacity = builder.queueCapacity;
+        this.overflowPolicy = builder.overflowPolicy;
+    }
+
+    /**
+     * Creates a new builder of the fan-out settings.
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Obtains the executor which delivers the updates to the subscribers.
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Obtains the maximum number of pending updates of a subscription.
+     */
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Obtains the policy applied when the queue of a subscription is full.
+     */
+    public OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * A builder of {@code SubscriptionFanOut}.
+     */
+    public static final class Builder {
+
+        private Executor executor;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+        /**
+         * Prevents direct instantiation.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the executor which delivers the updates to the subscribers.
+         *
+         * <p>The executor is not shut down by {@code Stand}.
+         */
+        @CanIgnoreReturnValue
+        public Builder setExecutor(Executor executor) {
+            this.executor = checkNotNull(executor);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of pending updates of a subscription.
+         *
+         * <p>If not set, {@link #DEFAULT_QUEUE_CAPACITY} is used.
+         */
+        @CanIgnoreReturnValue
+        public Builder setQueueCapacity(int queueCapacity) {
+            checkArgument(queueCapacity > 0, "The queue capacity must be positive.");
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the policy applied when the queue of a subscription is full.
+         *
+         * <p>If not set, {@link OverflowPolicy#DROP_OLDEST} is used.
+         */
+        @CanIgnoreReturnValue
+        public Builder setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = checkNotNull(overflowPolicy);
+            return this;
+        }
+
+        /**
+         * Creates the settings.
+         *
+         * @throws NullPointerException
+         *         if the executor is not set
+         */
+        public SubscriptionFanOut build() {
+            checkNotNull(executor, "The executor must be set.");
+            return new SubscriptionFanOut(this);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Limits on the subscriptions served by {@code Stand}.
+ *
+ * <p>Each registered subscription is evaluated against the events posted to the Bounded
+ * Context. The limits keep the number of the subscriptions bounded by the clients which
+ * actually use them:
+ * <ul>
+ *     <li>A subscription which is not activated within the idle timeout after its creation
+ *         is removed.
+ *     <li>An activation of a subscription is rejected if the tenant already has the maximum
+ *         number of active subscriptions.
+ * </ul>
+ *
+ * <p>The subscriptions activated through {@link io.spine.server.SubscriptionService} are
+ * also cancelled when the client closes the stream of updates.
+ *
+ * @see Stand#subscriptionStats(io.spine.core.TenantId)
+ */
+public final class SubscriptionLimits {
+
+    private static final SubscriptionLimits NONE = newBuilder().build();
+
+    private final @Nullable Duration idleTimeout;
+    private final int maxActivePerTenant;
+
+    private SubscriptionLimits(Builder builder) {
+        this.idleTimeout = builder.idleTimeout;
+        this.maxActivePerTenant = builder.maxActivePerTenant;
+    }
+
+    /**
+     * Creates a new builder of the subscription limits.
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Obtains the limits which allow any number of subscriptions living for any time.
+     */
+    static SubscriptionLimits none() {
+        return NONE;
+    }
+
+    /**
+     * Obtains the time in which a created subscription must be activated, or
+     * {@code Optional.empty()} if the subscriptions do not expire.
+     */
+    public Optional<Duration> idleTimeout() {
+        return Optional.ofNullable(idleTimeout);
+    }
+
+    /**
+     * Obtains the maximum number of active subscriptions of a tenant.
+     *
+     * <p>Returns {@link Integer#MAX_VALUE} if the number is not limited.
+     */
+    public int maxActivePerTenant() {
+        return maxActivePerTenant;
+    }
+
+    /**
+     * A builder of {@code SubscriptionLimits}.
+     */
+    public static final class Builder {
+
+        private @Nullable Duration idleTimeout;
+        private int maxActivePerTenant = Integer.MAX_VALUE;
+
+        /**
+         * Prevents direct instantiation.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the time in which a created subscription must be activated.
+         *
+         * <p>If not set, the subscriptions live until cancelled.
+         */
+        @CanIgnoreReturnValue
+        public Builder setIdleTimeout(Duration idleTimeout) {
+            checkNotNull(idleTimeout);
+            checkArgument(!idleTimeout.isNegative() && !idleTimeout.isZero(),
+                          "The idle timeout must be positive.");
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of active subscriptions of a tenant.
+         *
+         * <p>If not set, the number is not limited.
+         */
+        @CanIgnoreReturnValue
+        public Builder setMaxActivePerTenant(int maxActivePerTenant) {
+            checkArgument(maxActivePerTenant > 0,
+                          "The maximum number of active subscriptions must be positive.");
+            this.maxActivePerTenant = maxActivePerTenant;
+            return this;
+        }
+
+        /**
+         * Creates the limits.
+         */
+        public SubscriptionLimits build() {
+            return new SubscriptionLimits(this);
+        }
+    }
+}
@@ -29,18 +29,25 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Objects;
 import io.spine.client.Subscription;
 import io.spine.client.SubscriptionUpdate;
+import io.spine.client.Target;
 import io.spine.server.type.EventEnvelope;
 import io.spine.system.server.event.EntityStateChanged;
 import io.spine.type.TypeUrl;
 
 import java.util.Optional;
 
+import static com.google.common.base.Preconditions.checkState;
+
 /**
  * A {@link SubscriptionRegistry} entry that manages a single subscription.
  */
 final class SubscriptionRecord {
 
-    private static final TypeUrl ENTITY_STATE_CHANGED = TypeUrl.of(EntityStateChanged.class);
+    /**
+     * The type of the event, which delivers the updates to the entity subscriptions.
+     */
+    static final TypeUrl ENTITY_STATE_CHANGED = TypeUrl.of(EntityStateChanged.class);
+
     private final Subscription subscription;
     private final TypeUrl type;
     private final UpdateHandler handler;
@@ -111,6 +118,26 @@ final class SubscriptionRecord {
         handler.handle(event);
     }
 
+    /**
+     * Updates the entity subscription with the passed entity change.
+     *
+     * <p>Assumes the change concerns the entity of the subscribed type and ID, and that the
+     * subscription is active.
+     *
+     * @param change
+     *         the change of the entity
+     * @param match
+     *         the outcome of matching the change against the filters of the subscription
+     * @throws IllegalStateException
+     *         if the subscription is not activated, or it is not an entity subscription
+     */
+    void update(EntityStateChange change, StateMatch match) {
+        checkState(ofEntity(),
+                   "The subscription `%s` is not an entity subscription.",
+                   subscription.getId().getValue());
+        ((EntityUpdateHandler) handler).handle(change, match);
+    }
+
     /**
      * Checks whether this record has an active callback attached.
      */
@@ -127,10 +154,31 @@ final class SubscriptionRecord {
         return handler.detectUpdate(event);
     }
 
+    /**
+     * Obtains the managed subscription.
+     */
+    Subscription subscription() {
+        return subscription;
+    }
+
     TypeUrl targetType() {
         return type;
     }
 
+    /**
+     * Obtains the {@code Target} of the subscription.
+     */
+    Target target() {
+        return handler.target();
+    }
+
+    /**
+     * Tells whether this is a subscription to entity state updates.
+     */
+    boolean ofEntity() {
+        return handler instanceof EntityUpdateHandler;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -140,11 +188,17 @@ final class SubscriptionRecord {
             return false;
         }
         var that = (SubscriptionRecord) o;
-        return Objects.equal(subscription, that.subscription);
+        return Objects.equal(subscription.getId(), that.subscription.getId());
     }
 
+    /**
+     * Obtains the hash code of the subscription ID.
+     *
+     * <p>The records are identified by the IDs of their subscriptions, so that the registry
+     * does not hash the whole topic of a subscription on each lookup.
+     */
     @Override
     public int hashCode() {
-        return Objects.hashCode(subscription);
+        return subscription.getId().hashCode();
     }
 }
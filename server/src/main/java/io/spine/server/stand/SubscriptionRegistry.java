@@ -25,9 +25,11 @@
  */
 package io.spine.server.stand;
 
+import com.google.common.collect.ImmutableSet;
 import io.spine.client.Subscription;
 import io.spine.client.SubscriptionId;
 import io.spine.client.Topic;
+import io.spine.server.type.EventEnvelope;
 import io.spine.type.TypeUrl;
 
 import java.util.Set;
@@ -35,7 +37,8 @@ import java.util.Set;
 /**
  * Registry for subscription management.
  *
- * <p>Provides a quick access to the subscription records by {@link TypeUrl}.
+ * <p>Provides a quick access to the subscription records by {@link TypeUrl} and
+ * by {@link SubscriptionId}.
  *
  * <p>Responsible for {@link Subscription} object instantiation.
  */
@@ -46,6 +49,9 @@ interface SubscriptionRegistry {
      *
      * <p>The passed action will be used to notify the read-side about the subscription update.
      *
+     * <p>An implementation may reject the activation if it exceeds
+     * the {@link SubscriptionLimits}.
+     *
      * @param subscription
      *         the subscription to activate
      * @param callback
@@ -84,6 +90,17 @@ interface SubscriptionRegistry {
      */
     void remove(Subscription subscription);
 
+    /**
+     * Removes the subscriptions with the passed IDs from this registry.
+     *
+     * <p>The IDs of the subscriptions not present in this registry are ignored.
+     *
+     * @param ids
+     *         the IDs of the subscriptions to remove
+     * @return the removed subscriptions
+     */
+    ImmutableSet<Subscription> removeAll(Iterable<SubscriptionId> ids);
+
     /**
      * Allows to determine if this registry has an item with the specified ID.
      *
@@ -103,6 +120,17 @@ interface SubscriptionRegistry {
      */
     Set<SubscriptionRecord> byType(TypeUrl type);
 
+    /**
+     * Delivers the passed event to the active subscriptions it concerns.
+     *
+     * <p>The entity subscriptions receive only the {@code EntityStateChanged} events
+     * of the entities they match.
+     *
+     * @param event
+     *         the event to deliver
+     */
+    void update(EventEnvelope event);
+
     /**
      * Checks whether the current registry has the records related to a given type.
      *
@@ -111,4 +139,14 @@ interface SubscriptionRegistry {
      * @return {@code true} if there are records with the given type, {@code false} otherwise
      */
     boolean hasType(TypeUrl type);
+
+    /**
+     * Obtains the metrics of the subscriptions of the current tenant.
+     */
+    SubscriptionStats stats();
+
+    /**
+     * Stops the background activities of this registry.
+     */
+    void close();
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.base.MoreObjects;
+import com.google.errorprone.annotations.Immutable;
+
+/**
+ * A snapshot of the subscription metrics of a tenant.
+ *
+ * @see SubscriptionLimits
+ */
+@Immutable
+public final class SubscriptionStats {
+
+    private final int registered;
+    private final int active;
+    private final long expired;
+    private final long rejected;
+
+    SubscriptionStats(int registered, int active, long expired, long rejected) {
+        this.registered = registered;
+        this.active = active;
+        this.expired = expired;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Obtains the number of the subscriptions in the registry, active or not.
+     */
+    public int registered() {
+        return registered;
+    }
+
+    /**
+     * Obtains the number of the activated subscriptions.
+     */
+    public int active() {
+        return active;
+    }
+
+    /**
+     * Obtains the number of the subscriptions removed because they were not activated
+     * within the idle timeout.
+     */
+    public long expired() {
+        return expired;
+    }
+
+    /**
+     * Obtains the number of the activations rejected because the tenant reached
+     * the maximum number of active subscriptions.
+     */
+    public long rejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("registered", registered)
+                          .add("active", active)
+                          .add("expired", expired)
+                          .add("rejected", rejected)
+                          .toString();
+    }
+}
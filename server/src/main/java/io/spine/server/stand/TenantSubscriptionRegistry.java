@@ -26,44 +26,111 @@
 
 package io.spine.server.stand;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.SetMultimap;
+import io.spine.base.Error;
 import io.spine.client.Subscription;
 import io.spine.client.SubscriptionId;
+import io.spine.client.SubscriptionValidationError;
 import io.spine.client.Subscriptions;
 import io.spine.client.Topic;
+import io.spine.server.type.EventEnvelope;
 import io.spine.type.TypeUrl;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
-import static com.google.common.collect.Multimaps.synchronizedSetMultimap;
+import static io.spine.server.stand.SubscriptionRecord.ENTITY_STATE_CHANGED;
+import static java.lang.String.format;
 
 /**
  * A slice with subscriptions belonging to one tenant in a multi-tenant application.
+ *
+ * <p>The records are stored by the ID of the subscription. Besides, the event subscriptions
+ * are indexed by the type of the event, and the entity subscriptions are indexed in
+ * an {@link EntitySubscriptionIndex}.
+ *
+ * <p>The registry does not use locks. The modifications of the indices are atomic per type
+ * of the subscription target, and the reads never block.
+ *
+ * <p>The registry enforces the {@link SubscriptionLimits} of the tenant and counts
+ * the subscriptions for the {@link SubscriptionStats}.
  */
 final class TenantSubscriptionRegistry implements SubscriptionRegistry {
 
-    private final SetMultimap<TypeUrl, SubscriptionRecord> typeToRecord =
-            synchronizedSetMultimap(HashMultimap.create());
-    private final Map<Subscription, SubscriptionRecord> subscriptionToAttrs =
-            new ConcurrentHashMap<>();
-    private final Lock lock = new ReentrantLock();
+    private final Map<SubscriptionId, SubscriptionRecord> records = new ConcurrentHashMap<>();
+    private final Map<TypeUrl, Set<SubscriptionRecord>> typeToRecord = new ConcurrentHashMap<>();
+    private final EntitySubscriptionIndex entityIndex = new EntitySubscriptionIndex();
+
+    private final int maxActive;
+    private final @Nullable SubscriptionExpiry expiry;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
 
+    /**
+     * Creates a registry without limits.
+     */
+    TenantSubscriptionRegistry() {
+        this(SubscriptionLimits.none().maxActivePerTenant(), null);
+    }
+
+    /**
+     * Creates a registry with limits.
+     *
+     * @param maxActive
+     *         the maximum number of active subscriptions
+     * @param expiry
+     *         the scheduler of the removal of the subscriptions not activated in time,
+     *         or {@code null} if the subscriptions do not expire
+     */
+    TenantSubscriptionRegistry(int maxActive, @Nullable SubscriptionExpiry expiry) {
+        this.maxActive = maxActive;
+        this.expiry = expiry;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws InvalidSubscriptionException
+     *         if the activation makes the number of active subscriptions exceed the limit
+     */
     @Override
     public void activate(Subscription subscription, SubscriptionCallback callback) {
-        lockAndRun(() -> {
-            checkState(subscriptionToAttrs.containsKey(subscription),
-                       "Cannot find the subscription in the registry.");
-            var subscriptionRecord = subscriptionToAttrs.get(subscription);
-            subscriptionRecord.activate(callback);
+        var id = subscription.getId();
+        var activated = records.computeIfPresent(id, (key, record) -> {
+            if (!record.isActive()) {
+                reserveActiveSlot(subscription);
+            }
+            record.activate(callback);
+            return record;
         });
+        checkState(activated != null, "Cannot find the subscription in the registry.");
+    }
+
+    private void reserveActiveSlot(Subscription subscription) {
+        if (active.incrementAndGet() > maxActive) {
+            active.decrementAndGet();
+            rejected.incrementAndGet();
+            throw tooManyActive(subscription);
+        }
+    }
+
+    private InvalidSubscriptionException tooManyActive(Subscription subscription) {
+        var code = SubscriptionValidationError.TOO_MANY_ACTIVE_SUBSCRIPTIONS;
+        var message = format("The tenant has reached the maximum of %d active subscriptions.",
+                             maxActive);
+        var error = Error.newBuilder()
+                .setType(code.getDescriptorForType().getFullName())
+                .setCode(code.getNumber())
+                .setMessage(message)
+                .build();
+        return new InvalidSubscriptionException(message, subscription, error);
     }
 
     @Override
@@ -73,64 +140,149 @@ final class TenantSubscriptionRegistry implements SubscriptionRegistry {
         return subscription;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If a subscription with the same ID is already registered, it is replaced.
+     */
     @Override
     public void add(Subscription subscription) {
+        var id = subscription.getId();
         var record = SubscriptionRecord.of(subscription);
-        var type = record.targetType();
-        lockAndRun(() -> {
-            typeToRecord.put(type, record);
-            subscriptionToAttrs.put(subscription, record);
+        var previous = records.put(id, record);
+        if (previous != null) {
+            unindex(previous);
+            if (previous.isActive()) {
+                active.decrementAndGet();
+            }
+        }
+        index(record);
+        if (expiry != null) {
+            expiry.schedule(() -> expireIfInactive(id));
+        }
+    }
+
+    /**
+     * Removes the subscription if it is still not activated.
+     *
+     * <p>A subscription which was never activated holds no delivery resources in
+     * {@code Stand}, so there is nothing else to release.
+     */
+    void expireIfInactive(SubscriptionId id) {
+        records.computeIfPresent(id, (key, record) -> {
+            if (record.isActive()) {
+                return record;
+            }
+            unindex(record);
+            expired.incrementAndGet();
+            return null;
         });
     }
 
     @Override
     public void remove(Subscription subscription) {
-        lockAndRun(() -> {
-            if (!subscriptionToAttrs.containsKey(subscription)) {
-                return;
+        remove(subscription.getId());
+    }
+
+    @Override
+    public ImmutableSet<Subscription> removeAll(Iterable<SubscriptionId> ids) {
+        checkNotNull(ids);
+        var removed = ImmutableSet.<Subscription>builder();
+        for (var id : ids) {
+            var record = remove(id);
+            if (record != null) {
+                removed.add(record.subscription());
             }
-            var record = subscriptionToAttrs.get(subscription);
-            typeToRecord.remove(record.targetType(), record);
-            subscriptionToAttrs.remove(subscription);
-        });
+        }
+        return removed.build();
+    }
+
+    private @Nullable SubscriptionRecord remove(SubscriptionId id) {
+        var record = records.remove(id);
+        if (record != null) {
+            unindex(record);
+            if (record.isActive()) {
+                active.decrementAndGet();
+            }
+        }
+        return record;
+    }
+
+    private void index(SubscriptionRecord record) {
+        if (record.ofEntity()) {
+            entityIndex.add(record);
+        } else {
+            typeToRecord.computeIfAbsent(record.targetType(), t -> ConcurrentHashMap.newKeySet())
+                        .add(record);
+        }
+    }
+
+    private void unindex(SubscriptionRecord record) {
+        if (record.ofEntity()) {
+            entityIndex.remove(record);
+        } else {
+            typeToRecord.computeIfPresent(record.targetType(), (type, typeRecords) -> {
+                typeRecords.remove(record);
+                return typeRecords.isEmpty() ? null : typeRecords;
+            });
+        }
     }
 
     @Override
     public Set<SubscriptionRecord> byType(TypeUrl type) {
-        return ImmutableSet.copyOf(lockAndGet(() -> typeToRecord.get(type)));
+        var result = ImmutableSet.<SubscriptionRecord>builder()
+                .addAll(eventRecords(type));
+        if (ENTITY_STATE_CHANGED.equals(type)) {
+            result.addAll(entityIndex.records());
+        }
+        return result.build();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Entity subscriptions are looked up in the {@link EntitySubscriptionIndex} by
+     * the type and the ID of the changed entity. The state of the entity is unpacked
+     * at most once per event, and the filters shared by several subscriptions are
+     * evaluated once for all of them.
+     */
+    @Override
+    public void update(EventEnvelope event) {
+        var type = event.typeUrl();
+        for (var record : eventRecords(type)) {
+            if (record.isActive()) {
+                record.update(event);
+            }
+        }
+        if (ENTITY_STATE_CHANGED.equals(type) && !entityIndex.isEmpty()) {
+            entityIndex.update(EntityStateChange.of(event));
+        }
+    }
+
+    private Set<SubscriptionRecord> eventRecords(TypeUrl type) {
+        var result = typeToRecord.get(type);
+        return result == null ? ImmutableSet.of() : result;
     }
 
     @Override
     public boolean hasType(TypeUrl type) {
-        var result = typeToRecord.containsKey(type);
+        var result = typeToRecord.containsKey(type)
+                || (ENTITY_STATE_CHANGED.equals(type) && !entityIndex.isEmpty());
         return result;
     }
 
     @Override
     public boolean containsId(SubscriptionId subscriptionId) {
-        for (var existingItem : subscriptionToAttrs.keySet()) {
-            if (existingItem.getId().equals(subscriptionId)) {
-                return true;
-            }
-        }
-        return false;
+        return records.containsKey(subscriptionId);
     }
 
-    private void lockAndRun(Runnable operation) {
-        lock.lock();
-        try {
-            operation.run();
-        } finally {
-            lock.unlock();
-        }
+    @Override
+    public SubscriptionStats stats() {
+        return new SubscriptionStats(records.size(), active.get(), expired.get(), rejected.get());
     }
 
-    private <T> T lockAndGet(Supplier<T> operation) {
-        lock.lock();
-        try {
-            return operation.get();
-        } finally {
-            lock.unlock();
-        }
+    @Override
+    public void close() {
+        // Nothing to close. The expiry is shared by the tenants and closed by its owner.
     }
 }
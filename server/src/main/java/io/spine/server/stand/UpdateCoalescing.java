@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.util.Durations;
+import io.spine.client.Subscription;
+import io.spine.client.SubscriptionId;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Wraps the callbacks of the entity subscriptions which requested a coalescing window.
+ *
+ * <p>The windows of all the subscriptions are closed by a single daemon thread, which is
+ * started when the first such subscription is activated.
+ */
+final class UpdateCoalescing {
+
+    private final Map<SubscriptionId, CoalescingCallback> callbacks = new ConcurrentHashMap<>();
+    private @MonotonicNonNull ScheduledExecutorService scheduler;
+
+    /**
+     * Wraps the callback of the subscription, if its topic requests coalescing.
+     *
+     * @return the coalescing callback, or the passed callback if the subscription does not
+     *         request coalescing or is not a subscription to entities
+     */
+    SubscriptionCallback wrap(Subscription subscription, SubscriptionCallback callback) {
+        var topic = subscription.getTopic();
+        if (!topic.hasCoalescingWindow() || subscription.ofEvent()) {
+            return callback;
+        }
+        var windowMillis = Durations.toMillis(topic.getCoalescingWindow());
+        if (windowMillis <= 0) {
+            return callback;
+        }
+        var coalescing = new CoalescingCallback(callback, windowMillis, scheduler());
+        var previous = callbacks.put(subscription.getId(), coalescing);
+        if (previous != null) {
+            previous.release();
+        }
+        return coalescing;
+    }
+
+    /**
+     * Drops the accumulated updates of the subscription, if any.
+     */
+    void release(Subscription subscription) {
+        var callback = callbacks.remove(subscription.getId());
+        if (callback != null) {
+            callback.release();
+        }
+    }
+
+    /**
+     * Drops the accumulated updates of all the subscriptions and stops the scheduler.
+     */
+    synchronized void close() {
+        callbacks.values()
+                 .forEach(CoalescingCallback::release);
+        callbacks.clear();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            var threadFactory = new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("stand-update-coalescing-%d")
+                    .build();
+            scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        }
+        return scheduler;
+    }
+}
@@ -53,7 +53,7 @@ abstract class UpdateHandler implements Logging {
     /**
      * An action which accepts the update and notifies the read-side accordingly.
      */
-    private @MonotonicNonNull SubscriptionCallback callback = null;
+    private volatile @MonotonicNonNull SubscriptionCallback callback = null;
 
     /**
      * Creates an update handler acting according to the criteria of the passed
@@ -92,6 +92,16 @@ abstract class UpdateHandler implements Logging {
         }
     }
 
+    /**
+     * Notifies the read-side about the update caused by the passed event.
+     *
+     * <p>The subscription must be {@linkplain #isActive() active}.
+     */
+    final void deliver(EventEnvelope event, SubscriptionUpdate update) {
+        checkActive(event);
+        deliverUpdate(update);
+    }
+
     private void deliverUpdate(SubscriptionUpdate update) {
         try {
             callback.accept(update);
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.protobuf.Any;
+import io.grpc.Status;
+import io.spine.client.EntityStateUpdate;
+import io.spine.client.EntityUpdates;
+import io.spine.client.Subscription;
+import io.spine.client.SubscriptionUpdate;
+import io.spine.logging.Logging;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.server.stand.OverflowPolicy.CANCEL;
+import static io.spine.server.stand.OverflowPolicy.COALESCE;
+import static java.lang.String.format;
+
+/**
+ * A bounded queue of the updates of a single subscription, which is drained
+ * by the executor of the {@link SubscriptionFanOut}.
+ *
+ * <p>At most one task drains the queue at a time, so the updates reach the subscriber
+ * in the order they were accepted. A task delivers at most {@code queueCapacity}
+ * updates and then yields the executor thread to other subscriptions.
+ *
+ * <p>If the subscription receives the {@linkplain io.spine.client.Topic#getDeltaUpdates()
+ * deltas} of the entity states, an update dropped or replaced on the overflow is
+ * {@linkplain CoalescingCallback#combine folded} into the next update of the same entity.
+ * Otherwise, the fields changed by the dropped delta would be lost for the subscriber until
+ * the next full state of the entity. The dropped updates wait for the next update of their
+ * entity, if it is not queued yet.
+ */
+final class UpdateQueue implements SubscriptionCallback, Logging {
+
+    private final Subscription subscription;
+    private final SubscriptionCallback subscriber;
+    private final SubscriptionFanOut settings;
+    private final Consumer<Subscription> onCancel;
+
+    private final Deque<Pending> pending = new ArrayDeque<>();
+
+    /**
+     * The dropped updates of the entities by the packed entity ID, which are folded into
+     * the next update of the same entity.
+     *
+     * <p>Filled only if the subscription receives the deltas of the entity states.
+     */
+    private final Map<Any, EntityStateUpdate> unsent = new HashMap<>();
+    private final boolean deltas;
+    private boolean draining;
+    private boolean released;
+    private long delivered;
+    private long dropped;
+    private long coalesced;
+
+    /**
+     * Creates a new queue.
+     *
+     * @param subscription
+     *         the subscription which updates are queued
+     * @param subscriber
+     *         the callback notifying the subscriber
+     * @param settings
+     *         the settings of the fan-out
+     * @param onCancel
+     *         the action cancelling the subscription if the queue overflows under
+     *         the {@link OverflowPolicy#CANCEL CANCEL} policy
+     */
+    UpdateQueue(Subscription subscription,
+                SubscriptionCallback subscriber,
+                SubscriptionFanOut settings,
+                Consumer<Subscription> onCancel) {
+        this.subscription = checkNotNull(subscription);
+        this.subscriber = checkNotNull(subscriber);
+        this.settings = checkNotNull(settings);
+        this.onCancel = checkNotNull(onCancel);
+        this.deltas = subscription.getTopic()
+                                  .getDeltaUpdates();
+    }
+
+    /**
+     * Puts the update into the queue and schedules the delivery, if it is not scheduled yet.
+     */
+    @Override
+    public void accept(SubscriptionUpdate update) {
+        checkNotNull(update);
+        var schedule = false;
+        var cancel = false;
+        synchronized (this) {
+            if (released) {
+                return;
+            }
+            var full = pending.size() >= settings.queueCapacity();
+            if (full && settings.overflowPolicy() == CANCEL) {
+                dropped += pending.size() + 1;
+                pending.clear();
+                released = true;
+                cancel = true;
+            } else if (!(full && coalesce(update))) {
+                if (full) {
+                    dropOldest();
+                }
+                pending.add(new Pending(withUnsent(update)));
+                schedule = !draining;
+                draining = true;
+            }
+        }
+        if (cancel) {
+            cancelSubscription();
+        }
+        if (schedule) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Tries to replace a pending update of the same entity under
+     * the {@link OverflowPolicy#COALESCE COALESCE} policy.
+     *
+     * @return {@code true} if the update replaced a pending one
+     */
+    private boolean coalesce(SubscriptionUpdate update) {
+        if (settings.overflowPolicy() != COALESCE || !replacePending(update)) {
+            return false;
+        }
+        coalesced++;
+        return true;
+    }
+
+    /**
+     * Drops the oldest pending update.
+     *
+     * <p>If the subscription receives the deltas, the dropped entity update is folded into
+     * the pending update of the same entity, or, if there is none, into the next accepted one.
+     */
+    private void dropOldest() {
+        var head = pending.poll();
+        dropped++;
+        if (head == null || !deltas) {
+            return;
+        }
+        var entityId = entityIdOf(head.update);
+        if (entityId == null) {
+            return;
+        }
+        var later = pendingOf(entityId);
+        if (later != null) {
+            later.update = combine(head.update, later.update);
+        } else {
+            unsent.merge(entityId, stateUpdateOf(head.update), CoalescingCallback::combine);
+        }
+    }
+
+    /**
+     * Folds the dropped update of the same entity, if any, into the passed update.
+     */
+    private SubscriptionUpdate withUnsent(SubscriptionUpdate update) {
+        if (unsent.isEmpty()) {
+            return update;
+        }
+        var entityId = entityIdOf(update);
+        if (entityId == null) {
+            return update;
+        }
+        var earlier = unsent.remove(entityId);
+        if (earlier == null) {
+            return update;
+        }
+        return withStateUpdate(update, CoalescingCallback.combine(earlier, stateUpdateOf(update)));
+    }
+
+    /**
+     * Replaces the pending update of the same entity with the passed one.
+     *
+     * <p>The replacing update keeps the place of the replaced one in the queue. If
+     * the subscription receives the deltas, the replaced update is folded into
+     * the replacing one.
+     *
+     * @return {@code true} if there was a pending update to replace
+     */
+    private boolean replacePending(SubscriptionUpdate update) {
+        var entityId = entityIdOf(update);
+        if (entityId == null) {
+            return false;
+        }
+        var item = pendingOf(entityId);
+        if (item == null) {
+            return false;
+        }
+        item.update = deltas
+                      ? combine(item.update, update)
+                      : update;
+        return true;
+    }
+
+    private @Nullable Pending pendingOf(Any entityId) {
+        for (var item : pending) {
+            if (entityId.equals(entityIdOf(item.update))) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Combines two updates of the same entity into the later one.
+     */
+    private static SubscriptionUpdate combine(SubscriptionUpdate earlier,
+                                              SubscriptionUpdate later) {
+        var combined = CoalescingCallback.combine(stateUpdateOf(earlier), stateUpdateOf(later));
+        return withStateUpdate(later, combined);
+    }
+
+    private static EntityStateUpdate stateUpdateOf(SubscriptionUpdate update) {
+        return update.getEntityUpdates()
+                     .getUpdate(0);
+    }
+
+    private static SubscriptionUpdate
+    withStateUpdate(SubscriptionUpdate update, EntityStateUpdate stateUpdate) {
+        var updates = EntityUpdates.newBuilder()
+                .addUpdate(stateUpdate);
+        return update.toBuilder()
+                     .setEntityUpdates(updates)
+                     .build();
+    }
+
+    private static @Nullable Any entityIdOf(SubscriptionUpdate update) {
+        if (!update.hasEntityUpdates()) {
+            return null;
+        }
+        var updates = update.getEntityUpdates();
+        if (updates.getUpdateCount() != 1) {
+            return null;
+        }
+        return updates.getUpdate(0)
+                      .getId();
+    }
+
+    /**
+     * Notifies the subscriber that the subscription is cancelled with
+     * the {@code RESOURCE_EXHAUSTED} status, and then cancels it.
+     */
+    private void cancelSubscription() {
+        var id = subscription.getId().getValue();
+        _warn().log("The update queue of the subscription `%s` overflowed." +
+                            " The subscription is cancelled.", id);
+        var cause = Status.RESOURCE_EXHAUSTED
+                .withDescription(format("The subscriber of `%s` does not keep up with" +
+                                                " the updates.", id))
+                .asRuntimeException();
+        try {
+            subscriber.onCancelled(cause);
+        } catch (Throwable t) {
+            _error().withCause(t)
+                    .log("Unable to notify the subscriber of `%s` of the cancellation.", id);
+        }
+        onCancel.accept(subscription);
+    }
+
+    /**
+     * Schedules the delivery of the pending updates.
+     *
+     * <p>If the executor rejects the task, the updates are delivered in the current thread.
+     * Otherwise, they would wait for the next accepted update.
+     */
+    private void scheduleDrain() {
+        try {
+            settings.executor()
+                    .execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            _warn().withCause(e)
+                   .log("The executor rejected the delivery of the updates of" +
+                                " the subscription `%s`. Delivering in the current thread.",
+                        subscription.getId().getValue());
+            var hasMore = true;
+            while (hasMore) {
+                hasMore = drainOnce();
+            }
+        }
+    }
+
+    private void drain() {
+        if (drainOnce()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Delivers at most {@code queueCapacity} pending updates.
+     *
+     * @return {@code true} if there may be more updates to deliver,
+     *         {@code false} if the queue is drained
+     */
+    private boolean drainOnce() {
+        var limit = settings.queueCapacity();
+        for (var count = 0; count < limit; count++) {
+            SubscriptionUpdate next;
+            synchronized (this) {
+                var head = pending.poll();
+                if (head == null) {
+                    draining = false;
+                    return false;
+                }
+                next = head.update;
+            }
+            deliver(next);
+        }
+        return true;
+    }
+
+    private void deliver(SubscriptionUpdate update) {
+        try {
+            subscriber.accept(update);
+        } catch (Throwable t) {
+            _error().withCause(t).log();
+        }
+        synchronized (this) {
+            delivered++;
+        }
+    }
+
+    /**
+     * Stops accepting the updates and drops the pending ones.
+     */
+    synchronized void release() {
+        released = true;
+        pending.clear();
+        unsent.clear();
+    }
+
+    /**
+     * Obtains the current metrics of the queue.
+     */
+    synchronized UpdateQueueStats stats() {
+        var head = pending.peek();
+        var lag = head == null
+                  ? Duration.ZERO
+                  : Duration.ofNanos(System.nanoTime() - head.enqueuedAt);
+        return new UpdateQueueStats(pending.size(), delivered, dropped, coalesced, lag);
+    }
+
+    /**
+     * An update waiting for the delivery.
+     */
+    private static final class Pending {
+
+        private final long enqueuedAt = System.nanoTime();
+        private SubscriptionUpdate update;
+
+        private Pending(SubscriptionUpdate update) {
+            this.update = update;
+        }
+    }
+}
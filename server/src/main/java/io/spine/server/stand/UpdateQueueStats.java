@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.base.MoreObjects;
+import com.google.errorprone.annotations.Immutable;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of the metrics of the queue of pending updates of a subscription.
+ *
+ * @see SubscriptionFanOut
+ */
+@Immutable
+public final class UpdateQueueStats {
+
+    private final int pending;
+    private final long delivered;
+    private final long dropped;
+    private final long coalesced;
+    private final Duration lag;
+
+    UpdateQueueStats(int pending, long delivered, long dropped, long coalesced, Duration lag) {
+        this.pending = pending;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.coalesced = coalesced;
+        this.lag = lag;
+    }
+
+    /**
+     * Obtains the number of updates waiting for the delivery.
+     */
+    public int pending() {
+        return pending;
+    }
+
+    /**
+     * Obtains the number of updates passed to the subscriber.
+     */
+    public long delivered() {
+        return delivered;
+    }
+
+    /**
+     * Obtains the number of updates dropped because the queue was full.
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * Obtains the number of pending updates replaced by newer updates of the same entity.
+     */
+    public long coalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Obtains for how long the oldest pending update waits for the delivery.
+     *
+     * <p>Returns {@link Duration#ZERO} if there are no pending updates.
+     */
+    public Duration lag() {
+        return lag;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("pending", pending)
+                          .add("delivered", delivered)
+                          .add("dropped", dropped)
+                          .add("coalesced", coalesced)
+                          .add("lag", lag)
+                          .toString();
+    }
+}
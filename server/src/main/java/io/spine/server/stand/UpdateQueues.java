@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import io.spine.client.Subscription;
+import io.spine.client.SubscriptionId;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The queues of pending updates of the subscriptions activated in a {@code Stand}.
+ */
+final class UpdateQueues {
+
+    private final SubscriptionFanOut settings;
+    private final Consumer<Subscription> onCancel;
+    private final Map<SubscriptionId, UpdateQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param settings
+     *         the settings of the fan-out
+     * @param onCancel
+     *         the action cancelling a subscription which queue overflowed
+     */
+    UpdateQueues(SubscriptionFanOut settings, Consumer<Subscription> onCancel) {
+        this.settings = checkNotNull(settings);
+        this.onCancel = checkNotNull(onCancel);
+    }
+
+    /**
+     * Creates a queue for the passed subscription.
+     *
+     * <p>If the subscription already had a queue, the previous queue is released.
+     *
+     * @return the callback which puts the updates into the queue
+     */
+    SubscriptionCallback queueFor(Subscription subscription, SubscriptionCallback subscriber) {
+        var queue = new UpdateQueue(subscription, subscriber, settings, this::cancel);
+        var previous = queues.put(subscription.getId(), queue);
+        if (previous != null) {
+            previous.release();
+        }
+        return queue;
+    }
+
+    /**
+     * Releases the queue of the passed subscription, if any.
+     */
+    void release(Subscription subscription) {
+        var queue = queues.remove(subscription.getId());
+        if (queue != null) {
+            queue.release();
+        }
+    }
+
+    /**
+     * Releases all the queues.
+     */
+    void releaseAll() {
+        queues.values()
+              .forEach(UpdateQueue::release);
+        queues.clear();
+    }
+
+    /**
+     * Obtains the metrics of the queue of the subscription with the passed ID.
+     */
+    Optional<UpdateQueueStats> stats(SubscriptionId id) {
+        return Optional.ofNullable(queues.get(id))
+                       .map(UpdateQueue::stats);
+    }
+
+    private void cancel(Subscription subscription) {
+        release(subscription);
+        onCancel.accept(subscription);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Message;
+import io.spine.annotation.SPI;
+import io.spine.query.RecordQuery;
+import io.spine.server.ContextSpec;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A storage of message records, which performs its operations asynchronously.
+ *
+ * <p>Each operation returns a {@code CompletableFuture}, which is completed once the storage
+ * I/O is done. If the operation fails, the future is completed exceptionally.
+ *
+ * <p>The storage implementations built on top of asynchronous drivers may implement this
+ * interface directly and expose it via {@link RecordStorage#async()}. Such an instance
+ * may also be used where a blocking storage is required, by
+ * {@linkplain #toBlocking(ContextSpec, RecordSpec, AsyncRecordStorage) adapting} it
+ * to {@code RecordStorage}. By default, {@code RecordStorage} exposes its blocking
+ * operations as this interface, performing them in the calling thread.
+ *
+ * <p>The operations are performed for the tenant which is current at the moment
+ * of the method call, regardless of the thread completing the returned future.
+ *
+ * @param <I>
+ *         the type of the record identifiers
+ * @param <R>
+ *         the type of the stored message records
+ */
+@SPI
+public interface AsyncRecordStorage<I, R extends Message> extends AutoCloseable {
+
+    /**
+     * Adapts the passed asynchronous storage to the blocking {@code RecordStorage} API.
+     *
+     * <p>Each operation of the returned storage waits for the completion of the respective
+     * asynchronous operation. Closing the returned storage closes the passed one.
+     *
+     * @param context
+     *         specification of the Bounded Context in scope of which the storage is used
+     * @param recordSpec
+     *         the specification of the stored records
+     * @param storage
+     *         the storage to adapt
+     * @param <I>
+     *         the type of the record identifiers
+     * @param <R>
+     *         the type of the stored message records
+     * @return a new blocking view on the passed storage
+     */
+    static <I, R extends Message> RecordStorage<I, R>
+    toBlocking(ContextSpec context, RecordSpec<I, R, ?> recordSpec,
+               AsyncRecordStorage<I, R> storage) {
+        checkNotNull(context);
+        checkNotNull(recordSpec);
+        checkNotNull(storage);
+        return new BlockingRecordStorage<>(context, recordSpec, storage);
+    }
+
+    /**
+     * Reads the message record by the passed identifier.
+     *
+     * @param id
+     *         the identifier of the record to read
+     * @return the future of the record, or of {@code Optional.empty()} if there is no record
+     *         with such an ID
+     */
+    CompletableFuture<Optional<R>> read(I id);
+
+    /**
+     * Reads the message records by the passed identifiers.
+     *
+     * <p>The identifiers of the missing records are skipped.
+     *
+     * @param ids
+     *         the identifiers of the records to read
+     * @return the future of the found records
+     */
+    CompletableFuture<ImmutableList<R>> readAll(Iterable<I> ids);
+
+    /**
+     * Reads the message records matching the passed query.
+     *
+     * @param query
+     *         the query to execute
+     * @return the future of the matching records
+     */
+    CompletableFuture<ImmutableList<R>> readAll(RecordQuery<I, R> query);
+
+    /**
+     * Reads the identifiers of the records matching the passed query.
+     *
+     * @param query
+     *         the query to execute
+     * @return the future of the matching identifiers
+     */
+    CompletableFuture<ImmutableList<I>> index(RecordQuery<I, R> query);
+
+    /**
+     * Writes the record along with its column values.
+     *
+     * @param record
+     *         the record to write
+     * @return the future completed once the record is written
+     */
+    CompletableFuture<Void> write(RecordWithColumns<I, R> record);
+
+    /**
+     * Writes the batch of the records along with their column values.
+     *
+     * @param records
+     *         the records to write
+     * @return the future completed once all the records are written
+     */
+    CompletableFuture<Void> writeAll(Iterable<? extends RecordWithColumns<I, R>> records);
+
+    /**
+     * Deletes the record by the passed identifier.
+     *
+     * @param id
+     *         the identifier of the record to delete
+     * @return the future of {@code true} if the record was deleted,
+     *         or of {@code false} if there was no such record
+     */
+    CompletableFuture<Boolean> delete(I id);
+
+    /**
+     * Deletes the records by the passed identifiers.
+     *
+     * @param ids
+     *         the identifiers of the records to delete
+     * @return the future completed once the records are deleted
+     */
+    CompletableFuture<Void> deleteAll(Iterable<I> ids);
+
+    /**
+     * Closes this storage.
+     *
+     * <p>Unlike the operations above, closing is performed synchronously.
+     */
+    @Override
+    void close();
+}
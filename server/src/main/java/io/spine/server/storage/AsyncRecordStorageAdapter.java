@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Message;
+import io.spine.query.RecordQuery;
+import io.spine.server.tenant.TenantAwareRunner;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+/**
+ * Runs the operations of a blocking {@link RecordStorage} via an {@code Executor},
+ * exposing them as an {@link AsyncRecordStorage}.
+ *
+ * <p>The tenant current at the moment of a call is captured and set for the operation,
+ * as the executor may run it in another thread.
+ *
+ * @param <I>
+ *         the type of the record identifiers
+ * @param <R>
+ *         the type of the stored message records
+ */
+final class AsyncRecordStorageAdapter<I, R extends Message> implements AsyncRecordStorage<I, R> {
+
+    private final RecordStorage<I, R> storage;
+    private final Executor executor;
+
+    AsyncRecordStorageAdapter(RecordStorage<I, R> storage, Executor executor) {
+        this.storage = checkNotNull(storage);
+        this.executor = checkNotNull(executor);
+    }
+
+    @Override
+    public CompletableFuture<Optional<R>> read(I id) {
+        return submit(() -> storage.read(id));
+    }
+
+    @Override
+    public CompletableFuture<ImmutableList<R>> readAll(Iterable<I> ids) {
+        return submit(() -> ImmutableList.copyOf(storage.readAll(ids)));
+    }
+
+    @Override
+    public CompletableFuture<ImmutableList<R>> readAll(RecordQuery<I, R> query) {
+        return submit(() -> ImmutableList.copyOf(storage.readAll(query)));
+    }
+
+    @Override
+    public CompletableFuture<ImmutableList<I>> index(RecordQuery<I, R> query) {
+        return submit(() -> ImmutableList.copyOf(storage.index(query)));
+    }
+
+    @Override
+    public CompletableFuture<Void> write(RecordWithColumns<I, R> record) {
+        return submit(() -> {
+            storage.write(record);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> writeAll(Iterable<? extends RecordWithColumns<I, R>> records) {
+        return submit(() -> {
+            storage.writeAll(records);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delete(I id) {
+        return submit(() -> storage.delete(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAll(Iterable<I> ids) {
+        return submit(() -> {
+            storage.deleteAll(ids);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        storage.close();
+    }
+
+    /**
+     * Submits the passed operation to the executor, running it for the current tenant.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        var runner = TenantAwareRunner.withCurrentTenant(storage.isMultitenant());
+        return supplyAsync(() -> runner.evaluate(operation), executor);
+    }
+}
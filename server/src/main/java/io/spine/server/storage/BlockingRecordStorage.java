@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage;
+
+import com.google.protobuf.Message;
+import io.spine.query.RecordQuery;
+import io.spine.server.ContextSpec;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A {@link RecordStorage} which performs its operations by waiting for the completion
+ * of the respective operations of an {@link AsyncRecordStorage}.
+ *
+ * <p>If an asynchronous operation fails with a {@code RuntimeException}, the exception
+ * is rethrown as-is.
+ *
+ * @param <I>
+ *         the type of the record identifiers
+ * @param <R>
+ *         the type of the stored message records
+ */
+final class BlockingRecordStorage<I, R extends Message> extends RecordStorage<I, R> {
+
+    private final AsyncRecordStorage<I, R> storage;
+
+    BlockingRecordStorage(ContextSpec context,
+                          RecordSpec<I, R, ?> recordSpec,
+                          AsyncRecordStorage<I, R> storage) {
+        super(context, recordSpec);
+        this.storage = storage;
+    }
+
+    /**
+     * Returns the adapted storage itself, so that no extra blocking happens
+     * when this storage is used asynchronously.
+     */
+    @Override
+    protected AsyncRecordStorage<I, R> async() {
+        return storage;
+    }
+
+    @Override
+    protected Iterator<I> index(RecordQuery<I, R> query) {
+        return await(storage.index(query)).iterator();
+    }
+
+    @Override
+    public Iterator<I> index() {
+        checkNotClosed();
+        return index(queryForAll());
+    }
+
+    @Override
+    protected void writeRecord(RecordWithColumns<I, R> record) {
+        await(storage.write(record));
+    }
+
+    @Override
+    protected void writeAllRecords(Iterable<? extends RecordWithColumns<I, R>> records) {
+        await(storage.writeAll(records));
+    }
+
+    @Override
+    protected Iterator<R> readAllRecords(RecordQuery<I, R> query) {
+        return await(storage.readAll(query)).iterator();
+    }
+
+    @Override
+    protected boolean deleteRecord(I id) {
+        return await(storage.delete(id));
+    }
+
+    @Override
+    protected void deleteAllRecords(Iterable<I> ids) {
+        await(storage.deleteAll(ids));
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        storage.close();
+    }
+
+    /**
+     * Waits for the passed future to complete and returns its result.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+}
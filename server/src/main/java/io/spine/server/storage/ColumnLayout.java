@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.annotations.Immutable;
+import io.spine.annotation.Internal;
+import io.spine.query.ColumnName;
+
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An ordered set of column names, in which each column occupies a fixed slot.
+ *
+ * <p>The values of the columns of a {@link RecordWithColumns} are stored in an array
+ * indexed by the slots of its layout. The record specifications create the layout once,
+ * and share it among all the records they produce.
+ *
+ * <p>The layouts are compared by identity.
+ */
+@Immutable
+@Internal
+public final class ColumnLayout {
+
+    private static final ColumnLayout EMPTY = new ColumnLayout(ImmutableSet.of());
+
+    private final ImmutableSet<ColumnName> names;
+    private final ImmutableList<ColumnName> bySlot;
+    private final ImmutableMap<ColumnName, Integer> slots;
+
+    private ColumnLayout(ImmutableSet<ColumnName> names) {
+        this.names = names;
+        this.bySlot = names.asList();
+        var slots = ImmutableMap.<ColumnName, Integer>builderWithExpectedSize(names.size());
+        var slot = 0;
+        for (var name : names) {
+            slots.put(name, slot);
+            slot++;
+        }
+        this.slots = slots.build();
+    }
+
+    /**
+     * Creates a new layout placing the passed columns in their iteration order.
+     *
+     * <p>Duplicate names are placed once.
+     */
+    public static ColumnLayout of(Iterable<ColumnName> names) {
+        checkNotNull(names);
+        var set = ImmutableSet.copyOf(names);
+        if (set.isEmpty()) {
+            return EMPTY;
+        }
+        return new ColumnLayout(set);
+    }
+
+    /**
+     * Returns a layout with no columns.
+     */
+    public static ColumnLayout empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the slot of the column with the passed name, or {@code -1} if there is
+     * no such column in this layout.
+     */
+    public int slotOf(ColumnName name) {
+        var slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Returns the name of the column in the passed slot.
+     */
+    public ColumnName nameAt(int slot) {
+        return bySlot.get(slot);
+    }
+
+    /**
+     * Returns the names of the columns in the order of their slots.
+     */
+    public ImmutableSet<ColumnName> names() {
+        return names;
+    }
+
+    /**
+     * Tells whether this layout consists of exactly the passed columns, in any order.
+     */
+    public boolean consistsOf(Set<ColumnName> columns) {
+        checkNotNull(columns);
+        return names.equals(columns);
+    }
+
+    /**
+     * Returns the number of columns in this layout.
+     */
+    public int size() {
+        return names.size();
+    }
+}
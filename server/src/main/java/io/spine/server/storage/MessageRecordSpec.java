@@ -77,6 +77,12 @@ public final class MessageRecordSpec<I, R extends Message> extends RecordSpec<I,
      */
     private final ImmutableMap<ColumnName, RecordColumn<R, ?>> columns;
 
+    /**
+     * The layout of the column values, in which the columns are placed in the order
+     * of their definition.
+     */
+    private final ColumnLayout layout;
+
     /**
      * Creates a new record specification listing the columns to store along with the record.
      *
@@ -98,6 +104,7 @@ public final class MessageRecordSpec<I, R extends Message> extends RecordSpec<I,
                 stream(columns).collect(
                         toImmutableMap(RecordColumn::name, (c) -> c)
                 );
+        this.layout = ColumnLayout.of(this.columns.keySet());
         this.extractId = extractId;
     }
 
@@ -129,6 +136,22 @@ public final class MessageRecordSpec<I, R extends Message> extends RecordSpec<I,
         return result;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Stores the column values in an array laid out once per specification.
+     */
+    @Override
+    RecordWithColumns<I, R> toRecord(I id, R record, R source) {
+        var values = new Object[columns.size()];
+        var slot = 0;
+        for (var column : columns.values()) {
+            values[slot] = column.valueIn(source);
+            slot++;
+        }
+        return new RecordWithColumns<>(id, record, layout, values);
+    }
+
     @Override
     public I idValueIn(R source) {
         checkNotNull(source);
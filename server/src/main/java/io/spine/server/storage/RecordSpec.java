@@ -35,6 +35,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static io.spine.util.Exceptions.newIllegalArgumentException;
 
@@ -51,11 +52,20 @@ import static io.spine.util.Exceptions.newIllegalArgumentException;
  *         the type of the source object on top of which the values of the columns are extracted
  */
 @SPI
-public abstract class RecordSpec<I, R, S> {
+public abstract class RecordSpec<I, R extends Message, S> {
 
     private final Class<R> storedType;
     private final Class<I> idType;
 
+    /**
+     * The layout of the columns of the most recently created record.
+     *
+     * <p>As the same columns are read for each record, the records created
+     * {@linkplain #toRecord(Object, Message, Object) by default} share this layout,
+     * instead of creating one per record.
+     */
+    private volatile ColumnLayout layout = ColumnLayout.empty();
+
     /**
      * Creates a new {@code RecordSpec} instance for the record of the passed type.
      *
@@ -96,6 +106,34 @@ public abstract class RecordSpec<I, R, S> {
      */
     protected abstract Map<ColumnName, @Nullable Object> valuesIn(S source);
 
+    /**
+     * Creates a new record along with the values of all columns read from the passed source.
+     *
+     * <p>By default, the column values are {@linkplain #valuesIn(Object) read} into a map,
+     * and then placed according to the layout shared by the records of this specification.
+     * The specifications in this package override this method to read the values
+     * into an array directly.
+     */
+    RecordWithColumns<I, R> toRecord(I id, R record, S source) {
+        var values = valuesIn(source);
+        var layout = layoutOf(values.keySet());
+        return RecordWithColumns.of(id, record, layout, values);
+    }
+
+    /**
+     * Returns the layout of the passed columns.
+     *
+     * <p>Creates a new layout only if the columns differ from the ones of the previous record.
+     */
+    private ColumnLayout layoutOf(Set<ColumnName> columns) {
+        var current = layout;
+        if (!current.consistsOf(columns)) {
+            current = ColumnLayout.of(columns);
+            layout = current;
+        }
+        return current;
+    }
+
     /**
      * Reads the identifier value of the record.
      *
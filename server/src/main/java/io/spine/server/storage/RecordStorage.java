@@ -26,6 +26,7 @@
 
 package io.spine.server.storage;
 
+import com.google.common.collect.ImmutableList;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.protobuf.FieldMask;
 import com.google.protobuf.Message;
@@ -39,6 +40,8 @@ import io.spine.server.ContextSpec;
 import java.util.Iterator;
 import java.util.Optional;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
 /**
  * An abstract base for storage implementations, which store the Protobuf messages as records.
  *
@@ -230,9 +233,23 @@ public abstract class RecordStorage<I, R extends Message> extends AbstractStorag
      *         if the storage was closed before
      */
     protected void deleteAll(Iterable<I> ids) {
-        for (var id : ids) {
-            delete(id);
-        }
+        checkNotClosed();
+        deleteAllRecords(ids);
+    }
+
+    /**
+     * Deletes the message records matching the passed query.
+     *
+     * <p>The {@linkplain RecordQuery#mask() field mask} of the query is ignored.
+     *
+     * @param query
+     *         the query selecting the records to delete
+     * @throws IllegalStateException
+     *         if the storage was closed before
+     */
+    protected void deleteAll(RecordQuery<I, R> query) {
+        checkNotClosed();
+        deleteAllRecords(query);
     }
 
     /**
@@ -280,6 +297,23 @@ public abstract class RecordStorage<I, R extends Message> extends AbstractStorag
         return RecordQuery.newBuilder(recordSpec.idType(), recordSpec().storedType());
     }
 
+    /**
+     * Returns an asynchronous view on this storage.
+     *
+     * <p>By default, the operations of the returned instance are performed by this storage
+     * in the calling thread, so the returned futures are already completed. The storages backed
+     * by asynchronous drivers should override this method to return an implementation,
+     * which does not block the caller.
+     *
+     * <p>Closing the returned instance closes this storage.
+     *
+     * <p>The returned instance exposes all the operations of this storage, including
+     * the protected ones. So, it is only available to the storage implementations.
+     */
+    protected AsyncRecordStorage<I, R> async() {
+        return new AsyncRecordStorageAdapter<>(this, directExecutor());
+    }
+
     /**
      * Performs writing the record and its column values to the storage.
      *
@@ -321,6 +355,42 @@ public abstract class RecordStorage<I, R extends Message> extends AbstractStorag
     @CanIgnoreReturnValue
     protected abstract boolean deleteRecord(I id);
 
+    /**
+     * Performs the physical removal of the message records from the storage
+     * by the identifiers of the records.
+     *
+     * <p>The identifiers of the records which are not found in the storage are skipped.
+     *
+     * <p>By default, {@linkplain #deleteRecord(Object) deletes} the records one by one.
+     * Storage implementations which are able to remove a batch of records in a single
+     * operation should override this method.
+     *
+     * @param ids
+     *         identifiers of the records to delete
+     */
+    protected void deleteAllRecords(Iterable<I> ids) {
+        for (var id : ids) {
+            deleteRecord(id);
+        }
+    }
+
+    /**
+     * Performs the physical removal of the message records matching the passed query.
+     *
+     * <p>By default, obtains the identifiers of the matching records
+     * from the {@linkplain #index(RecordQuery) index}, and then
+     * {@linkplain #deleteAllRecords(Iterable) deletes} them.
+     * Storage implementations which are able to remove the records by a query in a single
+     * operation should override this method.
+     *
+     * @param query
+     *         the query selecting the records to delete
+     */
+    protected void deleteAllRecords(RecordQuery<I, R> query) {
+        var ids = ImmutableList.copyOf(index(query));
+        deleteAllRecords(ids);
+    }
+
     /**
      * Returns the specification of the record format, in which the message record should be stored.
      */
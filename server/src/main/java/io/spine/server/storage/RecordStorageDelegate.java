@@ -150,6 +150,11 @@ public abstract class RecordStorageDelegate<I, R extends Message> extends Record
         delegate.deleteAll(ids);
     }
 
+    @Override
+    protected void deleteAll(RecordQuery<I, R> query) {
+        delegate.deleteAll(query);
+    }
+
     @Override
     protected RecordQuery<I, R> toQuery(I id) {
         return delegate.toQuery(id);
@@ -186,6 +191,16 @@ public abstract class RecordStorageDelegate<I, R extends Message> extends Record
         return delegate.deleteRecord(id);
     }
 
+    @Override
+    protected void deleteAllRecords(Iterable<I> ids) {
+        delegate.deleteAllRecords(ids);
+    }
+
+    @Override
+    protected void deleteAllRecords(RecordQuery<I, R> query) {
+        delegate.deleteAllRecords(query);
+    }
+
     @Override
     @Internal
     protected RecordSpec<I, R, ?> recordSpec() {
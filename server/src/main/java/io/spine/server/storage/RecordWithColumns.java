@@ -34,11 +34,14 @@ import io.spine.annotation.SPI;
 import io.spine.query.ColumnName;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.spine.util.Exceptions.newIllegalStateException;
 import static java.util.Collections.unmodifiableMap;
@@ -59,17 +62,60 @@ public class RecordWithColumns<I, R extends Message> {
     private final R record;
 
     /**
-     * A map of column names to the corresponding column values.
+     * The columns of the record, each occupying a fixed slot in the {@link #values} array.
+     */
+    private final ColumnLayout layout;
+
+    /**
+     * The values of the columns, indexed by the slots of the {@link #layout}.
      *
-     * @implNote It's impossible to use an {@link com.google.common.collect.ImmutableMap
-     *         ImmutableMap}, as the values may contain {@code null}s.
+     * @implNote An array is used instead of a {@code Map} in order to avoid hashing upon
+     *         writing each record. The array is never exposed, so it is never modified
+     *         once the instance is created.
      */
-    private final Map<ColumnName, @Nullable Object> storageFields;
+    private final @Nullable Object[] values;
 
     protected RecordWithColumns(I identifier, R record, Map<ColumnName, Object> storageFields) {
+        this(identifier, record, ColumnLayout.of(storageFields.keySet()), storageFields);
+    }
+
+    private RecordWithColumns(I identifier, R record,
+                              ColumnLayout layout, Map<ColumnName, ?> storageFields) {
+        this(identifier, record, layout, valuesOf(storageFields, layout));
+    }
+
+    /**
+     * Creates a new instance with the column values placed according to the passed layout.
+     *
+     * <p>The passed array becomes owned by the created instance
+     * and must not be modified afterwards.
+     *
+     * @param identifier
+     *         the identifier of the record
+     * @param record
+     *         the message of the record
+     * @param layout
+     *         the layout of the record columns
+     * @param values
+     *         the column values indexed by the slots of the layout
+     */
+    protected RecordWithColumns(I identifier, R record,
+                                ColumnLayout layout, @Nullable Object[] values) {
         this.id = checkNotNull(identifier);
         this.record = checkNotNull(record);
-        this.storageFields = new HashMap<>(storageFields);
+        this.layout = checkNotNull(layout);
+        this.values = checkNotNull(values);
+        checkArgument(values.length == layout.size(),
+                      "Expected %s column values, but got %s.", layout.size(), values.length);
+    }
+
+    private static @Nullable Object[] valuesOf(Map<ColumnName, ?> storageFields,
+                                               ColumnLayout layout) {
+        var values = new Object[layout.size()];
+        for (var slot = 0; slot < values.length; slot++) {
+            values[slot] = storageFields.get(layout.nameAt(slot));
+        }
+        return values;
     }
 
     /**
@@ -81,8 +127,7 @@ public class RecordWithColumns<I, R extends Message> {
         checkNotNull(identifier);
         checkNotNull(record);
         checkNotNull(recordSpec);
-        var storageFields = recordSpec.valuesIn(record);
-        return of(identifier, record, storageFields);
+        return recordSpec.toRecord(identifier, record, record);
     }
 
     /**
@@ -92,9 +137,8 @@ public class RecordWithColumns<I, R extends Message> {
     RecordWithColumns<I, R> create(R record, RecordSpec<I, R, R> recordSpec) {
         checkNotNull(record);
         checkNotNull(recordSpec);
-        var storageFields = recordSpec.valuesIn(record);
         var identifier = recordSpec.idValueIn(record);
-        return of(identifier, record, storageFields);
+        return recordSpec.toRecord(identifier, record, record);
     }
 
     /**
@@ -115,6 +159,19 @@ public class RecordWithColumns<I, R extends Message> {
         return new RecordWithColumns<>(identifier, record, storageFields);
     }
 
+    /**
+     * Creates a new instance placing the passed storage fields according to the passed layout.
+     *
+     * <p>The layout must {@linkplain ColumnLayout#consistsOf(java.util.Set) consist} of
+     * the columns of the passed storage fields.
+     */
+    static <I, R extends Message> RecordWithColumns<I, R>
+    of(I identifier, R record, ColumnLayout layout, Map<ColumnName, ?> storageFields) {
+        checkNotNull(layout);
+        checkNotNull(storageFields);
+        return new RecordWithColumns<>(identifier, record, layout, storageFields);
+    }
+
     /**
      * Returns the identifier of the record.
      */
@@ -135,7 +192,7 @@ public class RecordWithColumns<I, R extends Message> {
      * @return the storage field names
      */
     public final ImmutableSet<ColumnName> columnNames() {
-        return ImmutableSet.copyOf(storageFields.keySet());
+        return layout.names();
     }
 
     /**
@@ -167,11 +224,12 @@ public class RecordWithColumns<I, R extends Message> {
     public final <V> V columnValue(ColumnName columnName, ColumnMapping<V> columnMapping) {
         checkNotNull(columnName);
         checkNotNull(columnMapping);
-        if (!storageFields.containsKey(columnName)) {
+        var slot = layout.slotOf(columnName);
+        if (slot < 0) {
             throw newIllegalStateException("Column with the name `%s` was not found.",
                                            columnName);
         }
-        var columnValue = storageFields.get(columnName);
+        var columnValue = values[slot];
         if (columnValue == null) {
             var result = columnMapping.ofNull()
                                       .apply(null);
@@ -187,17 +245,45 @@ public class RecordWithColumns<I, R extends Message> {
      * associated with this record.
      */
     public final boolean hasColumns() {
-        return !storageFields.isEmpty();
+        return values.length > 0;
     }
 
     /**
      * Determines if there is a column with the specified name among the storage fields.
      */
     public final boolean hasColumn(ColumnName name) {
-        var result = storageFields.containsKey(name);
+        var result = layout.slotOf(name) >= 0;
         return result;
     }
 
+    /**
+     * Returns the layout of the columns of this record.
+     *
+     * <p>The records created by the same {@linkplain RecordSpec specification} share
+     * the layout. So, the callers reading the same column of many records may resolve its
+     * {@linkplain ColumnLayout#slotOf(ColumnName) slot} once per layout, and then read
+     * the value {@linkplain #valueAt(int) by the slot}.
+     */
+    @Internal
+    public final ColumnLayout layout() {
+        return layout;
+    }
+
+    /**
+     * Returns the value of the column in the passed slot of the {@linkplain #layout() layout}.
+     *
+     * <p>Unlike {@link #columnValue(ColumnName)}, the value is returned as-is, with no
+     * column mapping applied.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if there is no such slot in the layout
+     */
+    @Internal
+    public final @Nullable Object valueAt(int slot) {
+        checkElementIndex(slot, values.length);
+        return values[slot];
+    }
+
     /**
      * Returns an unmodifiable copy of the values of storage fields associated with this record.
      *
@@ -206,7 +292,48 @@ public class RecordWithColumns<I, R extends Message> {
      */
     @Internal
     protected final Map<ColumnName, @Nullable Object> storageFields() {
-        return unmodifiableMap(storageFields);
+        Map<ColumnName, @Nullable Object> result = new HashMap<>(values.length);
+        for (var slot = 0; slot < values.length; slot++) {
+            result.put(layout.nameAt(slot), values[slot]);
+        }
+        return unmodifiableMap(result);
+    }
+
+    /**
+     * Tells whether the passed record has the same columns with the same values as this one.
+     *
+     * <p>If the records share the layout, their values are compared slot by slot. Otherwise,
+     * each column of this record is looked up in the layout of the other one.
+     */
+    @SuppressWarnings("ReferenceEquality")  // Layouts are shared by the record specifications.
+    protected final boolean sameColumnsAs(RecordWithColumns<?, ?> other) {
+        if (layout == other.layout) {
+            return Arrays.equals(values, other.values);
+        }
+        if (values.length != other.values.length) {
+            return false;
+        }
+        for (var slot = 0; slot < values.length; slot++) {
+            var otherSlot = other.layout.slotOf(layout.nameAt(slot));
+            if (otherSlot < 0 || !Objects.equals(values[slot], other.values[otherSlot])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code of the columns and their values.
+     *
+     * <p>The result is the same as the hash code of the {@linkplain #storageFields() map}
+     * of the storage fields.
+     */
+    protected final int columnsHashCode() {
+        var result = 0;
+        for (var slot = 0; slot < values.length; slot++) {
+            result += layout.nameAt(slot).hashCode() ^ Objects.hashCode(values[slot]);
+        }
+        return result;
     }
 
     @Override
@@ -220,11 +347,11 @@ public class RecordWithColumns<I, R extends Message> {
         var columns = (RecordWithColumns<?, ?>) o;
         return Objects.equals(id, columns.id) &&
                 Objects.equals(record, columns.record) &&
-                Objects.equals(storageFields, columns.storageFields);
+                sameColumnsAs(columns);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, record, storageFields);
+        return Objects.hash(id, record, columnsHashCode());
     }
 }
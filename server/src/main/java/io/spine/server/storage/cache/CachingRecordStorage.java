@@ -0,0 +1,271 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.Message;
+import io.spine.query.RecordQuery;
+import io.spine.server.ContextSpec;
+import io.spine.server.storage.RecordStorage;
+import io.spine.server.storage.RecordStorageDelegate;
+import io.spine.server.storage.RecordWithColumns;
+import io.spine.server.tenant.IdInTenant;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A {@link RecordStorage} which caches the records read by their identifiers.
+ *
+ * <p>The records are cached on the reads by identifiers, including the queries which select
+ * the records only by their identifiers. The absence of a record is cached as well.
+ * The reads with a non-empty field mask and the rest of the queries go through
+ * to the underlying storage.
+ *
+ * <p>The writes and the deletions go through to the underlying storage, and then update
+ * the cache. A value read from the underlying storage never replaces the cached value written
+ * concurrently.
+ *
+ * <p>The cached records are kept per tenant. The cache is bounded by size and by the time
+ * passed since a record has been cached. The latter bounds the staleness of the records
+ * changed bypassing this storage.
+ *
+ * @param <I>
+ *         the type of the record identifiers
+ * @param <R>
+ *         the type of the records
+ * @see CachingStorageFactory
+ */
+public final class CachingRecordStorage<I, R extends Message> extends RecordStorageDelegate<I, R> {
+
+    private final Cache<IdInTenant<I>, Optional<R>> cache;
+
+    CachingRecordStorage(ContextSpec context,
+                         RecordStorage<I, R> delegate,
+                         Cache<IdInTenant<I>, Optional<R>> cache) {
+        super(context, delegate);
+        this.cache = cache;
+    }
+
+    private IdInTenant<I> key(I id) {
+        return IdInTenant.of(id, isMultitenant());
+    }
+
+    @Override
+    public Optional<R> read(I id) {
+        checkNotClosed();
+        var key = key(id);
+        var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        var result = super.read(id);
+        cache.asMap()
+             .putIfAbsent(key, result);
+        return result;
+    }
+
+    @Override
+    protected Optional<R> read(I id, FieldMask mask) {
+        return isEmpty(mask)
+               ? read(id)
+               : super.read(id, mask);
+    }
+
+    @Override
+    protected Iterator<R> readAll(Iterable<I> ids) {
+        return readByIds(ids);
+    }
+
+    @Override
+    protected Iterator<R> readAll(Iterable<I> ids, FieldMask mask) {
+        return isEmpty(mask)
+               ? readByIds(ids)
+               : super.readAll(ids, mask);
+    }
+
+    @Override
+    protected Iterator<R> readAll(RecordQuery<I, R> query) {
+        return selectsOnlyByIds(query)
+               ? readByIds(query.subject().id().values())
+               : super.readAll(query);
+    }
+
+    /**
+     * Tells if the query selects the records by their identifiers and nothing else.
+     */
+    private static <I, R extends Message> boolean selectsOnlyByIds(RecordQuery<I, R> query) {
+        var subject = query.subject();
+        var predicate = subject.predicate();
+        var limit = query.limit();
+        return !subject.id().values().isEmpty()
+                && predicate.parameters().isEmpty()
+                && predicate.children().isEmpty()
+                && query.sorting().isEmpty()
+                && (limit == null || limit == 0)
+                && isEmpty(query.mask());
+    }
+
+    private static boolean isEmpty(FieldMask mask) {
+        return mask.getPathsList()
+                   .isEmpty();
+    }
+
+    /**
+     * Reads the records with the passed identifiers in the order of the identifiers.
+     */
+    private Iterator<R> readByIds(Iterable<I> ids) {
+        checkNotClosed();
+        Map<I, Optional<R>> records = new HashMap<>();
+        List<I> misses = new ArrayList<>();
+        for (var id : ids) {
+            var cached = cache.getIfPresent(key(id));
+            if (cached == null) {
+                misses.add(id);
+            } else {
+                records.put(id, cached);
+            }
+        }
+        if (!misses.isEmpty()) {
+            var loaded = super.readAll(misses);
+            var spec = recordSpec();
+            while (loaded.hasNext()) {
+                var record = loaded.next();
+                var id = spec.idFromRecord(record);
+                records.put(id, Optional.of(record));
+                cache.asMap()
+                     .putIfAbsent(key(id), Optional.of(record));
+            }
+            for (var id : misses) {
+                if (!records.containsKey(id)) {
+                    records.put(id, Optional.empty());
+                    cache.asMap()
+                         .putIfAbsent(key(id), Optional.empty());
+                }
+            }
+        }
+        List<R> result = new ArrayList<>();
+        for (var id : ids) {
+            records.get(id)
+                   .ifPresent(result::add);
+        }
+        return result.iterator();
+    }
+
+    @Override
+    protected void write(RecordWithColumns<I, R> record) {
+        super.write(record);
+        cached(record);
+    }
+
+    @Override
+    protected void writeAll(Iterable<? extends RecordWithColumns<I, R>> records) {
+        super.writeAll(records);
+        records.forEach(this::cached);
+    }
+
+    @Override
+    public void write(I id, R record) {
+        super.write(id, record);
+        cache.put(key(id), Optional.of(record));
+    }
+
+    @Override
+    protected void writeRecord(RecordWithColumns<I, R> record) {
+        super.writeRecord(record);
+        cached(record);
+    }
+
+    @Override
+    protected void writeAllRecords(Iterable<? extends RecordWithColumns<I, R>> records) {
+        super.writeAllRecords(records);
+        records.forEach(this::cached);
+    }
+
+    private void cached(RecordWithColumns<I, R> record) {
+        cache.put(key(record.id()), Optional.of(record.record()));
+    }
+
+    @Override
+    protected boolean delete(I id) {
+        var result = super.delete(id);
+        deleted(id);
+        return result;
+    }
+
+    @Override
+    protected void deleteAll(Iterable<I> ids) {
+        super.deleteAll(ids);
+        ids.forEach(this::deleted);
+    }
+
+    @Override
+    protected void deleteAll(RecordQuery<I, R> query) {
+        var ids = ImmutableList.copyOf(index(query));
+        super.deleteAll(query);
+        ids.forEach(this::deleted);
+    }
+
+    @Override
+    protected boolean deleteRecord(I id) {
+        var result = super.deleteRecord(id);
+        deleted(id);
+        return result;
+    }
+
+    @Override
+    protected void deleteAllRecords(Iterable<I> ids) {
+        super.deleteAllRecords(ids);
+        ids.forEach(this::deleted);
+    }
+
+    @Override
+    protected void deleteAllRecords(RecordQuery<I, R> query) {
+        var ids = ImmutableList.copyOf(index(query));
+        super.deleteAllRecords(query);
+        ids.forEach(this::deleted);
+    }
+
+    private void deleted(I id) {
+        cache.put(key(id), Optional.empty());
+    }
+
+    /**
+     * Closes the underlying storage and drops the cached records of all the tenants.
+     */
+    @Override
+    public void close() {
+        super.close();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.protobuf.Duration;
+import com.google.protobuf.Message;
+import io.spine.base.EntityState;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.Aggregate;
+import io.spine.server.aggregate.AggregateEventStorage;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.delivery.CatchUpStorage;
+import io.spine.server.delivery.InboxStorage;
+import io.spine.server.event.EventStore;
+import io.spine.server.migration.mirror.MirrorStorage;
+import io.spine.server.storage.RecordSpec;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.tenant.IdInTenant;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.protobuf.util.Durations.fromMinutes;
+import static com.google.protobuf.util.Durations.toNanos;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A {@link StorageFactory} which caches the records read by their identifiers
+ * in front of the storages created by another factory.
+ *
+ * <p>Each {@code RecordStorage} created by the wrapped factory is decorated with
+ * a {@link CachingRecordStorage}. So are the storages of the entity records, which are built
+ * on top of record storages.
+ *
+ * <p>The rest of the storages, such as the aggregate, event, inbox, and catch-up storages,
+ * are created by the wrapped factory as-is. They read their records by queries rather than
+ * by identifiers, and the wrapped factory may lay them out on its own. For example,
+ * it may keep the history of each aggregate class in separate tables.
+ *
+ * <p>Each storage has its own cache. The cached records are evicted when the cache grows
+ * over the {@linkplain Builder#setMaximumSize(long) maximum size}, and when
+ * the {@linkplain Builder#setExpireAfterWrite(Duration) expiration time} passes since
+ * the record has been cached.
+ *
+ * <p>The cache is kept up to date with the changes made through the same storage. If
+ * the records are also changed bypassing it, for example, by another process, the cached
+ * records may be stale until they expire.
+ */
+public final class CachingStorageFactory implements StorageFactory {
+
+    /**
+     * The default maximum number of records cached by each storage.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    /**
+     * The default time after which a cached record expires.
+     */
+    public static final Duration DEFAULT_EXPIRE_AFTER_WRITE = fromMinutes(1);
+
+    private final StorageFactory delegate;
+    private final long maximumSize;
+    private final Duration expireAfterWrite;
+
+    private CachingStorageFactory(Builder builder) {
+        this.delegate = builder.delegate;
+        this.maximumSize = builder.maximumSize;
+        this.expireAfterWrite = builder.expireAfterWrite;
+    }
+
+    /**
+     * Wraps the passed factory with the default cache settings.
+     *
+     * <p>If the passed factory already caches the records, returns it as-is.
+     */
+    public static CachingStorageFactory wrap(StorageFactory factory) {
+        checkNotNull(factory);
+        return factory instanceof CachingStorageFactory
+               ? (CachingStorageFactory) factory
+               : newBuilder(factory).build();
+    }
+
+    /**
+     * Creates a new builder of the factory which wraps the passed one.
+     */
+    public static Builder newBuilder(StorageFactory factory) {
+        return new Builder(factory);
+    }
+
+    /**
+     * Returns the wrapped factory.
+     */
+    public StorageFactory delegate() {
+        return delegate;
+    }
+
+    @Override
+    public <I, M extends Message> CachingRecordStorage<I, M>
+    createRecordStorage(ContextSpec context, RecordSpec<I, M, ?> recordSpec) {
+        var storage = delegate.createRecordStorage(context, recordSpec);
+        Cache<IdInTenant<I>, Optional<M>> cache =
+                CacheBuilder.newBuilder()
+                            .maximumSize(maximumSize)
+                            .expireAfterWrite(toNanos(expireAfterWrite), NANOSECONDS)
+                            .build();
+        return new CachingRecordStorage<>(context, storage, cache);
+    }
+
+    @Override
+    public <I, S extends EntityState<I>> AggregateStorage<I, S>
+    createAggregateStorage(ContextSpec context,
+                           Class<? extends Aggregate<I, S, ?>> aggregateCls) {
+        return delegate.createAggregateStorage(context, aggregateCls);
+    }
+
+    @Override
+    public AggregateEventStorage createAggregateEventStorage(ContextSpec context) {
+        return delegate.createAggregateEventStorage(context);
+    }
+
+    @Override
+    public EventStore createEventStore(ContextSpec context) {
+        return delegate.createEventStore(context);
+    }
+
+    @Override
+    public InboxStorage createInboxStorage(boolean multitenant) {
+        return delegate.createInboxStorage(multitenant);
+    }
+
+    @Override
+    public CatchUpStorage createCatchUpStorage(boolean multitenant) {
+        return delegate.createCatchUpStorage(multitenant);
+    }
+
+    @Override
+    public MirrorStorage createMirrorStorage(ContextSpec context) {
+        return delegate.createMirrorStorage(context);
+    }
+
+    /**
+     * Closes the wrapped factory.
+     */
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+
+    /**
+     * A builder of {@code CachingStorageFactory} instances.
+     */
+    public static final class Builder {
+
+        private final StorageFactory delegate;
+        private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+        private Duration expireAfterWrite = DEFAULT_EXPIRE_AFTER_WRITE;
+
+        /**
+         * Prevents a direct instantiation of this class.
+         */
+        private Builder(StorageFactory delegate) {
+            this.delegate = checkNotNull(delegate);
+        }
+
+        /**
+         * Sets the maximum number of records cached by each storage.
+         *
+         * <p>If none set, {@linkplain #DEFAULT_MAXIMUM_SIZE} is used.
+         */
+        @CanIgnoreReturnValue
+        public Builder setMaximumSize(long maximumSize) {
+            checkArgument(maximumSize > 0);
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a cached record expires.
+         *
+         * <p>If none set, {@linkplain #DEFAULT_EXPIRE_AFTER_WRITE} is used.
+         */
+        @CanIgnoreReturnValue
+        public Builder setExpireAfterWrite(Duration expireAfterWrite) {
+            checkNotNull(expireAfterWrite);
+            checkArgument(toNanos(expireAfterWrite) > 0);
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        /**
+         * Creates a new instance of the factory.
+         */
+        public CachingStorageFactory build() {
+            return new CachingStorageFactory(this);
+        }
+    }
+}
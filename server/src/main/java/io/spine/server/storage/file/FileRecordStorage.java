@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.file;
+
+import com.google.protobuf.Message;
+import io.spine.query.RecordQuery;
+import io.spine.server.ContextSpec;
+import io.spine.server.storage.RecordSpec;
+import io.spine.server.storage.RecordStorage;
+import io.spine.server.storage.RecordWithColumns;
+
+import java.util.Iterator;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link RecordStorage} keeping the records in local files.
+ *
+ * <p>The records are stored in a table, which is shared by the storages of the same kind
+ * of records created for the same Bounded Context. Closing the storage does not close
+ * the table. The tables are closed along with the {@link FileStorageFactory} which
+ * created them.
+ *
+ * @param <I>
+ *         the type of the record identifiers
+ * @param <R>
+ *         the type of the stored records
+ * @see FileStorageFactory
+ */
+public final class FileRecordStorage<I, R extends Message> extends RecordStorage<I, R> {
+
+    private final FileTable<I, R> table;
+
+    FileRecordStorage(ContextSpec context, RecordSpec<I, R, ?> recordSpec, FileTable<I, R> table) {
+        super(context, recordSpec);
+        this.table = checkNotNull(table);
+    }
+
+    @Override
+    public Iterator<I> index() {
+        checkNotClosed();
+        return table.index();
+    }
+
+    @Override
+    protected Iterator<I> index(RecordQuery<I, R> query) {
+        checkNotClosed();
+        return table.index(query);
+    }
+
+    @Override
+    public void write(I id, R record) {
+        writeRecord(RecordWithColumns.of(id, record));
+    }
+
+    @Override
+    protected void writeRecord(RecordWithColumns<I, R> record) {
+        table.writeRecord(record);
+    }
+
+    @Override
+    protected void writeAllRecords(Iterable<? extends RecordWithColumns<I, R>> records) {
+        table.writeAllRecords(records);
+    }
+
+    @Override
+    protected Iterator<R> readAllRecords(RecordQuery<I, R> query) {
+        return table.readAllRecords(query);
+    }
+
+    @Override
+    protected boolean deleteRecord(I id) {
+        return table.deleteRecord(id);
+    }
+
+    @Override
+    protected void deleteAllRecords(Iterable<I> ids) {
+        table.deleteAllRecords(ids);
+    }
+
+    @Override
+    protected void deleteAllRecords(RecordQuery<I, R> query) {
+        table.deleteAllRecords(query);
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.file;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.protobuf.Message;
+import io.spine.base.EntityState;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.Aggregate;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.storage.RecordSpec;
+import io.spine.server.storage.StorageFactory;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A factory for storages, which keep the data in local files.
+ *
+ * <p>The data is kept in the {@linkplain Builder#setDirectory(Path) directory} of the factory.
+ * Each kind of records of each Bounded Context is kept in its own subdirectory, in
+ * a log-structured key-value store per tenant. The records of aggregates, such as their events,
+ * are kept separately for each aggregate class. The data written by one instance of the factory
+ * is available to the instances created later for the same directory.
+ *
+ * <p>All the records are also kept in memory in order to serve the queries. So, the size
+ * of the stored data is limited by the available memory.
+ *
+ * <p>The same directory must not be used by several factories at once.
+ */
+public final class FileStorageFactory implements StorageFactory {
+
+    /**
+     * The default approximate number of bytes of the changes kept in memory
+     * before writing them to a segment file.
+     */
+    public static final long DEFAULT_MEMTABLE_LIMIT = 4 * 1024 * 1024;
+
+    /**
+     * The default number of segment files of a store, upon exceeding which
+     * the segments are compacted.
+     */
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    private final Path directory;
+    private final long memtableLimit;
+    private final int maxSegments;
+    private final boolean syncWrites;
+    private final Map<Path, FileTable<?, ?>> tables = new ConcurrentHashMap<>();
+
+    private FileStorageFactory(Builder builder) {
+        this.directory = builder.directory;
+        this.memtableLimit = builder.memtableLimit;
+        this.maxSegments = builder.maxSegments;
+        this.syncWrites = builder.syncWrites;
+    }
+
+    /**
+     * Creates a new instance of the factory which keeps the data in the passed directory.
+     *
+     * <p>The rest of the settings have their default values.
+     */
+    public static FileStorageFactory newInstance(Path directory) {
+        return newBuilder().setDirectory(directory)
+                           .build();
+    }
+
+    /**
+     * Creates a new builder of the factory.
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public <I, M extends Message> FileRecordStorage<I, M>
+    createRecordStorage(ContextSpec context, RecordSpec<I, M, ?> spec) {
+        return createRecordStorage(context, spec, null);
+    }
+
+    /**
+     * Creates the storages of the aggregate of the passed class.
+     *
+     * <p>The records of the aggregate storage, including the event records, are kept in
+     * the tables of this aggregate class only. Otherwise, the aggregates of different classes
+     * would share the same table of events, and read and truncate each other's history
+     * if they have equal identifiers.
+     */
+    @Override
+    public <I, S extends EntityState<I>> AggregateStorage<I, S>
+    createAggregateStorage(ContextSpec context, Class<? extends Aggregate<I, S, ?>> aggregateCls) {
+        return new AggregateStorage<>(context, aggregateCls, new OwnedBy(aggregateCls));
+    }
+
+    private <I, M extends Message> FileRecordStorage<I, M>
+    createRecordStorage(ContextSpec context, RecordSpec<I, M, ?> spec, @Nullable Class<?> owner) {
+        var tableDir = directory.resolve(fileNameOf(context.name().getValue()))
+                                .resolve(fileNameOf(tableName(spec, owner)));
+        @SuppressWarnings("unchecked") // The tables in the same directory store the same records.
+        var table = (FileTable<I, M>) tables.computeIfAbsent(
+                tableDir, dir -> new FileTable<>(context, spec, dir, this)
+        );
+        return new FileRecordStorage<>(context, spec, table);
+    }
+
+    /**
+     * Obtains the name of the table, unique for each kind of the records and
+     * the class owning them, if any.
+     */
+    private static String tableName(RecordSpec<?, ?, ?> spec, @Nullable Class<?> owner) {
+        var storedType = spec.storedType();
+        var sourceType = spec.sourceType();
+        var name = storedType.equals(sourceType)
+                   ? storedType.getName()
+                   : storedType.getName() + '-' + sourceType.getName();
+        return owner == null
+               ? name
+               : owner.getName() + '-' + name;
+    }
+
+    /**
+     * Replaces the characters which may be unsafe in a file name.
+     */
+    private static String fileNameOf(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * Opens the store in the passed directory with the settings of this factory.
+     */
+    LogStore openStore(Path storeDir) {
+        return LogStore.open(storeDir, memtableLimit, maxSegments, syncWrites);
+    }
+
+    /**
+     * Closes all the stores opened by this factory.
+     *
+     * <p>The changes kept in memory are written to the segment files.
+     */
+    @Override
+    public void close() {
+        for (var table : tables.values()) {
+            table.close();
+        }
+        tables.clear();
+    }
+
+    /**
+     * A view on this factory, which creates the record storages owned by a certain class.
+     *
+     * <p>The tables are still managed and {@linkplain #close() closed} by the enclosing factory.
+     */
+    private final class OwnedBy implements StorageFactory {
+
+        private final Class<?> owner;
+
+        private OwnedBy(Class<?> owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public <I, M extends Message> FileRecordStorage<I, M>
+        createRecordStorage(ContextSpec context, RecordSpec<I, M, ?> spec) {
+            return FileStorageFactory.this.createRecordStorage(context, spec, owner);
+        }
+
+        @Override
+        public void close() {
+            // The tables are closed by the enclosing factory.
+        }
+    }
+
+    /**
+     * A builder of {@code FileStorageFactory} instances.
+     */
+    public static final class Builder {
+
+        private @MonotonicNonNull Path directory;
+        private long memtableLimit = DEFAULT_MEMTABLE_LIMIT;
+        private int maxSegments = DEFAULT_MAX_SEGMENTS;
+        private boolean syncWrites = true;
+
+        /**
+         * Prevents a direct instantiation of this class.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the directory to keep the data in.
+         *
+         * <p>The directory is created if it does not exist.
+         */
+        @CanIgnoreReturnValue
+        public Builder setDirectory(Path directory) {
+            this.directory = checkNotNull(directory);
+            return this;
+        }
+
+        /**
+         * Sets the approximate number of bytes of the changes kept in memory before
+         * writing them to a segment file.
+         *
+         * <p>If none set, {@linkplain #DEFAULT_MEMTABLE_LIMIT} is used.
+         */
+        @CanIgnoreReturnValue
+        public Builder setMemtableLimit(long memtableLimit) {
+            checkArgument(memtableLimit > 0);
+            this.memtableLimit = memtableLimit;
+            return this;
+        }
+
+        /**
+         * Sets the number of segment files of a store, upon exceeding which
+         * the segments are compacted.
+         *
+         * <p>If none set, {@linkplain #DEFAULT_MAX_SEGMENTS} is used.
+         */
+        @CanIgnoreReturnValue
+        public Builder setMaxSegments(int maxSegments) {
+            checkArgument(maxSegments > 0);
+            this.maxSegments = maxSegments;
+            return this;
+        }
+
+        /**
+         * Sets whether each write should be synced to the disk before it completes.
+         *
+         * <p>If {@code false}, the writes are only passed to the operating system, and may be
+         * lost if the machine, rather than the process, stops. Such a mode is faster, and
+         * suits the tests.
+         *
+         * <p>The default value is {@code true}.
+         */
+        @CanIgnoreReturnValue
+        public Builder setSyncWrites(boolean syncWrites) {
+            this.syncWrites = syncWrites;
+            return this;
+        }
+
+        /**
+         * Creates a new instance of the factory.
+         *
+         * @throws IllegalStateException
+         *         if the directory is not set
+         */
+        public FileStorageFactory build() {
+            checkState(directory != null, "The directory of the storage factory must be set.");
+            return new FileStorageFactory(this);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.file;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.BaseEncoding;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import io.spine.core.TenantId;
+import io.spine.query.RecordQuery;
+import io.spine.server.ContextSpec;
+import io.spine.server.storage.RecordSpec;
+import io.spine.server.storage.RecordStorageDelegate;
+import io.spine.server.storage.RecordWithColumns;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+import io.spine.server.tenant.TenantAwareRunner;
+import io.spine.server.tenant.TenantFunction;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The records of a single kind kept in a directory, with a {@link LogStore} per tenant.
+ *
+ * <p>All the records are also kept in memory, so that the reads and the queries are served by
+ * an {@linkplain InMemoryStorageFactory in-memory storage} along with its column indexes.
+ * The records are loaded from the files when the table is created. So, the files are only
+ * read once, and are written on each change.
+ *
+ * <p>Each change is written to the store of the current tenant first, and only then is applied
+ * in memory. The changes of the same tenant are serialized, so that the order of the changes
+ * on disk is the same as in memory.
+ *
+ * <p>A table may be shared by several {@link FileRecordStorage}s, which store records
+ * of the same kind in the same Bounded Context.
+ *
+ * @param <I>
+ *         the type of the record identifiers
+ * @param <R>
+ *         the type of the records
+ */
+final class FileTable<I, R extends Message> extends RecordStorageDelegate<I, R> {
+
+    private static final String TENANT_PREFIX = "tenant-";
+    private static final BaseEncoding TENANT_ENCODING = BaseEncoding.base16().lowerCase();
+
+    private final Path directory;
+    private final FileStorageFactory factory;
+    private final RecordCodec<I, R> codec;
+    private final Map<TenantId, LogStore> stores = new ConcurrentHashMap<>();
+
+    FileTable(ContextSpec context,
+              RecordSpec<I, R, ?> recordSpec,
+              Path directory,
+              FileStorageFactory factory) {
+        super(context, InMemoryStorageFactory.newInstance()
+                                             .createRecordStorage(context, recordSpec));
+        this.directory = directory;
+        this.factory = factory;
+        this.codec = new RecordCodec<>(recordSpec);
+        load();
+    }
+
+    /**
+     * Loads the records of all the tenants from the files.
+     */
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> tenantDirs = new ArrayList<>();
+        try (var listing = Files.list(directory)) {
+            listing.filter(Files::isDirectory)
+                   .forEach(tenantDirs::add);
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to read the directory `%s`.", directory);
+        }
+        for (var tenantDir : tenantDirs) {
+            var tenant = tenantOf(tenantDir);
+            if (tenant != null) {
+                var store = stores.computeIfAbsent(tenant, this::openStore);
+                loadFrom(tenant, store);
+            }
+        }
+    }
+
+    private void loadFrom(TenantId tenant, LogStore store) {
+        List<RecordWithColumns<I, R>> records = new ArrayList<>();
+        store.forEach((key, value) -> records.add(codec.decode(codec.decodeId(key), value)));
+        if (isMultitenant()) {
+            TenantAwareRunner.with(tenant)
+                             .run(() -> super.writeAllRecords(records));
+        } else {
+            super.writeAllRecords(records);
+        }
+    }
+
+    private LogStore openStore(TenantId tenant) {
+        var name = TENANT_PREFIX + TENANT_ENCODING.encode(tenant.toByteArray());
+        return factory.openStore(directory.resolve(name));
+    }
+
+    private static @Nullable TenantId tenantOf(Path tenantDir) {
+        var name = tenantDir.getFileName()
+                            .toString();
+        if (!name.startsWith(TENANT_PREFIX)) {
+            return null;
+        }
+        var encoded = name.substring(TENANT_PREFIX.length());
+        try {
+            return TenantId.parseFrom(TENANT_ENCODING.decode(encoded));
+        } catch (IllegalArgumentException | InvalidProtocolBufferException e) {
+            throw newIllegalStateException(
+                    e, "Unable to read the tenant of the directory `%s`.", tenantDir);
+        }
+    }
+
+    /**
+     * Obtains the store of the current tenant, opening it if needed.
+     */
+    private LogStore currentStore() {
+        var func = new TenantFunction<LogStore>(isMultitenant()) {
+            @Override
+            public @Nullable LogStore apply(@Nullable TenantId tenantId) {
+                requireNonNull(tenantId);
+                var store = stores.get(tenantId);
+                if (store != null) {
+                    return store;
+                }
+                return stores.computeIfAbsent(tenantId, FileTable.this::openStore);
+            }
+        };
+        var result = func.execute();
+        return requireNonNull(result, "The store of the current tenant is `null`.");
+    }
+
+    @Override
+    protected Iterator<R> readAllRecords(RecordQuery<I, R> query) {
+        return super.readAllRecords(query);
+    }
+
+    @Override
+    protected void writeRecord(RecordWithColumns<I, R> record) {
+        var store = currentStore();
+        synchronized (store) {
+            store.write(ImmutableList.of(toEntry(record)));
+            super.writeRecord(record);
+        }
+    }
+
+    @Override
+    protected void writeAllRecords(Iterable<? extends RecordWithColumns<I, R>> records) {
+        var entries = ImmutableList.<LogEntry>builder();
+        for (RecordWithColumns<I, R> record : records) {
+            entries.add(toEntry(record));
+        }
+        var store = currentStore();
+        synchronized (store) {
+            store.write(entries.build());
+            super.writeAllRecords(records);
+        }
+    }
+
+    private LogEntry toEntry(RecordWithColumns<I, R> record) {
+        return LogEntry.put(codec.encodeId(record.id()), codec.encode(record));
+    }
+
+    @Override
+    protected boolean deleteRecord(I id) {
+        var store = currentStore();
+        synchronized (store) {
+            store.write(ImmutableList.of(LogEntry.delete(codec.encodeId(id))));
+            return super.deleteRecord(id);
+        }
+    }
+
+    @Override
+    protected void deleteAllRecords(Iterable<I> ids) {
+        var entries = ImmutableList.<LogEntry>builder();
+        for (var id : ids) {
+            entries.add(LogEntry.delete(codec.encodeId(id)));
+        }
+        var store = currentStore();
+        synchronized (store) {
+            store.write(entries.build());
+            super.deleteAllRecords(ids);
+        }
+    }
+
+    @Override
+    protected void deleteAllRecords(RecordQuery<I, R> query) {
+        var store = currentStore();
+        synchronized (store) {
+            var ids = ImmutableList.copyOf(super.index(query));
+            deleteAllRecords(ids);
+        }
+    }
+
+    /**
+     * Closes the stores of all the tenants.
+     */
+    @Override
+    public void close() {
+        super.close();
+        for (var store : stores.values()) {
+            store.close();
+        }
+        stores.clear();
+    }
+}
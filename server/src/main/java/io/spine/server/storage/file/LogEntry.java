@@ -0,0 +1,186 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.file;
+
+import com.google.protobuf.ByteString;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A single change of a {@link LogStore}, as it is written to the log and to the segment files.
+ *
+ * <p>The entry is either a new value for the key, or a tombstone telling that the value
+ * for the key has been deleted.
+ *
+ * <p>The binary format of an entry is:
+ * <pre>
+ *     int32  key length
+ *     bytes  key
+ *     int32  value length, or -1 for a tombstone
+ *     bytes  value
+ *     int32  CRC32 checksum of all of the above
+ * </pre>
+ */
+final class LogEntry {
+
+    /**
+     * Orders the keys by their bytes, compared as unsigned values.
+     */
+    static final Comparator<ByteString> KEY_ORDER = LogEntry::compareKeys;
+
+    private static final int TOMBSTONE = -1;
+
+    private final ByteString key;
+    private final @Nullable ByteString value;
+
+    private LogEntry(ByteString key, @Nullable ByteString value) {
+        this.key = checkNotNull(key);
+        this.value = value;
+    }
+
+    /**
+     * Creates an entry setting the value for the key.
+     */
+    static LogEntry put(ByteString key, ByteString value) {
+        checkNotNull(value);
+        return new LogEntry(key, value);
+    }
+
+    /**
+     * Creates an entry deleting the value for the key.
+     */
+    static LogEntry delete(ByteString key) {
+        return new LogEntry(key, null);
+    }
+
+    ByteString key() {
+        return key;
+    }
+
+    /**
+     * Returns the value set by this entry, or {@code null} if the entry is a tombstone.
+     */
+    @Nullable ByteString value() {
+        return value;
+    }
+
+    boolean isTombstone() {
+        return value == null;
+    }
+
+    /**
+     * Obtains the approximate number of bytes the entry occupies in memory.
+     */
+    int size() {
+        return key.size() + (value == null ? 0 : value.size()) + 32;
+    }
+
+    /**
+     * Writes the entry to the passed stream.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        var keyBytes = key.toByteArray();
+        var valueBytes = value == null ? null : value.toByteArray();
+        var valueLength = valueBytes == null ? TOMBSTONE : valueBytes.length;
+        out.writeInt(keyBytes.length);
+        out.write(keyBytes);
+        out.writeInt(valueLength);
+        if (valueBytes != null) {
+            out.write(valueBytes);
+        }
+        out.writeInt(checksum(keyBytes, valueLength, valueBytes));
+    }
+
+    /**
+     * Reads the next entry from the passed stream.
+     *
+     * @return the read entry, or {@code null} if the stream has ended before the entry
+     * @throws IOException
+     *         if the stream ended in the middle of the entry, or the entry is corrupted
+     */
+    static @Nullable LogEntry readFrom(DataInputStream in) throws IOException {
+        int keyLength;
+        try {
+            keyLength = in.readInt();
+        } catch (EOFException ignored) {
+            return null;
+        }
+        checkLength(keyLength);
+        var keyBytes = new byte[keyLength];
+        in.readFully(keyBytes);
+        var valueLength = in.readInt();
+        byte[] valueBytes = null;
+        if (valueLength != TOMBSTONE) {
+            checkLength(valueLength);
+            valueBytes = new byte[valueLength];
+            in.readFully(valueBytes);
+        }
+        var expectedChecksum = in.readInt();
+        if (expectedChecksum != checksum(keyBytes, valueLength, valueBytes)) {
+            throw new IOException("The log entry checksum does not match.");
+        }
+        var key = ByteString.copyFrom(keyBytes);
+        return valueBytes == null
+               ? delete(key)
+               : put(key, ByteString.copyFrom(valueBytes));
+    }
+
+    private static void checkLength(int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("The log entry has a negative length: " + length + '.');
+        }
+    }
+
+    private static int checksum(byte[] key, int valueLength, byte @Nullable [] value) {
+        var crc = new CRC32();
+        crc.update(key);
+        crc.update(valueLength);
+        if (value != null) {
+            crc.update(value);
+        }
+        return (int) crc.getValue();
+    }
+
+    private static int compareKeys(ByteString a, ByteString b) {
+        var length = Math.min(a.size(), b.size());
+        for (var i = 0; i < length; i++) {
+            var result = Integer.compare(a.byteAt(i) & 0xFF, b.byteAt(i) & 0xFF);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(a.size(), b.size());
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.file;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.CountingInputStream;
+import com.google.protobuf.ByteString;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A log-structured key-value store kept in a local directory.
+ *
+ * <p>The changes are first appended to the log file, and then applied to the in-memory table.
+ * Once the in-memory table grows over the {@linkplain #memtableLimit limit}, its contents are
+ * written to a new sorted {@linkplain Segment segment} file, and the log is cleared.
+ * When the number of the segments exceeds the {@linkplain #maxSegments limit}, all of them
+ * are compacted into a single segment, dropping the overwritten values and the tombstones.
+ *
+ * <p>The store is read as a whole, {@linkplain #forEach(BiConsumer) key by key}. It is meant to
+ * be read once, by the owner which keeps the values in memory, so no index of the keys
+ * is kept.
+ *
+ * <p>When the store is opened, the segment files are found, and the changes recorded in the log
+ * are replayed. An incomplete entry at the end of the log, which is left if the process stops
+ * in the middle of writing, is discarded.
+ *
+ * <p>The store is thread-safe. All the operations are serialized.
+ */
+final class LogStore implements AutoCloseable {
+
+    private static final String LOG_FILE = "current.log";
+
+    private final Path directory;
+    private final long memtableLimit;
+    private final int maxSegments;
+    private final boolean syncWrites;
+
+    private final NavigableMap<ByteString, LogEntry> memtable = new TreeMap<>(LogEntry.KEY_ORDER);
+    private long memtableSize;
+
+    /**
+     * The segments in the order of their sequence numbers, the oldest first.
+     */
+    private final List<Segment> segments = new ArrayList<>();
+    private long nextSequence;
+
+    private final FileChannel log;
+    private boolean closed;
+
+    private LogStore(Path directory,
+                     long memtableLimit,
+                     int maxSegments,
+                     boolean syncWrites,
+                     LogOpener opener) throws IOException {
+        this.directory = directory;
+        this.memtableLimit = memtableLimit;
+        this.maxSegments = maxSegments;
+        this.syncWrites = syncWrites;
+        Files.createDirectories(directory);
+        loadSegments();
+        this.log = opener.open(directory.resolve(LOG_FILE));
+        replayLog();
+    }
+
+    /**
+     * Opens the store in the passed directory, creating the directory if it does not exist.
+     *
+     * @param directory
+     *         the directory of the store
+     * @param memtableLimit
+     *         the approximate number of bytes of the changes to keep in memory before writing
+     *         them to a segment file
+     * @param maxSegments
+     *         the number of segment files upon exceeding which they are compacted
+     * @param syncWrites
+     *         if {@code true}, each write is synced to the disk before it completes;
+     *         otherwise, it is only passed to the operating system
+     * @throws IllegalStateException
+     *         if the store cannot be opened
+     */
+    static LogStore open(Path directory, long memtableLimit, int maxSegments, boolean syncWrites) {
+        return open(directory, memtableLimit, maxSegments, syncWrites,
+                    file -> FileChannel.open(file, CREATE, READ, WRITE));
+    }
+
+    /**
+     * Opens the store using the passed function to open the log file.
+     */
+    @VisibleForTesting
+    static LogStore open(Path directory,
+                         long memtableLimit,
+                         int maxSegments,
+                         boolean syncWrites,
+                         LogOpener opener) {
+        checkNotNull(directory);
+        checkNotNull(opener);
+        try {
+            return new LogStore(directory, memtableLimit, maxSegments, syncWrites, opener);
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to open the store in `%s`.", directory);
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (var listing = Files.list(directory)) {
+            listing.forEach(files::add);
+        }
+        for (var file : files) {
+            if (Segment.isIncomplete(file)) {
+                Files.delete(file);
+            } else if (Segment.sequenceOf(file).isPresent()) {
+                segments.add(Segment.open(file));
+            }
+        }
+        segments.sort(Comparator.comparingLong(Segment::sequence));
+        nextSequence = segments.isEmpty()
+                       ? 0
+                       : segments.get(segments.size() - 1).sequence() + 1;
+    }
+
+    private void replayLog() throws IOException {
+        long validLength = 0;
+        log.position(0);
+        var counting = new CountingInputStream(
+                new BufferedInputStream(Channels.newInputStream(log)));
+        var in = new DataInputStream(counting);
+        try {
+            var entry = LogEntry.readFrom(in);
+            while (entry != null) {
+                applyToMemtable(entry);
+                validLength = counting.getCount();
+                entry = LogEntry.readFrom(in);
+            }
+        } catch (IOException ignored) {
+            // The rest of the log has not been written completely. Discard it.
+        }
+        log.truncate(validLength);
+        log.position(validLength);
+    }
+
+    /**
+     * Applies the passed changes to the store.
+     *
+     * <p>The changes are written to the log at once, and are synced once
+     * if the {@linkplain #open writes are synced}.
+     */
+    synchronized void write(Collection<LogEntry> entries) {
+        checkOpen();
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            appendToLog(entries);
+            for (var entry : entries) {
+                applyToMemtable(entry);
+            }
+            if (memtableSize >= memtableLimit) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to write to the store in `%s`.", directory);
+        }
+    }
+
+    /**
+     * Appends the passed entries to the log.
+     *
+     * <p>If the append fails, the log is truncated back to its previous length. Otherwise,
+     * the next appends would follow the partially written entries, and would be discarded
+     * upon the {@linkplain #replayLog() replay} along with them.
+     */
+    private void appendToLog(Collection<LogEntry> entries) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            for (var entry : entries) {
+                entry.writeTo(out);
+            }
+        }
+        var buffer = ByteBuffer.wrap(bytes.toByteArray());
+        var validLength = log.position();
+        try {
+            while (buffer.hasRemaining()) {
+                log.write(buffer);
+            }
+            if (syncWrites) {
+                log.force(false);
+            }
+        } catch (IOException e) {
+            discardAfter(validLength, e);
+            throw e;
+        }
+    }
+
+    private void discardAfter(long validLength, IOException failure) {
+        try {
+            log.truncate(validLength);
+            log.position(validLength);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void applyToMemtable(LogEntry entry) {
+        var previous = memtable.put(entry.key(), entry);
+        if (previous != null) {
+            memtableSize -= previous.size();
+        }
+        memtableSize += entry.size();
+    }
+
+    /**
+     * Passes all the keys along with their values to the given consumer in the order
+     * of the keys.
+     */
+    synchronized void forEach(BiConsumer<ByteString, ByteString> action) {
+        checkOpen();
+        NavigableMap<ByteString, LogEntry> merged = new TreeMap<>(LogEntry.KEY_ORDER);
+        try {
+            for (var segment : segments) {
+                segment.forEach(entry -> merged.put(entry.key(), entry));
+            }
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to read from the store in `%s`.", directory);
+        }
+        merged.putAll(memtable);
+        for (var entry : merged.values()) {
+            var value = entry.value();
+            if (value != null) {
+                action.accept(entry.key(), value);
+            }
+        }
+    }
+
+    /**
+     * Writes the changes kept in memory to a new segment, and clears the log.
+     *
+     * <p>Compacts the segments if there are too many of them.
+     */
+    private void flush() throws IOException {
+        if (memtable.isEmpty()) {
+            return;
+        }
+        var segment = Segment.write(directory, nextSequence++, memtable.values());
+        segments.add(segment);
+        memtable.clear();
+        memtableSize = 0;
+        log.truncate(0);
+        log.position(0);
+        log.force(false);
+        if (segments.size() > maxSegments) {
+            compact();
+        }
+    }
+
+    /**
+     * Merges all the segments into a single one.
+     *
+     * <p>As the merged segment holds the latest values for all the keys, the tombstones
+     * are not needed anymore and are dropped.
+     *
+     * <p>The merged segment gets the greatest sequence number. So, if the process stops
+     * before the merged segments are deleted, the merged segment still overrides them
+     * when the store is opened next time.
+     */
+    private void compact() throws IOException {
+        NavigableMap<ByteString, LogEntry> merged = new TreeMap<>(LogEntry.KEY_ORDER);
+        for (var segment : segments) {
+            segment.forEach(entry -> merged.put(entry.key(), entry));
+        }
+        merged.values()
+              .removeIf(LogEntry::isTombstone);
+        var compacted = Segment.write(directory, nextSequence++, merged.values());
+        for (var segment : segments) {
+            segment.delete();
+        }
+        segments.clear();
+        segments.add(compacted);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw newIllegalStateException("The store in `%s` is closed.", directory);
+        }
+    }
+
+    /**
+     * Writes the changes kept in memory to a segment, and closes the files of the store.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            log.close();
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to close the store in `%s`.", directory);
+        }
+    }
+
+    /**
+     * Opens the log file of a store.
+     */
+    @FunctionalInterface
+    interface LogOpener {
+
+        /**
+         * Opens the channel for reading and writing the passed file, creating it
+         * if it does not exist.
+         */
+        FileChannel open(Path file) throws IOException;
+    }
+}
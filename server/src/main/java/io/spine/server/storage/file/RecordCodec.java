@@ -0,0 +1,285 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.file;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import io.spine.base.Identifier;
+import io.spine.query.ColumnName;
+import io.spine.server.storage.ColumnLayout;
+import io.spine.server.storage.RecordSpec;
+import io.spine.server.storage.RecordWithColumns;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import static io.spine.protobuf.AnyPacker.pack;
+import static io.spine.protobuf.AnyPacker.unpack;
+import static io.spine.protobuf.Messages.defaultInstance;
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Converts the identifiers and the records along with their column values
+ * to the binary form stored in a {@link LogStore}, and back.
+ *
+ * <p>The identifiers are stored {@linkplain Identifier#pack(Object) packed}. The records are
+ * stored as their serialized Protobuf messages. The column values of the commonly used types,
+ * such as strings, primitive wrappers and Protobuf messages, are stored in a compact form.
+ * Other column values are stored using the Java serialization, and so have
+ * to be {@link Serializable}.
+ *
+ * @param <I>
+ *         the type of the record identifiers
+ * @param <R>
+ *         the type of the records
+ */
+final class RecordCodec<I, R extends Message> {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte FLOAT = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte MESSAGE = 7;
+    private static final byte SERIALIZED = 8;
+
+    private final Class<I> idType;
+    private final R defaultRecord;
+
+    /**
+     * The layout of the columns of the most recently decoded record.
+     *
+     * <p>The records of a table are stored with the same columns in the same order. So,
+     * the decoded records share the layout, instead of creating one per record.
+     */
+    private volatile ColumnLayout layout = ColumnLayout.empty();
+
+    @SuppressWarnings("unchecked") // The default instance is of the stored type.
+    RecordCodec(RecordSpec<I, R, ?> spec) {
+        this.idType = spec.idType();
+        this.defaultRecord = (R) defaultInstance(spec.storedType());
+    }
+
+    /**
+     * Converts the identifier to the key of the record.
+     */
+    ByteString encodeId(I id) {
+        return Identifier.pack(id)
+                         .toByteString();
+    }
+
+    /**
+     * Restores the identifier from the key of the record.
+     */
+    I decodeId(ByteString key) {
+        try {
+            var packed = Any.parseFrom(key);
+            return Identifier.unpack(packed, idType);
+        } catch (InvalidProtocolBufferException e) {
+            throw newIllegalStateException(e, "Unable to read the record identifier.");
+        }
+    }
+
+    /**
+     * Converts the record along with its column values to the stored value.
+     *
+     * @throws IllegalStateException
+     *         if some of the column values cannot be stored
+     */
+    ByteString encode(RecordWithColumns<I, R> record) {
+        var bytes = ByteString.newOutput();
+        try (var out = new DataOutputStream(bytes)) {
+            var recordBytes = record.record()
+                                    .toByteArray();
+            out.writeInt(recordBytes.length);
+            out.write(recordBytes);
+            var layout = record.layout();
+            out.writeInt(layout.size());
+            for (var slot = 0; slot < layout.size(); slot++) {
+                out.writeUTF(layout.nameAt(slot).value());
+                writeValue(out, record.valueAt(slot));
+            }
+        } catch (IOException e) {
+            throw newIllegalStateException(
+                    e, "Unable to store the record with ID `%s`.", record.id());
+        }
+        return bytes.toByteString();
+    }
+
+    /**
+     * Restores the record along with its column values from the stored value.
+     */
+    RecordWithColumns<I, R> decode(I id, ByteString value) {
+        try (var in = new DataInputStream(value.newInput())) {
+            var recordBytes = new byte[in.readInt()];
+            in.readFully(recordBytes);
+            @SuppressWarnings("unchecked") // The parser is of the stored type.
+            var record = (R) defaultRecord.getParserForType()
+                                          .parseFrom(recordBytes);
+            var count = in.readInt();
+            var names = new ColumnName[count];
+            var values = new Object[count];
+            for (var i = 0; i < count; i++) {
+                names[i] = ColumnName.of(in.readUTF());
+                values[i] = readValue(in);
+            }
+            return new StoredRecord<>(id, record, layoutOf(names), values);
+        } catch (IOException | ClassNotFoundException e) {
+            throw newIllegalStateException(e, "Unable to read the record with ID `%s`.", id);
+        }
+    }
+
+    /**
+     * Returns the layout with the passed columns in the passed order.
+     *
+     * <p>Creates a new layout only if the columns differ from the ones of the previous record.
+     */
+    private ColumnLayout layoutOf(ColumnName[] names) {
+        var current = layout;
+        if (!hasSlots(current, names)) {
+            current = ColumnLayout.of(Arrays.asList(names));
+            layout = current;
+        }
+        return current;
+    }
+
+    private static boolean hasSlots(ColumnLayout layout, ColumnName[] names) {
+        if (layout.size() != names.length) {
+            return false;
+        }
+        for (var slot = 0; slot < names.length; slot++) {
+            if (!layout.nameAt(slot).equals(names[slot])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("ChainOfInstanceofChecks") // Different value types are stored differently.
+    private static void writeValue(DataOutputStream out, @Nullable Object value)
+            throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeBytes(out, ((String) value).getBytes(UTF_8));
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Message) {
+            out.writeByte(MESSAGE);
+            writeBytes(out, pack((Message) value).toByteArray());
+        } else if (value instanceof Serializable) {
+            out.writeByte(SERIALIZED);
+            var bytes = new ByteArrayOutputStream();
+            try (var objects = new ObjectOutputStream(bytes)) {
+                objects.writeObject(value);
+            }
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        } else {
+            throw newIllegalStateException(
+                    "The column value of type `%s` cannot be stored.", value.getClass());
+        }
+    }
+
+    private static @Nullable Object readValue(DataInputStream in)
+            throws IOException, ClassNotFoundException {
+        var type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(in), UTF_8);
+            case BOOLEAN:
+                return in.readBoolean();
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case FLOAT:
+                return in.readFloat();
+            case DOUBLE:
+                return in.readDouble();
+            case MESSAGE:
+                return unpack(Any.parseFrom(readBytes(in)));
+            case SERIALIZED:
+                try (var objects = new ObjectInputStream(
+                        new ByteArrayInputStream(readBytes(in)))) {
+                    return objects.readObject();
+                }
+            default:
+                throw new IOException("Unknown column value type: " + type + '.');
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        var bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * A record along with its column values read from a {@link LogStore}.
+     */
+    private static final class StoredRecord<I, R extends Message> extends RecordWithColumns<I, R> {
+
+        private StoredRecord(I id, R record, ColumnLayout layout, @Nullable Object[] values) {
+            super(id, record, layout, values);
+        }
+    }
+}
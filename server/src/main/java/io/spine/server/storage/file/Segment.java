@@ -0,0 +1,170 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * An immutable file holding the {@linkplain LogEntry entries} of a {@link LogStore}
+ * sorted by their keys.
+ *
+ * <p>The segment keeps no data in memory. Its entries are read from the file
+ * {@linkplain #forEach(Consumer) all at once}.
+ *
+ * <p>The segments are ordered by their sequence numbers. The entries of a segment
+ * with a greater number override the entries of the segments with smaller numbers.
+ */
+final class Segment {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path file;
+    private final long sequence;
+
+    private Segment(Path file, long sequence) {
+        this.file = file;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Writes the passed entries to a new segment file in the given directory.
+     *
+     * <p>The file is written under a temporary name, and then atomically renamed.
+     * So, a segment file is either complete or absent.
+     *
+     * @param directory
+     *         the directory of the store
+     * @param sequence
+     *         the sequence number of the new segment
+     * @param entries
+     *         the entries sorted by their keys
+     */
+    static Segment write(Path directory, long sequence, Iterable<LogEntry> entries)
+            throws IOException {
+        var file = directory.resolve(fileName(sequence));
+        var temp = directory.resolve(fileName(sequence) + TEMP_SUFFIX);
+        try (var out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            for (var entry : entries) {
+                entry.writeTo(out);
+            }
+        }
+        try (var written = FileChannel.open(temp, WRITE)) {
+            written.force(true);
+        }
+        Files.move(temp, file, ATOMIC_MOVE);
+        return open(file);
+    }
+
+    /**
+     * Opens an existing segment file.
+     *
+     * @throws IOException
+     *         if the file is not a segment file
+     */
+    static Segment open(Path file) throws IOException {
+        var sequence = sequenceOf(file)
+                .orElseThrow(() -> new IOException(format("`%s` is not a segment file.", file)));
+        return new Segment(file, sequence);
+    }
+
+    /**
+     * Obtains the sequence number of the segment stored in the passed file.
+     *
+     * @return the sequence number, or {@code Optional.empty()} if the file
+     *         is not a segment file
+     */
+    static Optional<Long> sequenceOf(Path file) {
+        var name = file.getFileName()
+                       .toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return Optional.empty();
+        }
+        var number = name.substring(PREFIX.length(), name.length() - SUFFIX.length());
+        try {
+            return Optional.of(Long.parseLong(number));
+        } catch (NumberFormatException ignored) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Tells if the passed file is a leftover of a segment which has not been written completely.
+     */
+    static boolean isIncomplete(Path file) {
+        var name = file.getFileName()
+                       .toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX + TEMP_SUFFIX);
+    }
+
+    private static String fileName(long sequence) {
+        return format("%s%020d%s", PREFIX, sequence, SUFFIX);
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Passes all the entries of the segment to the given consumer in the order of their keys.
+     */
+    void forEach(Consumer<LogEntry> action) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            var entry = LogEntry.readFrom(in);
+            while (entry != null) {
+                action.accept(entry);
+                entry = LogEntry.readFrom(in);
+            }
+        }
+    }
+
+    /**
+     * Deletes the file of the segment.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
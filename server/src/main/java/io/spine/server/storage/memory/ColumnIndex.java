@@ -0,0 +1,227 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Timestamps;
+import io.spine.query.ColumnName;
+import io.spine.query.ComparisonOperator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An index of record identifiers by the values of a single column.
+ *
+ * <p>The index always maintains a hash table for lookups by equality. If all the values
+ * of the column are either {@link Comparable} or {@link Timestamp}s, the index also maintains
+ * a sorted map for lookups by range.
+ *
+ * <p>The records with {@code null} column values are not indexed, since they never match
+ * any query parameter.
+ *
+ * <p>The index may be read concurrently with modifications. The modifications must not be
+ * performed concurrently with each other; the callers are responsible for that.
+ * The readers observe the modifications in progress in the same way as
+ * {@link ConcurrentHashMap} iterators do, so the candidates found by the index must
+ * still be checked against the current state of the records.
+ *
+ * @param <I>
+ *         the type of the record identifiers
+ */
+final class ColumnIndex<I> {
+
+    private final ColumnSlot column;
+    private final Map<Object, Set<I>> byValue = new ConcurrentHashMap<>();
+    private final Set<Class<?>> valueTypes = ConcurrentHashMap.newKeySet();
+    private volatile @Nullable NavigableMap<Object, Set<I>> sorted =
+            new ConcurrentSkipListMap<>(ValueComparator.INSTANCE);
+
+    ColumnIndex(ColumnName column) {
+        this.column = new ColumnSlot(checkNotNull(column));
+    }
+
+    /**
+     * Returns the indexed column.
+     */
+    ColumnSlot column() {
+        return column;
+    }
+
+    /**
+     * Adds the record identifier to the index.
+     */
+    void add(I id, @Nullable Object value) {
+        if (value == null) {
+            return;
+        }
+        byValue.computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet())
+               .add(id);
+        var newType = valueTypes.add(value.getClass());
+        if (newType && valueTypes.size() > 1) {
+            sorted = null;
+        }
+        var sortedValues = sorted;
+        if (sortedValues != null) {
+            if (ValueComparator.supports(value)) {
+                sortedValues.computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet())
+                            .add(id);
+            } else {
+                sorted = null;
+            }
+        }
+    }
+
+    /**
+     * Removes the record identifier from the index.
+     */
+    void remove(I id, @Nullable Object value) {
+        if (value == null) {
+            return;
+        }
+        removeFrom(byValue, id, value);
+        var sortedValues = sorted;
+        if (sortedValues != null) {
+            removeFrom(sortedValues, id, value);
+        }
+    }
+
+    private static <I> void removeFrom(Map<Object, Set<I>> map, I id, Object value) {
+        var ids = map.get(value);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                map.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Obtains the identifiers of records which may match the given comparison.
+     *
+     * <p>The result is a superset of the matching records. Callers must check
+     * each of the records against the comparison.
+     *
+     * @return the identifiers of candidate records, or {@code Optional.empty()} if the index
+     *         cannot serve the comparison
+     */
+    Optional<Collection<I>> candidates(ComparisonOperator operator, Object value) {
+        if (operator == ComparisonOperator.EQUALS) {
+            if (!servesEquality(value)) {
+                return Optional.empty();
+            }
+            Collection<I> ids = byValue.getOrDefault(value, ImmutableSet.of());
+            return Optional.of(ids);
+        }
+        var sortedValues = sorted;
+        if (sortedValues == null || !servesRange(value)) {
+            return Optional.empty();
+        }
+        NavigableMap<Object, Set<I>> range;
+        switch (operator) {
+            case GREATER_THAN:
+            case GREATER_OR_EQUALS:
+                range = sortedValues.tailMap(value, true);
+                break;
+            case LESS_THAN:
+            case LESS_OR_EQUALS:
+                range = sortedValues.headMap(value, true);
+                break;
+            default:
+                return Optional.empty();
+        }
+        Collection<I> result = new HashSet<>();
+        for (var ids : range.values()) {
+            result.addAll(ids);
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Tells if the index can serve the equality comparison with the given value.
+     */
+    boolean servesEquality(Object value) {
+        return servesTypeOf(value);
+    }
+
+    /**
+     * Tells if the index can serve the range comparison with the given value.
+     */
+    boolean servesRange(Object value) {
+        return sorted != null && servesTypeOf(value) && ValueComparator.supports(value);
+    }
+
+    /**
+     * Obtains the number of records having the given column value.
+     */
+    int countEqualTo(Object value) {
+        var ids = byValue.get(value);
+        return ids == null ? 0 : ids.size();
+    }
+
+    /**
+     * Tells if the index holds values of the same type as the passed one.
+     *
+     * <p>If the index is empty, it serves any value type, as there are no records to match.
+     */
+    private boolean servesTypeOf(Object value) {
+        return valueTypes.isEmpty() || valueTypes.contains(value.getClass());
+    }
+
+    /**
+     * Compares the values of the column in the same way
+     * as {@link RecordComparator} does.
+     */
+    private enum ValueComparator implements Comparator<Object> {
+
+        INSTANCE;
+
+        private static boolean supports(Object value) {
+            return value instanceof Comparable || value instanceof Timestamp;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"}) // Values of a column share the same type.
+        @Override
+        public int compare(Object a, Object b) {
+            if (a instanceof Timestamp) {
+                return Timestamps.compare((Timestamp) a, (Timestamp) b);
+            }
+            return ((Comparable) a).compareTo(b);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import io.spine.query.ColumnName;
+import io.spine.server.storage.ColumnLayout;
+import io.spine.server.storage.RecordWithColumns;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.newIllegalStateException;
+
+/**
+ * The slot of a column in the {@linkplain ColumnLayout layouts} of the records.
+ *
+ * <p>The records of a storage share the layout of their specification. So, the slot is
+ * resolved by the column name once, and then reused for all the records with the same layout.
+ * A record of a different layout makes the slot resolved again.
+ *
+ * <p>The instances may be used by several threads at once.
+ */
+final class ColumnSlot {
+
+    private final ColumnName column;
+    private volatile Resolved resolved = new Resolved(ColumnLayout.empty(), -1);
+
+    ColumnSlot(ColumnName column) {
+        this.column = checkNotNull(column);
+    }
+
+    /**
+     * Returns the name of the column.
+     */
+    ColumnName column() {
+        return column;
+    }
+
+    /**
+     * Returns the slot of the column in the layout of the passed record,
+     * or {@code -1} if the record has no such column.
+     */
+    @SuppressWarnings("ReferenceEquality")  // Layouts are compared by identity.
+    int in(RecordWithColumns<?, ?> record) {
+        var layout = record.layout();
+        var current = resolved;
+        if (current.layout != layout) {
+            current = new Resolved(layout, layout.slotOf(column));
+            resolved = current;
+        }
+        return current.slot;
+    }
+
+    /**
+     * Returns the value of the column in the passed record.
+     *
+     * @throws IllegalStateException
+     *         if the record has no such column
+     */
+    @Nullable Object valueIn(RecordWithColumns<?, ?> record) {
+        var slot = in(record);
+        if (slot < 0) {
+            throw newIllegalStateException("Column with the name `%s` was not found.", column);
+        }
+        return record.valueAt(slot);
+    }
+
+    /**
+     * The slot of the column in a particular layout.
+     */
+    private static final class Resolved {
+
+        private final ColumnLayout layout;
+        private final int slot;
+
+        private Resolved(ColumnLayout layout, int slot) {
+            this.layout = layout;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Timestamps;
+import io.spine.query.ComparisonOperator;
+import io.spine.query.QueryPredicate;
+import io.spine.query.SubjectParameter;
+import io.spine.server.storage.RecordWithColumns;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.newIllegalArgumentException;
+
+/**
+ * A {@link QueryPredicate} compiled into a tree of specialized predicates
+ * over {@link RecordWithColumns}.
+ *
+ * <p>The tree of the query predicate is walked once, when the instance is created.
+ * Each subject parameter turns into a {@linkplain ColumnMatch column match} with the expected
+ * value resolved up front. The {@linkplain ColumnSlot slot} of the column is resolved upon
+ * matching the first record, and is reused for the records of the same layout. Logical
+ * operators turn into plain loops which stop at the first decisive operand.
+ *
+ * <p>The instances may be reused for any number of records,
+ * including by several threads at once.
+ *
+ * @param <I>
+ *         the type of the identifiers of the records
+ * @param <R>
+ *         the type of the messages stored as records
+ */
+final class CompiledPredicate<I, R extends Message>
+        implements Predicate<RecordWithColumns<I, R>> {
+
+    private final Predicate<RecordWithColumns<I, R>> root;
+
+    private CompiledPredicate(Predicate<RecordWithColumns<I, R>> root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles the passed query predicate.
+     */
+    static <I, R extends Message> CompiledPredicate<I, R> compile(QueryPredicate<R> predicate) {
+        checkNotNull(predicate);
+        Predicate<RecordWithColumns<I, R>> root = compileNode(predicate);
+        return new CompiledPredicate<>(root);
+    }
+
+    @Override
+    public boolean test(RecordWithColumns<I, R> record) {
+        return root.test(record);
+    }
+
+    private static <I, R extends Message> Predicate<RecordWithColumns<I, R>>
+    compileNode(QueryPredicate<R> predicate) {
+        var params = predicate.parameters();
+        var children = predicate.children();
+        var operands = new ArrayList<Predicate<RecordWithColumns<I, R>>>(
+                params.size() + children.size());
+        for (var param : params) {
+            operands.add(new ColumnMatch<>(param));
+        }
+        for (var child : children) {
+            operands.add(compileNode(child));
+        }
+        if (operands.isEmpty()) {
+            return r -> true;
+        }
+        @SuppressWarnings("unchecked")  // Generic array creation.
+        Predicate<RecordWithColumns<I, R>>[] array = operands.toArray(new Predicate[0]);
+        if (array.length == 1) {
+            return array[0];
+        }
+        var operator = predicate.operator();
+        switch (operator) {
+            case AND:
+                return new AllOf<>(array);
+            case OR:
+                return new AnyOf<>(array);
+            default:
+                throw newIllegalArgumentException("Logical operator `%s` is invalid.", operator);
+        }
+    }
+
+    /**
+     * Matches a record if all the operands match it.
+     */
+    private static final class AllOf<T> implements Predicate<T> {
+
+        private final Predicate<T>[] operands;
+
+        private AllOf(Predicate<T>[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public boolean test(T record) {
+            for (var operand : operands) {
+                if (!operand.test(record)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Matches a record if any of the operands matches it.
+     */
+    private static final class AnyOf<T> implements Predicate<T> {
+
+        private final Predicate<T>[] operands;
+
+        private AnyOf(Predicate<T>[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public boolean test(T record) {
+            for (var operand : operands) {
+                if (operand.test(record)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Matches the value of a single column against the value of a subject parameter.
+     *
+     * <p>When the actual column value is of the same class as the expected one, the values
+     * are compared directly. Otherwise, the comparison is delegated
+     * to the {@linkplain ComparisonOperator#eval(Object, Object) operator} itself.
+     */
+    private static final class ColumnMatch<I, R extends Message>
+            implements Predicate<RecordWithColumns<I, R>> {
+
+        private final ColumnSlot column;
+        private final ComparisonOperator operator;
+        private final @Nullable Object expected;
+        private final @Nullable Class<?> expectedClass;
+        private final boolean comparable;
+
+        private ColumnMatch(SubjectParameter<R, ?, ?> param) {
+            this.column = new ColumnSlot(param.column()
+                                              .name());
+            this.operator = param.operator();
+            this.expected = param.value();
+            this.expectedClass = expected == null ? null : expected.getClass();
+            this.comparable = expected instanceof Comparable || expected instanceof Timestamp;
+        }
+
+        @Override
+        public boolean test(RecordWithColumns<I, R> record) {
+            var slot = column.in(record);
+            if (slot < 0) {
+                return false;
+            }
+            var actual = record.valueAt(slot);
+            if (actual == null) {
+                return false;
+            }
+            if (actual.getClass() != expectedClass) {
+                return operator.eval(actual, expected);
+            }
+            if (operator == ComparisonOperator.EQUALS) {
+                return actual.equals(expected);
+            }
+            if (!comparable) {
+                return operator.eval(actual, expected);
+            }
+            var comparison = compare(actual);
+            switch (operator) {
+                case GREATER_THAN:
+                    return comparison > 0;
+                case GREATER_OR_EQUALS:
+                    return comparison >= 0;
+                case LESS_THAN:
+                    return comparison < 0;
+                case LESS_OR_EQUALS:
+                    return comparison <= 0;
+                default:
+                    return operator.eval(actual, expected);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"}) // Both values are of the same class.
+        private int compare(Object actual) {
+            if (actual instanceof Timestamp) {
+                return Timestamps.compare((Timestamp) actual, (Timestamp) expected);
+            }
+            return ((Comparable) actual).compareTo(expected);
+        }
+    }
+}
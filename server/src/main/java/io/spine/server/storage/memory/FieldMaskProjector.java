@@ -0,0 +1,336 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.WireFormat;
+import io.spine.type.TypeUrl;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Maps.immutableEntry;
+import static com.google.protobuf.Descriptors.FieldDescriptor.JavaType.MESSAGE;
+import static com.google.protobuf.Descriptors.FieldDescriptor.Type.GROUP;
+import static io.spine.protobuf.Messages.defaultInstance;
+import static io.spine.util.Exceptions.newIllegalStateException;
+
+/**
+ * A {@code FieldMask} compiled against a particular message type.
+ *
+ * <p>The paths of the mask are resolved to the field descriptors once, so projecting
+ * a message only copies the selected fields. The result is the same as the one
+ * of {@link io.spine.server.entity.FieldMasks#applyMask(FieldMask, Message) applyMask()}.
+ *
+ * <p>For packed messages, the projection is performed at the wire level where possible,
+ * by copying the bytes of the selected fields without parsing the message.
+ * It is not possible if the mask selects a field with explicit presence, e.g. a member
+ * of a {@code oneof}, because {@code applyMask()} sets such fields even if they are absent
+ * in the source message.
+ *
+ * <p>The projectors are cached per pair of the message type and the mask.
+ */
+final class FieldMaskProjector {
+
+    private static final int MAX_CACHED = 1_000;
+
+    private static final Cache<Entry<Descriptor, FieldMask>, FieldMaskProjector> cache =
+            CacheBuilder.newBuilder()
+                        .maximumSize(MAX_CACHED)
+                        .build();
+
+    private final Message defaultMessage;
+    private final Selection selection;
+    private final boolean wireLevel;
+
+    private FieldMaskProjector(Descriptor type, FieldMask mask, Message defaultMessage) {
+        this.defaultMessage = defaultMessage;
+        this.selection = Selection.compile(type, PathTree.of(mask));
+        this.wireLevel = selection.supportsWireLevel();
+    }
+
+    /**
+     * Obtains the projector of the messages of the passed type.
+     *
+     * @param defaultMessage
+     *         the default instance of the projected message type
+     * @param mask
+     *         the mask to apply
+     */
+    static FieldMaskProjector of(Message defaultMessage, FieldMask mask) {
+        checkNotNull(defaultMessage);
+        checkNotNull(mask);
+        var type = defaultMessage.getDescriptorForType();
+        try {
+            return cache.get(immutableEntry(type, mask),
+                             () -> new FieldMaskProjector(type, mask, defaultMessage));
+        } catch (ExecutionException e) {
+            throw newIllegalStateException(e.getCause(), "Unable to compile the mask `%s`.", mask);
+        }
+    }
+
+    /**
+     * Obtains the projector of the message packed into the passed {@code Any}.
+     */
+    static FieldMaskProjector ofPacked(Any packed, FieldMask mask) {
+        checkNotNull(packed);
+        var messageClass = TypeUrl.ofEnclosed(packed)
+                                  .toJavaClass();
+        return of(defaultInstance(messageClass), mask);
+    }
+
+    /**
+     * Tells whether this projector handles the messages of the passed type.
+     */
+    boolean accepts(Descriptor type) {
+        return defaultMessage.getDescriptorForType()
+                             .equals(type);
+    }
+
+    /**
+     * Tells whether the packed messages are projected without parsing them.
+     */
+    @VisibleForTesting
+    boolean projectsWireLevel() {
+        return wireLevel;
+    }
+
+    /**
+     * Returns a new message with only the selected fields of the passed one.
+     */
+    <M extends Message> M project(M message) {
+        var builder = message.newBuilderForType();
+        selection.mergeInto(message, builder);
+        @SuppressWarnings("unchecked")  // The builder is of the same type.
+        var result = (M) builder.buildPartial();
+        return result;
+    }
+
+    /**
+     * Returns a new {@code Any} packing only the selected fields of the passed packed message.
+     *
+     * <p>The type URL of the passed {@code Any} is preserved.
+     */
+    Any project(Any packed) {
+        var value = packed.getValue();
+        ByteString projected;
+        if (wireLevel) {
+            projected = selection.project(value);
+        } else {
+            projected = project(parse(value)).toByteString();
+        }
+        return packed.toBuilder()
+                     .setValue(projected)
+                     .build();
+    }
+
+    private Message parse(ByteString value) {
+        try {
+            return defaultMessage.getParserForType()
+                                 .parsePartialFrom(value);
+        } catch (InvalidProtocolBufferException e) {
+            throw newIllegalStateException(
+                    e, "Unable to parse the message of type `%s`.",
+                    defaultMessage.getDescriptorForType().getFullName());
+        }
+    }
+
+    /**
+     * The tree of the field names, in which a leaf selects the whole field.
+     *
+     * <p>Follows the rules of the {@code FieldMaskUtil}: a path, which is covered by a shorter
+     * path, is ignored, while a shorter path replaces all the longer ones it covers.
+     */
+    private static final class PathTree {
+
+        private final Map<String, PathTree> children = new TreeMap<>();
+
+        private static PathTree of(FieldMask mask) {
+            var root = new PathTree();
+            for (var path : mask.getPathsList()) {
+                root.add(path);
+            }
+            return root;
+        }
+
+        private void add(String path) {
+            if (path.isEmpty()) {
+                return;
+            }
+            var node = this;
+            var newBranch = false;
+            for (var name : path.split("\\.")) {
+                if (!newBranch && node != this && node.children.isEmpty()) {
+                    return;
+                }
+                var child = node.children.get(name);
+                if (child == null) {
+                    newBranch = true;
+                    child = new PathTree();
+                    node.children.put(name, child);
+                }
+                node = child;
+            }
+            node.children.clear();
+        }
+    }
+
+    /**
+     * The fields selected in a message of a particular type.
+     *
+     * <p>The fields are ordered by their names, the same way as {@code FieldMaskUtil}
+     * processes them.
+     */
+    private static final class Selection {
+
+        private final FieldDescriptor[] fields;
+        private final @Nullable Selection[] nested;
+        private final Map<Integer, Integer> positions;
+
+        private Selection(List<FieldDescriptor> fields, List<@Nullable Selection> nested) {
+            this.fields = fields.toArray(new FieldDescriptor[0]);
+            this.nested = nested.toArray(new Selection[0]);
+            this.positions = new HashMap<>(fields.size());
+            for (var i = 0; i < this.fields.length; i++) {
+                positions.put(this.fields[i].getNumber(), i);
+            }
+        }
+
+        /**
+         * Resolves the passed tree against the message type.
+         *
+         * <p>The unknown fields are skipped, as well as the nested paths to the fields
+         * which are repeated or are not messages.
+         */
+        private static Selection compile(Descriptor type, PathTree tree) {
+            List<FieldDescriptor> fields = new ArrayList<>();
+            List<@Nullable Selection> nested = new ArrayList<>();
+            for (var entry : tree.children.entrySet()) {
+                var field = type.findFieldByName(entry.getKey());
+                if (field == null) {
+                    continue;
+                }
+                var subtree = entry.getValue();
+                if (subtree.children.isEmpty()) {
+                    fields.add(field);
+                    nested.add(null);
+                } else if (!field.isRepeated() && field.getJavaType() == MESSAGE) {
+                    fields.add(field);
+                    nested.add(compile(field.getMessageType(), subtree));
+                }
+            }
+            return new Selection(fields, nested);
+        }
+
+        private boolean supportsWireLevel() {
+            for (var i = 0; i < fields.length; i++) {
+                var field = fields[i];
+                if (field.getContainingOneof() != null) {
+                    return false;
+                }
+                var child = nested[i];
+                if (child == null) {
+                    if (!field.isRepeated() && field.getJavaType() != MESSAGE
+                            && field.hasPresence()) {
+                        return false;
+                    }
+                } else if (field.getType() == GROUP || !child.supportsWireLevel()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void mergeInto(Message source, Message.Builder destination) {
+            for (var i = 0; i < fields.length; i++) {
+                var field = fields[i];
+                var child = nested[i];
+                if (child != null) {
+                    if (source.hasField(field)) {
+                        var childSource = (Message) source.getField(field);
+                        var childBuilder = childSource.newBuilderForType();
+                        child.mergeInto(childSource, childBuilder);
+                        destination.setField(field, childBuilder.buildPartial());
+                    }
+                } else if (field.isRepeated()) {
+                    destination.setField(field, source.getField(field));
+                } else if (field.getJavaType() != MESSAGE || source.hasField(field)) {
+                    destination.setField(field, source.getField(field));
+                }
+            }
+        }
+
+        /**
+         * Copies the bytes of the selected fields from the passed serialized message.
+         */
+        private ByteString project(ByteString message) {
+            try {
+                var input = message.newCodedInput();
+                var output = ByteString.newOutput(message.size());
+                var coded = CodedOutputStream.newInstance(output);
+                var tag = input.readTag();
+                while (tag != 0) {
+                    var position = positions.get(WireFormat.getTagFieldNumber(tag));
+                    if (position == null) {
+                        input.skipField(tag);
+                    } else {
+                        var child = nested[position];
+                        if (child == null) {
+                            input.skipField(tag, coded);
+                        } else {
+                            var projected = child.project(input.readBytes());
+                            coded.writeBytes(fields[position].getNumber(), projected);
+                        }
+                    }
+                    tag = input.readTag();
+                }
+                coded.flush();
+                return output.toByteString();
+            } catch (IOException e) {
+                throw newIllegalStateException(e, "Unable to project the serialized message.");
+            }
+        }
+    }
+}
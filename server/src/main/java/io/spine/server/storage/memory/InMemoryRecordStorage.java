@@ -27,6 +27,7 @@
 package io.spine.server.storage.memory;
 
 import com.google.protobuf.Message;
+import io.spine.query.Column;
 import io.spine.query.RecordQuery;
 import io.spine.server.ContextSpec;
 import io.spine.server.storage.RecordSpec;
@@ -35,9 +36,14 @@ import io.spine.server.storage.RecordWithColumns;
 
 import java.util.Iterator;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+
 /**
  * An in-memory implementation of {@link RecordStorage}.
  *
+ * <p>The values of all the columns declared in the {@link RecordSpec} are indexed
+ * to speed up the queries.
+ *
  * @param <I>
  *         the type of the record identifiers
  * @param <R>
@@ -49,11 +55,15 @@ public class InMemoryRecordStorage<I, R extends Message> extends RecordStorage<I
 
     InMemoryRecordStorage(ContextSpec context, RecordSpec<I, R, ?> recordSpec) {
         super(context, recordSpec);
+        var indexedColumns = recordSpec.columns()
+                                       .stream()
+                                       .map(Column::name)
+                                       .collect(toImmutableSet());
         this.multitenantStorage =
                 new MultitenantStorage<>(context.isMultitenant()) {
                     @Override
                     TenantRecords<I, R> createSlice() {
-                        return new TenantRecords<>();
+                        return new TenantRecords<>(indexedColumns);
                     }
                 };
     }
@@ -98,4 +108,14 @@ public class InMemoryRecordStorage<I, R extends Message> extends RecordStorage<I
     protected boolean deleteRecord(I id) {
         return records().delete(id);
     }
+
+    @Override
+    protected void deleteAllRecords(Iterable<I> ids) {
+        records().deleteAll(ids);
+    }
+
+    @Override
+    protected void deleteAllRecords(RecordQuery<I, R> query) {
+        records().deleteAll(query);
+    }
 }
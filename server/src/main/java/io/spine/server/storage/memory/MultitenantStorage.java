@@ -30,12 +30,9 @@ import io.spine.core.TenantId;
 import io.spine.server.tenant.TenantFunction;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
 
-import static java.util.Collections.synchronizedMap;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -45,11 +42,8 @@ import static java.util.Objects.requireNonNull;
  */
 abstract class MultitenantStorage<S extends TenantDataStorage<?, ?>> {
 
-    /** The lock for {@code MultitenantStorage} accessor methods. */
-    private final Lock lock = new ReentrantLock();
-
     /** The map from {@code TenantId} to its slice of data. */
-    private final Map<TenantId, S> tenantSlices = synchronizedMap(new HashMap<>());
+    private final Map<TenantId, S> tenantSlices = new ConcurrentHashMap<>();
 
     /** If {@code true} the storage will contain a data slice for each tenant. */
     private final boolean multitenant;
@@ -62,18 +56,19 @@ abstract class MultitenantStorage<S extends TenantDataStorage<?, ?>> {
      * Obtains the data slice for the current tenant.
      *
      * <p>If the slice has not been created for this tenant, it will be created.
+     *
+     * <p>Obtaining an existing slice does not block.
      */
     final S currentSlice() {
         var func = new TenantFunction<S>(isMultitenant()) {
             @Override
             public @Nullable S apply(@Nullable TenantId tenantId) {
                 requireNonNull(tenantId);
-                lock.lock();
-                try {
-                    return tenantSlices.computeIfAbsent(tenantId, id -> createSlice());
-                } finally {
-                    lock.unlock();
+                var slice = tenantSlices.get(tenantId);
+                if (slice != null) {
+                    return slice;
                 }
+                return tenantSlices.computeIfAbsent(tenantId, id -> createSlice());
             }
         };
         var result = func.execute();
@@ -33,6 +33,8 @@ import io.spine.query.Direction;
 import io.spine.query.RecordColumn;
 import io.spine.query.SortBy;
 import io.spine.server.storage.RecordWithColumns;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.Serializable;
 import java.util.Comparator;
@@ -64,6 +66,13 @@ public class RecordComparator<I, R extends Message>
 
     private final RecordColumn<R, ?> column;
 
+    /**
+     * The slot of the column in the layouts of the compared records.
+     *
+     * <p>Is resolved when the first records are compared.
+     */
+    private transient @MonotonicNonNull ColumnSlot slot;
+
     private RecordComparator(RecordColumn<R, ?> column) {
         this.column = column;
     }
@@ -109,15 +118,34 @@ public class RecordComparator<I, R extends Message>
         return RecordComparator.<I, R>ascending(column).reversed();
     }
 
-    @SuppressWarnings("ChainOfInstanceofChecks")    // Different special cases are covered.
     @Override
     public int compare(RecordWithColumns<I, R> a, RecordWithColumns<I, R> b) {
         checkNotNull(a);
         checkNotNull(b);
 
-        var columnName = column.name();
-        var aValue = a.columnValue(columnName);
-        var bValue = b.columnValue(columnName);
+        var slot = slot();
+        var aValue = slot.valueIn(a);
+        var bValue = slot.valueIn(b);
+        return compareValues(aValue, bValue);
+    }
+
+    private ColumnSlot slot() {
+        if (slot == null) {
+            slot = new ColumnSlot(column.name());
+        }
+        return slot;
+    }
+
+    /**
+     * Compares the values of the same column in the ascending order.
+     *
+     * <p>{@code null} values go before any other values.
+     *
+     * @throws IllegalStateException
+     *         if the values are neither {@code Comparable} nor {@code Timestamp}s
+     */
+    @SuppressWarnings("ChainOfInstanceofChecks")    // Different special cases are covered.
+    static int compareValues(@Nullable Object aValue, @Nullable Object bValue) {
         if (aValue == null) {
             return bValue == null ? 0 : -1;
         }
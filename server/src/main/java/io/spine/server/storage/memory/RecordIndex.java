@@ -0,0 +1,201 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Streams;
+import com.google.protobuf.Message;
+import io.spine.query.ColumnName;
+import io.spine.query.ComparisonOperator;
+import io.spine.query.LogicalOperator;
+import io.spine.query.Subject;
+import io.spine.query.SubjectParameter;
+import io.spine.server.storage.RecordWithColumns;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.function.Function.identity;
+
+/**
+ * Secondary indexes over the column values of the records stored in {@link TenantRecords}.
+ *
+ * <p>Along with maintaining the {@linkplain ColumnIndex column indexes}, plans the lookup of
+ * the records matching a query {@linkplain Subject subject}. The plan is chosen as follows:
+ *
+ * <ol>
+ *     <li>If the subject restricts the record identifiers, the identifiers are used directly.
+ *     <li>Otherwise, if the top-level conjunction of the subject contains equality
+ *         parameters on the indexed columns, the one matching the fewest records is used.
+ *     <li>Otherwise, if it contains range parameters on the indexed columns,
+ *         the first of them is used.
+ *     <li>Otherwise, the records are to be scanned.
+ * </ol>
+ *
+ * <p>The identifiers obtained from the index are candidates only. Each of the candidate records
+ * must still be checked against the whole subject.
+ *
+ * <p>The index may be read concurrently with modifications. The modifications must not be
+ * performed concurrently with each other; the callers are responsible for that.
+ *
+ * @param <I>
+ *         the type of the record identifiers
+ * @param <R>
+ *         the type of the records
+ */
+final class RecordIndex<I, R extends Message> {
+
+    private final ImmutableMap<ColumnName, ColumnIndex<I>> indexes;
+
+    /**
+     * Creates an index over the columns with the given names.
+     */
+    RecordIndex(Iterable<ColumnName> columns) {
+        this.indexes = Streams.stream(columns)
+                              .distinct()
+                              .collect(toImmutableMap(identity(), ColumnIndex::new));
+    }
+
+    /**
+     * Adds the record to the indexes.
+     */
+    void add(RecordWithColumns<I, R> record) {
+        for (var index : indexes.values()) {
+            var slot = index.column()
+                            .in(record);
+            if (slot >= 0) {
+                index.add(record.id(), record.valueAt(slot));
+            }
+        }
+    }
+
+    /**
+     * Replaces the previous version of the record with the new one in the indexes.
+     *
+     * <p>The new column values are indexed before the stale ones are removed. So, the concurrent
+     * readers find the record by either the previous or the new column value at any moment.
+     *
+     * @param previous
+     *         the previous version of the record
+     * @param record
+     *         the new version of the record
+     * @param replace
+     *         the action replacing the record in the storage, performed after the new values
+     *         are indexed, but before the stale ones are removed
+     */
+    void update(RecordWithColumns<I, R> previous, RecordWithColumns<I, R> record,
+                Runnable replace) {
+        for (var index : indexes.values()) {
+            var column = index.column();
+            var slot = column.in(record);
+            if (slot >= 0 && !sameValue(previous, record, column)) {
+                index.add(record.id(), record.valueAt(slot));
+            }
+        }
+        replace.run();
+        for (var index : indexes.values()) {
+            var column = index.column();
+            var slot = column.in(previous);
+            if (slot >= 0 && !sameValue(previous, record, column)) {
+                index.remove(previous.id(), previous.valueAt(slot));
+            }
+        }
+    }
+
+    private static <I, R extends Message> boolean
+    sameValue(RecordWithColumns<I, R> a, RecordWithColumns<I, R> b, ColumnSlot column) {
+        var slotInA = column.in(a);
+        var slotInB = column.in(b);
+        return slotInA >= 0
+                && slotInB >= 0
+                && Objects.equals(a.valueAt(slotInA), b.valueAt(slotInB));
+    }
+
+    /**
+     * Removes the record from the indexes.
+     */
+    void remove(RecordWithColumns<I, R> record) {
+        for (var index : indexes.values()) {
+            var slot = index.column()
+                            .in(record);
+            if (slot >= 0) {
+                index.remove(record.id(), record.valueAt(slot));
+            }
+        }
+    }
+
+    /**
+     * Obtains the identifiers of the records which may match the given subject.
+     *
+     * @return the candidate identifiers, or {@code Optional.empty()} if the records
+     *         should be scanned
+     */
+    Optional<Collection<I>> candidates(Subject<I, R> subject) {
+        var ids = subject.id()
+                         .values();
+        if (!ids.isEmpty()) {
+            return Optional.of(ids);
+        }
+        var predicate = subject.predicate();
+        if (predicate.operator() != LogicalOperator.AND) {
+            return Optional.empty();
+        }
+        @Nullable SubjectParameter<R, ?, ?> equality = null;
+        var fewest = Integer.MAX_VALUE;
+        @Nullable SubjectParameter<R, ?, ?> range = null;
+        for (var param : predicate.parameters()) {
+            var index = indexes.get(param.column()
+                                         .name());
+            var value = param.value();
+            if (index == null || value == null) {
+                continue;
+            }
+            if (param.operator() == ComparisonOperator.EQUALS) {
+                if (index.servesEquality(value)) {
+                    var count = index.countEqualTo(value);
+                    if (count < fewest) {
+                        fewest = count;
+                        equality = param;
+                    }
+                }
+            } else if (range == null && index.servesRange(value)) {
+                range = param;
+            }
+        }
+        var chosen = equality != null ? equality : range;
+        if (chosen == null) {
+            return Optional.empty();
+        }
+        var index = checkNotNull(indexes.get(chosen.column()
+                                                   .name()));
+        return index.candidates(chosen.operator(), chosen.value());
+    }
+}
@@ -27,24 +27,23 @@
 package io.spine.server.storage.memory;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.Message;
-import io.spine.query.QueryPredicate;
 import io.spine.query.RecordQuery;
 import io.spine.query.Subject;
-import io.spine.query.SubjectParameter;
 import io.spine.server.storage.RecordWithColumns;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static io.spine.util.Exceptions.newIllegalArgumentException;
 
 /**
  * Matches the records to the {@linkplain RecordQuery#subject() subject} of a {@link RecordQuery}.
  *
+ * <p>The predicate of the subject is {@linkplain CompiledPredicate compiled} once, when
+ * the matcher is created, so that testing each record does not re-interpret the query.
+ *
  * @param <I>
  *         the type of the identifiers of the records
  * @param <R>
@@ -54,7 +53,7 @@ public class RecordQueryMatcher<I, R extends Message>
         implements Predicate<@Nullable RecordWithColumns<I, R>> {
 
     private final ImmutableSet<I> acceptedIds;
-    private final QueryPredicate<R> predicate;
+    private final CompiledPredicate<I, R> predicate;
 
     /**
      * Creates a new matcher for the given subject.
@@ -64,7 +63,7 @@ public class RecordQueryMatcher<I, R extends Message>
         // Pack IDs from the query for faster search using packed IDs from loaded records.
         this.acceptedIds = subject.id()
                                   .values();
-        this.predicate = subject.predicate();
+        this.predicate = CompiledPredicate.compile(subject.predicate());
     }
 
     @VisibleForTesting
@@ -90,88 +89,6 @@ public class RecordQueryMatcher<I, R extends Message>
     }
 
     private boolean columnValuesMatch(RecordWithColumns<I, R> record) {
-        return checkPredicate(record, predicate);
-    }
-
-    private static <I, R extends Message> boolean
-    checkPredicate(RecordWithColumns<I, R> record, QueryPredicate<R> predicate) {
-        boolean match;
-
-        var operator = predicate.operator();
-        var parameters = predicate.parameters();
-        var children = predicate.children();
-        switch (operator) {
-            case AND:
-                match = checkAnd(record, parameters, children);
-                break;
-            case OR:
-                match = checkEither(record, parameters, children);
-                break;
-            default:
-                throw newIllegalArgumentException("Logical operator `%s` is invalid.",
-                                                  operator);
-        }
-        return match;
-    }
-
-    private static <I, R extends Message> boolean
-    checkAnd(RecordWithColumns<I, R> record, ImmutableList<SubjectParameter<R, ?, ?>> params,
-             ImmutableList<QueryPredicate<R>> predicates) {
-        if (params.isEmpty() && predicates.isEmpty()) {
-            return true;
-        }
-        var paramsMatch =
-                params.stream()
-                      .allMatch(param -> matches(record, param));
-        if (paramsMatch) {
-            var predicatesMatch =
-                    predicates.stream()
-                              .allMatch(predicate -> checkPredicate(record,
-                                                                    predicate));
-            return predicatesMatch;
-        }
-        return false;
-    }
-
-    private static <I, R extends Message> boolean
-    checkEither(RecordWithColumns<I, R> record,
-                ImmutableList<SubjectParameter<R, ?, ?>> params,
-                ImmutableList<QueryPredicate<R>> predicates) {
-        if (params.isEmpty() && predicates.isEmpty()) {
-            return true;
-        }
-        var paramsMatch =
-                params.stream()
-                      .anyMatch(param -> matches(record, param));
-        if (!paramsMatch) {
-            var predicatesMatch =
-                    predicates.stream()
-                              .anyMatch(predicate -> checkPredicate(record, predicate));
-            return predicatesMatch;
-        }
-        return true;
-    }
-
-    private static <I, R extends Message> boolean
-    matches(RecordWithColumns<I, R> recWithColumns, SubjectParameter<R, ?, ?> param) {
-        var column = param.column();
-        if (!recWithColumns.hasColumn(column.name())) {
-            return false;
-        }
-        @Nullable Object columnValue = recWithColumns.columnValue(param.column()
-                                                                       .name());
-        var result = checkSingleParameter(param, columnValue);
-        return result;
-    }
-
-    private static <R extends Message> boolean
-    checkSingleParameter(SubjectParameter<R, ?, ?> parameter, @Nullable Object actualValue) {
-        if (actualValue == null) {
-            return false;
-        }
-        var paramValue = parameter.value();
-        var result = parameter.operator()
-                              .eval(actualValue, paramValue);
-        return result;
+        return predicate.test(record);
     }
 }
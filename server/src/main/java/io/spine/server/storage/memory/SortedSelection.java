@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import com.google.protobuf.Message;
+import io.spine.query.Direction;
+import io.spine.query.SortBy;
+import io.spine.server.storage.RecordWithColumns;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.spine.server.storage.memory.RecordComparator.compareValues;
+
+/**
+ * Sorts the records according to a list of {@link SortBy} specifications, optionally
+ * selecting only the first records in the resulting order.
+ *
+ * <p>The values of the sorting columns are extracted once per record, rather than once
+ * per comparison. The {@linkplain ColumnSlot slots} of the columns are resolved once
+ * for the records of the same layout.
+ *
+ * <p>If the number of the records to select is limited, the selection goes through
+ * a bounded heap, which holds no more than the requested number of records. So, selecting
+ * {@code k} records out of {@code n} takes {@code O(n log k)} time and {@code O(k)} memory.
+ *
+ * <p>The records considered equal by the sorting columns keep their original relative order,
+ * in the same way as with a stable sort.
+ *
+ * @param <I>
+ *         the type of the record identifiers
+ * @param <R>
+ *         the type of the records
+ * @see RecordComparator
+ */
+final class SortedSelection<I, R extends Message> {
+
+    private final ColumnSlot[] columns;
+    private final boolean[] descending;
+    private final Comparator<Keyed<I, R>> comparator;
+
+    /**
+     * Creates a new selection sorting the records in the given order.
+     *
+     * @throws IllegalArgumentException
+     *         if the sorting specification is empty
+     */
+    SortedSelection(List<SortBy<?, R>> sorting) {
+        checkArgument(!sorting.isEmpty(),
+                      "`SortedSelection` requires at least one `SortBy` instance.");
+        var size = sorting.size();
+        this.columns = new ColumnSlot[size];
+        this.descending = new boolean[size];
+        for (var i = 0; i < size; i++) {
+            var sortBy = sorting.get(i);
+            columns[i] = new ColumnSlot(sortBy.column()
+                                              .name());
+            descending[i] = sortBy.direction() == Direction.DESC;
+        }
+        this.comparator = this::compare;
+    }
+
+    /**
+     * Returns the passed records in the sorted order.
+     *
+     * @param records
+     *         the records to sort
+     * @param limit
+     *         the maximum number of the records to return, or {@code null}
+     *         if all the records should be returned
+     */
+    List<RecordWithColumns<I, R>> select(Iterator<RecordWithColumns<I, R>> records,
+                                         @Nullable Integer limit) {
+        if (limit != null && limit > 0) {
+            return top(records, limit);
+        }
+        return all(records);
+    }
+
+    private List<RecordWithColumns<I, R>> all(Iterator<RecordWithColumns<I, R>> records) {
+        var keyed = new ArrayList<Keyed<I, R>>();
+        long sequence = 0;
+        while (records.hasNext()) {
+            keyed.add(keyOf(records.next(), sequence++));
+        }
+        keyed.sort(comparator);
+        return unwrap(keyed);
+    }
+
+    private List<RecordWithColumns<I, R>>
+    top(Iterator<RecordWithColumns<I, R>> records, int limit) {
+        var worstFirst = comparator.reversed();
+        var heap = new PriorityQueue<Keyed<I, R>>(limit, worstFirst);
+        long sequence = 0;
+        while (records.hasNext()) {
+            var candidate = keyOf(records.next(), sequence++);
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (comparator.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+        var selected = new ArrayList<>(heap);
+        selected.sort(comparator);
+        return unwrap(selected);
+    }
+
+    private Keyed<I, R> keyOf(RecordWithColumns<I, R> record, long sequence) {
+        var keys = new Object[columns.length];
+        for (var i = 0; i < columns.length; i++) {
+            keys[i] = columns[i].valueIn(record);
+        }
+        return new Keyed<>(record, keys, sequence);
+    }
+
+    private int compare(Keyed<I, R> a, Keyed<I, R> b) {
+        for (var i = 0; i < columns.length; i++) {
+            var result = compareValues(a.keys[i], b.keys[i]);
+            if (result != 0) {
+                return descending[i] ? -result : result;
+            }
+        }
+        return Long.compare(a.sequence, b.sequence);
+    }
+
+    private static <I, R extends Message> List<RecordWithColumns<I, R>>
+    unwrap(List<Keyed<I, R>> keyed) {
+        List<RecordWithColumns<I, R>> result = new ArrayList<>(keyed.size());
+        for (var item : keyed) {
+            result.add(item.record);
+        }
+        return result;
+    }
+
+    /**
+     * A record along with the values of its sorting columns
+     * and its position in the original order.
+     */
+    private static final class Keyed<I, R extends Message> {
+
+        private final RecordWithColumns<I, R> record;
+        private final @Nullable Object[] keys;
+        private final long sequence;
+
+        private Keyed(RecordWithColumns<I, R> record, @Nullable Object[] keys, long sequence) {
+            this.record = record;
+            this.keys = keys;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -26,31 +26,29 @@
 
 package io.spine.server.storage.memory;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterators;
 import com.google.protobuf.Any;
 import com.google.protobuf.FieldMask;
 import com.google.protobuf.Message;
+import io.spine.query.ColumnName;
 import io.spine.query.RecordQuery;
 import io.spine.query.Subject;
 import io.spine.server.entity.EntityRecord;
 import io.spine.server.storage.RecordWithColumns;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.Maps.filterValues;
-import static io.spine.protobuf.AnyPacker.pack;
-import static io.spine.protobuf.AnyPacker.unpack;
-import static io.spine.server.entity.FieldMasks.applyMask;
-import static io.spine.server.storage.memory.RecordComparator.accordingTo;
-import static java.util.Collections.synchronizedMap;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -58,6 +56,13 @@ import static java.util.stream.Collectors.toList;
  *
  * <p>Acts like a facade API for the operations available over the data of a single tenant.
  *
+ * <p>Maintains the {@linkplain RecordIndex indexes} over the values of the columns passed
+ * upon the creation, and uses them to find the records matching a query.
+ *
+ * <p>The reads do not block. They observe the concurrent modifications in the same way as
+ * {@link ConcurrentHashMap} iterators do, and never observe a record which is only partially
+ * modified. The modifications are serialized with each other.
+ *
  * @param <I>
  *         the type of the record identifiers
  * @param <R>
@@ -66,7 +71,29 @@ import static java.util.stream.Collectors.toList;
 final class TenantRecords<I, R extends Message>
         implements TenantDataStorage<I, RecordWithColumns<I, R>> {
 
-    private final Map<I, RecordWithColumns<I, R>> records = synchronizedMap(new HashMap<>());
+    private final Map<I, RecordWithColumns<I, R>> records = new ConcurrentHashMap<>();
+    private final RecordIndex<I, R> index;
+
+    /**
+     * The monitor serializing the modifications of the records.
+     *
+     * <p>Reads do not take it.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Creates a new instance, which does not index the column values of the records.
+     */
+    TenantRecords() {
+        this(ImmutableSet.of());
+    }
+
+    /**
+     * Creates a new instance, which indexes the values of the columns with the passed names.
+     */
+    TenantRecords(Iterable<ColumnName> indexedColumns) {
+        this.index = new RecordIndex<>(indexedColumns);
+    }
 
     @Override
     public Iterator<I> index() {
@@ -85,7 +112,15 @@ final class TenantRecords<I, R extends Message>
 
     @Override
     public void put(I id, RecordWithColumns<I, R> record) {
-        records.put(id, record);
+        synchronized (writeLock) {
+            var previous = records.get(id);
+            if (previous == null) {
+                records.put(id, record);
+                index.add(record);
+            } else {
+                index.update(previous, record, () -> records.put(id, record));
+            }
+        }
     }
 
     /**
@@ -104,7 +139,42 @@ final class TenantRecords<I, R extends Message>
     }
 
     boolean delete(I id) {
-        return records.remove(id) != null;
+        synchronized (writeLock) {
+            var previous = records.remove(id);
+            if (previous == null) {
+                return false;
+            }
+            index.remove(previous);
+            return true;
+        }
+    }
+
+    /**
+     * Deletes the records with the passed identifiers.
+     *
+     * <p>The identifiers of the records which are not stored are skipped.
+     */
+    void deleteAll(Iterable<I> ids) {
+        synchronized (writeLock) {
+            for (var id : ids) {
+                var previous = records.remove(id);
+                if (previous != null) {
+                    index.remove(previous);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the records matching the passed query.
+     */
+    void deleteAll(RecordQuery<I, R> query) {
+        synchronized (writeLock) {
+            for (var record : findRecords(query)) {
+                records.remove(record.id());
+                index.remove(record);
+            }
+        }
     }
 
     Iterator<R> readAll(RecordQuery<I, R> query) {
@@ -117,35 +187,51 @@ final class TenantRecords<I, R extends Message>
     }
 
     private List<RecordWithColumns<I, R>> findRecords(RecordQuery<I, R> query) {
-        synchronized (records) {
-            var filtered = filterRecords(query.subject());
-            var stream = filtered.values()
-                                                             .stream();
-            return sortAndLimit(stream, query).collect(toList());
-        }
+        var stream = filterRecords(query.subject());
+        return sortAndLimit(stream, query);
     }
 
-    private static <I, R extends Message> Stream<RecordWithColumns<I, R>>
+    /**
+     * Sorts and limits the passed records according to the query.
+     *
+     * <p>If the query has a limit along with the sorting, only the requested number
+     * of the records is {@linkplain SortedSelection selected} without sorting all of them.
+     */
+    private static <I, R extends Message> List<RecordWithColumns<I, R>>
     sortAndLimit(Stream<RecordWithColumns<I, R>> data, RecordQuery<I, R> query) {
-        var stream = data;
         var sortingSpecs = query.sorting();
+        var limit = query.limit();
         if (sortingSpecs.size() > 0) {
-            stream = stream.sorted(accordingTo(sortingSpecs));
+            var selection = new SortedSelection<I, R>(sortingSpecs);
+            return selection.select(data.iterator(), limit);
         }
-        var limit = query.limit();
+        var stream = data;
         if (limit != null && limit > 0) {
             stream = stream.limit(limit);
         }
-        return stream;
+        return stream.collect(toList());
     }
 
     /**
      * Filters the records returning only the ones matching the
      * {@linkplain Subject subject of the record query}.
+     *
+     * <p>If the {@linkplain RecordIndex index} can narrow down the set of candidate records,
+     * only the candidates are checked. Otherwise, all the records are scanned.
      */
-    private Map<I, RecordWithColumns<I, R>> filterRecords(Subject<I, R> subject) {
+    private Stream<RecordWithColumns<I, R>> filterRecords(Subject<I, R> subject) {
         var matcher = new RecordQueryMatcher<>(subject);
-        return filterValues(records, matcher::test);
+        var candidates = index.candidates(subject)
+                              .map(this::recordsWith)
+                              .orElseGet(() -> records.values()
+                                                      .stream());
+        return candidates.filter(matcher);
+    }
+
+    private Stream<RecordWithColumns<I, R>> recordsWith(Collection<I> ids) {
+        return ids.stream()
+                  .map(records::get)
+                  .filter(Objects::nonNull);
     }
 
     @Override
@@ -159,11 +245,27 @@ final class TenantRecords<I, R extends Message>
      *
      * <p>The resulting {@link EntityRecord} has the same fields as the given one except
      * the {@code state} field, which is masked.
+     *
+     * <p>The mask is {@linkplain FieldMaskProjector compiled} once per type of the masked
+     * messages.
      */
     private class FieldMaskApplier implements Function<R, R> {
 
         private final FieldMask fieldMask;
 
+        /**
+         * The projector used for the last masked message.
+         *
+         * <p>The records returned by a query are usually of the same type,
+         * so the projector is reused for them.
+         */
+        private @Nullable FieldMaskProjector projector;
+
+        /**
+         * The type URL of the last masked {@code EntityRecord} state.
+         */
+        private @Nullable String stateType;
+
         private FieldMaskApplier(FieldMask fieldMask) {
             this.fieldMask = fieldMask;
         }
@@ -178,23 +280,34 @@ final class TenantRecords<I, R extends Message>
             if (input instanceof EntityRecord) {
                 return (R) maskEntityRecord((EntityRecord) input);
             }
-            return applyMask(fieldMask, input);
+            return projectorFor(input).project(input);
         }
 
         private EntityRecord maskEntityRecord(EntityRecord input) {
             checkNotNull(input);
-            var maskedState = maskAny(input.getState());
+            var state = input.getState();
+            var maskedState = projectorFor(state).project(state);
             var result = EntityRecord.newBuilder(input)
                     .setState(maskedState)
                     .build();
             return result;
         }
 
-        private Any maskAny(Any message) {
-            var stateMessage = unpack(message);
-            var maskedMessage = applyMask(fieldMask, stateMessage);
-            var result = pack(maskedMessage);
-            return result;
+        private FieldMaskProjector projectorFor(Message message) {
+            if (projector == null || !projector.accepts(message.getDescriptorForType())) {
+                projector = FieldMaskProjector.of(message.getDefaultInstanceForType(), fieldMask);
+                stateType = null;
+            }
+            return projector;
+        }
+
+        private FieldMaskProjector projectorFor(Any state) {
+            var typeUrl = state.getTypeUrl();
+            if (projector == null || !typeUrl.equals(stateType)) {
+                projector = FieldMaskProjector.ofPacked(state, fieldMask);
+                stateType = typeUrl;
+            }
+            return projector;
         }
     }
 }
@@ -65,7 +65,9 @@ final class DefaultSystemWriteSide implements SystemWriteSide {
         var event = event(systemEvent, origin);
         var config = system.config();
 
-        if (config.postEventsInParallel()) {
+        if (config.usePostingQueue()) {
+            system.eventQueue().put(event);
+        } else if (config.postEventsInParallel()) {
             config.postingExecutor().execute(() -> postEvent(event));
         } else {
             postEvent(event);
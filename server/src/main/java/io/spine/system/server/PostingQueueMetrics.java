@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.system.server;
+
+import com.google.protobuf.Duration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.protobuf.util.Durations.fromNanos;
+
+/**
+ * Runtime metrics of the queue which posts system events in batches.
+ *
+ * <p>An instance is created along with the posting queue
+ * {@linkplain SystemSettings#usePostingQueue(int, int, int) configuration} and is updated
+ * by the system context while it posts the events.
+ *
+ * <p>All the values are updated concurrently. Each value is consistent on its own,
+ * but values obtained by separate calls do not form an atomic snapshot.
+ *
+ * @see SystemSettings#postingQueueMetrics()
+ */
+public final class PostingQueueMetrics {
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAdder postedEvents = new LongAdder();
+    private final LongAdder postedBatches = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final LongAdder postedAfterClose = new LongAdder();
+
+    /**
+     * Prevents instantiation from outside the package.
+     */
+    PostingQueueMetrics() {
+    }
+
+    /**
+     * Obtains the number of system events which are queued but not yet posted.
+     */
+    public int queueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Obtains the total number of system events posted through the queue.
+     */
+    public long postedEvents() {
+        return postedEvents.sum();
+    }
+
+    /**
+     * Obtains the total number of batches posted to the system {@code EventBus}.
+     */
+    public long postedBatches() {
+        return postedBatches.sum();
+    }
+
+    /**
+     * Obtains the average time between putting an event to the queue and the end of
+     * its posting to the system {@code EventBus}.
+     *
+     * <p>If no events were posted yet, returns zero duration.
+     */
+    public Duration averageLatency() {
+        var events = postedEvents.sum();
+        if (events == 0) {
+            return fromNanos(0);
+        }
+        return fromNanos(totalLatencyNanos.sum() / events);
+    }
+
+    /**
+     * Obtains the maximum time an event spent between putting it to the queue and the end of
+     * its posting to the system {@code EventBus}.
+     */
+    public Duration maxLatency() {
+        return fromNanos(maxLatencyNanos.get());
+    }
+
+    /**
+     * Obtains the number of system events, which were put after the queue was closed.
+     *
+     * <p>Such events are posted to the system {@code EventBus} one by one, bypassing
+     * the queue. They are not counted as {@linkplain #postedEvents() posted through
+     * the queue}.
+     */
+    public long postedAfterClose() {
+        return postedAfterClose.sum();
+    }
+
+    void onQueued() {
+        queueDepth.incrementAndGet();
+    }
+
+    void onDequeued(int count) {
+        queueDepth.addAndGet(-count);
+    }
+
+    void onPosted(int count, long latencyNanosSum, long maxLatencyNanos) {
+        postedBatches.increment();
+        postedEvents.add(count);
+        totalLatencyNanos.add(latencyNanosSum);
+        this.maxLatencyNanos.accumulateAndGet(maxLatencyNanos, Math::max);
+    }
+
+    void onPostedAfterClose() {
+        postedAfterClose.increment();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.system.server;
+
+import java.util.concurrent.ThreadFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The configuration of the queue which posts system events in batches.
+ *
+ * @see SystemSettings#usePostingQueue(int, int, int, ThreadFactory)
+ */
+final class PostingQueueSpec {
+
+    private final int capacity;
+    private final int workers;
+    private final int maxBatchSize;
+    private final ThreadFactory threadFactory;
+    private final PostingQueueMetrics metrics;
+
+    PostingQueueSpec(int capacity, int workers, int maxBatchSize, ThreadFactory threadFactory) {
+        checkArgument(workers > 0, "The number of workers must be positive.");
+        checkArgument(capacity >= workers,
+                      "The queue capacity (%s) must not be less than the number of workers (%s).",
+                      capacity, workers);
+        checkArgument(maxBatchSize > 0, "The maximum batch size must be positive.");
+        this.capacity = capacity;
+        this.workers = workers;
+        this.maxBatchSize = maxBatchSize;
+        this.threadFactory = checkNotNull(threadFactory);
+        this.metrics = new PostingQueueMetrics();
+    }
+
+    /**
+     * Obtains the total number of events which may wait in the queue for posting.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Obtains the number of worker threads posting the events.
+     */
+    int workers() {
+        return workers;
+    }
+
+    /**
+     * Obtains the maximum number of events posted to the {@code EventBus} at once.
+     */
+    int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Obtains the factory of the worker threads.
+     */
+    ThreadFactory threadFactory() {
+        return threadFactory;
+    }
+
+    /**
+     * Obtains the metrics of the queue.
+     */
+    PostingQueueMetrics metrics() {
+        return metrics;
+    }
+}
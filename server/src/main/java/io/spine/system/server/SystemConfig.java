@@ -44,13 +44,16 @@ final class SystemConfig implements SystemFeatures {
     private final boolean commandLog;
     private final boolean storeEvents;
     private final @Nullable Executor postingExecutor;
+    private final @Nullable PostingQueueSpec postingQueue;
 
     SystemConfig(boolean commandLog,
                  boolean storeEvents,
-                 @Nullable Executor postingExecutor) {
+                 @Nullable Executor postingExecutor,
+                 @Nullable PostingQueueSpec postingQueue) {
         this.commandLog = commandLog;
         this.storeEvents = storeEvents;
         this.postingExecutor = postingExecutor;
+        this.postingQueue = postingQueue;
     }
 
     @Override
@@ -65,7 +68,14 @@ final class SystemConfig implements SystemFeatures {
 
     @Override
     public boolean postEventsInParallel() {
-        return nonNull(postingExecutor);
+        return nonNull(postingExecutor) || nonNull(postingQueue);
+    }
+
+    /**
+     * Checks if the system events are posted through a {@link SystemEventQueue}.
+     */
+    boolean usePostingQueue() {
+        return nonNull(postingQueue);
     }
 
     /**
@@ -78,6 +88,16 @@ final class SystemConfig implements SystemFeatures {
         return postingExecutor;
     }
 
+    /**
+     * Returns the configuration of the queue to post system events in batches.
+     *
+     * <p>Before call the method, make sure {@link #usePostingQueue()} is enabled.
+     */
+    PostingQueueSpec postingQueue() {
+        checkNotNull(postingQueue);
+        return postingQueue;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -89,7 +109,8 @@ final class SystemConfig implements SystemFeatures {
         var config = (SystemConfig) o;
         return commandLog == config.commandLog &&
                 storeEvents == config.storeEvents &&
-                Objects.equals(postingExecutor, config.postingExecutor);
+                Objects.equals(postingExecutor, config.postingExecutor) &&
+                Objects.equals(postingQueue, config.postingQueue);
     }
 
     @Override
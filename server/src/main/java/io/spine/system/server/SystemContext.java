@@ -32,6 +32,10 @@ import io.spine.server.BoundedContextBuilder;
 import io.spine.server.ServerEnvironment;
 import io.spine.server.event.EventDispatcher;
 
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * An implementation of {@link BoundedContext} used for the System domain.
  *
@@ -53,11 +57,15 @@ import io.spine.server.event.EventDispatcher;
 public final class SystemContext extends BoundedContext {
 
     private final SystemConfig config;
+    private final @Nullable SystemEventQueue eventQueue;
 
     private SystemContext(BoundedContextBuilder builder) {
         super(builder);
         this.config = builder.systemSettings()
                              .freeze();
+        this.eventQueue = config.usePostingQueue()
+                          ? new SystemEventQueue(config.postingQueue(), eventBus()::post)
+                          : null;
     }
 
     /**
@@ -122,4 +130,28 @@ public final class SystemContext extends BoundedContext {
     SystemConfig config() {
         return config;
     }
+
+    /**
+     * Obtains the queue for batched posting of system events.
+     *
+     * <p>Before call the method, make sure {@link SystemConfig#usePostingQueue()} is enabled.
+     */
+    SystemEventQueue eventQueue() {
+        checkNotNull(eventQueue);
+        return eventQueue;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Before closing the context, posts the system events remaining in the posting queue,
+     * if it is used.
+     */
+    @Override
+    public void close() throws Exception {
+        if (eventQueue != null) {
+            eventQueue.close();
+        }
+        super.close();
+    }
 }
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.system.server;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.core.Event;
+import io.spine.logging.Logging;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A bounded queue of system events, which are posted to the system {@code EventBus} in batches
+ * by dedicated worker threads.
+ *
+ * <p>The queue is split into lanes, one per worker. An event goes to the lane chosen by
+ * the ID of the system entity which produced it. Therefore, the events related to the same
+ * entity are posted in the order they were put into the queue.
+ *
+ * <p>Each worker takes all the events available in its lane, up to the configured batch size,
+ * and posts them to the {@code EventBus} with a single call.
+ *
+ * <p>When a lane is full, the thread putting an event into it is blocked until there is room.
+ * This way, a storm of system events slows down its producers instead of piling up
+ * an unbounded number of pending tasks.
+ */
+final class SystemEventQueue implements AutoCloseable, Logging {
+
+    /**
+     * How long a worker waits for new events before checking if the queue is still open.
+     */
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final ImmutableList<Lane> lanes;
+    private final int maxBatchSize;
+    private final PostingQueueMetrics metrics;
+    private final Consumer<List<Event>> sink;
+
+    /**
+     * Makes checking if the queue is open and putting an event into a lane atomic
+     * with respect to {@link #close()}.
+     *
+     * <p>Producers hold the read lock while putting events, so they do not block each other.
+     * Closing the queue takes the write lock. Once it is released, no more events get into
+     * the lanes, and the workers post everything queued before exiting.
+     */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean open = true;
+
+    /**
+     * Creates a new queue and starts its workers.
+     *
+     * @param spec
+     *         the configuration of the queue
+     * @param sink
+     *         the consumer of the event batches
+     */
+    SystemEventQueue(PostingQueueSpec spec, Consumer<List<Event>> sink) {
+        checkNotNull(spec);
+        this.sink = checkNotNull(sink);
+        this.maxBatchSize = spec.maxBatchSize();
+        this.metrics = spec.metrics();
+        var workers = spec.workers();
+        var laneCapacity = spec.capacity() / workers;
+        var lanes = ImmutableList.<Lane>builder();
+        for (var i = 0; i < workers; i++) {
+            var lane = new Lane(laneCapacity);
+            lane.start(spec);
+            lanes.add(lane);
+        }
+        this.lanes = lanes.build();
+    }
+
+    /**
+     * Puts the given event into the queue.
+     *
+     * <p>Blocks if the lane of the event is full.
+     *
+     * <p>If the queue is already closed, posts the event in the current thread
+     * {@linkplain #postAfterClose(Event) after} the events queued earlier by the same producer.
+     */
+    void put(Event event) {
+        checkNotNull(event);
+        if (!tryEnqueue(event)) {
+            postAfterClose(event);
+        }
+    }
+
+    /**
+     * Posts the event put after the queue is closed.
+     *
+     * <p>Waits until the worker of the event lane posts the events queued before, so that
+     * the events of the same producer are posted in order.
+     *
+     * <p>The workers never wait for each other, as two workers could wait for one another
+     * this way. If the event is put by the worker of its own lane, e.g. by a subscriber
+     * reacting to a posted event, the event is queued behind the events of the lane,
+     * if there is room for it. If the event is put by the worker of another lane, it is
+     * posted right away.
+     */
+    private void postAfterClose(Event event) {
+        var lane = laneFor(event);
+        var current = Thread.currentThread();
+        if (lane.isServedBy(current)) {
+            if (lane.offer(event)) {
+                return;
+            }
+        } else if (!isWorker(current)) {
+            lane.awaitTermination();
+        }
+        metrics.onPostedAfterClose();
+        sink.accept(ImmutableList.of(event));
+    }
+
+    private boolean isWorker(Thread thread) {
+        for (var lane : lanes) {
+            if (lane.isServedBy(thread)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts the event into its lane if the queue is still open.
+     *
+     * @return {@code true} if the event was queued, {@code false} if the queue is closed
+     */
+    private boolean tryEnqueue(Event event) {
+        var lock = closeLock.readLock();
+        lock.lock();
+        try {
+            if (!open) {
+                return false;
+            }
+            var lane = laneFor(event);
+            metrics.onQueued();
+            try {
+                lane.put(new QueuedEvent(event, System.nanoTime()));
+            } catch (IllegalStateException e) {
+                metrics.onDequeued(1);
+                throw e;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lane laneFor(Event event) {
+        var producerId = event.getContext()
+                              .getProducerId();
+        var index = Math.floorMod(producerId.hashCode(), lanes.size());
+        return lanes.get(index);
+    }
+
+    /**
+     * Stops accepting new events, posts the events remaining in the queue,
+     * and waits for the workers to finish.
+     */
+    @Override
+    public void close() {
+        var lock = closeLock.writeLock();
+        lock.lock();
+        try {
+            open = false;
+        } finally {
+            lock.unlock();
+        }
+        for (var lane : lanes) {
+            lane.awaitTermination();
+        }
+    }
+
+    /**
+     * Posts a batch of events and updates the metrics.
+     */
+    private void post(List<QueuedEvent> batch) {
+        var events = new ArrayList<Event>(batch.size());
+        for (var queued : batch) {
+            events.add(queued.event);
+        }
+        metrics.onDequeued(batch.size());
+        try {
+            sink.accept(events);
+        } catch (RuntimeException e) {
+            _error().withCause(e)
+                    .log("Unable to post a batch of %d system events.", events.size());
+        }
+        var now = System.nanoTime();
+        long latencySum = 0;
+        long maxLatency = 0;
+        for (var queued : batch) {
+            var latency = now - queued.whenQueued;
+            latencySum += latency;
+            maxLatency = Math.max(maxLatency, latency);
+        }
+        metrics.onPosted(batch.size(), latencySum, maxLatency);
+    }
+
+    /**
+     * An event waiting in the queue along with the time it was queued.
+     */
+    private static final class QueuedEvent {
+
+        private final Event event;
+        private final long whenQueued;
+
+        private QueuedEvent(Event event, long whenQueued) {
+            this.event = event;
+            this.whenQueued = whenQueued;
+        }
+    }
+
+    /**
+     * A part of the queue served by a single worker thread.
+     */
+    private final class Lane implements Runnable {
+
+        private final BlockingQueue<QueuedEvent> events;
+        private Thread worker;
+
+        private Lane(int capacity) {
+            this.events = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void start(PostingQueueSpec spec) {
+            worker = spec.threadFactory()
+                         .newThread(this);
+            worker.start();
+        }
+
+        private boolean isServedBy(Thread thread) {
+            return worker == thread;
+        }
+
+        /**
+         * Queues the event if there is room for it in the lane, without blocking.
+         *
+         * @return {@code true} if the event was queued, {@code false} if the lane is full
+         */
+        private boolean offer(Event event) {
+            metrics.onQueued();
+            var queued = events.offer(new QueuedEvent(event, System.nanoTime()));
+            if (!queued) {
+                metrics.onDequeued(1);
+            }
+            return queued;
+        }
+
+        private void put(QueuedEvent event) {
+            try {
+                events.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+                throw new IllegalStateException(
+                        "Interrupted while waiting for room in the system event queue.", e
+                );
+            }
+        }
+
+        @Override
+        public void run() {
+            var batch = new ArrayList<QueuedEvent>(maxBatchSize);
+            while (open || !events.isEmpty()) {
+                @Nullable QueuedEvent first;
+                try {
+                    first = events.poll(POLL_TIMEOUT_MS, MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread()
+                          .interrupt();
+                    break;
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                events.drainTo(batch, maxBatchSize - 1);
+                post(batch);
+                batch.clear();
+            }
+        }
+
+        private void awaitTermination() {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+        }
+    }
+}
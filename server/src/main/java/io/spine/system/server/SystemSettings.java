@@ -26,6 +26,7 @@
 
 package io.spine.system.server;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.spine.annotation.Internal;
 import io.spine.environment.Environment;
@@ -33,8 +34,10 @@ import io.spine.environment.Tests;
 
 import javax.annotation.Nullable;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
@@ -58,6 +61,11 @@ public final class SystemSettings implements SystemFeatures {
      */
     private @Nullable Executor customExecutor;
 
+    /**
+     * The configuration of the queue for batched posting of system events.
+     */
+    private @Nullable PostingQueueSpec postingQueue;
+
     private boolean commandLog;
     private boolean storeEvents;
     private boolean parallelPosting;
@@ -160,6 +168,7 @@ public final class SystemSettings implements SystemFeatures {
     public SystemSettings enableParallelPosting() {
         this.parallelPosting = true;
         this.customExecutor = defaultExecutor;
+        this.postingQueue = null;
         return this;
     }
 
@@ -177,6 +186,7 @@ public final class SystemSettings implements SystemFeatures {
     public SystemSettings disableParallelPosting() {
         this.parallelPosting = false;
         this.customExecutor = null;
+        this.postingQueue = null;
         return this;
     }
 
@@ -196,6 +206,7 @@ public final class SystemSettings implements SystemFeatures {
         checkNotNull(executor);
         checkState(parallelPosting);
         this.customExecutor = executor;
+        this.postingQueue = null;
         return this;
     }
 
@@ -215,9 +226,79 @@ public final class SystemSettings implements SystemFeatures {
     public SystemSettings useDefaultPostingExecutor() {
         checkState(parallelPosting);
         this.customExecutor = defaultExecutor;
+        this.postingQueue = null;
+        return this;
+    }
+
+    /**
+     * Configures the system context to post system events through a dedicated bounded queue.
+     *
+     * <p>The worker threads of the queue are daemon platform threads.
+     *
+     * @return self for method chaining
+     * @see #usePostingQueue(int, int, int, ThreadFactory)
+     */
+    @CanIgnoreReturnValue
+    public SystemSettings usePostingQueue(int capacity, int workers, int maxBatchSize) {
+        var threadFactory = new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("system-event-posting-%d")
+                .build();
+        return usePostingQueue(capacity, workers, maxBatchSize, threadFactory);
+    }
+
+    /**
+     * Configures the system context to post system events through a dedicated bounded queue.
+     *
+     * <p>The queue is split between the given number of worker threads. The events produced by
+     * the same system entity are always handled by the same worker, so they are posted in
+     * the order of their emission. Each worker posts the events accumulated in its part of
+     * the queue to the system {@code EventBus} in batches of up to {@code maxBatchSize} events.
+     *
+     * <p>When the queue is full, the thread emitting a system event waits until there is room
+     * in the queue. Unlike the {@linkplain #useDefaultPostingExecutor() default executor},
+     * the queue does not compete with the application code for the threads of
+     * the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * <p>The worker threads are created by the given {@code ThreadFactory}. For example,
+     * on JDK 21 and later, pass {@code Thread.ofVirtual().factory()} to use virtual threads.
+     *
+     * <p>Please note, this setting can be configured only if parallel posting of events
+     * {@linkplain #postEventsInParallel() is enabled}.
+     *
+     * @param capacity
+     *         the total number of events which may wait for posting;
+     *         must not be less than the number of workers
+     * @param workers
+     *         the number of worker threads
+     * @param maxBatchSize
+     *         the maximum number of events posted to the {@code EventBus} at once
+     * @param threadFactory
+     *         the factory of the worker threads
+     * @return self for method chaining
+     * @see #postingQueueMetrics()
+     */
+    @CanIgnoreReturnValue
+    public SystemSettings usePostingQueue(int capacity,
+                                          int workers,
+                                          int maxBatchSize,
+                                          ThreadFactory threadFactory) {
+        checkState(parallelPosting);
+        this.postingQueue = new PostingQueueSpec(capacity, workers, maxBatchSize, threadFactory);
         return this;
     }
 
+    /**
+     * Obtains the metrics of the system event posting queue.
+     *
+     * @return the metrics or {@code Optional.empty()} if the system events are not posted
+     *         {@linkplain #usePostingQueue(int, int, int, ThreadFactory) through the queue}
+     */
+    public Optional<PostingQueueMetrics> postingQueueMetrics() {
+        return Optional.ofNullable(postingQueue)
+                       .map(PostingQueueSpec::metrics);
+    }
+
     @Internal
     @Override
     public boolean includeCommandLog() {
@@ -240,7 +321,7 @@ public final class SystemSettings implements SystemFeatures {
      * Copies these settings into an immutable feature set.
      */
     SystemConfig freeze() {
-        return new SystemConfig(commandLog, storeEvents, customExecutor);
+        return new SystemConfig(commandLog, storeEvents, customExecutor, postingQueue);
     }
 
     @SuppressWarnings("NonFinalFieldReferenceInEquals")
@@ -256,7 +337,8 @@ public final class SystemSettings implements SystemFeatures {
         return commandLog == settings.commandLog &&
                 storeEvents == settings.storeEvents &&
                 parallelPosting == settings.parallelPosting &&
-                Objects.equals(customExecutor, settings.customExecutor);
+                Objects.equals(customExecutor, settings.customExecutor) &&
+                Objects.equals(postingQueue, settings.postingQueue);
     }
 
     @SuppressWarnings("NonFinalFieldReferencedInHashCode")
@@ -380,6 +380,25 @@ public class Given {
         }
     }
 
+    static final class ErrorProjectDetailsRepository
+            extends ProjectDetailsRepository {
+
+        @Internal
+        @Override
+        public Iterator<EntityRecord> findRecords(ResponseFormat format) {
+            throw new QueryError();
+        }
+
+        static final class QueryError extends Error {
+
+            private static final long serialVersionUID = 0L;
+
+            private QueryError() {
+                super("Ignore this error.");
+            }
+        }
+    }
+
     static class ProjectDetails
             extends Projection<io.spine.test.projection.ProjectId,
                                io.spine.test.projection.Project,
@@ -25,9 +25,13 @@
  */
 package io.spine.server;
 
+import io.spine.client.BatchQueryResponse;
+import io.spine.client.QueryBatch;
 import io.spine.client.QueryResponse;
 import io.spine.core.Responses;
 import io.spine.grpc.MemoizingObserver;
+import io.spine.server.Given.ErrorProjectDetailsRepository;
+import io.spine.server.Given.ErrorProjectDetailsRepository.QueryError;
 import io.spine.server.Given.ProjectDetailsRepository;
 import io.spine.server.Given.ThrowingProjectDetailsRepository;
 import io.spine.server.model.UnknownEntityStateTypeException;
@@ -40,9 +44,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.Sets.newHashSet;
 import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.spine.grpc.StreamObservers.memoizingObserver;
 import static io.spine.server.Given.CUSTOMERS_CONTEXT_NAME;
 import static io.spine.server.Given.PROJECTS_CONTEXT_NAME;
@@ -137,10 +146,97 @@ class QueryServiceTest {
         assertError.hasMessageThat().contains(unknownTypeUrl);
     }
 
+    @Test
+    @MuteLogging
+    @DisplayName("execute a batch of queries reporting the failed ones in their responses")
+    void executeBatch() {
+        var known = Given.AQuery.readAllProjects();
+        var unknown = Given.AQuery.readUnknownType();
+        var batch = QueryBatch.newBuilder()
+                .addQuery(known)
+                .addQuery(unknown)
+                .build();
+        MemoizingObserver<BatchQueryResponse> observer = memoizingObserver();
+
+        service.readBatch(batch, observer);
+
+        assertTrue(observer.isCompleted());
+        var responses = observer.responses();
+        assertThat(responses).hasSize(2);
+        var byIndex = responses.stream()
+                               .collect(toImmutableMap(BatchQueryResponse::getIndex, r -> r));
+        var first = byIndex.get(0);
+        assertThat(first.getQueryId()).isEqualTo(known.getId());
+        assertThat(first.getResponse().getResponse()).isEqualTo(Responses.ok());
+        var second = byIndex.get(1);
+        assertThat(second.getQueryId()).isEqualTo(unknown.getId());
+        assertThat(second.getResponse().getResponse().getStatus().hasError()).isTrue();
+    }
+
+    @Test
+    @MuteLogging
+    @DisplayName("respond with errors to the queries of a batch rejected by the executor")
+    void respondToRejected() {
+        var accepted = new AtomicInteger();
+        Executor acceptingOne = task -> {
+            if (accepted.getAndIncrement() > 0) {
+                throw new RejectedExecutionException("Ignore this error.");
+            }
+            task.run();
+        };
+        setUpService(new ProjectDetailsRepository(), acceptingOne);
+        var batch = QueryBatch.newBuilder()
+                .addQuery(Given.AQuery.readAllProjects())
+                .addQuery(Given.AQuery.readAllProjects())
+                .addQuery(Given.AQuery.readAllProjects())
+                .build();
+        MemoizingObserver<BatchQueryResponse> observer = memoizingObserver();
+
+        service.readBatch(batch, observer);
+
+        assertTrue(observer.isCompleted());
+        var byIndex = observer.responses()
+                              .stream()
+                              .collect(toImmutableMap(BatchQueryResponse::getIndex, r -> r));
+        assertThat(byIndex).hasSize(3);
+        assertThat(byIndex.get(0).getResponse().getResponse()).isEqualTo(Responses.ok());
+        assertThat(byIndex.get(1).getResponse().getResponse().getStatus().hasError()).isTrue();
+        assertThat(byIndex.get(2).getResponse().getResponse().getStatus().hasError()).isTrue();
+    }
+
+    @Test
+    @MuteLogging
+    @DisplayName("complete the batch if a query fails with an `Error`")
+    void completeOnError() {
+        Executor swallowingErrors = task -> {
+            try {
+                task.run();
+            } catch (QueryError ignored) {
+                // A pooled thread would only log the error.
+            }
+        };
+        setUpService(new ErrorProjectDetailsRepository(), swallowingErrors);
+        var batch = QueryBatch.newBuilder()
+                .addQuery(Given.AQuery.readAllProjects())
+                .addQuery(Given.AQuery.readUnknownType())
+                .build();
+        MemoizingObserver<BatchQueryResponse> observer = memoizingObserver();
+
+        service.readBatch(batch, observer);
+
+        assertTrue(observer.isCompleted());
+        assertThat(observer.responses()).hasSize(1);
+        assertThat(observer.firstResponse().getIndex()).isEqualTo(1);
+    }
+
+    private void setUpService(ProjectDetailsRepository repository) {
+        setUpService(repository, directExecutor());
+    }
+
     /**
      * Sets up the {@link QueryService} based on a context with a single given repository.
      */
-    private void setUpService(ProjectDetailsRepository repository) {
+    private void setUpService(ProjectDetailsRepository repository, Executor batchExecutor) {
         boundedContexts = newHashSet();
         responseObserver = memoizingObserver();
         // Create Projects Bounded Context with one repository and one projection.
@@ -157,7 +253,8 @@ class QueryServiceTest {
         customersContext.register(customerRepo);
         boundedContexts.add(customersContext);
 
-        var queryService = QueryService.newBuilder();
+        var queryService = QueryService.newBuilder()
+                .setBatchExecutor(batchExecutor);
         for (var context : boundedContexts) {
             queryService.add(context);
         }
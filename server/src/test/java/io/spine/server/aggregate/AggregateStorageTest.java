@@ -32,6 +32,7 @@ import com.google.protobuf.Timestamp;
 import com.google.protobuf.util.Timestamps;
 import io.spine.base.EntityState;
 import io.spine.base.Time;
+import io.spine.client.ResponseFormat;
 import io.spine.core.ActorContext;
 import io.spine.core.Event;
 import io.spine.core.EventContext;
@@ -42,6 +43,7 @@ import io.spine.protobuf.AnyPacker;
 import io.spine.server.BoundedContextBuilder;
 import io.spine.server.ContextSpec;
 import io.spine.server.ServerEnvironment;
+import io.spine.server.aggregate.given.FailingHistoryStorageFactory;
 import io.spine.server.aggregate.given.StorageRecords;
 import io.spine.server.aggregate.given.repo.GivenAggregate;
 import io.spine.server.aggregate.given.repo.ProjectAggregateRepository;
@@ -298,6 +300,22 @@ public class AggregateStorageTest
         assertFalse(iterator.hasNext());
     }
 
+    @Test
+    @DisplayName("not write the aggregate state if writing its history fails")
+    void notWriteStateOnHistoryFailure() {
+        var spec = ContextSpec.singleTenant("`AggregateStorage` failure tests");
+        AggregateStorage<ProjectId, AggProject> failing =
+                new FailingHistoryStorageFactory().createAggregateStorage(spec,
+                                                                          TestAggregate.class);
+        var aggregate = new TestAggregate(id);
+        var history = newStorageRecord(id);
+
+        assertThrows(IllegalStateException.class,
+                     () -> failing.writeAll(aggregate, ImmutableList.of(history)));
+        assertFalse(failing.readStates(ResponseFormat.getDefaultInstance())
+                           .hasNext());
+    }
+
     /**
      *  This test is not applicable to the aggregate storage, as several records may be stored
      *  by the same aggregate ID. That's why it is disabled.
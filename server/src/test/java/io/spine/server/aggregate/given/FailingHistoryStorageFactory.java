@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.aggregate.given;
+
+import com.google.protobuf.Message;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.AggregateEventRecord;
+import io.spine.server.storage.RecordSpec;
+import io.spine.server.storage.RecordStorage;
+import io.spine.server.storage.RecordWithColumns;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.storage.memory.InMemoryRecordStorage;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+
+/**
+ * A {@code StorageFactory} which creates in-memory storages, failing to write
+ * the aggregate event records.
+ */
+public final class FailingHistoryStorageFactory implements StorageFactory {
+
+    private final StorageFactory delegate = InMemoryStorageFactory.newInstance();
+
+    @Override
+    public <I, R extends Message> RecordStorage<I, R>
+    createRecordStorage(ContextSpec context, RecordSpec<I, R, ?> recordSpec) {
+        if (recordSpec.storedType()
+                      .equals(AggregateEventRecord.class)) {
+            return new FailingStorage<>(context, recordSpec);
+        }
+        return delegate.createRecordStorage(context, recordSpec);
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+
+    private static final class FailingStorage<I, R extends Message>
+            extends InMemoryRecordStorage<I, R> {
+
+        private FailingStorage(ContextSpec context, RecordSpec<I, R, ?> recordSpec) {
+            super(context, recordSpec);
+        }
+
+        @Override
+        protected void writeRecord(RecordWithColumns<I, R> record) {
+            throw newFailure();
+        }
+
+        @Override
+        protected void writeAllRecords(Iterable<? extends RecordWithColumns<I, R>> records) {
+            throw newFailure();
+        }
+
+        private static IllegalStateException newFailure() {
+            return new IllegalStateException("The aggregate history cannot be written.");
+        }
+    }
+}
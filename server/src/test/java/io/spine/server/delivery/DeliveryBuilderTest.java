@@ -103,6 +103,13 @@ class DeliveryBuilderTest {
         assertIllegalArgument(() -> builder().setCatchUpPageSize(-3));
     }
 
+    @Test
+    @DisplayName("accept only positive maximum number of pending writes")
+    void acceptOnlyPositiveMaxPendingWrites() {
+        assertIllegalArgument(() -> builder().setMaxPendingWrites(0));
+        assertIllegalArgument(() -> builder().setMaxPendingWrites(-3));
+    }
+
     @Nested
     @DisplayName("return set")
     class ReturnSet {
@@ -177,6 +184,14 @@ class DeliveryBuilderTest {
             assertThat(builder().setCatchUpPageSize(catchUpPageSize).catchUpPageSize())
                     .hasValue(catchUpPageSize);
         }
+
+        @Test
+        @DisplayName("maximum number of pending writes")
+        void maxPendingWrites() {
+            var maxPendingWrites = 15;
+            assertThat(builder().setMaxPendingWrites(maxPendingWrites).maxPendingWrites())
+                    .hasValue(maxPendingWrites);
+        }
     }
 
     @Nested
@@ -224,5 +239,11 @@ class DeliveryBuilderTest {
         void pageSize() {
             assertNpe(() -> builder().getPageSize());
         }
+
+        @Test
+        @DisplayName("maximum number of pending writes")
+        void maxPendingWrites() {
+            assertNpe(() -> builder().getMaxPendingWrites());
+        }
     }
 }
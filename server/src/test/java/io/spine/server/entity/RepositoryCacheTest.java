@@ -0,0 +1,301 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.entity;
+
+import io.spine.server.entity.given.entity.TestEntityWithIdLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@DisplayName("`RepositoryCache` should")
+class RepositoryCacheTest {
+
+    private static final int THREADS = 8;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<TestEntityWithIdLong> stored = new CopyOnWriteArrayList<>();
+
+    private final RepositoryCache<Long, TestEntityWithIdLong> cache =
+            new RepositoryCache<>(false, this::load, stored::add);
+
+    private TestEntityWithIdLong load(Long id) {
+        loads.incrementAndGet();
+        return new TestEntityWithIdLong(id);
+    }
+
+    @Test
+    @DisplayName("load a cached entity once when it is loaded concurrently")
+    void loadSameIdOnce() throws Exception {
+        var id = 42L;
+        cache.startCaching(id);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        var results = new CopyOnWriteArrayList<Future<TestEntityWithIdLong>>();
+        for (var i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                var entity = cache.load(id);
+                cache.store(entity);
+                return entity;
+            }));
+        }
+        start.countDown();
+        var first = results.get(0)
+                           .get();
+        for (var result : results) {
+            assertThat(result.get()).isSameInstanceAs(first);
+        }
+        shutDown(executor);
+        cache.stopCaching(id);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(stored).containsExactly(first);
+    }
+
+    @Test
+    @DisplayName("not block the operations on other entities while loading one")
+    void notBlockOtherIds() throws Exception {
+        var slowId = 1L;
+        var fastId = 2L;
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var blockingCache = new RepositoryCache<Long, TestEntityWithIdLong>(
+                false,
+                id -> {
+                    if (id == slowId) {
+                        loading.countDown();
+                        await(release);
+                    }
+                    return new TestEntityWithIdLong(id);
+                },
+                stored::add);
+        blockingCache.startCaching(slowId);
+        blockingCache.startCaching(fastId);
+        var executor = Executors.newSingleThreadExecutor();
+        var slow = executor.submit(() -> blockingCache.load(slowId));
+        assertThat(loading.await(5, SECONDS)).isTrue();
+
+        var fast = blockingCache.load(fastId);
+        blockingCache.store(fast);
+        blockingCache.stopCaching(fastId);
+        assertThat(stored).containsExactly(fast);
+        assertThat(slow.isDone()).isFalse();
+
+        release.countDown();
+        assertThat(slow.get(5, SECONDS)
+                       .id()).isEqualTo(slowId);
+        shutDown(executor);
+    }
+
+    @Test
+    @DisplayName("store the last cached state of each entity when stopped concurrently")
+    void storeDifferentIds() throws Exception {
+        var executor = Executors.newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        var tasks = new CopyOnWriteArrayList<Future<?>>();
+        for (var i = 0; i < THREADS; i++) {
+            long id = i;
+            tasks.add(executor.submit(() -> {
+                await(start);
+                cache.startCaching(id);
+                cache.store(cache.load(id));
+                cache.stopCaching(id);
+            }));
+        }
+        start.countDown();
+        for (var task : tasks) {
+            task.get(5, SECONDS);
+        }
+        shutDown(executor);
+
+        assertThat(loads.get()).isEqualTo(THREADS);
+        assertThat(stored).hasSize(THREADS);
+    }
+
+    @Test
+    @DisplayName("evict an entity once the caching is stopped")
+    void evictOnStop() {
+        var id = 7L;
+        cache.startCaching(id);
+        var cached = cache.load(id);
+        cache.store(cached);
+        cache.stopCaching(id);
+
+        var loaded = cache.load(id);
+        assertThat(loaded).isNotSameInstanceAs(cached);
+        assertThat(loads.get()).isEqualTo(2);
+
+        cache.store(loaded);
+        assertThat(stored).containsExactly(cached, loaded)
+                          .inOrder();
+    }
+
+    @Test
+    @DisplayName("evict an entity which was never loaded while cached")
+    void evictNotLoaded() {
+        var id = 8L;
+        cache.startCaching(id);
+        cache.stopCaching(id);
+
+        cache.load(id);
+        cache.load(id);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(stored).isEmpty();
+    }
+
+    @Nested
+    @DisplayName("when writing behind")
+    class WriteBehind {
+
+        private static final int MAX_PENDING = 3;
+
+        private final List<Collection<TestEntityWithIdLong>> storedInBulk =
+                new CopyOnWriteArrayList<>();
+        private final RepositoryCache<Long, TestEntityWithIdLong> cache =
+                new RepositoryCache<>(false,
+                                      RepositoryCacheTest.this::load,
+                                      stored::add,
+                                      storedInBulk::add,
+                                      MAX_PENDING);
+
+        @Test
+        @DisplayName("keep the stored entities in memory until stopped")
+        void keepUntilStopped() {
+            var first = new TestEntityWithIdLong(1L);
+            var second = new TestEntityWithIdLong(2L);
+            cache.startWriteBehind();
+            cache.store(first);
+            cache.store(second);
+
+            assertThat(storedInBulk).isEmpty();
+            assertThat(cache.load(1L)).isSameInstanceAs(first);
+            assertThat(loads.get()).isEqualTo(0);
+
+            cache.stopWriteBehind();
+            assertThat(storedInBulk).hasSize(1);
+            assertThat(storedInBulk.get(0)).containsExactly(first, second)
+                                           .inOrder();
+            assertThat(stored).isEmpty();
+        }
+
+        @Test
+        @DisplayName("write behind the entities flushed from the cache")
+        void writeFlushed() {
+            var id = 1L;
+            cache.startWriteBehind();
+            cache.startCaching(id);
+            var entity = cache.load(id);
+            cache.store(entity);
+            cache.stopCaching(id);
+            assertThat(storedInBulk).isEmpty();
+
+            cache.stopWriteBehind();
+            assertThat(storedInBulk).hasSize(1);
+            assertThat(storedInBulk.get(0)).containsExactly(entity);
+        }
+
+        @Test
+        @DisplayName("write the pending entities once their maximum number is reached")
+        void flushOnMaximum() {
+            cache.startWriteBehind();
+            for (long id = 0; id < MAX_PENDING; id++) {
+                cache.store(new TestEntityWithIdLong(id));
+            }
+            assertThat(storedInBulk).hasSize(1);
+            assertThat(storedInBulk.get(0)).hasSize(MAX_PENDING);
+
+            cache.stopWriteBehind();
+            assertThat(storedInBulk).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("write the entities once the outermost write-behind is stopped")
+        void nested() {
+            var entity = new TestEntityWithIdLong(1L);
+            cache.startWriteBehind();
+            cache.startWriteBehind();
+            cache.store(entity);
+            cache.stopWriteBehind();
+            assertThat(storedInBulk).isEmpty();
+
+            cache.stopWriteBehind();
+            assertThat(storedInBulk).hasSize(1);
+            assertThat(storedInBulk.get(0)).containsExactly(entity);
+        }
+
+        @Test
+        @DisplayName("propagate a storage failure and not write the same entities again")
+        void failure() {
+            var attempts = new AtomicInteger();
+            var failingCache = new RepositoryCache<Long, TestEntityWithIdLong>(
+                    false,
+                    RepositoryCacheTest.this::load,
+                    stored::add,
+                    entities -> {
+                        attempts.incrementAndGet();
+                        throw new IllegalStateException("Storage is unavailable.");
+                    },
+                    MAX_PENDING);
+            failingCache.startWriteBehind();
+            failingCache.store(new TestEntityWithIdLong(1L));
+            assertThrows(IllegalStateException.class, failingCache::stopWriteBehind);
+
+            failingCache.startWriteBehind();
+            failingCache.stopWriteBehind();
+            assertThat(attempts.get()).isEqualTo(1);
+            assertThat(stored).isEmpty();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void shutDown(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, SECONDS)).isTrue();
+    }
+}
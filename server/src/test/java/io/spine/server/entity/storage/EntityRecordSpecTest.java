@@ -77,6 +77,13 @@ class EntityRecordSpecTest {
         assertThat(descriptionColumn).isPresent();
     }
 
+    @Test
+    @DisplayName("be created once per entity class")
+    void cachePerClass() {
+        var spec = EntityRecordSpec.of(TaskListViewProjection.class);
+        assertThat(EntityRecordSpec.of(TaskListViewProjection.class)).isSameInstanceAs(spec);
+    }
+
     @Test
     @DisplayName("obtain a column by name")
     void obtainByName() {
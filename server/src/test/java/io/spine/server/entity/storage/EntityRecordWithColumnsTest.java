@@ -120,6 +120,22 @@ class EntityRecordWithColumnsTest {
                 .testEquals();
     }
 
+    @Test
+    @DisplayName("be equal to the record with the same column values passed as a map")
+    void equalRegardlessOfLayout() {
+        var entity = new EntityWithoutCustomColumns(TASK_ID);
+        var record = sampleEntityRecord();
+        var storageFields = EntityRecordSpec.of(entity)
+                                            .valuesIn(entity);
+
+        var created = EntityRecordWithColumns.create(entity, record);
+        var fromMap = EntityRecordWithColumns.of(record, storageFields);
+
+        new EqualsTester()
+                .addEqualityGroup(created, fromMap)
+                .testEquals();
+    }
+
     @Test
     @DisplayName("return empty names collection if no storage fields are set")
     void returnEmptyColumns() {
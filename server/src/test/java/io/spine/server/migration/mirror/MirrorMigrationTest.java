@@ -31,19 +31,25 @@ import io.spine.server.ContextSpec;
 import io.spine.server.migration.mirror.given.DeliveryService;
 import io.spine.server.migration.mirror.given.MemoizingMonitor;
 import io.spine.server.migration.mirror.given.MirrorToEntityRecordTestEnv;
+import io.spine.server.migration.mirror.given.Parcel;
 import io.spine.server.migration.mirror.given.ParcelAgg;
 import io.spine.server.migration.mirror.given.PreparedMirrorStorage;
 import io.spine.server.storage.StorageFactory;
 import io.spine.server.storage.memory.InMemoryStorageFactory;
+import io.spine.type.TypeUrl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
 import static com.google.common.truth.Truth.assertThat;
 import static io.spine.server.migration.mirror.given.MirrorMigrationTestEnv.assertEntityRecords;
 import static io.spine.server.migration.mirror.given.MirrorMigrationTestEnv.assertMigratedMirrors;
 import static io.spine.server.migration.mirror.given.MirrorMigrationTestEnv.assertUsedBatchSize;
 import static io.spine.server.migration.mirror.given.MirrorMigrationTestEnv.assertWithinBc;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DisplayName("`MirrorMigration` should")
 final class MirrorMigrationTest {
@@ -93,6 +99,51 @@ final class MirrorMigrationTest {
             }
         }
 
+        @Test
+        @DisplayName("in concurrently processed batches")
+        void inConcurrentBatches() {
+            var delivered = 2_175;
+            var inProgress = 3_780;
+
+            var migration = new MirrorMigration<>(context, factory, ParcelAgg.class);
+            var mirrorStorage = new PreparedMirrorStorage(migration.sourceStorage())
+                    .put(DeliveryService::generateCourier, 3_000)
+                    .put(DeliveryService::generateDeliveredParcel, delivered)
+                    .put(DeliveryService::generateInProgressParcel, inProgress)
+                    .get();
+            var batchSize = 500;
+            var monitor = new MemoizingMonitor(batchSize, 4);
+
+            migration.run(monitor);
+
+            assertWithinBc(migration.destinationStorage(), delivered, inProgress);
+            assertMigratedMirrors(mirrorStorage, delivered + inProgress);
+            assertUsedBatchSize(monitor, batchSize);
+        }
+
+        @Test
+        @DisplayName("in concurrently processed batches, one of which fails")
+        void inConcurrentBatchesWithFailure() {
+            var migration = new MirrorMigration<>(context, factory, ParcelAgg.class);
+            var mirrorStorage = new PreparedMirrorStorage(migration.sourceStorage())
+                    .put(DeliveryService::generateInProgressParcel, 1_000)
+                    .get();
+            var malformed = MirrorToEntityRecordTestEnv.mirror(DeliveryService.generateCourier())
+                    .toBuilder()
+                    .setAggregateType(TypeUrl.of(Parcel.class).value())
+                    .build();
+            mirrorStorage.writeBatch(List.of(malformed));
+            new PreparedMirrorStorage(mirrorStorage)
+                    .put(DeliveryService::generateInProgressParcel, 1_000);
+            var monitor = new MemoizingMonitor(100, 4);
+
+            var failure = assertThrows(RuntimeException.class, () -> migration.run(monitor));
+
+            assertThat(failure).isNotInstanceOf(CompletionException.class);
+            assertThat(monitor.completedSteps()).hasSize(monitor.stepStartedTimes() - 1);
+            assertThat(monitor.completedTimes()).isEqualTo(0);
+        }
+
         @Test
         @DisplayName("with deleted or archived flags")
         void withDeletedOrArchivedFlags() {
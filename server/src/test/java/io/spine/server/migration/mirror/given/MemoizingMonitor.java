@@ -50,6 +50,10 @@ public final class MemoizingMonitor extends MirrorMigrationMonitor {
         super(batchSize);
     }
 
+    public MemoizingMonitor(int batchSize, int parallelism) {
+        super(batchSize, parallelism);
+    }
+
     @Override
     public void onBatchCompleted(MirrorsMigrated step) {
         completedBatches.add(step);
@@ -26,6 +26,7 @@
 
 package io.spine.server.projection;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
@@ -45,11 +46,13 @@ import io.spine.server.entity.RecordBasedRepositoryTest;
 import io.spine.server.entity.given.Given;
 import io.spine.server.entity.storage.EntityRecordStorage;
 import io.spine.server.projection.given.EntitySubscriberProjection;
+import io.spine.server.projection.given.FailingProjectionMigration;
 import io.spine.server.projection.given.ProjectionRepositoryTestEnv.GivenEventMessage;
 import io.spine.server.projection.given.ProjectionRepositoryTestEnv.NoOpTaskNamesRepository;
 import io.spine.server.projection.given.ProjectionRepositoryTestEnv.SensoryDeprivedProjectionRepository;
 import io.spine.server.projection.given.ProjectionRepositoryTestEnv.TestProjectionRepository;
 import io.spine.server.projection.given.RandomFillProjection;
+import io.spine.server.projection.given.RememberingMigrationMonitor;
 import io.spine.server.projection.given.SetTestProjectionId;
 import io.spine.server.projection.given.SetTestProjectionName;
 import io.spine.server.projection.given.TestProjection;
@@ -615,6 +618,86 @@ class ProjectionRepositoryTest
                 .containsExactly(expectedState1, expectedState2);
     }
 
+    @Test
+    @DisplayName("update all entities via a bulk migration")
+    void performBulkMigration() {
+        var repository = repository();
+        var entityCount = 25;
+        for (var i = 0; i < entityCount; i++) {
+            repository.store(new TestProjection(createId(i)));
+        }
+        var query = queryByName(NEW_NAME);
+        assertThat(repository.find(query).hasNext()).isFalse();
+
+        var monitor = new RememberingMigrationMonitor<ProjectId>(4, 3);
+        repository.applyMigration(SetTestProjectionName::new, monitor);
+
+        var results = ImmutableList.copyOf(repository.find(query));
+        assertThat(results).hasSize(entityCount);
+        assertThat(monitor.migrated).isEqualTo(entityCount);
+        assertThat(monitor.chunks).isEqualTo(7);
+        assertThat(monitor.completed).isTrue();
+    }
+
+    @Test
+    @DisplayName("resume a bulk migration from the checkpoint")
+    void resumeBulkMigration() {
+        var repository = repository();
+        var entityCount = 25;
+        for (var i = 0; i < entityCount; i++) {
+            repository.store(new TestProjection(createId(i)));
+        }
+        var firstRun = new RememberingMigrationMonitor<ProjectId>(4, 3);
+        repository.applyMigration(RandomFillProjection::new, firstRun);
+        var checkpoint = firstRun.checkpoints.get(1);
+
+        var resumed = new RememberingMigrationMonitor<>(4, 3, checkpoint);
+        repository.applyMigration(SetTestProjectionName::new, resumed);
+
+        var skipped = 8;
+        var results = ImmutableList.copyOf(repository.find(queryByName(NEW_NAME)));
+        assertThat(results).hasSize(entityCount - skipped);
+        assertThat(resumed.migrated).isEqualTo(entityCount - skipped);
+        assertThat(resumed.checkpoints).containsExactlyElementsIn(
+                firstRun.checkpoints.subList(2, firstRun.checkpoints.size())
+        ).inOrder();
+    }
+
+    @Test
+    @DisplayName("resume a bulk migration from the checkpoint of a missing entity")
+    void resumeFromMissingCheckpoint() {
+        var repository = repository();
+        for (var i = 0; i < 10; i++) {
+            repository.store(new TestProjection(createId(i)));
+        }
+        // Goes after `test-projection-4` and before `test-projection-5`.
+        var monitor = new RememberingMigrationMonitor<>(4, 3, createId(42));
+        repository.applyMigration(SetTestProjectionName::new, monitor);
+
+        var results = ImmutableList.copyOf(repository.find(queryByName(NEW_NAME)));
+        assertThat(results).hasSize(5);
+        assertThat(monitor.migrated).isEqualTo(5);
+        assertThat(monitor.completed).isTrue();
+    }
+
+    @Test
+    @DisplayName("fail a bulk migration if a chunk fails with an error")
+    void failOnWorkerError() {
+        var repository = repository();
+        for (var i = 0; i < 10; i++) {
+            repository.store(new TestProjection(createId(i)));
+        }
+        var monitor = new RememberingMigrationMonitor<ProjectId>(2, 3);
+
+        var exception = assertThrows(
+                IllegalStateException.class,
+                () -> repository.applyMigration(FailingProjectionMigration::new, monitor)
+        );
+        assertThat(Throwables.getRootCause(exception))
+                .isInstanceOf(FailingProjectionMigration.MigrationError.class);
+        assertThat(monitor.completed).isFalse();
+    }
+
     @Test
     @DisplayName("replace the state of the migrated entity")
     void replaceState() {
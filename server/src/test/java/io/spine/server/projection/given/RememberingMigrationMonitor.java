@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.projection.given;
+
+import io.spine.server.entity.BulkMigrationMonitor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A bulk migration monitor which remembers the reported progress.
+ */
+public final class RememberingMigrationMonitor<I> extends BulkMigrationMonitor<I> {
+
+    private final @Nullable I resumeFrom;
+
+    public long migrated;
+    public int chunks;
+    public final List<I> checkpoints = new ArrayList<>();
+    public boolean completed;
+
+    public RememberingMigrationMonitor(int chunkSize, int parallelism) {
+        this(chunkSize, parallelism, null);
+    }
+
+    /**
+     * Creates a monitor which resumes the migration after the entity with the given ID.
+     */
+    public RememberingMigrationMonitor(int chunkSize, int parallelism, @Nullable I resumeFrom) {
+        super(chunkSize, parallelism);
+        this.resumeFrom = resumeFrom;
+    }
+
+    @Override
+    public Optional<I> checkpoint() {
+        return Optional.ofNullable(resumeFrom);
+    }
+
+    @Override
+    public void onChunkCompleted(I checkpoint, long migrated) {
+        this.migrated = migrated;
+        chunks++;
+        checkpoints.add(checkpoint);
+    }
+
+    @Override
+    public void onMigrationCompleted(long migrated) {
+        completed = true;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.FieldMaskUtil;
+import com.google.protobuf.util.Timestamps;
+import io.spine.base.Identifier;
+import io.spine.client.EntityStateUpdate;
+import io.spine.client.EntityUpdates;
+import io.spine.client.StateDelta;
+import io.spine.client.SubscriptionUpdate;
+import io.spine.core.Responses;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.protobuf.AnyPacker.pack;
+import static io.spine.server.stand.given.SubscriptionRecordTestEnv.subscription;
+import static java.util.concurrent.TimeUnit.HOURS;
+
+@DisplayName("`CoalescingCallback` should")
+class CoalescingCallbackTest {
+
+    /**
+     * The window long enough to never close by itself during a test.
+     */
+    private static final long WINDOW = HOURS.toMillis(1);
+
+    private final List<SubscriptionUpdate> delivered = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private CoalescingCallback callback;
+
+    @BeforeEach
+    void setUp() {
+        delivered.clear();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        callback = new CoalescingCallback(delivered::add, WINDOW, scheduler);
+    }
+
+    @AfterEach
+    void shutDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("deliver only the latest state of each entity in a single update")
+    void keepLatest() {
+        var firstOfA = stateUpdate("A");
+        var stateOfB = stateUpdate("B");
+        var latestOfA = stateUpdate("A");
+        callback.accept(update(firstOfA));
+        callback.accept(update(stateOfB));
+        callback.accept(update(latestOfA));
+        assertThat(delivered).isEmpty();
+
+        callback.flush();
+
+        assertThat(delivered).hasSize(1);
+        var updates = delivered.get(0)
+                               .getEntityUpdates()
+                               .getUpdateList();
+        assertThat(updates).containsExactly(latestOfA, stateOfB).inOrder();
+    }
+
+    @Test
+    @DisplayName("not deliver an empty update")
+    void skipEmpty() {
+        callback.flush();
+
+        assertThat(delivered).isEmpty();
+    }
+
+    @Test
+    @DisplayName("drop the accumulated states when released")
+    void release() {
+        callback.accept(update(stateUpdate("A")));
+        callback.release();
+        callback.accept(update(stateUpdate("B")));
+
+        callback.flush();
+
+        assertThat(delivered).isEmpty();
+    }
+
+    @Test
+    @DisplayName("apply a delta to the pending state of the same entity")
+    void foldDelta() {
+        var id = Identifier.pack("A");
+        var state = Timestamps.fromSeconds(1);
+        var newState = state.toBuilder()
+                            .setNanos(2)
+                            .build();
+        var delta = StateDelta.newBuilder()
+                .setChanged(FieldMaskUtil.fromFieldNumbers(Timestamp.class,
+                                                           Timestamp.NANOS_FIELD_NUMBER))
+                .setPartialState(pack(newState))
+                .build();
+        callback.accept(update(EntityStateUpdate.newBuilder()
+                                               .setId(id)
+                                               .setState(pack(state))
+                                               .build()));
+        callback.accept(update(EntityStateUpdate.newBuilder()
+                                               .setId(id)
+                                               .setDelta(delta)
+                                               .build()));
+
+        callback.flush();
+
+        var updates = delivered.get(0)
+                               .getEntityUpdates()
+                               .getUpdateList();
+        assertThat(updates).hasSize(1);
+        assertThat(updates.get(0).getState()).isEqualTo(pack(newState));
+    }
+
+    private static EntityStateUpdate stateUpdate(String entityId) {
+        return EntityStateUpdate.newBuilder()
+                .setId(Identifier.pack(entityId))
+                .setState(Identifier.pack(Identifier.newUuid()))
+                .build();
+    }
+
+    private static SubscriptionUpdate update(EntityStateUpdate stateUpdate) {
+        return SubscriptionUpdate.newBuilder()
+                .setSubscription(subscription())
+                .setResponse(Responses.ok())
+                .setEntityUpdates(EntityUpdates.newBuilder()
+                                               .addUpdate(stateUpdate))
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.client.SubscriptionUpdate;
+import io.spine.core.Event;
+import io.spine.core.EventId;
+import io.spine.server.BoundedContextBuilder;
+import io.spine.server.stand.given.AloneWaiter;
+import io.spine.server.type.EventEnvelope;
+import io.spine.test.integration.OrderId;
+import io.spine.test.integration.event.OrderPlaced;
+import io.spine.testing.client.TestActorRequestFactory;
+import io.spine.testing.server.TestEventFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.protobuf.util.Durations.fromMinutes;
+import static com.google.protobuf.util.Timestamps.subtract;
+import static io.spine.base.Time.currentTime;
+import static io.spine.server.stand.given.StandTestEnv.subscribeAndActivate;
+import static java.util.stream.Collectors.toList;
+
+@DisplayName("`EventReplay` should")
+class EventReplayTest {
+
+    private static final int EVENT_COUNT = 1_000;
+
+    @Test
+    @DisplayName("deliver each event once to a subscription activated while the events are posted")
+    void deliverOnceWhilePosting() throws InterruptedException {
+        var context = BoundedContextBuilder.assumingTests()
+                                           .addCommandDispatcher(new AloneWaiter())
+                                           .build();
+        var stand = context.stand();
+        var eventStore = context.eventBus()
+                                .eventStore();
+        var eventFactory = TestEventFactory.newInstance(EventReplayTest.class);
+        ImmutableList<Event> events = IntStream.range(0, EVENT_COUNT)
+                .mapToObj(i -> eventFactory.createEvent(orderPlaced()))
+                .collect(toImmutableList());
+        var topic = new TestActorRequestFactory(EventReplayTest.class)
+                .topic()
+                .select(OrderPlaced.class)
+                .replayAfter(subtract(currentTime(), fromMinutes(1)))
+                .build();
+        List<SubscriptionUpdate> delivered = Collections.synchronizedList(new ArrayList<>());
+        var halfPosted = new CountDownLatch(1);
+
+        // Posts the events in the order of the bus, which passes an event
+        // to the subscriptions before storing it.
+        var producer = new Thread(() -> {
+            for (var i = 0; i < events.size(); i++) {
+                var event = events.get(i);
+                stand.eventListener()
+                     .accept(EventEnvelope.of(event));
+                eventStore.append(event);
+                if (i == events.size() / 2) {
+                    halfPosted.countDown();
+                }
+            }
+        });
+        producer.start();
+        halfPosted.await();
+        subscribeAndActivate(stand, topic, delivered::add);
+        producer.join();
+
+        List<EventId> deliveredIds = deliveredIds(delivered);
+        assertThat(deliveredIds).containsNoDuplicates();
+        assertThat(deliveredIds).containsExactlyElementsIn(
+                events.stream()
+                      .map(Event::getId)
+                      .collect(toList())
+        );
+    }
+
+    private static List<EventId> deliveredIds(List<SubscriptionUpdate> updates) {
+        synchronized (updates) {
+            return updates.stream()
+                          .flatMap(update -> update.getEventUpdates()
+                                                   .getEventList()
+                                                   .stream())
+                          .map(Event::getId)
+                          .collect(toList());
+        }
+    }
+
+    private static OrderPlaced orderPlaced() {
+        return OrderPlaced.newBuilder()
+                .setId(OrderId.generate())
+                .build();
+    }
+}
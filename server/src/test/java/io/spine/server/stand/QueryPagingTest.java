@@ -0,0 +1,211 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.base.Strings;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.StringValue;
+import io.spine.client.EntityStateWithVersion;
+import io.spine.client.OrderBy;
+import io.spine.client.Query;
+import io.spine.client.QueryFactory;
+import io.spine.client.QueryResponse;
+import io.spine.grpc.MemoizingObserver;
+import io.spine.protobuf.AnyPacker;
+import io.spine.server.stand.given.ManualReadyObserver;
+import io.spine.test.stand.Menu;
+import io.spine.testing.client.TestActorRequestFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static io.spine.grpc.StreamObservers.memoizingObserver;
+import static io.spine.server.stand.QueryPaging.MAX_CHUNK_BYTES;
+
+@DisplayName("`QueryPaging` should")
+class QueryPagingTest {
+
+    private static final QueryFactory queries =
+            new TestActorRequestFactory(QueryPagingTest.class).query();
+
+    @Test
+    @DisplayName("read the results page by page following the cursor")
+    void readPages() {
+        var results = results(5, "state");
+        var query = withPaging(ordered(queries.all(Menu.class)), 2, ByteString.EMPTY);
+
+        var first = QueryPaging.page(query, results.iterator());
+        assertThat(first.getMessageList()).containsExactlyElementsIn(results.subList(0, 2));
+        assertThat(first.getNextCursor().isEmpty()).isFalse();
+
+        var second = QueryPaging.page(withPaging(query, 2, first.getNextCursor()),
+                                      results.iterator());
+        assertThat(second.getMessageList()).containsExactlyElementsIn(results.subList(2, 4));
+
+        var last = QueryPaging.page(withPaging(query, 2, second.getNextCursor()),
+                                    results.iterator());
+        assertThat(last.getMessageList()).containsExactly(results.get(4));
+        assertThat(last.getNextCursor().isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("stream the results in chunks")
+    void streamChunks() {
+        var results = results(5, "state");
+        var query = withPaging(ordered(queries.all(Menu.class)), 2, ByteString.EMPTY);
+        MemoizingObserver<QueryResponse> observer = memoizingObserver();
+
+        QueryPaging.stream(query, results.iterator(), observer, Runnable::run);
+
+        var chunks = observer.responses();
+        assertThat(chunks).hasSize(3);
+        var streamed = new ArrayList<EntityStateWithVersion>();
+        chunks.forEach(chunk -> streamed.addAll(chunk.getMessageList()));
+        assertThat(streamed).containsExactlyElementsIn(results).inOrder();
+        assertThat(chunks.get(2).getNextCursor().isEmpty()).isTrue();
+        assertThat(observer.isCompleted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("not give the cursor for the unordered results")
+    void noCursorForUnordered() {
+        var results = results(5, "state");
+        var query = withPaging(queries.all(Menu.class), 2, ByteString.EMPTY);
+
+        var page = QueryPaging.page(query, results.iterator());
+        assertThat(page.getMessageList()).hasSize(2);
+        assertThat(page.getNextCursor().isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("stream the chunks only while the observer is ready")
+    void streamWhileReady() {
+        var results = results(5, "state");
+        var query = withPaging(ordered(queries.all(Menu.class)), 2, ByteString.EMPTY);
+        var observer = new ManualReadyObserver<QueryResponse>();
+
+        QueryPaging.stream(query, results.iterator(), observer, Runnable::run);
+        assertThat(observer.responses()).isEmpty();
+
+        observer.readyFor(1);
+        assertThat(observer.responses()).hasSize(1);
+        assertThat(observer.isCompleted()).isFalse();
+
+        observer.readyFor(5);
+        var streamed = new ArrayList<EntityStateWithVersion>();
+        observer.responses()
+                .forEach(chunk -> streamed.addAll(chunk.getMessageList()));
+        assertThat(streamed).containsExactlyElementsIn(results).inOrder();
+        assertThat(observer.isCompleted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("stream an empty result as a single empty chunk")
+    void streamEmpty() {
+        MemoizingObserver<QueryResponse> observer = memoizingObserver();
+
+        QueryPaging.stream(queries.all(Menu.class), List.<EntityStateWithVersion>of().iterator(),
+                           observer, Runnable::run);
+
+        assertThat(observer.responses()).hasSize(1);
+        assertThat(observer.firstResponse().getMessageList()).isEmpty();
+        assertThat(observer.isCompleted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("limit the serialized size of a chunk")
+    void limitChunkSize() {
+        var largeValue = Strings.repeat("x", MAX_CHUNK_BYTES / 3);
+        var results = results(4, largeValue);
+        MemoizingObserver<QueryResponse> observer = memoizingObserver();
+
+        QueryPaging.stream(queries.all(Menu.class), results.iterator(), observer, Runnable::run);
+
+        var chunks = observer.responses();
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0).getMessageCount()).isEqualTo(2);
+        assertThat(chunks.get(1).getMessageCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("reject a cursor obtained for another query")
+    void rejectForeignCursor() {
+        var results = results(3, "state");
+        var query = withPaging(ordered(queries.all(Menu.class)), 1, ByteString.EMPTY);
+        var cursor = QueryPaging.page(query, results.iterator())
+                                .getNextCursor();
+
+        assertThat(QueryPaging.checkCursor(withPaging(query, 5, cursor))).isEmpty();
+        var otherFormat = query.getFormat()
+                               .toBuilder()
+                               .setFieldMask(FieldMask.newBuilder().addPaths("id"));
+        var other = query.toBuilder()
+                         .setFormat(otherFormat)
+                         .build();
+        assertThat(QueryPaging.checkCursor(other)).isPresent();
+        var malformed = withPaging(query, 1, ByteString.copyFromUtf8("garbage"));
+        assertThat(QueryPaging.checkCursor(malformed)).isPresent();
+    }
+
+    private static Query ordered(Query query) {
+        var orderBy = OrderBy.newBuilder()
+                .setColumn("uuid")
+                .setDirection(OrderBy.Direction.ASCENDING);
+        var format = query.getFormat()
+                          .toBuilder()
+                          .addOrderBy(orderBy);
+        return query.toBuilder()
+                    .setFormat(format)
+                    .build();
+    }
+
+    private static Query withPaging(Query query, int pageSize, ByteString cursor) {
+        var format = query.getFormat()
+                          .toBuilder()
+                          .setPageSize(pageSize)
+                          .setCursor(cursor);
+        return query.toBuilder()
+                    .setFormat(format)
+                    .build();
+    }
+
+    private static List<EntityStateWithVersion> results(int count, String value) {
+        var result = new ArrayList<EntityStateWithVersion>();
+        for (var i = 0; i < count; i++) {
+            var state = StringValue.of(value + i);
+            result.add(EntityStateWithVersion.newBuilder()
+                               .setState(AnyPacker.pack(state))
+                               .build());
+        }
+        return result;
+    }
+}
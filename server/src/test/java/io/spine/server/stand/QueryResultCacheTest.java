@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.client.EntityStateWithVersion;
+import io.spine.client.QueryFactory;
+import io.spine.core.Version;
+import io.spine.test.aggregate.AggProject;
+import io.spine.testing.client.TestActorRequestFactory;
+import io.spine.testing.core.given.GivenUserId;
+import io.spine.type.TypeUrl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.server.stand.given.SubscriptionRecordTestEnv.OTHER_TYPE;
+
+@DisplayName("`QueryResultCache` should")
+class QueryResultCacheTest {
+
+    private static final TypeUrl PROJECT_TYPE = TypeUrl.of(AggProject.class);
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private final Supplier<ImmutableList<EntityStateWithVersion>> reader = () -> {
+        reads.incrementAndGet();
+        return ImmutableList.of(EntityStateWithVersion.getDefaultInstance());
+    };
+
+    private QueryResultCache cache;
+
+    @BeforeEach
+    void createCache() {
+        reads.set(0);
+        cache = new QueryResultCache(100, false);
+    }
+
+    @Test
+    @DisplayName("serve the identical queries of different actors from the cache")
+    void serveCached() {
+        cache.get(queries("first").all(AggProject.class), reader);
+        cache.get(queries("second").all(AggProject.class), reader);
+
+        assertThat(reads.get()).isEqualTo(1);
+        var stats = cache.stats();
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("read the result again after the entities of the queried type are written")
+    void invalidateOnWrite() {
+        var query = queries("actor").all(AggProject.class);
+        cache.get(query, reader);
+
+        cache.invalidate(PROJECT_TYPE);
+        cache.get(query, reader);
+
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("keep the result when the entities of another type are written")
+    void keepOnOtherTypeWrite() {
+        var query = queries("actor").all(AggProject.class);
+        cache.get(query, reader);
+
+        cache.invalidate(OTHER_TYPE);
+        cache.get(query, reader);
+
+        assertThat(reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("not serve the result read after the change is posted but before it is written")
+    void notServeReadBeforeWrite() {
+        var storage = new AtomicReference<>(stateWithVersion(1));
+        Supplier<ImmutableList<EntityStateWithVersion>> storageReader =
+                () -> ImmutableList.of(storage.get());
+        var query = queries("actor").all(AggProject.class);
+
+        // The entity is changed, and the lifecycle event is posted, but the entity
+        // is not yet written. A query run at this moment reads the previous state.
+        var beforeWrite = cache.get(query, storageReader);
+        assertThat(beforeWrite).containsExactly(stateWithVersion(1));
+
+        storage.set(stateWithVersion(2));
+        cache.invalidate(PROJECT_TYPE);
+
+        var afterWrite = cache.get(query, storageReader);
+        assertThat(afterWrite).containsExactly(stateWithVersion(2));
+    }
+
+    @Test
+    @DisplayName("not serve the result read concurrently with a write after it completes")
+    void notServeReadDuringWrite() {
+        var storage = new AtomicReference<>(stateWithVersion(1));
+        var query = queries("actor").all(AggProject.class);
+
+        var duringWrite = cache.get(query, () -> {
+            var previous = storage.get();
+            storage.set(stateWithVersion(2));
+            cache.invalidate(PROJECT_TYPE);
+            return ImmutableList.of(previous);
+        });
+        assertThat(duringWrite).containsExactly(stateWithVersion(1));
+
+        var afterWrite = cache.get(query, () -> ImmutableList.of(storage.get()));
+        assertThat(afterWrite).containsExactly(stateWithVersion(2));
+    }
+
+    private static EntityStateWithVersion stateWithVersion(int number) {
+        return EntityStateWithVersion.newBuilder()
+                .setVersion(newVersion(number, currentTime()))
+                .buildPartial();
+    }
+
+    private static QueryFactory queries(String actor) {
+        return new TestActorRequestFactory(GivenUserId.of(actor)).query();
+    }
+}
@@ -63,6 +63,24 @@ class QueryValidatorTest {
         assertThrows(InvalidRequestException.class, () -> validator.validate(query));
     }
 
+    @Test
+    @DisplayName("not allow `page_size` without `order_by`")
+    void pageSize() {
+        var format = ResponseFormat.newBuilder()
+                .setPageSize(42)
+                .build();
+        var query = Query.newBuilder()
+                .setContext(buildActorContext())
+                .setId(queryId())
+                .setTarget(buildTarget())
+                .setFormat(format)
+                .build();
+        var typeRegistry = InMemoryTypeRegistry.newInstance();
+        typeRegistry.register(new MenuRepository());
+        var validator = new QueryValidator(typeRegistry);
+        assertThrows(InvalidRequestException.class, () -> validator.validate(query));
+    }
+
     private static ActorContext buildActorContext() {
         return ActorContext.newBuilder()
                 .setActor(userId())
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import io.spine.client.EventUpdates;
+import io.spine.client.SubscriptionUpdate;
+import io.spine.core.Event;
+import io.spine.core.EventId;
+import io.spine.core.Responses;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.base.Identifier.newUuid;
+import static io.spine.server.stand.given.SubscriptionRecordTestEnv.subscription;
+
+@DisplayName("`ReplayingCallback` should")
+class ReplayingCallbackTest {
+
+    private final List<SubscriptionUpdate> delivered = new ArrayList<>();
+    private ReplayingCallback callback;
+
+    @BeforeEach
+    void setUp() {
+        delivered.clear();
+        callback = new ReplayingCallback(delivered::add);
+    }
+
+    @Test
+    @DisplayName("deliver the new events after the replayed ones")
+    void bufferDuringReplay() {
+        var stored = update(newUuid());
+        var fresh = update(newUuid());
+
+        callback.accept(fresh);
+        callback.replay(stored);
+        assertThat(delivered).containsExactly(stored);
+
+        callback.goLive();
+        assertThat(delivered).containsExactly(stored, fresh).inOrder();
+    }
+
+    @Test
+    @DisplayName("not deliver the event both replayed and received as new")
+    void deduplicate() {
+        var id = newUuid();
+        var asNew = update(id);
+        var asStored = update(id);
+
+        callback.accept(asNew);
+        callback.replay(asStored);
+        callback.goLive();
+
+        assertThat(delivered).containsExactly(asStored);
+    }
+
+    @Test
+    @DisplayName("not deliver the event received as new after it is replayed")
+    void deduplicateAfterReplay() {
+        var id = newUuid();
+        var asStored = update(id);
+        var asNew = update(id);
+
+        callback.replay(asStored);
+        callback.accept(asNew);
+        callback.goLive();
+
+        assertThat(delivered).containsExactly(asStored);
+    }
+
+    @Test
+    @DisplayName("not deliver the event replayed twice")
+    void replayOnce() {
+        var id = newUuid();
+
+        callback.replay(update(id));
+        callback.replay(update(id));
+
+        assertThat(delivered).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("deliver the new events directly once live")
+    void deliverLive() {
+        callback.goLive();
+        var fresh = update(newUuid());
+
+        callback.accept(fresh);
+
+        assertThat(delivered).containsExactly(fresh);
+    }
+
+    private static SubscriptionUpdate update(String eventId) {
+        var event = Event.newBuilder()
+                .setId(EventId.newBuilder().setValue(eventId))
+                .buildPartial();
+        return SubscriptionUpdate.newBuilder()
+                .setSubscription(subscription())
+                .setResponse(Responses.ok())
+                .setEventUpdates(EventUpdates.newBuilder()
+                                             .addEvent(event))
+                .build();
+    }
+}
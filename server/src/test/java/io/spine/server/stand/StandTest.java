@@ -40,6 +40,7 @@ import io.spine.client.Targets;
 import io.spine.client.Topic;
 import io.spine.client.TopicId;
 import io.spine.core.Event;
+import io.spine.grpc.MemoizingObserver;
 import io.spine.protobuf.AnyPacker;
 import io.spine.server.BoundedContextBuilder;
 import io.spine.server.Given.CustomerAggregate;
@@ -83,6 +84,7 @@ import static io.spine.client.QueryValidationError.INVALID_QUERY;
 import static io.spine.client.QueryValidationError.UNSUPPORTED_QUERY_TARGET;
 import static io.spine.client.TopicValidationError.INVALID_TOPIC;
 import static io.spine.client.TopicValidationError.UNSUPPORTED_TOPIC_TARGET;
+import static io.spine.grpc.StreamObservers.memoizingObserver;
 import static io.spine.grpc.StreamObservers.noOpObserver;
 import static io.spine.protobuf.AnyPacker.unpack;
 import static io.spine.protobuf.Messages.isNotDefault;
@@ -473,6 +475,39 @@ class StandTest extends TenantAwareTest {
         assertEquals(newHashSet(sampleCustomers), callbackStates);
     }
 
+    @Test
+    @DisplayName("release the update queue of the rejected subscription")
+    void releaseRejected() {
+        var limits = SubscriptionLimits.newBuilder()
+                .setMaxActivePerTenant(1)
+                .build();
+        var fanOut = SubscriptionFanOut.newBuilder()
+                .setExecutor(Runnable::run)
+                .build();
+        var stand = Stand.newBuilder()
+                .setMultitenant(isMultitenant())
+                .setSubscriptionLimits(limits)
+                .setFanOut(fanOut)
+                .build();
+        var repository = new CustomerAggregateRepository();
+        BoundedContextBuilder.assumingTests()
+                             .add(repository)
+                             .build();
+        stand.registerTypeSupplier(repository);
+        var allCustomers = requestFactory.topic().allOf(Customer.class);
+        var active = subscribeAndActivate(stand, allCustomers, new MemoizeSubscriptionCallback());
+
+        MemoizingObserver<Subscription> observer = memoizingObserver();
+        stand.subscribe(allCustomers, observer);
+        var rejected = observer.firstResponse();
+        assertThrows(InvalidSubscriptionException.class,
+                     () -> stand.activate(rejected, new MemoizeSubscriptionCallback(),
+                                          noOpObserver()));
+
+        assertThat(stand.queueStats(active.getId())).isPresent();
+        assertThat(stand.queueStats(rejected.getId())).isEmpty();
+    }
+
     @Test
     @DisplayName("allow cancelling subscriptions")
     void cancelSubscriptions() {
@@ -579,6 +614,40 @@ class StandTest extends TenantAwareTest {
         return callback;
     }
 
+    @Test
+    @DisplayName("serve cached query results until the queried entities are stored")
+    void serveCachedUntilStored() {
+        var repository = new StandTestProjectionRepository();
+        var stand = BoundedContextBuilder.assumingTests(isMultitenant())
+                                         .cacheQueryResults(100)
+                                         .add(repository)
+                                         .build()
+                                         .stand();
+        var id = projectIdFor(1);
+        storeSampleProject(repository, id, "Before", 1);
+        var query = Project.query()
+                           .build(transformWith(getRequestFactory().query()));
+
+        assertThat(readProjectName(stand, query)).isEqualTo("Before");
+        assertThat(readProjectName(stand, query)).isEqualTo("Before");
+
+        storeSampleProject(repository, id, "After", 2);
+        assertThat(readProjectName(stand, query)).isEqualTo("After");
+
+        var stats = stand.queryCacheStats();
+        assertThat(stats).isPresent();
+        assertThat(stats.get().hitCount()).isEqualTo(1);
+    }
+
+    private static String readProjectName(Stand stand, Query query) {
+        var observer = new MemoizeQueryResponseObserver();
+        stand.execute(query, observer);
+        checkAndGetMessageList(observer);
+        var project = (Project) observer.responseHandled()
+                                        .state(0);
+        return project.getName();
+    }
+
     @Test
     @DisplayName("query `AggregateRepository` for aggregate states")
     void readAggregates() {
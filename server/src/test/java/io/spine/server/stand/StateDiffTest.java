@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.protobuf.util.Timestamps;
+import io.spine.base.Identifier;
+import io.spine.client.StateDeltas;
+import io.spine.test.aggregate.AggProject;
+import io.spine.test.aggregate.ProjectId;
+import io.spine.test.aggregate.Status;
+import io.spine.test.aggregate.task.AggTask;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+
+@DisplayName("`StateDiff` should")
+class StateDiffTest {
+
+    @Test
+    @DisplayName("describe a changed field with a delta smaller than the state")
+    void changedField() {
+        var before = project();
+        var after = before.toBuilder()
+                          .setStatus(Status.STARTED)
+                          .build();
+
+        var delta = StateDiff.between(before, after).orElseThrow();
+
+        assertThat(delta.getChanged().getPathsList()).containsExactly("status");
+        assertThat(delta.getSerializedSize()).isLessThan(after.getSerializedSize());
+        assertThat(StateDeltas.apply(before, delta)).isEqualTo(after);
+    }
+
+    @Test
+    @DisplayName("point to the nested field changed in a message field")
+    void nestedField() {
+        var before = project();
+        var after = before.toBuilder()
+                          .setLastModified(Timestamps.fromSeconds(100))
+                          .build();
+
+        var delta = StateDiff.between(before, after).orElseThrow();
+
+        assertThat(delta.getChanged().getPathsList()).containsExactly("last_modified.seconds");
+        assertThat(StateDeltas.apply(before, delta)).isEqualTo(after);
+    }
+
+    @Test
+    @DisplayName("clear the fields unset in the new state")
+    void clearedField() {
+        var before = project();
+        var after = before.toBuilder()
+                          .clearLastModified()
+                          .build();
+
+        var delta = StateDiff.between(before, after).orElseThrow();
+
+        assertThat(StateDeltas.apply(before, delta)).isEqualTo(after);
+    }
+
+    @Test
+    @DisplayName("not produce a delta for states of different types")
+    void differentTypes() {
+        var project = project();
+        var task = AggTask.getDefaultInstance();
+
+        assertThat(StateDiff.between(project, task)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("not produce a delta not smaller than the state")
+    void notSmaller() {
+        var before = AggProject.getDefaultInstance();
+        var after = AggProject.newBuilder()
+                .setViewCount(1)
+                .buildPartial();
+
+        assertThat(StateDiff.between(before, after)).isEmpty();
+    }
+
+    private static AggProject project() {
+        var id = ProjectId.newBuilder()
+                .setUuid(Identifier.newUuid())
+                .build();
+        return AggProject.newBuilder()
+                .setId(id)
+                .setName("A project with a reasonably long name to outweigh the delta")
+                .setStatus(Status.CREATED)
+                .setLastModified(Timestamps.fromSeconds(42))
+                .setViewCount(7)
+                .build();
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import io.spine.client.Filters;
+import io.spine.client.Subscription;
+import io.spine.client.SubscriptionUpdate;
+import io.spine.test.aggregate.AggProject;
+import io.spine.test.aggregate.ProjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.client.Targets.composeTarget;
+import static io.spine.server.stand.SubscriptionRecord.ENTITY_STATE_CHANGED;
+import static io.spine.server.stand.given.SubscriptionRecordTestEnv.projectId;
+import static io.spine.server.stand.given.SubscriptionRecordTestEnv.projectWithName;
+import static io.spine.server.stand.given.SubscriptionRecordTestEnv.stateChangedEnvelope;
+import static io.spine.server.stand.given.SubscriptionRecordTestEnv.subscription;
+import static java.util.Collections.singleton;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`TenantSubscriptionRegistry` should")
+class TenantSubscriptionRegistryTest {
+
+    private static final AggProject EMPTY_PRJ = AggProject.getDefaultInstance();
+
+    private TenantSubscriptionRegistry registry;
+
+    @BeforeEach
+    void createRegistry() {
+        registry = new TenantSubscriptionRegistry();
+    }
+
+    @Test
+    @DisplayName("report the entity subscriptions under the `EntityStateChanged` type")
+    void hasEntityType() {
+        assertThat(registry.hasType(ENTITY_STATE_CHANGED)).isFalse();
+
+        var subscription = subscription();
+        registry.add(subscription);
+        assertThat(registry.hasType(ENTITY_STATE_CHANGED)).isTrue();
+        assertThat(registry.byType(ENTITY_STATE_CHANGED)).hasSize(1);
+
+        registry.remove(subscription);
+        assertThat(registry.hasType(ENTITY_STATE_CHANGED)).isFalse();
+        assertThat(registry.byType(ENTITY_STATE_CHANGED)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deliver an entity change only to the subscriptions to its ID")
+    void deliverById() {
+        var id = projectId("first");
+        var otherId = projectId("second");
+        var toAll = activate(subscription());
+        var toThis = activate(subscription(id));
+        var toOther = activate(subscription(otherId));
+
+        registry.update(stateChangedEnvelope(id, EMPTY_PRJ, EMPTY_PRJ));
+
+        assertThat(toAll).hasSize(1);
+        assertThat(toThis).hasSize(1);
+        assertThat(toOther).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deliver the same outcome to the subscriptions with the same filters")
+    void shareFilters() {
+        var name = "shared";
+        var id = projectId("filtered");
+        var first = activate(byName(id, name));
+        var second = activate(byName(id, name));
+        var other = activate(byName(id, "other"));
+
+        registry.update(stateChangedEnvelope(id, EMPTY_PRJ, projectWithName(name)));
+        assertThat(first).hasSize(1);
+        assertThat(second).hasSize(1);
+        assertThat(other).isEmpty();
+
+        registry.update(stateChangedEnvelope(id, projectWithName(name), EMPTY_PRJ));
+        assertThat(first).hasSize(2);
+        assertThat(second).hasSize(2);
+        assertThat(noLongerMatching(first.get(1))).isTrue();
+        assertThat(noLongerMatching(second.get(1))).isTrue();
+        assertThat(other).isEmpty();
+    }
+
+    @Test
+    @DisplayName("not deliver updates to the removed subscriptions")
+    void notDeliverToRemoved() {
+        var id = projectId("removed");
+        var subscription = subscription(id);
+        var updates = activate(subscription);
+        registry.remove(subscription);
+
+        registry.update(stateChangedEnvelope(id, EMPTY_PRJ, EMPTY_PRJ));
+
+        assertThat(updates).isEmpty();
+    }
+
+    @Test
+    @DisplayName("not deliver updates to the inactive subscriptions")
+    void notDeliverToInactive() {
+        var id = projectId("inactive");
+        registry.add(subscription(id));
+
+        registry.update(stateChangedEnvelope(id, EMPTY_PRJ, EMPTY_PRJ));
+
+        assertThat(registry.byType(ENTITY_STATE_CHANGED)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("find the subscription by its ID")
+    void findById() {
+        var subscription = subscription();
+        registry.add(subscription);
+        var sameId = subscription.toBuilder()
+                                 .setTopic(subscription().getTopic())
+                                 .build();
+
+        assertThat(registry.containsId(sameId.getId())).isTrue();
+        registry.remove(sameId);
+        assertThat(registry.containsId(subscription.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("remove the subscriptions by their IDs at once")
+    void removeAll() {
+        var first = subscription();
+        var second = subscription();
+        var kept = subscription();
+        var unknown = subscription();
+        registry.add(first);
+        registry.add(second);
+        registry.add(kept);
+
+        var removed = registry.removeAll(
+                List.of(first.getId(), second.getId(), unknown.getId())
+        );
+
+        assertThat(removed).containsExactly(first, second);
+        assertThat(registry.containsId(kept.getId())).isTrue();
+        assertThat(registry.byType(ENTITY_STATE_CHANGED)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("reject the activation over the limit of active subscriptions")
+    void limitActive() {
+        registry = new TenantSubscriptionRegistry(1, null);
+        var first = subscription();
+        var second = subscription();
+        activate(first);
+        registry.add(second);
+
+        assertThrows(InvalidSubscriptionException.class,
+                     () -> registry.activate(second, update -> {}));
+
+        registry.remove(first);
+        registry.activate(second, update -> {});
+        var stats = registry.stats();
+        assertThat(stats.active()).isEqualTo(1);
+        assertThat(stats.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("expire only the subscriptions which are not activated")
+    void expireInactive() {
+        var inactive = subscription();
+        var active = subscription();
+        registry.add(inactive);
+        activate(active);
+
+        registry.expireIfInactive(inactive.getId());
+        registry.expireIfInactive(active.getId());
+
+        assertThat(registry.containsId(inactive.getId())).isFalse();
+        assertThat(registry.containsId(active.getId())).isTrue();
+        var stats = registry.stats();
+        assertThat(stats.registered()).isEqualTo(1);
+        assertThat(stats.expired()).isEqualTo(1);
+    }
+
+    private List<SubscriptionUpdate> activate(Subscription subscription) {
+        var updates = new ArrayList<SubscriptionUpdate>();
+        registry.add(subscription);
+        registry.activate(subscription, updates::add);
+        return updates;
+    }
+
+    private static Subscription byName(ProjectId id, String name) {
+        var filters = singleton(Filters.all(Filters.eq("name", name)));
+        var target = composeTarget(AggProject.class, singleton(id), filters);
+        return subscription(target);
+    }
+
+    private static boolean noLongerMatching(SubscriptionUpdate update) {
+        return update.getEntityUpdates()
+                     .getUpdate(0)
+                     .getNoLongerMatching();
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand;
+
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.FieldMaskUtil;
+import com.google.protobuf.util.Timestamps;
+import io.grpc.Status;
+import io.spine.base.Identifier;
+import io.spine.client.EntityStateUpdate;
+import io.spine.client.EntityUpdates;
+import io.spine.client.StateDelta;
+import io.spine.client.Subscription;
+import io.spine.client.SubscriptionUpdate;
+import io.spine.core.Responses;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.protobuf.AnyPacker.pack;
+import static io.spine.server.stand.given.SubscriptionRecordTestEnv.subscription;
+
+@DisplayName("`UpdateQueue` should")
+class UpdateQueueTest {
+
+    private static final int CAPACITY = 2;
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final List<SubscriptionUpdate> delivered = new ArrayList<>();
+    private final List<Subscription> cancelled = new ArrayList<>();
+    private final List<Throwable> cancellationCauses = new ArrayList<>();
+    private final SubscriptionCallback subscriber = new SubscriptionCallback() {
+        @Override
+        public void accept(SubscriptionUpdate update) {
+            delivered.add(update);
+        }
+
+        @Override
+        public void onCancelled(Throwable cause) {
+            cancellationCauses.add(cause);
+        }
+    };
+
+    private Subscription subscription;
+
+    @BeforeEach
+    void setUp() {
+        tasks.clear();
+        delivered.clear();
+        cancelled.clear();
+        cancellationCauses.clear();
+        subscription = subscription();
+    }
+
+    @Test
+    @DisplayName("deliver the updates in order by the executor")
+    void deliverByExecutor() {
+        var queue = queue(OverflowPolicy.DROP_OLDEST);
+        var first = update("first");
+        var second = update("second");
+        queue.accept(first);
+        queue.accept(second);
+
+        assertThat(delivered).isEmpty();
+        assertThat(queue.stats().pending()).isEqualTo(2);
+        assertThat(tasks).hasSize(1);
+
+        runTasks();
+        assertThat(delivered).containsExactly(first, second).inOrder();
+        var stats = queue.stats();
+        assertThat(stats.pending()).isEqualTo(0);
+        assertThat(stats.delivered()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("drop the oldest update on overflow")
+    void dropOldest() {
+        var queue = queue(OverflowPolicy.DROP_OLDEST);
+        var second = update("second");
+        var third = update("third");
+        queue.accept(update("first"));
+        queue.accept(second);
+        queue.accept(third);
+
+        assertThat(queue.stats().dropped()).isEqualTo(1);
+        runTasks();
+        assertThat(delivered).containsExactly(second, third).inOrder();
+    }
+
+    @Test
+    @DisplayName("replace the pending update of the same entity on overflow")
+    void coalesce() {
+        var queue = queue(OverflowPolicy.COALESCE);
+        var other = update("other");
+        var latest = update("same");
+        queue.accept(update("same"));
+        queue.accept(other);
+        queue.accept(latest);
+
+        var stats = queue.stats();
+        assertThat(stats.coalesced()).isEqualTo(1);
+        assertThat(stats.dropped()).isEqualTo(0);
+        runTasks();
+        assertThat(delivered).containsExactly(latest, other).inOrder();
+    }
+
+    @Test
+    @DisplayName("fold the dropped delta into the next update of the same entity")
+    void foldDroppedDelta() {
+        subscription = withDeltas(subscription);
+        var queue = queue(OverflowPolicy.DROP_OLDEST);
+        var other = update("other");
+        queue.accept(deltaUpdate("same", Timestamp.SECONDS_FIELD_NUMBER));
+        queue.accept(other);
+        queue.accept(deltaUpdate("same", Timestamp.NANOS_FIELD_NUMBER));
+
+        assertThat(queue.stats().dropped()).isEqualTo(1);
+        runTasks();
+        assertThat(delivered).hasSize(2);
+        assertThat(delivered.get(0)).isEqualTo(other);
+        assertThat(changedPaths(delivered.get(1))).containsExactly("seconds", "nanos");
+    }
+
+    @Test
+    @DisplayName("fold the replaced delta into the replacing one")
+    void foldReplacedDelta() {
+        subscription = withDeltas(subscription);
+        var queue = queue(OverflowPolicy.COALESCE);
+        var other = update("other");
+        queue.accept(deltaUpdate("same", Timestamp.SECONDS_FIELD_NUMBER));
+        queue.accept(other);
+        queue.accept(deltaUpdate("same", Timestamp.NANOS_FIELD_NUMBER));
+
+        assertThat(queue.stats().coalesced()).isEqualTo(1);
+        runTasks();
+        assertThat(delivered).hasSize(2);
+        assertThat(changedPaths(delivered.get(0))).containsExactly("seconds", "nanos");
+        assertThat(delivered.get(1)).isEqualTo(other);
+    }
+
+    @Test
+    @DisplayName("cancel the subscription on overflow")
+    void cancel() {
+        var queue = queue(OverflowPolicy.CANCEL);
+        queue.accept(update("first"));
+        queue.accept(update("second"));
+        queue.accept(update("third"));
+
+        assertThat(cancelled).containsExactly(subscription);
+        assertThat(queue.stats().dropped()).isEqualTo(3);
+        assertThat(cancellationCauses).hasSize(1);
+        assertThat(Status.fromThrowable(cancellationCauses.get(0))
+                         .getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+
+        queue.accept(update("fourth"));
+        runTasks();
+        assertThat(delivered).isEmpty();
+    }
+
+    @Test
+    @DisplayName("not deliver updates after being released")
+    void release() {
+        var queue = queue(OverflowPolicy.DROP_OLDEST);
+        queue.accept(update("first"));
+        queue.release();
+        queue.accept(update("second"));
+
+        runTasks();
+        assertThat(delivered).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deliver the updates in the current thread if the executor rejects them")
+    void deliverIfRejected() {
+        var settings = SubscriptionFanOut.newBuilder()
+                .setExecutor(task -> {
+                    throw new RejectedExecutionException("The executor is shut down.");
+                })
+                .setQueueCapacity(CAPACITY)
+                .build();
+        var queue = new UpdateQueue(subscription, subscriber, settings, cancelled::add);
+        var first = update("first");
+        var second = update("second");
+        queue.accept(first);
+        queue.accept(second);
+
+        assertThat(delivered).containsExactly(first, second).inOrder();
+        assertThat(queue.stats().pending()).isEqualTo(0);
+    }
+
+    private UpdateQueue queue(OverflowPolicy policy) {
+        var settings = SubscriptionFanOut.newBuilder()
+                .setExecutor(tasks::add)
+                .setQueueCapacity(CAPACITY)
+                .setOverflowPolicy(policy)
+                .build();
+        return new UpdateQueue(subscription, subscriber, settings, cancelled::add);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.poll()
+                 .run();
+        }
+    }
+
+    private static Subscription withDeltas(Subscription subscription) {
+        var topic = subscription.getTopic()
+                                .toBuilder()
+                                .setDeltaUpdates(true);
+        return subscription.toBuilder()
+                           .setTopic(topic)
+                           .build();
+    }
+
+    /**
+     * Creates an update with the delta of a {@code Timestamp} state, which changes
+     * the field with the passed number.
+     */
+    private SubscriptionUpdate deltaUpdate(String entityId, int changedField) {
+        var delta = StateDelta.newBuilder()
+                .setChanged(FieldMaskUtil.fromFieldNumbers(Timestamp.class, changedField))
+                .setPartialState(pack(Timestamps.fromSeconds(1)))
+                .build();
+        var stateUpdate = EntityStateUpdate.newBuilder()
+                .setId(Identifier.pack(entityId))
+                .setDelta(delta);
+        return SubscriptionUpdate.newBuilder()
+                .setSubscription(subscription)
+                .setResponse(Responses.ok())
+                .setEntityUpdates(EntityUpdates.newBuilder()
+                                               .addUpdate(stateUpdate))
+                .build();
+    }
+
+    private static List<String> changedPaths(SubscriptionUpdate update) {
+        return update.getEntityUpdates()
+                     .getUpdate(0)
+                     .getDelta()
+                     .getChanged()
+                     .getPathsList();
+    }
+
+    private SubscriptionUpdate update(String entityId) {
+        var stateUpdate = EntityStateUpdate.newBuilder()
+                .setId(Identifier.pack(entityId))
+                .setState(Identifier.pack(Identifier.newUuid()));
+        return SubscriptionUpdate.newBuilder()
+                .setSubscription(subscription)
+                .setResponse(Responses.ok())
+                .setEntityUpdates(EntityUpdates.newBuilder()
+                                               .addUpdate(stateUpdate))
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.stand.given;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A server call observer, which is ready to accept a given number of messages at a time.
+ *
+ * <p>Once the messages are {@linkplain #readyFor(int) requested} by the test, the observer
+ * gets ready and calls the on-ready handler, as a gRPC transport does.
+ *
+ * @param <T>
+ *         the type of the observed messages
+ */
+public final class ManualReadyObserver<T> extends ServerCallStreamObserver<T> {
+
+    private final List<T> responses = new ArrayList<>();
+    private @Nullable Runnable onReadyHandler;
+    private int demand;
+    private boolean completed;
+
+    /**
+     * Makes the observer ready to accept the passed number of messages.
+     */
+    public void readyFor(int messages) {
+        demand += messages;
+        if (onReadyHandler != null) {
+            onReadyHandler.run();
+        }
+    }
+
+    public List<T> responses() {
+        return responses;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public boolean isReady() {
+        return demand > 0;
+    }
+
+    @Override
+    public void setOnReadyHandler(Runnable onReadyHandler) {
+        this.onReadyHandler = onReadyHandler;
+    }
+
+    @Override
+    public void onNext(T value) {
+        demand--;
+        responses.add(value);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        throw new AssertionError(t);
+    }
+
+    @Override
+    public void onCompleted() {
+        completed = true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public void setOnCancelHandler(Runnable onCancelHandler) {
+        // Not cancelled in tests.
+    }
+
+    @Override
+    public void setCompression(String compression) {
+        // No compression in tests.
+    }
+
+    @Override
+    public void disableAutoInboundFlowControl() {
+        // No inbound messages in tests.
+    }
+
+    @Override
+    public void request(int count) {
+        // No inbound messages in tests.
+    }
+
+    @Override
+    public void setMessageCompression(boolean enable) {
+        // No compression in tests.
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.query.RecordQuery;
+import io.spine.server.ContextSpec;
+import io.spine.server.storage.given.StgProjectStorage;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+import io.spine.server.tenant.TenantAwareRunner;
+import io.spine.test.storage.StgProject;
+import io.spine.test.storage.StgProjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static io.spine.base.Time.currentTime;
+import static io.spine.server.storage.given.GivenStorageProject.newState;
+import static io.spine.server.storage.given.RecordStorageDelegateTestEnv.coupleOfDone;
+import static io.spine.server.storage.given.RecordStorageDelegateTestEnv.generateId;
+import static io.spine.server.storage.given.StgColumn.status;
+import static io.spine.test.storage.StgProject.Status.DONE;
+import static io.spine.testing.core.given.GivenTenantId.generate;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`AsyncRecordStorage` should")
+class AsyncRecordStorageTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void createExecutor() {
+        executor = newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void shutDownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Nested
+    @DisplayName("adapt a blocking storage, and")
+    class AdaptBlocking {
+
+        @Test
+        @DisplayName("write and read records via the executor")
+        void writeAndRead() {
+            var context = ContextSpec.singleTenant("Async single-tenant");
+            var storage = new StgProjectStorage(context, InMemoryStorageFactory.newInstance());
+            var async = new AsyncRecordStorageAdapter<>(storage, executor);
+            var id = generateId();
+            var project = newState(id);
+
+            async.write(RecordWithColumns.create(project, storage.recordSpec()))
+                 .join();
+
+            assertThat(async.read(id).join()).hasValue(project);
+            assertThat(async.readAll(ImmutableList.of(id)).join()).containsExactly(project);
+            assertThat(async.delete(id).join()).isTrue();
+            assertThat(storage.read(id)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("perform operations for the tenant current at the moment of the call")
+        void captureTenant() {
+            var context = ContextSpec.multitenant("Async multitenant");
+            var storage = new StgProjectStorage(context, InMemoryStorageFactory.newInstance());
+            var async = new AsyncRecordStorageAdapter<>(storage, executor);
+            var id = generateId();
+            var project = newState(id);
+            var tenant = generate();
+
+            TenantAwareRunner.with(tenant).run(
+                    () -> async.write(RecordWithColumns.create(project, storage.recordSpec()))
+                               .join()
+            );
+
+            var found = TenantAwareRunner.with(tenant)
+                                         .evaluate(() -> storage.read(id));
+            var foundByOther = TenantAwareRunner.with(generate())
+                                                .evaluate(() -> storage.read(id));
+            assertThat(found).hasValue(project);
+            assertThat(foundByOther).isEmpty();
+        }
+
+        @Test
+        @DisplayName("complete the future exceptionally if the operation fails")
+        void failFuture() {
+            var context = ContextSpec.singleTenant("Async failing");
+            var storage = new StgProjectStorage(context, InMemoryStorageFactory.newInstance());
+            var async = new AsyncRecordStorageAdapter<>(storage, executor);
+            async.close();
+
+            var exception = assertThrows(CompletionException.class,
+                                         () -> async.read(generateId()).join());
+            assertThat(exception).hasCauseThat()
+                                 .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("be adapted to a blocking storage, which")
+    class AdaptToBlocking {
+
+        private StgProjectStorage storage;
+
+        @BeforeEach
+        void createStorage() {
+            var context = ContextSpec.singleTenant("Async-backed");
+            storage = new StgProjectStorage(context, new AsyncBackedStorageFactory(executor));
+        }
+
+        @Test
+        @DisplayName("reads the written records")
+        void readWritten() {
+            var id = generateId();
+            var project = newState(id);
+            storage.write(id, project);
+
+            assertThat(storage.read(id)).hasValue(project);
+        }
+
+        @Test
+        @DisplayName("executes the queries")
+        void query() {
+            var done = coupleOfDone(currentTime());
+            storage.writeBatch(done);
+            storage.write(newState(generateId()));
+            var query = RecordQuery.newBuilder(StgProjectId.class, StgProject.class)
+                                   .where(status).is(DONE.name())
+                                   .build();
+
+            var actual = ImmutableList.copyOf(storage.readAll(query));
+
+            assertThat(actual).containsExactlyElementsIn(done);
+        }
+
+        @Test
+        @DisplayName("deletes the records")
+        void delete() {
+            var id = generateId();
+            storage.write(id, newState(id));
+
+            storage.deleteAll(ImmutableList.of(id));
+
+            assertThat(storage.read(id)).isEmpty();
+        }
+    }
+}
@@ -378,6 +378,21 @@ public class RecordStorageDelegateTest
                     Sets.symmetricDifference(ids, ImmutableSet.copyOf(partOfIds));
             RecordStorageDelegateTestEnv.assertHaveIds(remainder, expectedRemainedIds);
         }
+
+        @Test
+        @DisplayName("records matching a query")
+        void recordsByQuery() {
+            var done = coupleOfDone(currentTime());
+            var created = dozenOfRecords().values();
+            storage().writeBatch(done);
+            storage().writeBatch(created);
+
+            var query = queryBuilder().where(status).is(DONE.name()).build();
+            storage().deleteAll(query);
+
+            var remainder = ImmutableList.copyOf(storage().readAll());
+            assertThat(remainder).containsExactlyElementsIn(created);
+        }
     }
 
     @Nested
@@ -457,6 +472,12 @@ public class RecordStorageDelegateTest
         void deleteAll() {
             assertISE(() -> storage().deleteAll(ImmutableList.of(newId(), newId())));
         }
+
+        @Test
+        @DisplayName("`deleteAll(RecordQuery)` method")
+        void deleteAllByQuery() {
+            assertISE(() -> storage().deleteAll(queryBuilder().build()));
+        }
     }
 
     private StgProject randomRecord() {
@@ -85,4 +85,14 @@ public abstract class RecordStorageUnderTest<I, M extends Message>
     public Iterator<M> readAll(RecordQuery<I, M> query) {
         return super.readAll(query);
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Overrides to expose this method as a part of {@code public} API.
+     */
+    @Override
+    public void deleteAll(Iterable<I> ids) {
+        super.deleteAll(ids);
+    }
 }
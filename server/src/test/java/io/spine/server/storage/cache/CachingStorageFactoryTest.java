@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.cache;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.query.RecordQuery;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.Aggregate;
+import io.spine.server.storage.cache.given.CountingStorageFactory;
+import io.spine.server.storage.given.StgProjectStorage;
+import io.spine.test.aggregate.AggProject;
+import io.spine.test.aggregate.ProjectId;
+import io.spine.test.storage.StgProject;
+import io.spine.test.storage.StgProjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static io.spine.base.Time.currentTime;
+import static io.spine.server.storage.given.GivenStorageProject.newState;
+import static io.spine.server.storage.given.RecordStorageDelegateTestEnv.coupleOfDone;
+import static io.spine.server.storage.given.RecordStorageDelegateTestEnv.generateId;
+import static io.spine.server.storage.given.StgColumn.status;
+import static io.spine.test.storage.StgProject.Status.DONE;
+
+@DisplayName("`CachingStorageFactory` should")
+class CachingStorageFactoryTest {
+
+    private static final ContextSpec CONTEXT = ContextSpec.singleTenant("Caching");
+
+    private CountingStorageFactory backingFactory;
+    private StgProjectStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        backingFactory = new CountingStorageFactory();
+        storage = new StgProjectStorage(CONTEXT, CachingStorageFactory.wrap(backingFactory));
+    }
+
+    @Test
+    @DisplayName("not wrap the caching factory twice")
+    void notWrapTwice() {
+        var factory = CachingStorageFactory.wrap(backingFactory);
+        assertThat(CachingStorageFactory.wrap(factory)).isSameInstanceAs(factory);
+    }
+
+    @Test
+    @DisplayName("serve the repeated reads by ID from the cache")
+    void cacheReadsById() {
+        var id = generateId();
+        var project = newState(id);
+        storage.write(id, project);
+
+        assertThat(storage.read(id)).hasValue(project);
+        assertThat(storage.read(id)).hasValue(project);
+        assertThat(backingFactory.reads()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("cache the absence of a record")
+    void cacheAbsence() {
+        var id = generateId();
+
+        assertThat(storage.read(id)).isEmpty();
+        assertThat(storage.read(id)).isEmpty();
+        assertThat(backingFactory.reads()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("not return the deleted records")
+    void notReturnDeleted() {
+        var id = generateId();
+        storage.write(id, newState(id));
+        assertThat(storage.read(id)).isPresent();
+
+        storage.deleteAll(ImmutableList.of(id));
+        assertThat(storage.read(id)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("return the records read by IDs in the order of the IDs")
+    void keepOrderOfIds() {
+        var factory = CachingStorageFactory.newBuilder(backingFactory)
+                                           .setMaximumSize(1)
+                                           .build();
+        var storage = new StgProjectStorage(CONTEXT, factory);
+        var first = newState(generateId());
+        var second = newState(generateId());
+        var third = newState(generateId());
+        storage.writeBatch(ImmutableList.of(first, second, third));
+
+        // Only the second record is cached now, so the rest are read from the backing storage.
+        storage.read(second.getId());
+        var query = RecordQuery.newBuilder(StgProjectId.class, StgProject.class)
+                               .id().in(first.getId(), second.getId(), third.getId())
+                               .build();
+
+        var actual = ImmutableList.copyOf(storage.readAll(query));
+
+        assertThat(actual).containsExactly(first, second, third)
+                          .inOrder();
+    }
+
+    @Test
+    @DisplayName("let the wrapped factory create the storages other than record storages")
+    void delegateOtherStorages() {
+        var factory = CachingStorageFactory.wrap(backingFactory);
+
+        var aggregateStorage = factory.createAggregateStorage(CONTEXT, ProjectAggregate.class);
+
+        assertThat(aggregateStorage).isNotNull();
+        assertThat(backingFactory.aggregateStorages()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("pass the queries by columns to the underlying storage")
+    void passQueries() {
+        var done = coupleOfDone(currentTime());
+        storage.writeBatch(done);
+        var query = RecordQuery.newBuilder(StgProjectId.class, StgProject.class)
+                               .where(status).is(DONE.name())
+                               .build();
+
+        var actual = ImmutableList.copyOf(storage.readAll(query));
+
+        assertThat(actual).containsExactlyElementsIn(done);
+        assertThat(backingFactory.reads()).isEqualTo(1);
+    }
+
+    private static final class ProjectAggregate
+            extends Aggregate<ProjectId, AggProject, AggProject.Builder> {
+
+        private ProjectAggregate(ProjectId id) {
+            super(id);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.cache.given;
+
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.Message;
+import io.spine.base.EntityState;
+import io.spine.query.RecordQuery;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.Aggregate;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.storage.RecordSpec;
+import io.spine.server.storage.RecordStorage;
+import io.spine.server.storage.RecordStorageDelegate;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@code StorageFactory} creating the in-memory storages, which count the reads.
+ *
+ * <p>Also counts the created aggregate storages.
+ */
+public final class CountingStorageFactory implements StorageFactory {
+
+    private final StorageFactory delegate = InMemoryStorageFactory.newInstance();
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger aggregateStorages = new AtomicInteger();
+
+    /**
+     * Returns the number of reads performed by all the storages created by this factory.
+     */
+    public int reads() {
+        return reads.get();
+    }
+
+    /**
+     * Returns the number of the aggregate storages created by this factory.
+     */
+    public int aggregateStorages() {
+        return aggregateStorages.get();
+    }
+
+    @Override
+    public <I, S extends EntityState<I>> AggregateStorage<I, S>
+    createAggregateStorage(ContextSpec context,
+                           Class<? extends Aggregate<I, S, ?>> aggregateCls) {
+        aggregateStorages.incrementAndGet();
+        return new AggregateStorage<>(context, aggregateCls, this);
+    }
+
+    @Override
+    public <I, M extends Message> RecordStorage<I, M>
+    createRecordStorage(ContextSpec context, RecordSpec<I, M, ?> recordSpec) {
+        var storage = delegate.createRecordStorage(context, recordSpec);
+        return new CountingStorage<>(context, storage);
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+
+    private final class CountingStorage<I, M extends Message> extends RecordStorageDelegate<I, M> {
+
+        private CountingStorage(ContextSpec context, RecordStorage<I, M> delegate) {
+            super(context, delegate);
+        }
+
+        @Override
+        public Optional<M> read(I id) {
+            reads.incrementAndGet();
+            return super.read(id);
+        }
+
+        @Override
+        protected Optional<M> read(I id, FieldMask mask) {
+            reads.incrementAndGet();
+            return super.read(id, mask);
+        }
+
+        @Override
+        protected Iterator<M> readAll(Iterable<I> ids) {
+            reads.incrementAndGet();
+            return super.readAll(ids);
+        }
+
+        @Override
+        protected Iterator<M> readAll(Iterable<I> ids, FieldMask mask) {
+            reads.incrementAndGet();
+            return super.readAll(ids, mask);
+        }
+
+        @Override
+        protected Iterator<M> readAll(RecordQuery<I, M> query) {
+            reads.incrementAndGet();
+            return super.readAll(query);
+        }
+    }
+}
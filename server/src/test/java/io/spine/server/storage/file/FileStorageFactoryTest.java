@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.file;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.query.RecordQuery;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.Aggregate;
+import io.spine.server.aggregate.AggregateEventRecord;
+import io.spine.server.aggregate.AggregateHistory;
+import io.spine.server.storage.given.StgProjectStorage;
+import io.spine.test.aggregate.AggProject;
+import io.spine.test.aggregate.ProjectId;
+import io.spine.test.storage.StgProject;
+import io.spine.test.storage.StgProjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static io.spine.base.Time.currentTime;
+import static io.spine.server.aggregate.given.StorageRecords.sequenceFor;
+import static io.spine.server.storage.given.RecordStorageDelegateTestEnv.coupleOfDone;
+import static io.spine.server.storage.given.RecordStorageDelegateTestEnv.dozenOfRecords;
+import static io.spine.server.storage.given.StgColumn.status;
+import static io.spine.test.storage.StgProject.Status.DONE;
+import static java.util.stream.Collectors.toList;
+
+@DisplayName("`FileStorageFactory` should")
+class FileStorageFactoryTest {
+
+    private static final ContextSpec CONTEXT = ContextSpec.singleTenant("Files");
+
+    @TempDir
+    Path directory;
+
+    private FileStorageFactory factory;
+
+    @AfterEach
+    void closeFactory() {
+        factory.close();
+    }
+
+    @Test
+    @DisplayName("keep the records after it is reopened")
+    void keepRecords() {
+        var records = dozenOfRecords();
+        var storage = newStorage(4 * 1024);
+        storage.writeBatch(records.values());
+        reopen();
+
+        var reopened = newStorage(4 * 1024);
+        var actual = ImmutableList.copyOf(reopened.readAll());
+        assertThat(actual).containsExactlyElementsIn(records.values());
+    }
+
+    @Test
+    @DisplayName("query the reloaded records by their columns")
+    void queryByColumns() {
+        var done = coupleOfDone(currentTime());
+        var storage = newStorage(FileStorageFactory.DEFAULT_MEMTABLE_LIMIT);
+        storage.writeBatch(done);
+        storage.writeBatch(dozenOfRecords().values());
+        reopen();
+
+        var reopened = newStorage(FileStorageFactory.DEFAULT_MEMTABLE_LIMIT);
+        var query = RecordQuery.newBuilder(StgProjectId.class, StgProject.class)
+                               .where(status).is(DONE.name())
+                               .build();
+        var actual = ImmutableList.copyOf(reopened.readAll(query));
+        assertThat(actual).containsExactlyElementsIn(done);
+    }
+
+    @Test
+    @DisplayName("not restore the deleted records")
+    void notRestoreDeleted() {
+        var records = dozenOfRecords();
+        var storage = newStorage(1024);
+        storage.writeBatch(records.values());
+        var deleted = records.keySet()
+                             .iterator()
+                             .next();
+        storage.deleteAll(ImmutableList.of(deleted));
+        reopen();
+
+        var reopened = newStorage(1024);
+        assertThat(reopened.read(deleted)).isEmpty();
+        assertThat(ImmutableList.copyOf(reopened.readAll())).hasSize(records.size() - 1);
+    }
+
+    @Test
+    @DisplayName("keep apart the events of aggregates of different classes with the same ID")
+    void separateAggregates() {
+        newFactory(FileStorageFactory.DEFAULT_MEMTABLE_LIMIT);
+        var first = factory.createAggregateStorage(CONTEXT, FirstAggregate.class);
+        var second = factory.createAggregateStorage(CONTEXT, SecondAggregate.class);
+        var id = ProjectId.generate();
+        first.write(id, historyOf(id));
+
+        assertThat(second.read(id)).isEmpty();
+        reopen();
+
+        newFactory(FileStorageFactory.DEFAULT_MEMTABLE_LIMIT);
+        var reopenedFirst = factory.createAggregateStorage(CONTEXT, FirstAggregate.class);
+        var reopenedSecond = factory.createAggregateStorage(CONTEXT, SecondAggregate.class);
+        assertThat(reopenedFirst.read(id)).isPresent();
+        assertThat(reopenedSecond.read(id)).isEmpty();
+    }
+
+    private static AggregateHistory historyOf(ProjectId id) {
+        var events = sequenceFor(id).stream()
+                                    .map(AggregateEventRecord::getEvent)
+                                    .collect(toList());
+        return AggregateHistory.newBuilder()
+                               .addAllEvent(events)
+                               .build();
+    }
+
+    private StgProjectStorage newStorage(long memtableLimit) {
+        newFactory(memtableLimit);
+        return new StgProjectStorage(CONTEXT, factory);
+    }
+
+    private void newFactory(long memtableLimit) {
+        factory = FileStorageFactory.newBuilder()
+                                    .setDirectory(directory)
+                                    .setMemtableLimit(memtableLimit)
+                                    .setMaxSegments(2)
+                                    .setSyncWrites(false)
+                                    .build();
+    }
+
+    private void reopen() {
+        factory.close();
+    }
+
+    private static final class FirstAggregate
+            extends Aggregate<ProjectId, AggProject, AggProject.Builder> {
+
+        private FirstAggregate(ProjectId id) {
+            super(id);
+        }
+    }
+
+    private static final class SecondAggregate
+            extends Aggregate<ProjectId, AggProject, AggProject.Builder> {
+
+        private SecondAggregate(ProjectId id) {
+            super(id);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.file;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`LogStore` should")
+class LogStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("read the latest values from the segments and the log")
+    void readLatest() {
+        try (var store = open()) {
+            for (var i = 0; i < 100; i++) {
+                put(store, "key-" + (i % 10), "value-" + i);
+            }
+            delete(store, "key-0");
+
+            var contents = contents(store);
+            assertThat(contents).containsEntry(bytes("key-9"), bytes("value-99"));
+            assertThat(contents).doesNotContainKey(bytes("key-0"));
+            assertThat(contents).hasSize(9);
+        }
+    }
+
+    @Test
+    @DisplayName("compact the segments")
+    void compact() throws IOException {
+        try (var store = open()) {
+            for (var i = 0; i < 100; i++) {
+                put(store, "key-" + (i % 10), "value-" + i);
+            }
+        }
+        try (var listing = Files.list(directory)) {
+            var segments = listing.filter(f -> Segment.sequenceOf(f).isPresent())
+                                  .count();
+            assertThat(segments).isAtMost(3);
+        }
+        try (var reopened = open()) {
+            assertThat(contents(reopened)).hasSize(10);
+            assertThat(contents(reopened)).containsEntry(bytes("key-5"), bytes("value-95"));
+        }
+    }
+
+    @Test
+    @DisplayName("discard an incomplete entry at the end of the log")
+    void discardIncompleteEntry() throws IOException {
+        // The store is not closed to emulate the process stopping in the middle of a write.
+        var store = open();
+        put(store, "complete", "value");
+        Files.write(directory.resolve("current.log"), new byte[]{0, 0, 0, 8, 1, 2}, APPEND);
+        try (var reopened = LogStore.open(directory, Long.MAX_VALUE, 2, false)) {
+            assertThat(contents(reopened)).containsExactly(bytes("complete"), bytes("value"));
+            put(reopened, "next", "value");
+        }
+        try (var reopened = open()) {
+            assertThat(contents(reopened)).hasSize(2);
+        }
+    }
+
+    @Test
+    @DisplayName("keep the entries written after a failed append")
+    void keepEntriesAfterFailedAppend() throws IOException {
+        var channel = new AtomicReference<TornWriteChannel>();
+        // The store is not closed, so that its log is replayed upon reopening.
+        var store = LogStore.open(directory, Long.MAX_VALUE, 2, false, file -> {
+            var result = new TornWriteChannel(FileChannel.open(file, CREATE, READ, WRITE));
+            channel.set(result);
+            return result;
+        });
+        put(store, "first", "value");
+        channel.get()
+               .failNextWrite();
+        assertThrows(IllegalStateException.class, () -> put(store, "torn", "value"));
+        put(store, "second", "value");
+
+        try (var reopened = LogStore.open(directory, Long.MAX_VALUE, 2, false)) {
+            assertThat(contents(reopened).keySet())
+                    .containsExactly(bytes("first"), bytes("second"));
+        }
+    }
+
+    private LogStore open() {
+        return LogStore.open(directory, 64, 2, false);
+    }
+
+    private static void put(LogStore store, String key, String value) {
+        store.write(ImmutableList.of(LogEntry.put(bytes(key), bytes(value))));
+    }
+
+    private static void delete(LogStore store, String key) {
+        store.write(ImmutableList.of(LogEntry.delete(bytes(key))));
+    }
+
+    private static Map<ByteString, ByteString> contents(LogStore store) {
+        Map<ByteString, ByteString> result = new LinkedHashMap<>();
+        store.forEach(result::put);
+        return result;
+    }
+
+    private static ByteString bytes(String value) {
+        return ByteString.copyFromUtf8(value);
+    }
+
+    /**
+     * A file channel which writes only a part of the passed bytes and fails,
+     * when {@linkplain #failNextWrite() asked to}.
+     */
+    private static final class TornWriteChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private boolean failNextWrite;
+
+        private TornWriteChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        private void failNextWrite() {
+            failNextWrite = true;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!failNextWrite) {
+                return delegate.write(src);
+            }
+            failNextWrite = false;
+            var part = src.duplicate();
+            part.limit(src.position() + src.remaining() / 2);
+            var written = delegate.write(part);
+            src.position(src.position() + written);
+            throw new IOException("No space left on the device.");
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target)
+                throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count)
+                throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
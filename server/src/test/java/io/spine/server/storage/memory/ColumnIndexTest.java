@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import io.spine.query.ColumnName;
+import io.spine.query.ComparisonOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static io.spine.query.ComparisonOperator.EQUALS;
+import static io.spine.query.ComparisonOperator.GREATER_THAN;
+import static io.spine.query.ComparisonOperator.LESS_OR_EQUALS;
+
+@DisplayName("`ColumnIndex` should")
+class ColumnIndexTest {
+
+    private ColumnIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ColumnIndex<>(ColumnName.of("number"));
+        index.add("one", 1);
+        index.add("two", 2);
+        index.add("another-two", 2);
+        index.add("three", 3);
+        index.add("nothing", null);
+    }
+
+    @Test
+    @DisplayName("find records by equality")
+    void findByEquality() {
+        assertThat(candidates(EQUALS, 2)).containsExactly("two", "another-two");
+        assertThat(index.countEqualTo(2)).isEqualTo(2);
+        assertThat(candidates(EQUALS, 42)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("find a superset of records by range")
+    void findByRange() {
+        assertThat(candidates(GREATER_THAN, 2)).containsExactly("two", "another-two", "three");
+        assertThat(candidates(LESS_OR_EQUALS, 1)).containsExactly("one");
+    }
+
+    @Test
+    @DisplayName("not find removed records")
+    void notFindRemoved() {
+        index.remove("two", 2);
+        assertThat(candidates(EQUALS, 2)).containsExactly("another-two");
+        assertThat(candidates(GREATER_THAN, 2)).containsExactly("another-two", "three");
+    }
+
+    @Test
+    @DisplayName("not serve values of a different type")
+    void notServeOtherTypes() {
+        assertThat(index.candidates(EQUALS, "2")).isEmpty();
+        assertThat(index.candidates(GREATER_THAN, 2L)).isEmpty();
+    }
+
+    private Iterable<String> candidates(ComparisonOperator operator, Object value) {
+        var result = index.candidates(operator, value);
+        assertThat(result).isPresent();
+        return result.get();
+    }
+}
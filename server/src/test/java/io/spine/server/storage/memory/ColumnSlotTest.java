@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.StringValue;
+import io.spine.query.ColumnName;
+import io.spine.server.storage.RecordWithColumns;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`ColumnSlot` should")
+class ColumnSlotTest {
+
+    private static final ColumnName number = ColumnName.of("number");
+    private static final ColumnName name = ColumnName.of("name");
+
+    private final ColumnSlot slot = new ColumnSlot(number);
+
+    @Test
+    @DisplayName("resolve the slot for the layout of each record")
+    void resolvePerLayout() {
+        var first = record(ImmutableMap.of(number, 1, name, "first"));
+        var second = record(ImmutableMap.of(name, "second", number, 2));
+
+        assertThat(slot.valueIn(first)).isEqualTo(1);
+        assertThat(slot.valueIn(second)).isEqualTo(2);
+        assertThat(slot.valueIn(first)).isEqualTo(1);
+        assertThat(slot.in(second)).isEqualTo(second.layout()
+                                                    .slotOf(number));
+    }
+
+    @Test
+    @DisplayName("tell that a record has no such column")
+    void missingColumn() {
+        var record = record(ImmutableMap.of(name, "no number"));
+
+        assertThat(slot.in(record)).isEqualTo(-1);
+        assertThrows(IllegalStateException.class, () -> slot.valueIn(record));
+    }
+
+    private static RecordWithColumns<String, StringValue>
+    record(ImmutableMap<ColumnName, Object> columns) {
+        var id = String.valueOf(columns.get(name));
+        return RecordWithColumns.of(id, StringValue.of(id), columns);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.Value;
+import io.spine.core.Version;
+import io.spine.test.storage.StgProject;
+import io.spine.test.storage.StgProjectId;
+import io.spine.test.storage.StgTask;
+import io.spine.test.storage.StgTaskId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.base.Time.currentTime;
+import static io.spine.protobuf.AnyPacker.pack;
+import static io.spine.protobuf.AnyPacker.unpack;
+import static io.spine.server.entity.FieldMasks.applyMask;
+import static io.spine.server.storage.memory.FieldMaskProjector.of;
+
+@DisplayName("`FieldMaskProjector` should")
+class FieldMaskProjectorTest {
+
+    private static final StgProject project = StgProject.newBuilder()
+            .setId(StgProjectId.newBuilder().setId("projector-test"))
+            .setName("Projector test")
+            .addTask(task(1))
+            .addTask(task(2))
+            .setStatus(StgProject.Status.STARTED)
+            .setInternal(true)
+            .setProjectVersion(Version.newBuilder()
+                                      .setNumber(42)
+                                      .setTimestamp(currentTime()))
+            .setDueDate(currentTime())
+            .build();
+
+    private static StgTask task(int id) {
+        return StgTask.newBuilder()
+                .setTaskId(StgTaskId.newBuilder().setId(id))
+                .setTitle("Task " + id)
+                .build();
+    }
+
+    private static FieldMask mask(String paths) {
+        return FieldMask.newBuilder()
+                .addAllPaths(List.of(paths.split(",")))
+                .build();
+    }
+
+    @ParameterizedTest(name = "for paths `{0}`")
+    @ValueSource(strings = {
+            "name",
+            "name,task,status",
+            "id.id,project_version.number",
+            "due_date,due_date.seconds",
+            "project_version.number,project_version",
+            "task.title,unknown,name.length",
+            "internal,project_version.timestamp.nanos"
+    })
+    @DisplayName("select the same fields as `applyMask`")
+    void sameAsApplyMask(String paths) {
+        var mask = mask(paths);
+        var projector = of(StgProject.getDefaultInstance(), mask);
+
+        var expected = applyMask(mask, project);
+        assertThat(projector.project(project)).isEqualTo(expected);
+
+        var packed = pack(project);
+        var projected = projector.project(packed);
+        assertThat(projected.getTypeUrl()).isEqualTo(packed.getTypeUrl());
+        assertThat(unpack(projected)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("project the packed messages at the wire level")
+    void wireLevel() {
+        var projector = of(StgProject.getDefaultInstance(), mask("name,project_version.number"));
+        assertThat(projector.projectsWireLevel()).isTrue();
+    }
+
+    @Test
+    @DisplayName("parse the packed messages if a field with explicit presence is selected")
+    void parseForPresence() {
+        var mask = mask("number_value");
+        var projector = of(Value.getDefaultInstance(), mask);
+        assertThat(projector.projectsWireLevel()).isFalse();
+
+        var value = Value.newBuilder()
+                .setStringValue("not a number")
+                .build();
+        var projected = projector.project(pack(value));
+        assertThat(unpack(projected)).isEqualTo(applyMask(mask, value));
+    }
+
+    @Test
+    @DisplayName("be cached per message type and mask")
+    void cached() {
+        var first = of(StgProject.getDefaultInstance(), mask("name"));
+        var second = of(StgProject.getDefaultInstance(), mask("name"));
+        assertThat(second).isSameInstanceAs(first);
+    }
+}
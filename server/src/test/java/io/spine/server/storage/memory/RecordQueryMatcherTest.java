@@ -44,6 +44,7 @@ import java.util.Map;
 import static io.spine.server.storage.memory.given.RecordQueryMatcherTestEnv.anyColumn;
 import static io.spine.server.storage.memory.given.RecordQueryMatcherTestEnv.anyValue;
 import static io.spine.server.storage.memory.given.RecordQueryMatcherTestEnv.booleanColumn;
+import static io.spine.server.storage.memory.given.RecordQueryMatcherTestEnv.intColumn;
 import static io.spine.server.storage.memory.given.RecordQueryMatcherTestEnv.recordSubject;
 import static io.spine.testing.TestValues.nullRef;
 import static java.util.Collections.singletonMap;
@@ -127,6 +128,39 @@ class RecordQueryMatcherTest {
         assertFalse(matcher.test(recordWithColumns));
     }
 
+    @Test
+    @DisplayName("match columns by range")
+    void matchRange() {
+        var column = intColumn();
+        var query = newBuilder().where(column).isGreaterThan(10)
+                                .where(column).isLessOrEqualTo(20)
+                                .build();
+        var matcher = new RecordQueryMatcher<>(query);
+
+        assertTrue(matcher.test(withVersion(column.name(), 20)));
+        assertFalse(matcher.test(withVersion(column.name(), 10)));
+        assertFalse(matcher.test(withVersion(column.name(), 21)));
+    }
+
+    @Test
+    @DisplayName("match either of the alternatives")
+    void matchEither() {
+        var column = intColumn();
+        var query = newBuilder().either(q -> q.where(column).isLessThan(0),
+                                        q -> q.where(column).is(42))
+                                .build();
+        var matcher = new RecordQueryMatcher<>(query);
+
+        assertTrue(matcher.test(withVersion(column.name(), -1)));
+        assertTrue(matcher.test(withVersion(column.name(), 42)));
+        assertFalse(matcher.test(withVersion(column.name(), 0)));
+    }
+
+    private static EntityRecordWithColumns<Object> withVersion(ColumnName column, int value) {
+        Map<ColumnName, Object> columns = singletonMap(column, value);
+        return EntityRecordWithColumns.of(sampleEntityRecord(), columns);
+    }
+
     private static RecordQueryBuilder<Object, EntityRecord> newBuilder() {
         return RecordQuery.newBuilder(Object.class, EntityRecord.class);
     }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import io.spine.base.Identifier;
+import io.spine.query.ColumnName;
+import io.spine.query.RecordQuery;
+import io.spine.server.entity.EntityRecord;
+import io.spine.server.entity.storage.EntityRecordWithColumns;
+import io.spine.server.storage.RecordWithColumns;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.server.storage.memory.given.RecordQueryMatcherTestEnv.booleanColumn;
+import static io.spine.server.storage.memory.given.RecordQueryMatcherTestEnv.intColumn;
+import static java.util.stream.Collectors.toList;
+
+@DisplayName("`SortedSelection` should")
+class SortedSelectionTest {
+
+    private static final ColumnName NUMBER = intColumn().name();
+    private static final ColumnName FLAG = booleanColumn().name();
+
+    @Test
+    @DisplayName("sort all the records if there is no limit")
+    void sortAll() {
+        var records = shuffled(10);
+        var selection = descendingByNumber();
+
+        var result = selection.select(records.iterator(), null);
+
+        assertThat(numbers(result)).containsExactly(9, 8, 7, 6, 5, 4, 3, 2, 1, 0)
+                                   .inOrder();
+    }
+
+    @Test
+    @DisplayName("select only the first records in the sorted order")
+    void selectTop() {
+        var records = shuffled(100);
+        var selection = descendingByNumber();
+
+        var result = selection.select(records.iterator(), 3);
+
+        assertThat(numbers(result)).containsExactly(99, 98, 97)
+                                   .inOrder();
+    }
+
+    @Test
+    @DisplayName("put `null` values first in the ascending order")
+    void nullsFirst() {
+        var query = RecordQuery.newBuilder(Object.class, EntityRecord.class)
+                               .sortAscendingBy(intColumn())
+                               .build();
+        var selection = new SortedSelection<>(query.sorting());
+        var records = List.of(record(2, true), record(null, true), record(1, true));
+
+        var result = selection.select(records.iterator(), 2);
+
+        assertThat(numbers(result)).containsExactly(null, 1)
+                                   .inOrder();
+    }
+
+    @Test
+    @DisplayName("keep the original order of the records with equal sorting values")
+    void stable() {
+        var query = RecordQuery.newBuilder(Object.class, EntityRecord.class)
+                               .sortAscendingBy(booleanColumn())
+                               .build();
+        var selection = new SortedSelection<>(query.sorting());
+        var records = List.of(record(1, true), record(2, false), record(3, true),
+                              record(4, false), record(5, true));
+
+        var result = selection.select(records.iterator(), 4);
+
+        assertThat(numbers(result)).containsExactly(2, 4, 1, 3)
+                                   .inOrder();
+    }
+
+    private static SortedSelection<Object, EntityRecord> descendingByNumber() {
+        var query = RecordQuery.newBuilder(Object.class, EntityRecord.class)
+                               .sortDescendingBy(intColumn())
+                               .build();
+        return new SortedSelection<>(query.sorting());
+    }
+
+    private static List<RecordWithColumns<Object, EntityRecord>> shuffled(int count) {
+        List<RecordWithColumns<Object, EntityRecord>> result = new ArrayList<>();
+        for (var i = 0; i < count; i++) {
+            result.add(record(i, true));
+        }
+        Collections.shuffle(result, new Random(42));
+        return result;
+    }
+
+    private static RecordWithColumns<Object, EntityRecord>
+    record(@Nullable Integer number, boolean flag) {
+        var record = EntityRecord.newBuilder()
+                .setEntityId(Identifier.pack(Identifier.newUuid()))
+                .build();
+        var columns = new HashMap<ColumnName, Object>();
+        columns.put(NUMBER, number);
+        columns.put(FLAG, flag);
+        return EntityRecordWithColumns.of(record, columns);
+    }
+
+    private static List<@Nullable Object>
+    numbers(List<RecordWithColumns<Object, EntityRecord>> records) {
+        return records.stream()
+                      .map(r -> r.columnValue(NUMBER))
+                      .collect(toList());
+    }
+}
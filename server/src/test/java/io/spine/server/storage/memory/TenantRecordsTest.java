@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.server.storage.memory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.spine.base.Identifier;
+import io.spine.query.RecordQuery;
+import io.spine.server.entity.EntityRecord;
+import io.spine.server.entity.storage.EntityRecordWithColumns;
+import io.spine.server.storage.RecordWithColumns;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.server.storage.memory.given.RecordQueryMatcherTestEnv.intColumn;
+
+@DisplayName("`TenantRecords` should")
+class TenantRecordsTest {
+
+    @Test
+    @DisplayName("find the record by an indexed column while it is being modified")
+    void readWhileModifying() throws InterruptedException {
+        var column = intColumn();
+        var records = new TenantRecords<Object, EntityRecord>(ImmutableList.of(column.name()));
+        var record = EntityRecord.newBuilder()
+                .setEntityId(Identifier.pack(Identifier.newUuid()))
+                .build();
+        var id = Identifier.unpack(record.getEntityId());
+        records.put(id, withVersion(record, 1));
+
+        var stopped = new AtomicBoolean();
+        var writer = new Thread(() -> {
+            var version = 1;
+            while (!stopped.get()) {
+                version = version == 1 ? 2 : 1;
+                records.put(id, withVersion(record, version));
+            }
+        });
+        writer.start();
+        try {
+            var query = RecordQuery.newBuilder(Object.class, EntityRecord.class)
+                                   .where(column).isGreaterOrEqualTo(1)
+                                   .build();
+            for (var i = 0; i < 10_000; i++) {
+                assertThat(newArrayList(records.index(query))).containsExactly(id);
+            }
+        } finally {
+            stopped.set(true);
+            writer.join();
+        }
+    }
+
+    private static RecordWithColumns<Object, EntityRecord>
+    withVersion(EntityRecord record, int version) {
+        return EntityRecordWithColumns.of(record, ImmutableMap.of(intColumn().name(), version));
+    }
+}
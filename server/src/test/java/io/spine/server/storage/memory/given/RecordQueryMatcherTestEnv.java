@@ -111,4 +111,11 @@ public final class RecordQueryMatcherTestEnv {
     private static boolean booleanValue() {
         return true;
     }
+
+    /**
+     * A {@code Column} which holds an {@code int} value.
+     */
+    public static RecordColumn<EntityRecord, Integer> intColumn() {
+        return create("version_number", Integer.class, (r) -> 0);
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.system.server;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.core.Event;
+import io.spine.test.event.ProjectCreated;
+import io.spine.test.event.ProjectId;
+import io.spine.testing.server.TestEventFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.base.Identifier.newUuid;
+import static java.util.stream.Collectors.toList;
+
+@DisplayName("`SystemEventQueue` should")
+class SystemEventQueueTest {
+
+    private static final int CAPACITY = 64;
+    private static final int WORKERS = 4;
+    private static final int MAX_BATCH = 8;
+
+    private final List<List<Event>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    @DisplayName("post all the events before closing")
+    void postAllEvents() {
+        var spec = new PostingQueueSpec(CAPACITY, WORKERS, MAX_BATCH, Thread::new);
+        var queue = new SystemEventQueue(spec, batches::add);
+        var events = eventsOf(newProducer(), 100);
+        events.forEach(queue::put);
+        queue.close();
+
+        var posted = posted();
+        assertThat(posted).containsExactlyElementsIn(events);
+        var metrics = spec.metrics();
+        assertThat(metrics.postedEvents()).isEqualTo(events.size());
+        assertThat(metrics.queueDepth()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("preserve the order of events produced by the same entity")
+    void preserveOrder() {
+        var spec = new PostingQueueSpec(CAPACITY, WORKERS, MAX_BATCH, Thread::new);
+        var queue = new SystemEventQueue(spec, batches::add);
+        var first = eventsOf(newProducer(), 50);
+        var second = eventsOf(newProducer(), 50);
+        for (var i = 0; i < first.size(); i++) {
+            queue.put(first.get(i));
+            queue.put(second.get(i));
+        }
+        queue.close();
+
+        var posted = posted();
+        assertThat(posted.stream()
+                         .filter(first::contains)
+                         .collect(toList()))
+                .containsExactlyElementsIn(first)
+                .inOrder();
+        assertThat(posted.stream()
+                         .filter(second::contains)
+                         .collect(toList()))
+                .containsExactlyElementsIn(second)
+                .inOrder();
+    }
+
+    @Test
+    @DisplayName("not exceed the maximum batch size")
+    void limitBatchSize() {
+        var spec = new PostingQueueSpec(CAPACITY, 1, MAX_BATCH, Thread::new);
+        var queue = new SystemEventQueue(spec, batches::add);
+        eventsOf(newProducer(), 100).forEach(queue::put);
+        queue.close();
+
+        batches.forEach(batch -> assertThat(batch.size()).isAtMost(MAX_BATCH));
+        assertThat(spec.metrics()
+                       .postedBatches()).isEqualTo(batches.size());
+    }
+
+    @Test
+    @DisplayName("not lose the events put while closing")
+    void notLoseEventsOnClose() throws InterruptedException {
+        var spec = new PostingQueueSpec(CAPACITY, WORKERS, MAX_BATCH, Thread::new);
+        var queue = new SystemEventQueue(spec, batches::add);
+        var events = eventsOf(newProducer(), 1_000);
+        var start = new CountDownLatch(1);
+        var producer = new Thread(() -> {
+            start.countDown();
+            events.forEach(queue::put);
+        });
+        producer.start();
+        start.await();
+        queue.close();
+        producer.join();
+
+        assertThat(posted()).containsExactlyElementsIn(events)
+                            .inOrder();
+        var metrics = spec.metrics();
+        assertThat(metrics.queueDepth()).isEqualTo(0);
+        assertThat(metrics.postedEvents() + metrics.postedAfterClose())
+                .isEqualTo(events.size());
+    }
+
+    private ImmutableList<Event> posted() {
+        return batches.stream()
+                      .flatMap(List::stream)
+                      .collect(ImmutableList.toImmutableList());
+    }
+
+    private static ProjectId newProducer() {
+        return ProjectId.newBuilder()
+                        .setId(newUuid())
+                        .build();
+    }
+
+    private static ImmutableList<Event> eventsOf(ProjectId producer, int count) {
+        var factory = TestEventFactory.newInstance(producer, SystemEventQueueTest.class);
+        var result = ImmutableList.<Event>builder();
+        for (var i = 0; i < count; i++) {
+            var message = ProjectCreated.newBuilder()
+                                        .setProjectId(producer)
+                                        .build();
+            result.add(factory.createEvent(message));
+        }
+        return result.build();
+    }
+}
@@ -167,6 +167,25 @@ class SystemSettingsTest {
                 settings.useDefaultPostingExecutor();
                 assertDefaultExecutor(settings);
             }
+
+            @Test
+            @DisplayName("through the bounded posting queue")
+            void usingPostingQueue() {
+                env.setTo(DefaultMode.class);
+                var settings = SystemSettings.defaults();
+                assumeTrue(settings.postEventsInParallel());
+                assertFalse(settings.postingQueueMetrics().isPresent());
+
+                settings.usePostingQueue(1024, 2, 100);
+                var config = settings.freeze();
+                assertTrue(config.usePostingQueue());
+                assertTrue(config.postEventsInParallel());
+                assertTrue(settings.postingQueueMetrics().isPresent());
+
+                settings.useDefaultPostingExecutor();
+                assertFalse(settings.freeze().usePostingQueue());
+                assertFalse(settings.postingQueueMetrics().isPresent());
+            }
         }
     }
 
@@ -186,6 +205,18 @@ class SystemSettingsTest {
                     () -> settings.useCustomPostingExecutor(executor)
             );
         }
+
+        @Test
+        @DisplayName("when parallel posting is disabled and the posting queue is requested")
+        void queueWhenParallelPostingDisabled() {
+            env.setTo(Tests.class);
+            var settings = SystemSettings.defaults();
+            assertFalse(settings.postEventsInParallel());
+            assertThrowsExactly(
+                    IllegalStateException.class,
+                    () -> settings.usePostingQueue(1024, 2, 100)
+            );
+        }
     }
 
     private static void assertDefaultExecutor(SystemSettings settings) {